@@ -18,14 +18,15 @@ package org.jclouds.ec2.compute.extensions;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Predicates.notNull;
-import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterables.transform;
+import static org.jclouds.ec2.compute.util.EC2ComputeUtils.listInRegionsParallel;
 
 import java.util.NoSuchElementException;
 import java.util.Set;
 
+import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -36,6 +37,7 @@ import org.jclouds.compute.domain.SecurityGroup;
 import org.jclouds.compute.extensions.SecurityGroupExtension;
 import org.jclouds.compute.functions.GroupNamingConvention;
 import org.jclouds.compute.functions.GroupNamingConvention.Factory;
+import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.domain.Location;
 import org.jclouds.ec2.EC2Api;
 import org.jclouds.ec2.compute.domain.RegionAndName;
@@ -43,6 +45,7 @@ import org.jclouds.ec2.compute.domain.RegionNameAndIngressRules;
 import org.jclouds.ec2.domain.RunningInstance;
 import org.jclouds.ec2.domain.UserIdGroupPair;
 import org.jclouds.location.Region;
+import org.jclouds.logging.Logger;
 import org.jclouds.net.domain.IpPermission;
 import org.jclouds.net.domain.IpProtocol;
 
@@ -61,6 +64,17 @@ import com.google.common.util.concurrent.ListeningExecutorService;
  */
 public class EC2SecurityGroupExtension implements SecurityGroupExtension {
 
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   /**
+    * How long to wait for each region before listing the others without it.
+    */
+   @com.google.inject.Inject(optional = true)
+   @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
+   protected Long maxTime;
+
    protected final EC2Api client;
    protected final ListeningExecutorService userExecutor;
    protected final Supplier<Set<String>> regions;
@@ -337,10 +351,8 @@ public class EC2SecurityGroupExtension implements SecurityGroupExtension {
    }
 
    protected Iterable<? extends org.jclouds.ec2.domain.SecurityGroup> pollSecurityGroups() {
-      Iterable<? extends Set<? extends org.jclouds.ec2.domain.SecurityGroup>> groups
-         = transform(regions.get(), allSecurityGroupsInRegion());
-
-      return concat(groups);
+      return listInRegionsParallel(regions.get(), allSecurityGroupsInRegion(), userExecutor, maxTime, logger,
+            "security groups");
    }
 
 
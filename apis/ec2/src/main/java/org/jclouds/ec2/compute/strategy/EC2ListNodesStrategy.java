@@ -27,6 +27,7 @@ import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Multimaps.filterKeys;
 import static com.google.common.collect.Multimaps.index;
 import static com.google.common.collect.Multimaps.transformValues;
+import static org.jclouds.ec2.compute.util.EC2ComputeUtils.listInRegionsParallel;
 
 import java.util.Set;
 
@@ -62,9 +63,12 @@ public class EC2ListNodesStrategy implements ListNodesStrategy {
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
    protected Logger logger = Logger.NULL;
 
+   /**
+    * How long to wait for each region before listing the others without it.
+    */
    @Inject(optional = true)
    @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
-   protected static Long maxTime;
+   protected Long maxTime;
 
    protected final EC2Api client;
    protected final Supplier<Set<String>> regions;
@@ -111,17 +115,17 @@ public class EC2ListNodesStrategy implements ListNodesStrategy {
    }
 
    protected Iterable<? extends RunningInstance> pollRunningInstances() {
-      Iterable<? extends Set<? extends Reservation<? extends RunningInstance>>> reservations
-         = transform(regions.get(), allInstancesInRegion());
-      
-      return concat(concat(reservations));
+      Iterable<Reservation<? extends RunningInstance>> reservations = listInRegionsParallel(regions.get(),
+            allInstancesInRegion(), userExecutor, maxTime, logger, "reservations");
+
+      return concat(reservations);
    }
 
    protected Iterable<? extends RunningInstance> pollRunningInstancesByRegionsAndIds(final Multimap<String, String> idsByRegions) {
-      Iterable<? extends Set<? extends Reservation<? extends RunningInstance>>> reservations
-         = transform(idsByRegions.keySet(), instancesByIdInRegion(idsByRegions));
-      
-      return concat(concat(reservations));
+      Iterable<Reservation<? extends RunningInstance>> reservations = listInRegionsParallel(idsByRegions.keySet(),
+            instancesByIdInRegion(idsByRegions), userExecutor, maxTime, logger, "reservations");
+
+      return concat(reservations);
    }
 
    protected Function<String, String> splitHandle(final int pos) {
@@ -16,10 +16,31 @@
  */
 package org.jclouds.ec2.compute.util;
 
+import static com.google.common.base.Throwables.propagate;
+import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import javax.inject.Singleton;
 
 import org.jclouds.domain.Location;
 import org.jclouds.domain.LocationScope;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.AuthorizationException;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 @Singleton
 public class EC2ComputeUtils {
@@ -28,4 +49,65 @@ public class EC2ComputeUtils {
       return location.getScope() == LocationScope.ZONE ? location.getId() : null;
    }
 
+   /**
+    * Lists resources in all regions at once on the user executor.
+    * <p/>
+    * Regions that fail or do not answer within {@code maxTime} milliseconds are logged and left out of the result, so
+    * one unreachable region does not fail the whole listing. Authorization failures are always rethrown, as is the
+    * failure of the last region when none of them answered.
+    *
+    * @param maxTime
+    *           how long to wait for each region, or {@code null} to wait until it answers
+    */
+   public static <T> List<T> listInRegionsParallel(Iterable<String> regions,
+         final Function<String, ? extends Iterable<? extends T>> listInRegion, ListeningExecutorService userExecutor,
+         @Nullable Long maxTime, Logger logger, String logPrefix) {
+      Map<String, ListenableFuture<Iterable<? extends T>>> responses = Maps.newLinkedHashMap();
+      for (final String region : regions) {
+         responses.put(region, userExecutor.submit(new Callable<Iterable<? extends T>>() {
+            @Override
+            public Iterable<? extends T> call() {
+               return listInRegion.apply(region);
+            }
+
+            @Override
+            public String toString() {
+               return "listInRegion(" + region + ")";
+            }
+         }));
+      }
+
+      long deadline = maxTime != null ? System.currentTimeMillis() + maxTime : 0;
+      List<T> results = Lists.newArrayList();
+      Map<String, Throwable> failures = Maps.newLinkedHashMap();
+      for (Entry<String, ListenableFuture<Iterable<? extends T>>> response : responses.entrySet()) {
+         try {
+            Iterable<? extends T> inRegion = maxTime != null ? response.getValue().get(
+                  Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS) : response.getValue().get();
+            Iterables.addAll(results, inRegion);
+         } catch (ExecutionException e) {
+            failures.put(response.getKey(), e.getCause());
+         } catch (TimeoutException e) {
+            response.getValue().cancel(true);
+            failures.put(response.getKey(), e);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw propagate(e);
+         }
+      }
+
+      Throwable lastFailure = null;
+      for (Entry<String, Throwable> failure : failures.entrySet()) {
+         // propagate authorization exceptions so that we don't lock out accounts
+         AuthorizationException aex = getFirstThrowableOfType(failure.getValue(), AuthorizationException.class);
+         if (aex != null)
+            throw aex;
+         logger.warn(failure.getValue(), "%s: skipping region %s", logPrefix, failure.getKey());
+         lastFailure = failure.getValue();
+      }
+      if (lastFailure != null && failures.size() == responses.size())
+         throw propagate(lastFailure);
+      return results;
+   }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ec2.compute.util;
+
+import static org.jclouds.ec2.compute.util.EC2ComputeUtils.listInRegionsParallel;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.AuthorizationException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+@Test(groups = "unit", testName = "EC2ComputeUtilsTest")
+public class EC2ComputeUtilsTest {
+
+   private final ListeningExecutorService userExecutor = MoreExecutors.listeningDecorator(Executors
+         .newCachedThreadPool());
+
+   @AfterClass(alwaysRun = true)
+   public void shutdownExecutor() {
+      userExecutor.shutdownNow();
+   }
+
+   public void testListsRegionsConcurrently() {
+      final CountDownLatch allStarted = new CountDownLatch(3);
+      Function<String, Set<String>> listInRegion = new Function<String, Set<String>>() {
+         @Override
+         public Set<String> apply(String region) {
+            allStarted.countDown();
+            // only returns if every region is queried at the same time
+            Uninterruptibles.awaitUninterruptibly(allStarted, 5, TimeUnit.SECONDS);
+            return ImmutableSet.of(region + "-a", region + "-b");
+         }
+      };
+
+      assertEquals(listInRegionsParallel(ImmutableList.of("us-east-1", "us-west-1", "eu-west-1"), listInRegion,
+            userExecutor, 1000L, Logger.NULL, "test"), ImmutableList.of("us-east-1-a", "us-east-1-b", "us-west-1-a",
+            "us-west-1-b", "eu-west-1-a", "eu-west-1-b"));
+   }
+
+   public void testSkipsFailedAndSlowRegions() {
+      Function<String, Set<String>> listInRegion = new Function<String, Set<String>>() {
+         @Override
+         public Set<String> apply(String region) {
+            if (region.equals("broken"))
+               throw new IllegalStateException("unreachable");
+            if (region.equals("slow"))
+               Uninterruptibles.sleepUninterruptibly(5, TimeUnit.SECONDS);
+            return ImmutableSet.of(region);
+         }
+      };
+
+      assertEquals(listInRegionsParallel(ImmutableList.of("broken", "us-east-1", "slow"), listInRegion,
+            userExecutor, 200L, Logger.NULL, "test"), ImmutableList.of("us-east-1"));
+   }
+
+   @Test(expectedExceptions = IllegalStateException.class)
+   public void testFailsWhenEveryRegionFailed() {
+      listInRegionsParallel(ImmutableList.of("us-east-1", "us-west-1"), new Function<String, Set<String>>() {
+         @Override
+         public Set<String> apply(String region) {
+            throw new IllegalStateException("unreachable");
+         }
+      }, userExecutor, null, Logger.NULL, "test");
+   }
+
+   @Test(expectedExceptions = AuthorizationException.class)
+   public void testPropagatesAuthorizationException() {
+      listInRegionsParallel(ImmutableList.of("us-east-1", "us-west-1"), new Function<String, Set<String>>() {
+         @Override
+         public Set<String> apply(String region) {
+            if (region.equals("us-west-1"))
+               throw new AuthorizationException();
+            return ImmutableSet.of(region);
+         }
+      }, userExecutor, null, Logger.NULL, "test");
+   }
+}
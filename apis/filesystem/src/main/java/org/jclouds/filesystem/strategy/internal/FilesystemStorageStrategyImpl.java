@@ -46,10 +46,14 @@ import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
@@ -60,11 +64,12 @@ import javax.inject.Provider;
 
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.KeyNotFoundException;
-import org.jclouds.blobstore.LocalStorageStrategy;
+import org.jclouds.blobstore.OrderedLocalStorageStrategy;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.blobstore.domain.BlobBuilder;
 import org.jclouds.blobstore.domain.ContainerAccess;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
 import org.jclouds.blobstore.domain.MutableStorageMetadata;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.StorageType;
@@ -87,10 +92,12 @@ import org.jclouds.rest.annotations.ParamValidators;
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.Hashing;
@@ -106,7 +113,7 @@ import com.google.common.primitives.Longs;
  * (blobs that end with a /) cannot have content, but otherwise appear in
  * LIST like normal blobs.
  */
-public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
+public class FilesystemStorageStrategyImpl implements OrderedLocalStorageStrategy {
 
    private static final String XATTR_CACHE_CONTROL = "user.cache-control";
    private static final String XATTR_CONTENT_DISPOSITION = "user.content-disposition";
@@ -119,6 +126,9 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
    private static final String XATTR_USER_METADATA_PREFIX = "user.user-metadata.";
    private static final byte[] DIRECTORY_MD5 =
            Hashing.md5().hashBytes(new byte[0]).asBytes();
+   /** Prefix and suffix of the hidden file holding the ETag of a blob when xattrs are not supported. */
+   private static final String MD5_SIDECAR_PREFIX = ".";
+   private static final String MD5_SIDECAR_SUFFIX = ".jclouds-md5";
    private static final Pattern MPU_ETAG_FORMAT = Pattern.compile("\"[a-f0-9]{32}-\\d+\"");
 
    @Resource
@@ -330,8 +340,48 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       return blobNames;
    }
 
+   /**
+    * Returns the blob keys inside a container in lexicographic order by walking
+    * each directory in sorted order.  Subtrees which cannot contain keys after
+    * the marker or matching the prefix are not visited.
+    */
+   @Override
+   public Iterable<String> getBlobKeysInsideContainer(String container, final String prefix, final String marker)
+         throws IOException {
+      filesystemContainerNameValidator.validate(container);
+      if (!containerExists(container)) {
+         return ImmutableList.of();
+      }
+      final File containerFile = openFolder(container);
+      return new Iterable<String>() {
+         @Override
+         public Iterator<String> iterator() {
+            return new SortedBlobKeyIterator(containerFile, prefix, marker);
+         }
+      };
+   }
+
+   /**
+    * Reads only file attributes, user xattrs and the ETag persisted by
+    * {@link #putBlob}, either as an xattr or in a sidecar file.  Unlike
+    * {@link #getBlob}, this never hashes the content of files which were not
+    * written through this strategy.
+    */
+   @Override
+   public MutableBlobMetadata getBlobMetadata(final String container, final String key) {
+      Blob blob = getBlob(container, key, false);
+      return blob == null ? null : blob.getMetadata();
+   }
+
    @Override
    public Blob getBlob(final String container, final String key) {
+      return getBlob(container, key, true);
+   }
+
+   /**
+    * @param hashIfNotStored compute the MD5 from the content when neither an xattr nor a sidecar file holds it
+    */
+   private Blob getBlob(final String container, final String key, boolean hashIfNotStored) {
       BlobBuilder builder = blobBuilders.get();
       builder.name(key);
       File file = getFileForBlobKey(container, key);
@@ -358,6 +408,7 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          String contentType = null;
          HashCode hashCode = null;
          String eTag = null;
+         byte[] etagBytes = null;
          Date expires = null;
          Tier tier = Tier.STANDARD;
          ImmutableMap.Builder<String, String> userMetadata = ImmutableMap.builder();
@@ -378,15 +429,7 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
                if (attributes.contains(XATTR_CONTENT_MD5)) {
                   ByteBuffer buf = ByteBuffer.allocate(view.size(XATTR_CONTENT_MD5));
                   view.read(XATTR_CONTENT_MD5, buf);
-                  byte [] etagBytes = buf.array();
-                  if (etagBytes.length == 16) {
-                     // regular object
-                     hashCode = HashCode.fromBytes(buf.array());
-                     eTag = "\"" + hashCode + "\"";
-                  } else {
-                     // multi-part object
-                     eTag = new String(etagBytes, US_ASCII);
-                  }
+                  etagBytes = buf.array();
                }
                if (attributes.contains(XATTR_EXPIRES)) {
                   ByteBuffer buf = ByteBuffer.allocate(view.size(XATTR_EXPIRES));
@@ -408,24 +451,38 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
             } catch (IOException e) {
                logger.debug("xattrs not supported on %s", file.toPath());
             }
+         }
 
-            builder.payload(byteSource)
-               .cacheControl(cacheControl)
-               .contentDisposition(contentDisposition)
-               .contentEncoding(contentEncoding)
-               .contentLanguage(contentLanguage)
-               .contentLength(byteSource.size())
-               .contentMD5(hashCode)
-               .eTag(eTag)
-               .contentType(contentType)
-               .expires(expires)
-               .tier(tier)
-               .userMetadata(userMetadata.build());
-         } else {
-            builder.payload(byteSource)
-               .contentLength(byteSource.size())
-               .contentMD5(byteSource.hash(Hashing.md5()).asBytes());
+         if (etagBytes == null && file.isFile()) {
+            etagBytes = readMd5Sidecar(file);
+         }
+         if (etagBytes != null) {
+            if (etagBytes.length == 16) {
+               // regular object
+               hashCode = HashCode.fromBytes(etagBytes);
+               eTag = "\"" + hashCode + "\"";
+            } else {
+               // multi-part object
+               eTag = new String(etagBytes, US_ASCII);
+            }
+         } else if (view == null && file.isDirectory()) {
+            hashCode = HashCode.fromBytes(DIRECTORY_MD5);
+         } else if (view == null && hashIfNotStored) {
+            hashCode = byteSource.hash(Hashing.md5());
          }
+
+         builder.payload(byteSource)
+            .cacheControl(cacheControl)
+            .contentDisposition(contentDisposition)
+            .contentEncoding(contentEncoding)
+            .contentLanguage(contentLanguage)
+            .contentLength(byteSource.size())
+            .contentMD5(hashCode)
+            .eTag(eTag)
+            .contentType(contentType)
+            .expires(expires)
+            .tier(tier)
+            .userMetadata(userMetadata.build());
       } catch (FileNotFoundException fnfe) {
          return null;
       } catch (IOException e) {
@@ -536,12 +593,18 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          if (outputFile.exists()) {
             delete(outputFile);
          }
+         File sidecar = md5SidecarFor(outputFile);
+         if (sidecar.exists()) {
+            delete(sidecar);
+         }
 
+         boolean wroteXattrs = false;
          UserDefinedFileAttributeView view = getUserDefinedFileAttributeView(tmpPath);
          if (view != null) {
             try {
                view.write(XATTR_CONTENT_MD5, ByteBuffer.wrap(eTag));
                writeCommonMetadataAttr(view, blob);
+               wroteXattrs = true;
             } catch (IOException e) {
                logger.debug("xattrs not supported on %s", tmpPath);
             }
@@ -554,6 +617,11 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          }
          tmpFile = null;
 
+         if (!wroteXattrs) {
+            // persist the ETag so that getBlobMetadata need not hash the content
+            Files.write(eTag, sidecar);
+         }
+
          return base16().lowerCase().encode(eTag);
       } finally {
          if (tmpFile != null) {
@@ -597,6 +665,15 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          logger.debug("Could not delete %s: %s", fileToBeDeleted, e);
       }
 
+      File sidecar = md5SidecarFor(fileToBeDeleted);
+      if (sidecar.exists()) {
+         try {
+            delete(sidecar);
+         } catch (IOException e) {
+            logger.debug("Could not delete %s: %s", sidecar, e);
+         }
+      }
+
       // now examine if the key of the blob is a complex key (with a directory structure)
       // and eventually remove empty directory
       removeDirectoriesTreeOfBlobKey(container, blobKey);
@@ -917,7 +994,9 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          return;
       }
       for (File child : children) {
-         if (child.isFile()) {
+         if (isMd5Sidecar(child)) {
+            continue;
+         } else if (child.isFile()) {
             blobNames.add( function.apply(child.getAbsolutePath()) );
          } else if (child.isDirectory()) {
             blobNames.add(function.apply(child.getAbsolutePath()) + File.separator); // TODO: undo if failures
@@ -926,6 +1005,67 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       }
    }
 
+   private static final class SortedBlobKeyIterator extends AbstractIterator<String> {
+      private final String prefix;
+      private final String marker;
+      private final Deque<Iterator<Map.Entry<String, File>>> levels = new ArrayDeque<Iterator<Map.Entry<String, File>>>();
+
+      SortedBlobKeyIterator(File containerFile, String prefix, String marker) {
+         this.prefix = prefix;
+         this.marker = marker;
+         levels.push(listSorted(containerFile, ""));
+      }
+
+      @Override
+      protected String computeNext() {
+         while (!levels.isEmpty()) {
+            Iterator<Map.Entry<String, File>> level = levels.peek();
+            if (!level.hasNext()) {
+               levels.pop();
+               continue;
+            }
+            Map.Entry<String, File> entry = level.next();
+            String key = entry.getKey();
+            boolean isDirectory = entry.getValue().isDirectory();
+            if (prefix != null && key.compareTo(prefix) > 0 && !key.startsWith(prefix)) {
+               // this and all following siblings sort after every key with the prefix
+               levels.pop();
+               continue;
+            }
+            if (isDirectory) {
+               boolean containsPrefix = prefix == null || key.startsWith(prefix) || prefix.startsWith(key);
+               boolean containsMarker = marker == null || key.compareTo(marker) > 0 || marker.startsWith(key);
+               if (!containsPrefix || !containsMarker) {
+                  continue;
+               }
+               levels.push(listSorted(entry.getValue(), key));
+            }
+            if ((prefix == null || key.startsWith(prefix)) && (marker == null || key.compareTo(marker) > 0)) {
+               return key;
+            }
+         }
+         return endOfData();
+      }
+
+      private static Iterator<Map.Entry<String, File>> listSorted(File directory, String parentKey) {
+         File[] children = directory.listFiles();
+         if (children == null) {
+            return Iterators.emptyIterator();
+         }
+         TreeMap<String, File> entries = new TreeMap<String, File>();
+         for (File child : children) {
+            if (isMd5Sidecar(child)) {
+               continue;
+            } else if (child.isFile()) {
+               entries.put(parentKey + child.getName(), child);
+            } else if (child.isDirectory()) {
+               entries.put(parentKey + child.getName() + "/", child);
+            }
+         }
+         return entries.entrySet().iterator();
+      }
+   }
+
    /**
     * Creates a directory and returns the result
     *
@@ -956,6 +1096,28 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       return true;
    }
 
+   private static File md5SidecarFor(File file) {
+      return new File(file.getParentFile(), MD5_SIDECAR_PREFIX + file.getName() + MD5_SIDECAR_SUFFIX);
+   }
+
+   private static boolean isMd5Sidecar(File file) {
+      String name = file.getName();
+      return name.startsWith(MD5_SIDECAR_PREFIX) && name.endsWith(MD5_SIDECAR_SUFFIX) && file.isFile();
+   }
+
+   /** Read the ETag persisted in the sidecar file of a blob, or return null if not present. */
+   private static byte[] readMd5Sidecar(File file) throws IOException {
+      File sidecar = md5SidecarFor(file);
+      if (!sidecar.isFile()) {
+         return null;
+      }
+      try {
+         return Files.toByteArray(sidecar);
+      } catch (FileNotFoundException fnfe) {
+         return null;
+      }
+   }
+
    /** Read the String representation of filesystem attribute, or return null if not present. */
    private static String readStringAttributeIfPresent(UserDefinedFileAttributeView view, Set<String> attributes,
          String name) throws IOException {
@@ -113,6 +113,16 @@ public class FilesystemBlobIntegrationTest extends BaseBlobIntegrationTest {
       super.testPutBlobTierHelper(tier, options);
    }
 
+   @Override
+   public void testDownloadBlob() throws Exception {
+      throw new SkipException("filesystem does not support downloadBlob");
+   }
+
+   @Override
+   public void testStreamBlob() throws Exception {
+      throw new SkipException("filesystem does not support streamBlob");
+   }
+
    @Override
    public void testSetBlobAccess() throws Exception {
       throw new SkipException("filesystem does not support anonymous access");
@@ -24,6 +24,7 @@ import static org.jclouds.utils.TestUtils.randomByteSource;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -31,6 +32,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -42,6 +45,7 @@ import org.assertj.core.api.Fail;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobBuilder;
 import org.jclouds.blobstore.domain.ContainerAccess;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
 import org.jclouds.blobstore.domain.internal.BlobBuilderImpl;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.domain.Location;
@@ -60,6 +64,7 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteSource;
 import com.google.common.io.Files;
 import com.google.common.util.concurrent.Uninterruptibles;
@@ -422,6 +427,23 @@ public class FilesystemStorageStrategyImplTest {
       assertEquals(blob.getMetadata().getContentMetadata().getContentType(), null);
    }
 
+   public void testGetBlobKeysInsideContainerSortedWithPrefixAndMarker() throws IOException {
+      storageStrategy.createContainer(CONTAINER_NAME);
+      TestUtils.createBlobsInContainer(CONTAINER_NAME, new String[] {
+               "a-b", "a/c", "a/d/e", "a0", "b/c" });
+
+      assertThat(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, null, null))
+            .containsExactly("a-b", "a/", "a/c", "a/d/", "a/d/e", "a0", "b/", "b/c");
+      assertThat(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, "a/", null))
+            .containsExactly("a/", "a/c", "a/d/", "a/d/e");
+      assertThat(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, null, "a/c"))
+            .containsExactly("a/d/", "a/d/e", "a0", "b/", "b/c");
+      assertThat(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, "a", "a/d/e"))
+            .containsExactly("a0");
+      assertThat(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, "a/", "a/d/e"))
+            .isEmpty();
+   }
+
    public void testListDirectoryBlob() throws IOException {
       String blobKey = TestUtils.createRandomBlobKey("directory-", File.separator);
       Blob blob = storageStrategy.newBlob(blobKey);
@@ -672,6 +694,66 @@ public class FilesystemStorageStrategyImplTest {
       assertFalse(blob.getMetadata().getUserMetadata().containsKey("key1"));
    }
 
+   @Test(dataProvider = "ignoreOnMacOSX")
+   public void testGetBlobMetadata() throws Exception {
+      String blobKey = TestUtils.createRandomBlobKey("getBlobMetadata-", ".img");
+      ByteSource byteSource = randomByteSource().slice(0, 1024);
+      Blob blob = new BlobBuilderImpl()
+            .name(blobKey)
+            .payload(byteSource)
+            .userMetadata(ImmutableMap.of("key1", "value1"))
+            .build();
+      storageStrategy.putBlob(CONTAINER_NAME, blob);
+
+      MutableBlobMetadata metadata = storageStrategy.getBlobMetadata(CONTAINER_NAME, blobKey);
+      assertEquals(metadata.getName(), blobKey);
+      assertEquals(metadata.getSize(), Long.valueOf(1024));
+      assertEquals(metadata.getUserMetadata().get("key1"), "value1");
+      assertEquals(metadata.getContentMetadata().getContentMD5AsHashCode(), byteSource.hash(Hashing.md5()));
+
+      assertNull(storageStrategy.getBlobMetadata(CONTAINER_NAME, "non-existent"));
+   }
+
+   @Test
+   public void testGetBlobMetadataWithoutXattrs() throws Exception {
+      FilesystemStorageStrategyImpl storageStrategyWithoutXattrs = new FilesystemStorageStrategyImpl(
+            new Provider<BlobBuilder>() {
+               @Override
+               public BlobBuilder get() {
+                  return new BlobBuilderImpl();
+               }
+            }, TestUtils.TARGET_BASE_DIR, false, new FilesystemContainerNameValidatorImpl(),
+            new FilesystemBlobKeyValidatorImpl(), defaultLocation) {
+         @Override
+         protected UserDefinedFileAttributeView getUserDefinedFileAttributeView(Path path) {
+            return null;
+         }
+      };
+      String blobKey = TestUtils.createRandomBlobKey("getBlobMetadataWithoutXattrs-", ".img");
+      ByteSource byteSource = randomByteSource().slice(0, 1024);
+      storageStrategyWithoutXattrs.putBlob(CONTAINER_NAME, new BlobBuilderImpl()
+            .name(blobKey)
+            .payload(byteSource)
+            .build());
+
+      // change the content behind the strategy's back; the MD5 persisted by putBlob must be used, not a new hash
+      File file = storageStrategyWithoutXattrs.getFileForBlobKey(CONTAINER_NAME, blobKey);
+      randomByteSource().slice(0, 1024).copyTo(Files.asByteSink(file));
+
+      MutableBlobMetadata metadata = storageStrategyWithoutXattrs.getBlobMetadata(CONTAINER_NAME, blobKey);
+      Blob blob = storageStrategyWithoutXattrs.getBlob(CONTAINER_NAME, blobKey);
+      assertEquals(metadata.getContentMetadata().getContentMD5AsHashCode(), byteSource.hash(Hashing.md5()));
+      assertEquals(metadata.getETag(), blob.getMetadata().getETag());
+
+      // the sidecar holding the MD5 is not a blob
+      assertThat(storageStrategyWithoutXattrs.getBlobKeysInsideContainer(CONTAINER_NAME)).containsOnly(blobKey);
+      assertThat(storageStrategyWithoutXattrs.getBlobKeysInsideContainer(CONTAINER_NAME, null, null))
+            .containsExactly(blobKey);
+
+      storageStrategyWithoutXattrs.removeBlob(CONTAINER_NAME, blobKey);
+      assertThat(file.getParentFile().list()).isEmpty();
+   }
+
    @Test
    public void testPutIncorrectContentLength() throws Exception {
       Blob blob = new BlobBuilderImpl()
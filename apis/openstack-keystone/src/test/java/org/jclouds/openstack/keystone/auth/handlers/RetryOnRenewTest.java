@@ -21,6 +21,7 @@ import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -29,6 +30,7 @@ import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
+import org.jclouds.http.handlers.RetryDelays;
 import org.jclouds.io.Payloads;
 import org.jclouds.openstack.keystone.auth.domain.AuthInfo;
 import org.testng.annotations.Test;
@@ -103,6 +105,40 @@ public class RetryOnRenewTest {
       verify(command, response, cache);
    }
 
+   @Test
+   public void test401RetryDelayIsDeferredToExecutor() {
+      HttpCommand command = createMock(HttpCommand.class);
+      HttpRequest request = createMock(HttpRequest.class);
+      HttpResponse response = createMock(HttpResponse.class);
+
+      @SuppressWarnings("unchecked")
+      LoadingCache<Credentials, AuthInfo> cache = createMock(LoadingCache.class);
+      BackoffLimitedRetryHandler backoffHandler = createMock(BackoffLimitedRetryHandler.class);
+
+      expect(command.getCurrentRequest()).andReturn(request).anyTimes();
+      expect(request.getHeaders()).andStubReturn(null);
+
+      cache.invalidateAll();
+      expectLastCall().anyTimes();
+
+      expect(response.getStatusCode()).andReturn(401).anyTimes();
+
+      replay(command, request, response, cache);
+
+      RetryOnRenew retry = new RetryOnRenew(cache, backoffHandler);
+
+      // the first 401 renews the token without waiting
+      assertTrue(retry.shouldRetryRequest(command, response));
+      RetryDelays.defer();
+      try {
+         assertTrue(retry.shouldRetryRequest(command, response));
+      } finally {
+         assertEquals(RetryDelays.take(), 5000L);
+      }
+
+      verify(command, response, cache);
+   }
+
    @Test
    public void test408ShouldRetry() {
       HttpCommand command = createMock(HttpCommand.class);
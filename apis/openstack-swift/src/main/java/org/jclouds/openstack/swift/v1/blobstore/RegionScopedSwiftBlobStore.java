@@ -52,6 +52,7 @@ import javax.inject.Named;
 import org.jclouds.Constants;
 import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.BulkDeleteBlobStore;
 import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
@@ -73,8 +74,10 @@ import org.jclouds.blobstore.options.CreateContainerOptions;
 import org.jclouds.blobstore.options.GetOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.options.PutOptions;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
 import org.jclouds.blobstore.strategy.ClearListStrategy;
 import org.jclouds.blobstore.strategy.internal.MultipartUploadSlicingAlgorithm;
+import org.jclouds.blobstore.strategy.internal.StreamingMultipartUploader;
 import org.jclouds.collect.Memoized;
 import org.jclouds.domain.Location;
 import org.jclouds.io.ContentMetadata;
@@ -96,6 +99,7 @@ import org.jclouds.openstack.swift.v1.features.ObjectApi;
 import org.jclouds.openstack.swift.v1.options.UpdateContainerOptions;
 import org.jclouds.openstack.swift.v1.reference.SwiftHeaders;
 import org.jclouds.util.Closeables2;
+import org.jclouds.util.Strings2;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
@@ -124,7 +128,7 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
 
-public class RegionScopedSwiftBlobStore implements BlobStore {
+public class RegionScopedSwiftBlobStore implements BulkDeleteBlobStore {
 
    @Inject
    protected RegionScopedSwiftBlobStore(Injector baseGraph, BlobStoreContext context, SwiftApi api,
@@ -415,6 +419,33 @@ public class RegionScopedSwiftBlobStore implements BlobStore {
       }
    }
 
+   /**
+    * Like {@link #removeBlobs}, but maps the paths which failed back to blob
+    * names.  Swift reports them URL encoded with a leading slash.
+    */
+   @Override
+   public Set<String> tryRemoveBlobs(String container, Iterable<String> names) {
+      BulkApi bulkApi = api.getBulkApi(regionId);
+      ImmutableSet.Builder<String> failed = ImmutableSet.builder();
+      String containerPrefix = container + "/";
+      for (List<String> partition : Iterables.partition(names, 1000)) {
+         ImmutableList.Builder<String> builder = ImmutableList.builder();
+         for (String name : partition) {
+            builder.add(containerPrefix + name);
+         }
+         for (String path : bulkApi.bulkDelete(builder.build()).getErrors().keySet()) {
+            path = Strings2.urlDecode(path);
+            if (path.startsWith("/")) {
+               path = path.substring(1);
+            }
+            if (path.startsWith(containerPrefix)) {
+               failed.add(path.substring(containerPrefix.length()));
+            }
+         }
+      }
+      return failed.build();
+   }
+
    @Override
    public BlobAccess getBlobAccess(String container, String name) {
       return BlobAccess.PRIVATE;
@@ -616,6 +647,10 @@ public class RegionScopedSwiftBlobStore implements BlobStore {
    @Named(Constants.PROPERTY_MAX_RETRIES)
    protected int retryCountLimit = 5;
 
+   @com.google.inject.Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_MULTIPART_STREAMING_BUFFERS)
+   protected int streamingBuffers = 4;
+
    /**
     * Upload using a user-provided executor, or the jclouds userExecutor
     *
@@ -643,6 +678,10 @@ public class RegionScopedSwiftBlobStore implements BlobStore {
             getMinimumMultipartPartSize(), getMaximumMultipartPartSize(), getMaximumNumberOfParts());
       long partSize = algorithm.calculateChunkSize(contentLength);
       MultipartUpload mpu = initiateMultipartUpload(container, blob.getMetadata(), partSize, overrides);
+      if (!blob.getPayload().isRepeatable()) {
+         return completeMultipartUpload(mpu, StreamingMultipartUploader.uploadParts(this, mpu, blob.getPayload(),
+               algorithm, partSize, 0, streamingBuffers, executor));
+      }
       int partNumber = 0;
 
       for (Payload payload : slicer.slice(blob.getPayload(), partSize)) {
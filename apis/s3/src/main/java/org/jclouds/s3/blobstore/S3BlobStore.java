@@ -30,6 +30,7 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.BulkDeleteBlobStore;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
@@ -78,10 +79,11 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
 @Singleton
-public class S3BlobStore extends BaseBlobStore {
+public class S3BlobStore extends BaseBlobStore implements BulkDeleteBlobStore {
    private final S3Client sync;
    private final Function<Set<BucketMetadata>, PageSet<? extends StorageMetadata>> convertBucketsToStorageMetadata;
    private final ContainerToBucketListOptions container2BucketListOptions;
@@ -344,6 +346,15 @@ public class S3BlobStore extends BaseBlobStore {
       }
    }
 
+   @Override
+   public Set<String> tryRemoveBlobs(String container, Iterable<String> keys) {
+      ImmutableSet.Builder<String> failed = ImmutableSet.builder();
+      for (List<String> partition : Iterables.partition(keys, 1000)) {
+         failed.addAll(sync.deleteObjects(container, partition).getErrors().keySet());
+      }
+      return failed.build();
+   }
+
    @Override
    public BlobAccess getBlobAccess(String container, String name) {
       AccessControlList acl = sync.getObjectACL(container, name);
@@ -19,12 +19,10 @@ package org.jclouds.s3.filters;
 import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.io.BaseEncoding.base16;
-import static com.google.common.io.ByteStreams.readBytes;
 import static org.jclouds.crypto.Macs.asByteProcessor;
 import static org.jclouds.http.utils.Queries.queryParser;
-import static org.jclouds.util.Strings2.toInputStream;
+import static org.jclouds.s3.filters.AwsSignatureV4Constants.AMZ_CONTENT_SHA256_HEADER;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -33,15 +31,21 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TimeZone;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import javax.inject.Inject;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Supplier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
@@ -50,7 +54,6 @@ import com.google.common.escape.Escaper;
 import com.google.common.hash.Hashing;
 import com.google.common.hash.HashingInputStream;
 import com.google.common.io.ByteProcessor;
-import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
 import com.google.common.net.HttpHeaders;
 import com.google.common.net.PercentEscaper;
@@ -77,6 +80,11 @@ public abstract class Aws4SignerBase {
 
    private static final Escaper AWS_PATH_ESCAPER = new PercentEscaper("/-_.~", false);
 
+   private static final String HMAC_SHA256 = "HmacSHA256";
+
+   // signing keys only change per credential, date, region and service
+   private static final int SIGNING_KEY_CACHE_SIZE = 64;
+
    // Specifying a default for how to parse the service and region in this way allows
    // tests or other downstream services to not have to use guice overrides.
    @ImplementedBy(ServiceAndRegion.AWSServiceAndRegion.class)
@@ -116,6 +124,9 @@ public abstract class Aws4SignerBase {
    protected final Supplier<Date> timestampProvider;
    protected final Crypto crypto;
 
+   private final Cache<List<String>, byte[]> signingKeys = CacheBuilder.newBuilder()
+         .maximumSize(SIGNING_KEY_CACHE_SIZE).build();
+   private final ThreadLocal<Mac> macs = new ThreadLocal<Mac>();
 
    protected Aws4SignerBase(SignatureWire signatureWire, String headerTag,
          Supplier<Credentials> creds, Supplier<Date> timestampProvider,
@@ -176,12 +187,12 @@ public abstract class Aws4SignerBase {
       return contentLength;
    }
 
-   // append all of 'x-amz-*' headers
+   // append all of 'x-amz-*' headers, except x-amz-content-sha256 which each signer computes itself
    protected void appendAmzHeaders(HttpRequest request,
          ImmutableMap.Builder<String, String> signedHeadersBuilder) {
       for (Map.Entry<String, String> header : request.getHeaders().entries()) {
          String key = header.getKey();
-         if (key.startsWith("x-" + headerTag + "-")) {
+         if (key.startsWith("x-" + headerTag + "-") && !key.equalsIgnoreCase(AMZ_CONTENT_SHA256_HEADER)) {
             signedHeadersBuilder.put(key.toLowerCase(), header.getValue());
          }
       }
@@ -207,28 +218,38 @@ public abstract class Aws4SignerBase {
     * @param datestamp date yyyyMMdd
     * @param region   AWS region
     * @param service   AWS service
-    * @return SigningKey
+    * @return SigningKey, shared with other callers and must not be modified
     */
    protected byte[] signatureKey(String secretKey, String datestamp, String region, String service) {
-      byte[] kSecret = ("AWS4" + secretKey).getBytes(UTF_8);
-      byte[] kDate = hmacSHA256(datestamp, kSecret);
-      byte[] kRegion = hmacSHA256(region, kDate);
-      byte[] kService = hmacSHA256(service, kRegion);
-      byte[] kSigning = hmacSHA256("aws4_request", kService);
+      List<String> cacheKey = ImmutableList.of(secretKey, datestamp, region, service);
+      byte[] kSigning = signingKeys.getIfPresent(cacheKey);
+      if (kSigning == null) {
+         byte[] kSecret = ("AWS4" + secretKey).getBytes(UTF_8);
+         byte[] kDate = hmacSHA256(datestamp, kSecret);
+         byte[] kRegion = hmacSHA256(region, kDate);
+         byte[] kService = hmacSHA256(service, kRegion);
+         kSigning = hmacSHA256("aws4_request", kService);
+         signingKeys.put(cacheKey, kSigning);
+      }
       return kSigning;
    }
 
    /**
-    * hmac sha256
+    * hmac sha256, reusing a {@link Mac} per thread rather than creating one per call
     *
     * @param toSign string to sign
     * @param key   hash key
     */
    protected byte[] hmacSHA256(String toSign, byte[] key) {
       try {
-         return readBytes(toInputStream(toSign), hmacSHA256(crypto, key));
-      } catch (IOException e) {
-         throw new HttpException("read sign error", e);
+         Mac mac = macs.get();
+         if (mac == null) {
+            mac = crypto.hmacSHA256(key);
+            macs.set(mac);
+         } else {
+            mac.init(new SecretKeySpec(key, HMAC_SHA256));
+         }
+         return mac.doFinal(toSign.getBytes(UTF_8));
       } catch (InvalidKeyException e) {
          throw new HttpException("invalid key", e);
       }
@@ -263,11 +284,7 @@ public abstract class Aws4SignerBase {
     * @throws HttpException
     */
    public static byte[] hash(byte[] bytes) throws HttpException {
-      try {
-         return ByteSource.wrap(bytes).hash(Hashing.sha256()).asBytes();
-      } catch (IOException e) {
-         throw new HttpException("Unable to compute hash while signing request: " + e.getMessage(), e);
-      }
+      return Hashing.sha256().hashBytes(bytes).asBytes();
    }
 
    /**
@@ -278,7 +295,7 @@ public abstract class Aws4SignerBase {
     * @throws HttpException
     */
    public static byte[] hash(String input) throws HttpException {
-      return hash(new ByteArrayInputStream(input.getBytes(UTF_8)));
+      return Hashing.sha256().hashString(input, UTF_8).asBytes();
    }
 
    /**
@@ -52,6 +52,7 @@ import static org.jclouds.s3.filters.AwsSignatureV4Constants.AMZ_ALGORITHM_HMAC_
 import static org.jclouds.s3.filters.AwsSignatureV4Constants.AMZ_CONTENT_SHA256_HEADER;
 import static org.jclouds.s3.filters.AwsSignatureV4Constants.AMZ_DATE_HEADER;
 import static org.jclouds.s3.filters.AwsSignatureV4Constants.AMZ_SECURITY_TOKEN_HEADER;
+import static org.jclouds.s3.filters.AwsSignatureV4Constants.UNSIGNED_PAYLOAD;
 import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_VIRTUAL_HOST_BUCKETS;
 
 /**
@@ -172,6 +173,10 @@ public class Aws4SignerForAuthorizationHeader extends Aws4SignerBase {
       if (payload == null || "0".equals(getContentLength(request))) {
          return getEmptyPayloadContentHash();
       }
+      // caller opted out of payload signing, so the body is sent without being read up front
+      if (UNSIGNED_PAYLOAD.equals(request.getFirstHeaderOrNull(AMZ_CONTENT_SHA256_HEADER))) {
+         return UNSIGNED_PAYLOAD;
+      }
       return calculatePayloadContentHash(payload);
    }
 
@@ -16,6 +16,11 @@
  */
 package org.jclouds.s3.filters;
 
+import static org.jclouds.s3.filters.AwsSignatureV4Constants.AMZ_CONTENT_SHA256_HEADER;
+import static org.jclouds.s3.filters.AwsSignatureV4Constants.UNSIGNED_PAYLOAD;
+import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_UNSIGNED_PAYLOAD;
+
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.reflect.TypeToken;
 import com.google.inject.Singleton;
 import org.jclouds.http.HttpException;
@@ -25,6 +30,7 @@ import org.jclouds.rest.internal.GeneratedHttpRequest;
 import org.jclouds.s3.S3Client;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 @Singleton
 public class RequestAuthorizeSignatureV4 implements RequestAuthorizeSignature {
@@ -37,6 +43,11 @@ public class RequestAuthorizeSignatureV4 implements RequestAuthorizeSignature {
    private final Aws4SignerForChunkedUpload signerForChunkedUpload;
    private final Aws4SignerForQueryString signerForQueryString;
 
+   @com.google.inject.Inject(optional = true)
+   @Named(PROPERTY_S3_UNSIGNED_PAYLOAD)
+   @VisibleForTesting
+   boolean unsignedPayload = false;
+
    @Inject
    public RequestAuthorizeSignatureV4(Aws4SignerForAuthorizationHeader signerForAuthorizationHeader,
          Aws4SignerForChunkedUpload signerForChunkedUpload,
@@ -48,6 +59,10 @@ public class RequestAuthorizeSignatureV4 implements RequestAuthorizeSignature {
 
    @Override
    public HttpRequest filter(HttpRequest request) throws HttpException {
+      // request sends its payload unsigned, which also avoids chunked upload for non-repeatable payloads
+      if (useUnsignedPayload(request)) {
+         return signForUnsignedPayload(request);
+      }
       // request use chunked upload
       if (useChunkedUpload(request)) {
          return signForChunkedUpload(request);
@@ -87,6 +102,27 @@ public class RequestAuthorizeSignatureV4 implements RequestAuthorizeSignature {
       return contentLength > 0L && !payload.isRepeatable();
    }
 
+   /**
+    * returns true, if the payload should be sent as UNSIGNED-PAYLOAD rather than hashed before sending. Callers opt in
+    * per request by setting the x-amz-content-sha256 header to UNSIGNED-PAYLOAD, or for all https requests through
+    * {@link org.jclouds.s3.reference.S3Constants#PROPERTY_S3_UNSIGNED_PAYLOAD}.
+    */
+   protected boolean useUnsignedPayload(HttpRequest request) {
+      if (request.getPayload() == null) {
+         return false;
+      }
+      if (UNSIGNED_PAYLOAD.equals(request.getFirstHeaderOrNull(AMZ_CONTENT_SHA256_HEADER))) {
+         return true;
+      }
+      return unsignedPayload && "https".equalsIgnoreCase(request.getEndpoint().getScheme());
+   }
+
+   protected HttpRequest signForUnsignedPayload(HttpRequest request) {
+      return signForAuthorizationHeader(request.toBuilder()
+            .replaceHeader(AMZ_CONTENT_SHA256_HEADER, UNSIGNED_PAYLOAD)
+            .build());
+   }
+
    protected HttpRequest signForAuthorizationHeader(HttpRequest request) {
       return signerForAuthorizationHeader.sign(request);
    }
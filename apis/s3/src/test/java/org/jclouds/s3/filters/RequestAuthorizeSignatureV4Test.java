@@ -17,8 +17,14 @@
 package org.jclouds.s3.filters;
 
 import static org.jclouds.reflect.Reflection2.method;
+import static org.jclouds.s3.filters.AwsSignatureV4Constants.AMZ_CONTENT_SHA256_HEADER;
+import static org.jclouds.s3.filters.AwsSignatureV4Constants.UNSIGNED_PAYLOAD;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.util.Date;
 
 import javax.inject.Named;
@@ -45,6 +51,7 @@ import org.jclouds.s3.options.ListBucketOptions;
 import org.jclouds.s3.options.PutObjectOptions;
 import org.testng.annotations.Test;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
@@ -215,4 +222,60 @@ public class RequestAuthorizeSignatureV4Test {
       assertEquals(filtered.getFirstHeaderOrNull("Authorization"), LIST_BUCKET_RESULT);
    }
 
+   @Test
+   void testPutObjectUnsignedPayloadRequested() {
+      HttpRequest putObject = putObjectRequest("https", PUT_OBJECT_CONTENT).toBuilder()
+            .addHeader(AMZ_CONTENT_SHA256_HEADER, UNSIGNED_PAYLOAD)
+            .build();
+
+      HttpRequest filtered = filter(temporaryCredentials).filter(putObject);
+      assertUnsignedPayload(filtered, putObject.getPayload());
+   }
+
+   @Test
+   void testPutObjectUnsignedPayloadProperty() {
+      RequestAuthorizeSignatureV4 filter = filter(temporaryCredentials);
+      filter.unsignedPayload = true;
+
+      HttpRequest putObject = putObjectRequest("https", PUT_OBJECT_CONTENT);
+      HttpRequest filtered = filter.filter(putObject);
+      assertUnsignedPayload(filtered, putObject.getPayload());
+   }
+
+   @Test
+   void testPutObjectUnsignedPayloadPropertyIgnoredWithoutTls() {
+      RequestAuthorizeSignatureV4 filter = filter(temporaryCredentials);
+      filter.unsignedPayload = true;
+
+      HttpRequest filtered = filter.filter(putObjectRequest("http", PUT_OBJECT_CONTENT));
+      assertNotEquals(filtered.getFirstHeaderOrNull(AMZ_CONTENT_SHA256_HEADER), UNSIGNED_PAYLOAD);
+   }
+
+   private static HttpRequest putObjectRequest(String scheme, String content) {
+      Invocation invocation = Invocation.create(method(S3Client.class, "putObject", String.class, S3Object.class,
+                  PutObjectOptions[].class),
+            ImmutableList.<Object>of(BUCKET_NAME));
+
+      // non-repeatable, so signing must not read it
+      byte[] bytes = content.getBytes(Charsets.UTF_8);
+      Payload payload = Payloads.newInputStreamPayload(new ByteArrayInputStream(bytes));
+      payload.getContentMetadata().setContentType("text/plain");
+      payload.getContentMetadata().setContentLength((long) bytes.length);
+
+      return GeneratedHttpRequest.builder().method("PUT")
+            .invocation(invocation)
+            .endpoint(scheme + "://" + BUCKET_NAME + ".s3.cn-north-1.amazonaws.com.cn/" + OBJECT_NAME)
+            .addHeader(HttpHeaders.HOST, BUCKET_NAME + ".s3.cn-north-1.amazonaws.com.cn")
+            .payload(payload)
+            .build();
+   }
+
+   private static void assertUnsignedPayload(HttpRequest filtered, Payload original) {
+      assertEquals(filtered.getFirstHeaderOrNull(AMZ_CONTENT_SHA256_HEADER), UNSIGNED_PAYLOAD);
+      assertTrue(filtered.getFirstHeaderOrNull("Authorization").contains(
+            "SignedHeaders=content-length;content-type;host;x-amz-content-sha256;x-amz-date, "));
+      // sent as is rather than wrapped for chunked upload
+      assertEquals(filtered.getPayload(), original);
+      assertNull(filtered.getPayload().getContentMetadata().getContentEncoding());
+   }
 }
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.s3.internal;
+
+import static org.jclouds.reflect.Reflection2.method;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.PerformanceTest;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.options.GetOptions;
+import org.jclouds.logging.config.NullLoggingModule;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.internal.BaseRestApiTest.MockModule;
+import org.jclouds.rest.internal.RestAnnotationProcessor;
+import org.jclouds.s3.S3ApiMetadata;
+import org.jclouds.s3.S3Client;
+import org.jclouds.s3.options.ListBucketOptions;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Module;
+
+/**
+ * Measures how long {@link RestAnnotationProcessor} takes to turn an {@link S3Client} invocation into a request.
+ */
+// NOTE:without testName, this will not call @Before* and fail w/NPE during surefire
+@Test(groups = "performance", sequential = true, timeOut = 2 * 60 * 1000,
+      testName = "S3RestAnnotationProcessorPerformanceTest")
+public class S3RestAnnotationProcessorPerformanceTest extends PerformanceTest {
+
+   private RestAnnotationProcessor processor;
+   private Invocation getObject;
+   private Invocation listBucket;
+
+   @BeforeTest
+   protected void setUpProcessor() {
+      processor = ContextBuilder.newBuilder(new S3ApiMetadata())
+            .credentials("identity", "credential")
+            .modules(ImmutableSet.<Module> of(new MockModule(), new NullLoggingModule()))
+            .buildInjector().getInstance(RestAnnotationProcessor.class);
+      getObject = Invocation.create(method(S3Client.class, "getObject", String.class, String.class,
+            GetOptions[].class), ImmutableList.<Object> of("bucket", "object", new GetOptions[] {
+            new GetOptions().range(0, 1024) }));
+      listBucket = Invocation.create(method(S3Client.class, "listBucket", String.class, ListBucketOptions[].class),
+            ImmutableList.<Object> of("bucket", new ListBucketOptions[] {
+            ListBucketOptions.Builder.withPrefix("prefix/").maxResults(100) }));
+   }
+
+   @Test
+   void testGetObjectSerialResponseTime() {
+      for (int i = 0; i < LOOP_COUNT; i++)
+         assert processor.apply(getObject).getEndpoint() != null;
+   }
+
+   @Test
+   void testGetObjectParallelResponseTime() throws InterruptedException, ExecutionException {
+      assertParallel(getObject);
+   }
+
+   @Test
+   void testListBucketSerialResponseTime() {
+      for (int i = 0; i < LOOP_COUNT; i++)
+         assert processor.apply(listBucket).getEndpoint() != null;
+   }
+
+   @Test
+   void testListBucketParallelResponseTime() throws InterruptedException, ExecutionException {
+      assertParallel(listBucket);
+   }
+
+   private void assertParallel(final Invocation invocation) throws InterruptedException, ExecutionException {
+      CompletionService<HttpRequest> completer = new ExecutorCompletionService<HttpRequest>(exec);
+      for (int i = 0; i < LOOP_COUNT; i++)
+         completer.submit(new Callable<HttpRequest>() {
+            public HttpRequest call() {
+               return processor.apply(invocation);
+            }
+         });
+      for (int i = 0; i < LOOP_COUNT; i++)
+         assert completer.take().get().getEndpoint() != null;
+   }
+}
@@ -20,7 +20,6 @@ import static org.jclouds.sqs.config.SQSProperties.CREATE_QUEUE_MAX_RETRIES;
 import static org.jclouds.sqs.config.SQSProperties.CREATE_QUEUE_RETRY_INTERVAL;
 
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 import javax.inject.Named;
 
@@ -31,9 +30,9 @@ import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.annotation.ClientError;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
+import org.jclouds.http.handlers.RetryDelays;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.inject.Inject;
 
 public class SQSErrorRetryHandler extends AWSClientErrorRetryHandler {
@@ -54,7 +53,12 @@ public class SQSErrorRetryHandler extends AWSClientErrorRetryHandler {
    public boolean shouldRetryRequestOnError(HttpCommand command, HttpResponse response, AWSError error) {
       if ("AWS.SimpleQueueService.QueueDeletedRecently".equals(error.getCode())) {
          if (command.incrementFailureCount() - 1 < maxTries) {
-            Uninterruptibles.sleepUninterruptibly(retryInterval, TimeUnit.MILLISECONDS);
+            try {
+               RetryDelays.sleep(retryInterval);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return false;
+            }
             return true;
          }
          return false;
@@ -29,6 +29,7 @@ import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
+import org.jclouds.http.handlers.RetryDelays;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Stopwatch;
@@ -79,6 +80,23 @@ public class SQSErrorRetryHandlerTest {
       assertTrue(watch.stop().elapsed(TimeUnit.MILLISECONDS) < 100);
    }
    
+   public void testQueueDeletedRecentlyDefersDelayToExecutor() {
+
+      SQSErrorRetryHandler retry = new SQSErrorRetryHandler(createMock(AWSUtils.class),
+            createMock(BackoffLimitedRetryHandler.class), ImmutableSet.<String> of(), 60, 10000);
+
+      HttpCommand command = createHttpCommandForFailureCount(1);
+
+      Stopwatch watch = Stopwatch.createStarted();
+      RetryDelays.defer();
+      try {
+         assertTrue(retry.shouldRetryRequestOnError(command, response, error));
+      } finally {
+         assertEquals(RetryDelays.take(), 10000L);
+      }
+      assertTrue(watch.stop().elapsed(TimeUnit.MILLISECONDS) < 10000);
+   }
+
    HttpCommand createHttpCommandForFailureCount(final int failureCount) {
       HttpCommand command = new HttpCommand(HttpRequest.builder().method("GET").endpoint("http://localhost").build());
       while (command.getFailureCount() != failureCount)
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore;
+
+import java.util.Set;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Blob store whose provider can remove many blobs with a single request and
+ * report which of them failed.
+ * {@link org.jclouds.blobstore.strategy.internal.DeleteAllKeysInList} removes
+ * each listing page of such stores with one call, and removes the blobs of
+ * other stores one at a time in parallel batches.
+ */
+@Beta
+public interface BulkDeleteBlobStore extends BlobStore {
+
+   /**
+    * Removes the blobs with as few requests as the provider allows.  Blobs
+    * which do not exist count as removed.
+    *
+    * @param container
+    *           container name
+    * @param names
+    *           blob keys
+    * @return the keys of the blobs which could not be removed
+    */
+   Set<String> tryRemoveBlobs(String container, Iterable<String> names);
+}
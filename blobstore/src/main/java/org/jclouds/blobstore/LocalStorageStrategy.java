@@ -22,6 +22,7 @@ import java.util.Collection;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.blobstore.domain.ContainerAccess;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.options.CreateContainerOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
@@ -114,6 +115,14 @@ public interface LocalStorageStrategy {
      */
     Blob getBlob(String containerName, String blobName);
 
+    /**
+     * Load only the metadata of the blob with the given key, without reading
+     * its content.
+     *
+     * @return the metadata of the blob, or null if it does not exist
+     */
+    MutableBlobMetadata getBlobMetadata(String containerName, String blobName);
+
     /**
      * Write a {@link Blob} into a file
      * @param container
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore;
+
+import java.io.IOException;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Local storage strategy that can list blob keys in order, starting at a
+ * prefix or marker.  {@link org.jclouds.blobstore.config.LocalBlobStore} pages
+ * through such strategies without visiting the whole container, and falls back
+ * to sorting {@link #getBlobKeysInsideContainer(String)} for strategies that do
+ * not implement this interface.
+ */
+public interface OrderedLocalStorageStrategy extends LocalStorageStrategy {
+
+    /**
+     * Returns the blob keys inside a container in lexicographic order.  Keys are
+     * produced lazily so that callers which stop early do not visit the whole
+     * container.
+     * @param container
+     * @param prefix only return keys starting with this prefix, or null for all keys
+     * @param marker only return keys sorting after this marker, or null to start at the first key
+     * @return
+     * @throws IOException
+     */
+    Iterable<String> getBlobKeysInsideContainer(String container, @Nullable String prefix, @Nullable String marker)
+          throws IOException;
+}
@@ -22,9 +22,13 @@ import static com.google.common.io.BaseEncoding.base16;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import javax.inject.Inject;
 
@@ -32,6 +36,7 @@ import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.blobstore.domain.Blob.Factory;
 import org.jclouds.blobstore.domain.ContainerAccess;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
 import org.jclouds.blobstore.domain.MutableStorageMetadata;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.StorageType;
@@ -49,6 +54,7 @@ import org.jclouds.io.Payloads;
 import org.jclouds.util.Closeables2;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimaps;
 import com.google.common.hash.HashCode;
@@ -58,8 +64,8 @@ import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
 import com.google.common.net.HttpHeaders;
 
-public class TransientStorageStrategy implements LocalStorageStrategy {
-   private final ConcurrentMap<String, ConcurrentMap<String, Blob>> containerToBlobs = new ConcurrentHashMap<String, ConcurrentMap<String, Blob>>();
+public class TransientStorageStrategy implements OrderedLocalStorageStrategy {
+   private final ConcurrentMap<String, ConcurrentNavigableMap<String, Blob>> containerToBlobs = new ConcurrentHashMap<String, ConcurrentNavigableMap<String, Blob>>();
    private final ConcurrentMap<String, ConcurrentMap<String, BlobAccess>> containerToBlobAccess = new ConcurrentHashMap<String, ConcurrentMap<String, BlobAccess>>();
    private final ConcurrentMap<String, StorageMetadata> containerMetadata = new ConcurrentHashMap<String, StorageMetadata>();
    private final ConcurrentMap<String, ContainerAccess> containerAccessMap = new ConcurrentHashMap<String, ContainerAccess>();
@@ -90,7 +96,7 @@ public class TransientStorageStrategy implements LocalStorageStrategy {
    @Override
    public boolean createContainerInLocation(String containerName, Location location, CreateContainerOptions options) {
       ConcurrentMap<String, Blob> origValue = containerToBlobs.putIfAbsent(
-            containerName, new ConcurrentHashMap<String, Blob>());
+            containerName, new ConcurrentSkipListMap<String, Blob>());
       if (origValue != null) {
          return false;
       }
@@ -152,12 +158,52 @@ public class TransientStorageStrategy implements LocalStorageStrategy {
       return containerToBlobs.get(containerName).keySet();
    }
 
+   @Override
+   public Iterable<String> getBlobKeysInsideContainer(final String containerName, final String prefix,
+         final String marker) {
+      NavigableSet<String> keys = containerToBlobs.get(containerName).navigableKeySet();
+      if (marker != null && (prefix == null || marker.compareTo(prefix) >= 0)) {
+         keys = keys.tailSet(marker, false);
+      } else if (prefix != null) {
+         keys = keys.tailSet(prefix, true);
+      }
+      if (prefix == null) {
+         return keys;
+      }
+      final Iterable<String> candidates = keys;
+      return new Iterable<String>() {
+         @Override
+         public Iterator<String> iterator() {
+            final Iterator<String> it = candidates.iterator();
+            return new AbstractIterator<String>() {
+               @Override
+               protected String computeNext() {
+                  if (it.hasNext()) {
+                     String key = it.next();
+                     if (key.startsWith(prefix)) {
+                        return key;
+                     }
+                  }
+                  // keys are sorted so no later key can match the prefix
+                  return endOfData();
+               }
+            };
+         }
+      };
+   }
+
    @Override
    public Blob getBlob(final String containerName, final String blobName) {
       Map<String, Blob> map = containerToBlobs.get(containerName);
       return map == null ? null : map.get(blobName);
    }
 
+   @Override
+   public MutableBlobMetadata getBlobMetadata(final String containerName, final String blobName) {
+      Blob blob = getBlob(containerName, blobName);
+      return blob == null ? null : blob.getMetadata();
+   }
+
    @Override
    public String putBlob(final String containerName, final Blob blob) throws IOException {
       byte[] payload;
@@ -17,13 +17,9 @@
 package org.jclouds.blobstore.config;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.getCausalChain;
 import static com.google.common.base.Throwables.propagate;
 import static com.google.common.collect.Iterables.size;
-import static com.google.common.collect.Iterables.transform;
-import static com.google.common.collect.Iterables.tryFind;
-import static com.google.common.collect.Sets.filter;
 import static com.google.common.collect.Sets.newTreeSet;
 import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursive;
 
@@ -52,6 +48,7 @@ import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.LocalStorageStrategy;
+import org.jclouds.blobstore.OrderedLocalStorageStrategy;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.blobstore.domain.BlobBuilder;
@@ -87,12 +84,11 @@ import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.io.Payload;
 import org.jclouds.io.payloads.InputStreamPayload;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 import org.jclouds.util.Closeables2;
 
 import com.google.common.base.Function;
-import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
@@ -223,159 +219,133 @@ public final class LocalBlobStore implements BlobStore {
     */
    @Override
    public PageSet<? extends StorageMetadata> list(final String containerName, ListContainerOptions options) {
-      if (options.getDir() != null && options.getPrefix() != null) {
-         throw new IllegalArgumentException("Cannot set both prefix and directory");
-      }
+      if (options != null) {
+         if (options.getDir() != null && options.getPrefix() != null) {
+            throw new IllegalArgumentException("Cannot set both prefix and directory");
+         }
 
-      if ((options.getDir() != null || options.isRecursive()) && (options.getDelimiter() != null)) {
-         throw new IllegalArgumentException("Cannot set the delimiter if directory or recursive is set");
+         if ((options.getDir() != null || options.isRecursive()) && (options.getDelimiter() != null)) {
+            throw new IllegalArgumentException("Cannot set the delimiter if directory or recursive is set");
+         }
       }
 
       // Check if the container exists
       if (!storageStrategy.containerExists(containerName))
          throw cnfe(containerName);
 
-      // Loading blobs from container
+      String prefix = null;
+      String delimiter = null;
+      boolean excludePrefix = false;
+      String optionsMarker = null;
+      // without options, list every blob with its full metadata
+      int maxResults = Integer.MAX_VALUE;
+      boolean detailed = true;
+      if (options != null) {
+         if (options.getDir() != null && !options.getDir().isEmpty()) {
+            prefix = options.getDir().endsWith("/") ? options.getDir() : options.getDir() + "/";
+            excludePrefix = true;
+            if (!options.isRecursive()) {
+               delimiter = storageStrategy.getSeparator();
+            }
+         } else if (!Strings.isNullOrEmpty(options.getPrefix())) {
+            prefix = options.getPrefix();
+            if (options.getDelimiter() != null || !options.isRecursive()) {
+               delimiter = options.getDelimiter() == null ? storageStrategy.getSeparator() : options.getDelimiter();
+            }
+         } else if (!options.isRecursive() || (options.getDelimiter() != null)) {
+            delimiter = options.getDelimiter() == null ? storageStrategy.getSeparator() : options.getDelimiter();
+         }
+         optionsMarker = options.getMarker();
+         maxResults = options.getMaxResults() != null ? options.getMaxResults() : 1000;
+         detailed = options.isDetailed();
+      }
+      if (Strings.isNullOrEmpty(delimiter)) {
+         delimiter = null;
+      }
+
+      SortedSet<StorageMetadata> contents = newTreeSet();
+      if (maxResults == 0) {
+         return new PageSetImpl<StorageMetadata>(contents, null);
+      }
+
+      // Walk keys in order starting after the marker, loading metadata only for returned blobs
       Iterable<String> blobBelongingToContainer = null;
       try {
-         blobBelongingToContainer = storageStrategy.getBlobKeysInsideContainer(containerName);
+         blobBelongingToContainer = getBlobKeysInsideContainer(containerName, prefix, optionsMarker);
       } catch (IOException e) {
          logger.error(e, "An error occurred loading blobs contained into container %s", containerName);
          propagate(e);
       }
 
-      blobBelongingToContainer = Iterables.filter(blobBelongingToContainer,
-            new Predicate<String>() {
-               @Override
-               public boolean apply(String key) {
-                  // ignore folders
-                  return storageStrategy.blobExists(containerName, key);
-               }
-            });
-      SortedSet<StorageMetadata> contents = newTreeSet(FluentIterable.from(blobBelongingToContainer)
-            .transform(new Function<String, StorageMetadata>() {
-               @Override
-               public StorageMetadata apply(String key) {
-                  Blob oldBlob = loadBlob(containerName, key);
-                  if (oldBlob == null) {
-                     return null;
-                  }
-                  checkState(oldBlob.getMetadata() != null, "blob " + containerName + "/" + key + " has no metadata");
-                  MutableBlobMetadata md = BlobStoreUtils.copy(oldBlob.getMetadata());
-                  md.setSize(oldBlob.getMetadata().getSize());
-                  return md;
-               }
-            })
-            .filter(Predicates.<StorageMetadata>notNull()));
-
       String marker = null;
-      if (options != null) {
-         if (options.getDir() != null && !options.getDir().isEmpty()) {
-            contents = filterDirectory(contents, options);
-         } else if (!Strings.isNullOrEmpty(options.getPrefix())) {
-            contents = filterPrefix(contents, options);
-         } else if (!options.isRecursive() || (options.getDelimiter() != null)) {
-            String delimiter = options.getDelimiter() == null ? storageStrategy.getSeparator() : options.getDelimiter();
-            contents = extractCommonPrefixes(contents, delimiter, null);
+      String lastCommonPrefix = null;
+      for (String key : blobBelongingToContainer) {
+         String name = key.replace(File.separatorChar, '/');
+         if (excludePrefix && name.equals(prefix)) {
+            continue;
          }
-
-         if (options.getMarker() != null) {
-            final String finalMarker = options.getMarker();
-            String delimiter = storageStrategy.getSeparator();
-            Optional<StorageMetadata> lastMarkerMetadata = tryFind(contents, new Predicate<StorageMetadata>() {
-               public boolean apply(StorageMetadata metadata) {
-                  return metadata.getName().compareTo(finalMarker) > 0;
+         String commonPrefix = null;
+         if (delimiter != null) {
+            String unprefixedName = prefix == null ? name : name.substring(prefix.length());
+            int index = unprefixedName.indexOf(delimiter);
+            if (index >= 0) {
+               commonPrefix = (prefix == null ? "" : prefix) + unprefixedName.substring(0, index) + delimiter;
+               if (commonPrefix.equals(lastCommonPrefix) ||
+                     (optionsMarker != null && commonPrefix.compareTo(optionsMarker) <= 0)) {
+                  continue;
                }
-            });
-            if (lastMarkerMetadata.isPresent()) {
-               contents = contents.tailSet(lastMarkerMetadata.get());
-            } else {
-               // marker is after last key or container is empty
-               contents.clear();
             }
          }
-
-         int maxResults = options.getMaxResults() != null ? options.getMaxResults() : 1000;
-         if (!contents.isEmpty()) {
-            StorageMetadata lastElement = contents.last();
-            contents = newTreeSet(Iterables.limit(contents, maxResults));
-            if (maxResults != 0 && !contents.contains(lastElement)) {
-               // Partial listing
-               lastElement = contents.last();
-               marker = lastElement.getName();
-            }
+         // ignore folders
+         if (!storageStrategy.blobExists(containerName, key)) {
+            continue;
          }
-
-         // trim metadata, if the response isn't supposed to be detailed.
-         if (!options.isDetailed()) {
-            for (StorageMetadata md : contents) {
-               md.getUserMetadata().clear();
-            }
+         if (contents.size() == maxResults) {
+            // Partial listing
+            marker = contents.last().getName();
+            break;
          }
-      }
-
-      return new PageSetImpl<StorageMetadata>(contents, marker);
-   }
-
-   private SortedSet<StorageMetadata> filterDirectory(SortedSet<StorageMetadata> contents, ListContainerOptions
-           options) {
-      String prefix = options.getDir();
-      final String dirPrefix = prefix.endsWith("/") ?
-              prefix :
-              prefix + "/";
-      contents = newTreeSet(filter(contents, new Predicate<StorageMetadata>() {
-         public boolean apply(StorageMetadata o) {
-            return o != null
-                    && o.getName().replace(File.separatorChar, '/').startsWith(dirPrefix)
-                    && !o.getName().replace(File.separatorChar, '/').equals(dirPrefix);
+         if (commonPrefix != null) {
+            lastCommonPrefix = commonPrefix;
+            MutableStorageMetadata md = new MutableStorageMetadataImpl();
+            md.setType(StorageType.RELATIVE_PATH);
+            md.setName(commonPrefix);
+            contents.add(md);
+            continue;
          }
-      }));
-
-      if (!options.isRecursive()) {
-         return extractCommonPrefixes(contents, storageStrategy.getSeparator(), dirPrefix);
-      }
-
-      return contents;
-   }
-
-   private SortedSet<StorageMetadata> filterPrefix(SortedSet<StorageMetadata> contents, final ListContainerOptions
-                                                   options) {
-      contents = newTreeSet(filter(contents, new Predicate<StorageMetadata>() {
-         public boolean apply(StorageMetadata o) {
-            return o != null && o.getName().replace(File.separatorChar, '/').startsWith(options.getPrefix());
+         MutableBlobMetadata oldMetadata = storageStrategy.getBlobMetadata(containerName, key);
+         if (oldMetadata == null) {
+            continue;
          }
-      }));
-
-      if (options.getDelimiter() != null || !options.isRecursive()) {
-          String delimiter = options.getDelimiter() == null ? storageStrategy.getSeparator() : options.getDelimiter();
-          return extractCommonPrefixes(contents, delimiter, options.getPrefix());
+         MutableBlobMetadata md = BlobStoreUtils.copy(oldMetadata);
+         md.setSize(oldMetadata.getSize());
+         // trim metadata, if the response isn't supposed to be detailed.
+         if (!detailed) {
+            md.getUserMetadata().clear();
+         }
+         contents.add(md);
       }
 
-      return contents;
+      return new PageSetImpl<StorageMetadata>(contents, marker);
    }
 
-   private SortedSet<StorageMetadata> extractCommonPrefixes(SortedSet<StorageMetadata> contents, String delimiter,
-                                                            String prefix) {
-      if (Strings.isNullOrEmpty(delimiter)) {
-         return contents;
-      }
-      SortedSet<String> commonPrefixes = newTreeSet(
-              transform(contents, new CommonPrefixes(prefix, delimiter)));
-      commonPrefixes.remove(CommonPrefixes.NO_PREFIX);
-
-      contents = newTreeSet(filter(contents, new DelimiterFilter(prefix, delimiter)));
-
-      for (String o : commonPrefixes) {
-         MutableStorageMetadata md = new MutableStorageMetadataImpl();
-         md.setType(StorageType.RELATIVE_PATH);
-
-         if (prefix != null) {
-            o = prefix + o;
+   /**
+    * Returns the keys after the marker that start with the prefix, in order. Strategies that cannot seek are scanned
+    * in full and sorted.
+    */
+   private Iterable<String> getBlobKeysInsideContainer(String containerName, @Nullable String prefix,
+         @Nullable String marker) throws IOException {
+      if (storageStrategy instanceof OrderedLocalStorageStrategy) {
+         return OrderedLocalStorageStrategy.class.cast(storageStrategy).getBlobKeysInsideContainer(containerName,
+               prefix, marker);
+      }
+      SortedSet<String> keys = newTreeSet();
+      for (String key : storageStrategy.getBlobKeysInsideContainer(containerName)) {
+         if ((prefix == null || key.startsWith(prefix)) && (marker == null || key.compareTo(marker) > 0)) {
+            keys.add(key);
          }
-         md.setName(o + delimiter);
-         contents.add(md);
       }
-      return contents;
+      return keys;
    }
 
    private ContainerNotFoundException cnfe(final String name) {
@@ -468,60 +438,6 @@ public final class LocalBlobStore implements BlobStore {
       return storageStrategy.getBlob(container, key);
    }
 
-   private static class DelimiterFilter implements Predicate<StorageMetadata> {
-      private final String prefix;
-      private final String delimiter;
-
-      public DelimiterFilter(String prefix, String delimiter) {
-         this.prefix = prefix;
-         this.delimiter = delimiter;
-      }
-
-      public boolean apply(StorageMetadata metadata) {
-         String name = metadata.getName();
-         if (prefix == null || prefix.isEmpty()) {
-            return name.indexOf(delimiter) == -1;
-         }
-         if (name.startsWith(prefix)) {
-            String unprefixedName = name.substring(prefix.length());
-            if (unprefixedName.equals("")) {
-               // a blob that matches the prefix should also be returned
-               return true;
-            }
-            return unprefixedName.indexOf(delimiter) == -1;
-         }
-         return false;
-      }
-   }
-
-   private static class CommonPrefixes implements Function<StorageMetadata, String> {
-      private final String prefix;
-      private final String delimiter;
-      public static final String NO_PREFIX = "NO_PREFIX";
-
-      public CommonPrefixes(String prefix, String delimiter) {
-         this.prefix = prefix;
-         this.delimiter = delimiter;
-      }
-
-      public String apply(StorageMetadata metadata) {
-         String working = metadata.getName();
-         if (prefix != null) {
-            if (working.startsWith(prefix)) {
-               working = working.substring(prefix.length());
-            } else {
-               return NO_PREFIX;
-            }
-         }
-         if (working.indexOf(delimiter) >= 0) {
-            // include the delimiter in the result
-            return working.substring(0, working.indexOf(delimiter));
-         } else {
-            return NO_PREFIX;
-         }
-      }
-   }
-
    private static HttpResponseException returnResponseException(int code) {
       HttpResponse response = HttpResponse.builder().statusCode(code).build();
       return new HttpResponseException(new HttpCommand(HttpRequest.builder().method("GET").endpoint("http://stub")
@@ -742,8 +658,14 @@ public final class LocalBlobStore implements BlobStore {
    @Override
    public BlobMetadata blobMetadata(String containerName, String key) {
       try {
-         Blob blob = getBlob(containerName, key);
-         return blob != null ? (BlobMetadata) BlobStoreUtils.copy(blob.getMetadata()) : null;
+         if (!storageStrategy.containerExists(containerName)) {
+            throw cnfe(containerName);
+         }
+         if (!storageStrategy.blobExists(containerName, key)) {
+            return null;
+         }
+         MutableBlobMetadata metadata = storageStrategy.getBlobMetadata(containerName, key);
+         return metadata != null ? (BlobMetadata) BlobStoreUtils.copy(metadata) : null;
       } catch (RuntimeException e) {
          if (size(Iterables.filter(getCausalChain(e), KeyNotFoundException.class)) >= 1)
             return null;
@@ -18,18 +18,29 @@ package org.jclouds.blobstore.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static org.jclouds.Constants.PROPERTY_MAX_RETRIES;
 import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursive;
 import static org.jclouds.util.Predicates2.retry;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 
 import javax.inject.Named;
@@ -40,14 +51,18 @@ import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobBuilder;
+import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.MultipartPart;
 import org.jclouds.blobstore.domain.MultipartUpload;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.options.CopyOptions;
+import org.jclouds.blobstore.options.GetOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.options.PutOptions;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
 import org.jclouds.blobstore.strategy.internal.MultipartUploadSlicingAlgorithm;
+import org.jclouds.blobstore.strategy.internal.StreamingMultipartUploader;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.collect.Memoized;
 import org.jclouds.domain.Location;
@@ -58,6 +73,7 @@ import org.jclouds.http.HttpResponseException;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.PayloadSlicer;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.util.Closeables2;
 
 import com.google.common.annotations.Beta;
@@ -68,6 +84,8 @@ import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 public abstract class BaseBlobStore implements BlobStore {
 
@@ -331,6 +349,14 @@ public abstract class BaseBlobStore implements BlobStore {
    @VisibleForTesting
    ListeningExecutorService userExecutor;
 
+   private static final int DEFAULT_STREAMING_BUFFERS = 4;
+   private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
+   @com.google.inject.Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_MULTIPART_STREAMING_BUFFERS)
+   @VisibleForTesting
+   int streamingBuffers = DEFAULT_STREAMING_BUFFERS;
+
    /**
     * Upload using a user-provided executor, or the jclouds userExecutor
     *
@@ -358,8 +384,11 @@ public abstract class BaseBlobStore implements BlobStore {
          MultipartUploadSlicingAlgorithm algorithm = new MultipartUploadSlicingAlgorithm(
                getMinimumMultipartPartSize(), getMaximumMultipartPartSize(), getMaximumNumberOfParts());
          long partSize = algorithm.calculateChunkSize(contentLength);
+         if (!blob.getPayload().isRepeatable()) {
+            return completeMultipartUpload(mpu, StreamingMultipartUploader.uploadParts(this, mpu, blob.getPayload(),
+                  algorithm, partSize, 1, streamingBuffers, executor));
+         }
          int partNumber = 1;
-         // TODO: for InputStream payloads, this buffers all parts in-memory!
          while (partNumber <= algorithm.getParts()) {
             Payload payload = slicer.slice(blob.getPayload(), algorithm.getCopied(), partSize);
             BlobUploader b =
@@ -411,23 +440,294 @@ public abstract class BaseBlobStore implements BlobStore {
       return eTag;
    }
 
+   @com.google.inject.Inject(optional = true)
+   @Named(PROPERTY_MAX_RETRIES)
+   @VisibleForTesting
+   int maxDownloadRetries = 5;
+
    @Override
    public void downloadBlob(String container, String name, File destination) {
-      throw new UnsupportedOperationException("Operation not supported yet");
+      downloadBlob(container, name, destination, userExecutor);
    }
 
+   /**
+    * Download ranges sized like multipart upload parts in parallel and write them into a temporary file with
+    * positional writes.  A failed range is resumed from the last byte received.  Every range must match the ETag
+    * the blob had when the download started, so overwriting the blob fails the download with a 412
+    * {@link HttpResponseException} instead of mixing two versions.
+    */
+   @Beta
    @Override
    public void downloadBlob(String container, String name, File destination, ExecutorService executor) {
-      throw new UnsupportedOperationException("Operation not supported yet");
+      ListeningExecutorService listeningExecutor = MoreExecutors.listeningDecorator(executor);
+      BlobMetadata metadata = getDownloadMetadata(container, name);
+      long contentLength = metadata.getContentMetadata().getContentLength();
+      String eTag = metadata.getETag();
+      long partSize = getDownloadPartSize(contentLength);
+      RandomAccessFile raf = null;
+      File tempFile = new File(destination + "." + UUID.randomUUID());
+      try {
+         raf = new RandomAccessFile(tempFile, "rw");
+         raf.setLength(contentLength);
+         final FileChannel channel = raf.getChannel();
+
+         List<ListenableFuture<Void>> results = new ArrayList<ListenableFuture<Void>>();
+         for (long from = 0; from < contentLength; from += partSize) {
+            long to = Math.min(from + partSize, contentLength) - 1;
+            results.add(listeningExecutor.submit(new RangeDownloader<Void>(container, name, eTag, from, to) {
+               @Override
+               void write(long position, ByteBuffer buffer) throws IOException {
+                  while (buffer.hasRemaining()) {
+                     position += channel.write(buffer, position);
+                  }
+               }
+
+               @Override
+               Void result() {
+                  return null;
+               }
+            }));
+         }
+         try {
+            Futures.getUnchecked(Futures.allAsList(results));
+         } catch (RuntimeException re) {
+            for (ListenableFuture<Void> result : results) {
+               result.cancel(true);
+            }
+            if (re instanceof UncheckedExecutionException) {
+               // surface a 412 from an overwritten blob as is
+               Throwables.propagateIfPossible(re.getCause());
+            }
+            throw re;
+         }
+
+         channel.force(true);
+         raf.close();
+
+         if (destination.exists()) {
+            destination.delete();
+         }
+         if (!tempFile.renameTo(destination)) {
+            throw new IOException("Could not move temporary downloaded file to destination " + destination);
+         }
+         tempFile = null;
+      } catch (IOException ioe) {
+         throw Throwables.propagate(ioe);
+      } finally {
+         Closeables2.closeQuietly(raf);
+         if (tempFile != null) {
+            tempFile.delete();
+         }
+      }
    }
 
    @Override
    public InputStream streamBlob(String container, String name) {
-      throw new UnsupportedOperationException("Operation not supported yet");
+      return streamBlob(container, name, userExecutor);
    }
 
+   /**
+    * Download ranges sized like multipart upload parts in order, prefetching up to
+    * {@link BlobStoreConstants#PROPERTY_MULTIPART_STREAMING_BUFFERS} ranges ahead of the reader.  Like
+    * {@link #downloadBlob(String, String, File, ExecutorService)}, every range must match the ETag the blob had when
+    * the stream was opened.
+    */
+   @Beta
    @Override
    public InputStream streamBlob(String container, String name, ExecutorService executor) {
-      throw new UnsupportedOperationException("Operation not supported yet");
+      BlobMetadata metadata = getDownloadMetadata(container, name);
+      long contentLength = metadata.getContentMetadata().getContentLength();
+      long partSize = getDownloadPartSize(contentLength);
+      checkState(partSize <= Integer.MAX_VALUE, "part size %s too large to buffer", partSize);
+      return new RangedInputStream(container, name, metadata.getETag(), contentLength, partSize,
+            MoreExecutors.listeningDecorator(executor));
+   }
+
+   private BlobMetadata getDownloadMetadata(String container, String name) {
+      BlobMetadata metadata = blobMetadata(container, name);
+      if (metadata == null) {
+         throw new KeyNotFoundException(container, name, "while downloading");
+      }
+      checkNotNull(metadata.getContentMetadata().getContentLength(), "content length");
+      return metadata;
+   }
+
+   private long getDownloadPartSize(long contentLength) {
+      MultipartUploadSlicingAlgorithm algorithm = new MultipartUploadSlicingAlgorithm(
+            getMinimumMultipartPartSize(), getMaximumMultipartPartSize(), getMaximumNumberOfParts());
+      return algorithm.calculateChunkSize(contentLength);
+   }
+
+   /**
+    * Downloads the inclusive range [begin, end], resuming from the last byte received when a request fails.  Requests
+    * are conditional on the ETag, if known, so a 412 is not retried.
+    */
+   private abstract class RangeDownloader<T> implements Callable<T> {
+      private final String container;
+      private final String name;
+      @Nullable
+      private final String eTag;
+      private final long begin;
+      private final long end;
+
+      RangeDownloader(String container, String name, @Nullable String eTag, long begin, long end) {
+         this.container = container;
+         this.name = name;
+         this.eTag = eTag;
+         this.begin = begin;
+         this.end = end;
+      }
+
+      /** Write bytes received at the given offset of the blob. */
+      abstract void write(long position, ByteBuffer buffer) throws IOException;
+
+      abstract T result();
+
+      @Override
+      public T call() throws IOException {
+         byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+         long offset = begin;
+         IOException lastException = null;
+         for (int retry = 0; retry < maxDownloadRetries; retry++) {
+            InputStream is = null;
+            try {
+               GetOptions options = GetOptions.Builder.range(offset, end);
+               if (eTag != null) {
+                  options.ifETagMatches(eTag);
+               }
+               Blob blob = getBlob(container, name, options);
+               if (blob == null) {
+                  throw new KeyNotFoundException(container, name, "while downloading");
+               }
+               is = blob.getPayload().openStream();
+               while (offset <= end) {
+                  int read = is.read(buffer, 0, (int) Math.min(buffer.length, end - offset + 1));
+                  if (read == -1) {
+                     throw new EOFException("Premature end of range " + offset + "-" + end + " of " + name);
+                  }
+                  write(offset, ByteBuffer.wrap(buffer, 0, read));
+                  offset += read;
+               }
+               return result();
+            } catch (IOException ioe) {
+               lastException = ioe;
+            } finally {
+               Closeables2.closeQuietly(is);
+            }
+         }
+         throw new IOException("After " + maxDownloadRetries + " retries downloading range " + begin + "-" + end +
+               " of " + name, lastException);
+      }
+   }
+
+   /** Reads ranges in order while keeping a bounded number of subsequent ranges downloading in the background. */
+   private final class RangedInputStream extends InputStream {
+      private final String container;
+      private final String name;
+      @Nullable
+      private final String eTag;
+      private final long contentLength;
+      private final long partSize;
+      private final ListeningExecutorService executor;
+      private final Deque<ListenableFuture<byte[]>> inFlight = new ArrayDeque<ListenableFuture<byte[]>>();
+      private long nextOffset;
+      private byte[] current = new byte[0];
+      private int position;
+      private boolean closed;
+
+      RangedInputStream(String container, String name, @Nullable String eTag, long contentLength, long partSize,
+            ListeningExecutorService executor) {
+         this.container = container;
+         this.name = name;
+         this.eTag = eTag;
+         this.contentLength = contentLength;
+         this.partSize = partSize;
+         this.executor = executor;
+         prefetch();
+      }
+
+      private void prefetch() {
+         int maxInFlight = Math.max(1, streamingBuffers);
+         while (inFlight.size() < maxInFlight && nextOffset < contentLength) {
+            long to = Math.min(nextOffset + partSize, contentLength) - 1;
+            final byte[] range = new byte[(int) (to - nextOffset + 1)];
+            final long from = nextOffset;
+            inFlight.add(executor.submit(new RangeDownloader<byte[]>(container, name, eTag, from, to) {
+               @Override
+               void write(long position, ByteBuffer buffer) {
+                  buffer.get(range, (int) (position - from), buffer.remaining());
+               }
+
+               @Override
+               byte[] result() {
+                  return range;
+               }
+            }));
+            nextOffset = to + 1;
+         }
+      }
+
+      /** @return false at the end of the blob */
+      private boolean advance() throws IOException {
+         if (closed) {
+            throw new IOException("Stream closed");
+         }
+         while (position == current.length) {
+            ListenableFuture<byte[]> next = inFlight.poll();
+            if (next == null) {
+               return false;
+            }
+            try {
+               current = next.get();
+            } catch (InterruptedException ie) {
+               Thread.currentThread().interrupt();
+               throw new InterruptedIOException();
+            } catch (ExecutionException ee) {
+               Throwables.propagateIfPossible(ee.getCause(), IOException.class);
+               throw new IOException(ee.getCause());
+            }
+            position = 0;
+            prefetch();
+         }
+         return true;
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (!advance()) {
+            return -1;
+         }
+         return current[position++] & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (len == 0) {
+            return 0;
+         }
+         if (!advance()) {
+            return -1;
+         }
+         int count = Math.min(len, current.length - position);
+         System.arraycopy(current, position, b, off, count);
+         position += count;
+         return count;
+      }
+
+      @Override
+      public int available() {
+         return current.length - position;
+      }
+
+      @Override
+      public void close() {
+         closed = true;
+         for (ListenableFuture<byte[]> future : inFlight) {
+            future.cancel(true);
+         }
+         inFlight.clear();
+         current = new byte[0];
+         position = 0;
+      }
    }
 }
@@ -53,6 +53,14 @@ public final class BlobStoreConstants {
     */
    public static final String PROPERTY_USER_METADATA_PREFIX = "jclouds.blobstore.metaprefix";
 
+   /**
+    * Number of part buffers held in memory while uploading a non-repeatable payload, e.g., an
+    * InputStream, via multipart upload.  The reading thread blocks until an uploaded part returns
+    * its buffer, which bounds memory use to this many parts.  Also bounds the number of ranges
+    * prefetched by streamBlob.  Defaults to 4.
+    */
+   public static final String PROPERTY_MULTIPART_STREAMING_BUFFERS = "jclouds.mpu.streaming.buffers";
+
    public static final String BLOBSTORE_LOGGER = "jclouds.blobstore";
    public static final String DIRECTORY_BLOB_SUFFIX = "/";
 
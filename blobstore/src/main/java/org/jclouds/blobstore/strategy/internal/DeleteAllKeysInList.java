@@ -18,8 +18,11 @@ package org.jclouds.blobstore.strategy.internal;
 
 import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursive;
 
+import java.math.RoundingMode;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Semaphore;
@@ -33,6 +36,7 @@ import javax.inject.Singleton;
 
 import org.jclouds.Constants;
 import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.BulkDeleteBlobStore;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
@@ -45,6 +49,9 @@ import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.logging.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.math.IntMath;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -174,31 +181,15 @@ public class DeleteAllKeysInList implements ClearListStrategy, ClearContainerStr
       return listing;
    }
 
-   private ListenableFuture<Void> deleteDirectory(final ListContainerOptions options,
-         final String containerName, final String dirName) {
-      ListenableFuture<Void> blobDelFuture;
-
-      if (options.isRecursive()) {
-         blobDelFuture = executorService.submit(new Callable<Void>() {
-            @Override
-            public Void call() {
-               blobStore.deleteDirectory(containerName, dirName);
-               return null;
-            }
-         });
-      } else {
-         blobDelFuture = null;
-      }
-
-      return blobDelFuture;
-   }
-
    /**
     * Delete the blobs from a given PageSet. The PageSet may contain blobs or
     * directories. If there are directories, they are expected to be empty.
     *
-    * The logic of acquiring a semaphore, submitting a callable to the
-    * executorService and releasing the semaphore resides here.
+    * If the blob store is a {@link BulkDeleteBlobStore}, all blobs of the page
+    * are removed with a single {@link BulkDeleteBlobStore#tryRemoveBlobs} call.
+    * Otherwise the page is split into maxParallelDeletes batches whose blobs
+    * are removed one at a time. Either way, only the blobs which failed are
+    * retried.
     *
     * @param containerName
     *           The container from which the objects are listed.
@@ -223,80 +214,137 @@ public class DeleteAllKeysInList implements ClearListStrategy, ClearContainerStr
          final AtomicBoolean deleteFailure,
          final Set<ListenableFuture<Void>> outstandingFutures)
          throws TimeoutException {
+      ImmutableList.Builder<String> blobNames = ImmutableList.builder();
       for (final StorageMetadata md : listing) {
          final String fullPath = parentIsFolder(options, md) ? options.getDir()
                + "/" + md.getName() : md.getName();
-
-         // Attempt to acquire a semaphore within the time limit. At least
-         // one outstanding future should complete within this period for the
-         // semaphore to be acquired.
-         try {
-            if (!semaphore.tryAcquire(maxTime, TimeUnit.MILLISECONDS)) {
-               throw new TimeoutException("Timeout waiting for semaphore");
-            }
-         } catch (InterruptedException ie) {
-            logger.debug("Interrupted while deleting blobs");
-            Thread.currentThread().interrupt();
-         }
-
-         final ListenableFuture<Void> blobDelFuture;
          switch (md.getType()) {
          case FOLDER:
          case BLOB:
-            blobDelFuture = executorService.submit(new Callable<Void>() {
-               @Override
-               public Void call() {
-                  blobStore.removeBlob(containerName, fullPath);
-                  return null;
-               }
-            });
+            blobNames.add(fullPath);
             break;
          case RELATIVE_PATH:
-            blobDelFuture = deleteDirectory(options, containerName,
-                  md.getName());
+            if (options.isRecursive()) {
+               submitDelete(new Callable<Void>() {
+                  @Override
+                  public Void call() {
+                     blobStore.deleteDirectory(containerName, md.getName());
+                     return null;
+                  }
+               }, semaphore, deleteFailure, outstandingFutures);
+            }
             break;
          case CONTAINER:
             throw new IllegalArgumentException("Container type not supported");
          default:
-            blobDelFuture = null;
+            break;
          }
+      }
 
-         // If a future to delete a blob/directory actually got created above,
-         // keep a reference of that in the outstandingFutures list. This is
-         // useful in case of a timeout exception. All outstanding futures can
-         // then be cancelled.
-         if (blobDelFuture != null) {
-            outstandingFutures.add(blobDelFuture);
-
-            // Add a callback to release the semaphore. This is required for
-            // other threads waiting to acquire a semaphore above to make
-            // progress.
-            Futures.addCallback(blobDelFuture, new FutureCallback<Object>() {
-               @Override
-               public void onSuccess(final Object o) {
-                  outstandingFutures.remove(blobDelFuture);
-                  semaphore.release();
-               }
+      List<String> names = blobNames.build();
+      if (names.isEmpty()) {
+         return;
+      }
+      int batchSize = names.size();
+      if (!(blobStore instanceof BulkDeleteBlobStore)) {
+         batchSize = IntMath.divide(batchSize, maxParallelDeletes, RoundingMode.CEILING);
+      }
+      for (final List<String> batch : Lists.partition(names, batchSize)) {
+         submitDelete(new Callable<Void>() {
+            @Override
+            public Void call() {
+               removeBlobs(containerName, batch);
+               return null;
+            }
+         }, semaphore, deleteFailure, outstandingFutures);
+      }
+   }
 
-               @Override
-               public void onFailure(final Throwable t) {
-                  // Make a note the fact that some blob/directory could not be
-                  // deleted successfully. This is used for retrying later.
-                  deleteFailure.set(true);
-                  outstandingFutures.remove(blobDelFuture);
-                  semaphore.release();
-               }
-            });
-         } else {
-            // It is possible above to acquire a semaphore but not submit any
-            // task to the executorService. For e.g. if the listing contains
-            // an object of type 'FOLDER' and the ListContianerOptions are *not*
-            // recursive. In this case, there is no blobDelFuture and therefore
-            // no FutureCallback to release the semaphore. This semaphore is
-            // released here.
-            semaphore.release();
+   /**
+    * Removes a batch of blobs, retrying only the blobs which failed up to
+    * maxErrors times.
+    */
+   private void removeBlobs(String containerName, Collection<String> names) {
+      Collection<String> remaining = tryRemoveBlobs(containerName, names);
+      for (int attempt = 1; !remaining.isEmpty(); attempt++) {
+         if (attempt >= maxErrors) {
+            throw new BlobRuntimeException(String.format("could not remove %d blobs from %s",
+                  remaining.size(), containerName));
+         }
+         retryHandler.imposeBackoffExponentialDelay(attempt, String.format("removing %d blobs from %s",
+               remaining.size(), containerName));
+         remaining = tryRemoveBlobs(containerName, remaining);
+      }
+   }
+
+   /** Returns the names of the blobs which could not be removed. */
+   private Collection<String> tryRemoveBlobs(String containerName, Collection<String> names) {
+      if (blobStore instanceof BulkDeleteBlobStore) {
+         try {
+            return BulkDeleteBlobStore.class.cast(blobStore).tryRemoveBlobs(containerName, names);
+         } catch (RuntimeException e) {
+            logger.debug("removing %d blobs from %s failed: %s", names.size(), containerName, e.getMessage());
+            return names;
+         }
+      }
+      List<String> failed = Lists.newArrayList();
+      for (String name : names) {
+         try {
+            blobStore.removeBlob(containerName, name);
+         } catch (RuntimeException e) {
+            logger.debug("removing %s from %s failed: %s", name, containerName, e.getMessage());
+            failed.add(name);
+         }
+      }
+      return failed;
+   }
+
+   /**
+    * Acquires a semaphore permit and submits the delete to the
+    * executorService. The permit is released when the delete completes.
+    */
+   private void submitDelete(Callable<Void> delete, final Semaphore semaphore,
+         final AtomicBoolean deleteFailure,
+         final Set<ListenableFuture<Void>> outstandingFutures)
+         throws TimeoutException {
+      // Attempt to acquire a semaphore within the time limit. At least
+      // one outstanding future should complete within this period for the
+      // semaphore to be acquired.
+      try {
+         if (!semaphore.tryAcquire(maxTime, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Timeout waiting for semaphore");
          }
+      } catch (InterruptedException ie) {
+         logger.debug("Interrupted while deleting blobs");
+         Thread.currentThread().interrupt();
       }
+
+      final ListenableFuture<Void> blobDelFuture = executorService.submit(delete);
+
+      // Keep a reference of the future in the outstandingFutures list. This is
+      // useful in case of a timeout exception. All outstanding futures can
+      // then be cancelled.
+      outstandingFutures.add(blobDelFuture);
+
+      // Add a callback to release the semaphore. This is required for
+      // other threads waiting to acquire a semaphore above to make
+      // progress.
+      Futures.addCallback(blobDelFuture, new FutureCallback<Object>() {
+         @Override
+         public void onSuccess(final Object o) {
+            outstandingFutures.remove(blobDelFuture);
+            semaphore.release();
+         }
+
+         @Override
+         public void onFailure(final Throwable t) {
+            // Make a note the fact that some blob/directory could not be
+            // deleted successfully. This is used for retrying later.
+            deleteFailure.set(true);
+            outstandingFutures.remove(blobDelFuture);
+            semaphore.release();
+         }
+      });
    }
 
    /**
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.domain.MultipartPart;
+import org.jclouds.blobstore.domain.MultipartUpload;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.jclouds.io.payloads.BaseMutableContentMetadata;
+import org.jclouds.util.Closeables2;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Throwables;
+import com.google.common.hash.HashCode;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Uploads a non-repeatable payload, e.g., an InputStream, by reading it sequentially into a bounded set of part
+ * buffers.  The calling thread blocks when all buffers are in flight and each buffer is reused once its part finishes
+ * uploading, so at most {@code maxBuffers} parts are held in memory.
+ */
+@Beta
+public final class StreamingMultipartUploader {
+
+   private StreamingMultipartUploader() {
+   }
+
+   /**
+    * @param algorithm
+    *           sized by {@link MultipartUploadSlicingAlgorithm#calculateChunkSize} for the payload
+    * @param firstPartNumber
+    *           number of the first part, as providers count them from 0 or 1
+    * @return the uploaded parts, in order
+    */
+   public static List<MultipartPart> uploadParts(final BlobStore blobStore, final MultipartUpload mpu,
+         Payload payload, MultipartUploadSlicingAlgorithm algorithm, long partSize, int firstPartNumber,
+         int maxBuffers, ListeningExecutorService executor) {
+      checkState(partSize <= Integer.MAX_VALUE, "part size %s too large to buffer", partSize);
+      int totalParts = algorithm.getParts() + (algorithm.getRemaining() != 0 ? 1 : 0);
+      maxBuffers = Math.max(1, Math.min(maxBuffers, totalParts));
+      final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<byte[]>(maxBuffers);
+      final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+      int allocatedBuffers = 0;
+      List<ListenableFuture<MultipartPart>> parts = new ArrayList<ListenableFuture<MultipartPart>>(totalParts);
+      InputStream is = null;
+      boolean uploaded = false;
+      try {
+         is = payload.openStream();
+         for (int i = 0; i < totalParts; i++) {
+            long length = i < algorithm.getParts() ? partSize : algorithm.getRemaining();
+            byte[] buffer = buffers.poll();
+            if (buffer == null) {
+               if (allocatedBuffers < maxBuffers) {
+                  buffer = new byte[(int) partSize];
+                  allocatedBuffers++;
+               } else {
+                  buffer = buffers.take();
+               }
+            }
+            // fail fast instead of reading the rest of the stream
+            if (failure.get() != null) {
+               throw new UncheckedExecutionException(failure.get());
+            }
+            ByteStreams.readFully(is, buffer, 0, (int) length);
+            final Payload partPayload = Payloads.newByteSourcePayload(ByteSource.wrap(buffer).slice(0, length));
+            partPayload.setContentMetadata(BaseMutableContentMetadata.fromContentMetadata(
+                  payload.getContentMetadata().toBuilder().contentLength(length).contentMD5((HashCode) null).build()));
+            final int partNumber = firstPartNumber + i;
+            ListenableFuture<MultipartPart> part = executor.submit(new Callable<MultipartPart>() {
+               @Override
+               public MultipartPart call() {
+                  return blobStore.uploadMultipartPart(mpu, partNumber, partPayload);
+               }
+            });
+            final byte[] partBuffer = buffer;
+            Futures.addCallback(part, new FutureCallback<MultipartPart>() {
+               @Override
+               public void onSuccess(MultipartPart result) {
+                  buffers.offer(partBuffer);
+               }
+
+               @Override
+               public void onFailure(Throwable t) {
+                  // record the failure before returning the buffer, so that a reader waiting on it sees the failure
+                  failure.compareAndSet(null, t);
+                  buffers.offer(partBuffer);
+               }
+            }, MoreExecutors.directExecutor());
+            parts.add(part);
+         }
+         List<MultipartPart> uploadedParts = Futures.getUnchecked(Futures.allAsList(parts));
+         uploaded = true;
+         return uploadedParts;
+      } catch (IOException ioe) {
+         throw Throwables.propagate(ioe);
+      } catch (InterruptedException ie) {
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(ie);
+      } finally {
+         // whatever failed, do not leave parts uploading after the caller aborts the upload
+         if (!uploaded) {
+            for (ListenableFuture<MultipartPart> part : parts) {
+               part.cancel(true);
+            }
+         }
+         Closeables2.closeQuietly(is);
+      }
+   }
+}
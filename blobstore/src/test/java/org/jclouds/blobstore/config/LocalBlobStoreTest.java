@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.config;
+
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.afterMarker;
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.inDirectory;
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.maxResults;
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.prefix;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.LocalStorageStrategy;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.util.BlobUtils;
+import org.jclouds.collect.Memoized;
+import org.jclouds.domain.Location;
+import org.jclouds.io.ContentMetadataCodec;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+@Test(groups = "unit", testName = "LocalBlobStoreTest")
+public class LocalBlobStoreTest {
+   private static final String CONTAINER = "container";
+   private static final List<String> KEYS = ImmutableList.of("a", "b/1", "b/2", "b/3/x", "c", "d/1", "e");
+
+   private BlobStoreContext context;
+   private BlobStore ordered;
+   private BlobStore unordered;
+
+   @BeforeClass
+   public void setUp() {
+      context = ContextBuilder.newBuilder("transient").build(BlobStoreContext.class);
+      Injector injector = context.utils().injector();
+      final LocalStorageStrategy strategy = injector.getInstance(LocalStorageStrategy.class);
+      ordered = newLocalBlobStore(injector, strategy);
+      // hides the ordered key listing of the transient strategy
+      LocalStorageStrategy plain = (LocalStorageStrategy) Proxy.newProxyInstance(
+            LocalStorageStrategy.class.getClassLoader(), new Class<?>[] { LocalStorageStrategy.class },
+            new InvocationHandler() {
+               @Override
+               public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                  try {
+                     return method.invoke(strategy, args);
+                  } catch (InvocationTargetException e) {
+                     throw e.getCause();
+                  }
+               }
+            });
+      unordered = newLocalBlobStore(injector, plain);
+
+      ordered.createContainerInLocation(null, CONTAINER);
+      for (String key : KEYS) {
+         ordered.putBlob(CONTAINER, ordered.blobBuilder(key).payload(key).build());
+      }
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      if (context != null) {
+         context.close();
+      }
+   }
+
+   public void testListWithoutOptionsReturnsEveryBlob() {
+      PageSet<? extends StorageMetadata> page = ordered.list(CONTAINER, null);
+      assertEquals(names(page), KEYS);
+      assertNull(page.getNextMarker());
+      assertEquals(names(unordered.list(CONTAINER, null)), KEYS);
+   }
+
+   public void testUnorderedStrategyListsLikeOrderedStrategy() {
+      for (ListContainerOptions options : ImmutableList.of(ListContainerOptions.NONE,
+            ListContainerOptions.Builder.recursive(), maxResults(2), maxResults(2).recursive(), afterMarker("b/"),
+            afterMarker("b/2").recursive(), prefix("b"), prefix("b/").delimiter("/").afterMarker("b/1"),
+            inDirectory("b"), inDirectory("b").recursive().maxResults(1))) {
+         PageSet<? extends StorageMetadata> expected = ordered.list(CONTAINER, options);
+         PageSet<? extends StorageMetadata> actual = unordered.list(CONTAINER, options);
+         assertEquals(names(actual), names(expected), options.toString());
+         assertEquals(actual.getNextMarker(), expected.getNextMarker(), options.toString());
+      }
+   }
+
+   public void testUnorderedStrategyPagesThroughContainer() {
+      List<String> listed = Lists.newArrayList();
+      String marker = null;
+      do {
+         ListContainerOptions options = maxResults(3).recursive();
+         if (marker != null) {
+            options.afterMarker(marker);
+         }
+         PageSet<? extends StorageMetadata> page = unordered.list(CONTAINER, options);
+         listed.addAll(names(page));
+         marker = page.getNextMarker();
+      } while (marker != null);
+      assertEquals(listed, KEYS);
+   }
+
+   private LocalBlobStore newLocalBlobStore(Injector injector, LocalStorageStrategy strategy) {
+      return new LocalBlobStore(context, injector.getInstance(BlobUtils.class),
+            injector.getInstance(Key.get(new TypeLiteral<Supplier<Set<? extends Location>>>() {
+            }, Memoized.class)), injector.getInstance(ContentMetadataCodec.class),
+            injector.getInstance(Blob.Factory.class), strategy);
+   }
+
+   private static List<String> names(PageSet<? extends StorageMetadata> page) {
+      List<String> names = Lists.newArrayList();
+      for (StorageMetadata md : page) {
+         names.add(md.getName());
+      }
+      return names;
+   }
+}
@@ -26,6 +26,18 @@ public class TransientBlobIntegrationTest extends BaseBlobIntegrationTest {
       provider = "transient";
    }
 
+   @Override
+   @Test(groups = { "integration", "live" })
+   public void testDownloadBlob() throws Exception {
+      throw new SkipException("transient does not support downloadBlob");
+   }
+
+   @Override
+   @Test(groups = { "integration", "live" })
+   public void testStreamBlob() throws Exception {
+      throw new SkipException("transient does not support streamBlob");
+   }
+
    @Override
    @Test(groups = { "integration", "live" })
    public void testSetBlobAccess() throws Exception {
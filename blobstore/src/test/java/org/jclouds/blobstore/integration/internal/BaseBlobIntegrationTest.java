@@ -685,6 +685,56 @@ public class BaseBlobIntegrationTest extends BaseBlobStoreIntegrationTest {
       testPut(payload, null, new ByteSourcePayload(byteSource), length, new PutOptions().multipart(true));
    }
 
+   @Test(groups = { "integration", "live" })
+   public void testPutMultipartInputStreamMultipleParts() throws Exception {
+      long length = Math.max(getMinimumMultipartBlobSize(), MultipartUploadSlicingAlgorithm.DEFAULT_PART_SIZE + 1);
+      BlobStore blobStore = view.getBlobStore();
+      MultipartUploadSlicingAlgorithm algorithm = new MultipartUploadSlicingAlgorithm(
+              blobStore.getMinimumMultipartPartSize(), blobStore.getMaximumMultipartPartSize(),
+              blobStore.getMaximumNumberOfParts());
+      // make sure that we are creating multiple parts
+      assertThat(algorithm.calculateChunkSize(length)).isLessThan(length);
+      ByteSource byteSource = TestUtils.randomByteSource().slice(0, length);
+      Payload payload = new InputStreamPayload(byteSource.openStream());
+      testPut(payload, null, new ByteSourcePayload(byteSource), length, new PutOptions().multipart(true));
+   }
+
+   @Test(groups = { "integration", "live" })
+   public void testDownloadBlob() throws Exception {
+      long length = MultipartUploadSlicingAlgorithm.DEFAULT_PART_SIZE + 1;
+      BlobStore blobStore = view.getBlobStore();
+      String containerName = getContainerName();
+      String blobName = "download-blob-name";
+      File file = File.createTempFile("download", ".tmp");
+      try {
+         ByteSource byteSource = TestUtils.randomByteSource().slice(0, length);
+         blobStore.putBlob(containerName, blobStore.blobBuilder(blobName).payload(byteSource).contentLength(length)
+               .build());
+         blobStore.downloadBlob(containerName, blobName, file);
+         assertThat(Files.asByteSource(file).hash(md5())).isEqualTo(byteSource.hash(md5()));
+      } finally {
+         file.delete();
+         returnContainer(containerName);
+      }
+   }
+
+   @Test(groups = { "integration", "live" })
+   public void testStreamBlob() throws Exception {
+      long length = MultipartUploadSlicingAlgorithm.DEFAULT_PART_SIZE + 1;
+      BlobStore blobStore = view.getBlobStore();
+      String containerName = getContainerName();
+      String blobName = "stream-blob-name";
+      try {
+         ByteSource byteSource = TestUtils.randomByteSource().slice(0, length);
+         blobStore.putBlob(containerName, blobStore.blobBuilder(blobName).payload(byteSource).contentLength(length)
+               .build());
+         assertThat(hashAndClose(blobStore.streamBlob(containerName, blobName), md5()))
+               .isEqualTo(byteSource.hash(md5()));
+      } finally {
+         returnContainer(containerName);
+      }
+   }
+
    @Test(groups = { "integration", "live" })
    public void testSetBlobAccess() throws Exception {
       BlobStore blobStore = view.getBlobStore();
@@ -0,0 +1,443 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobAccess;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.ContainerAccess;
+import org.jclouds.blobstore.domain.MultipartPart;
+import org.jclouds.blobstore.domain.MultipartUpload;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.CreateContainerOptions;
+import org.jclouds.blobstore.options.GetOptions;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.options.PutOptions;
+import org.jclouds.blobstore.util.BlobUtils;
+import org.jclouds.domain.Location;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.io.ByteStreams2;
+import org.jclouds.io.Payload;
+import org.jclouds.io.PayloadSlicer;
+import org.jclouds.io.Payloads;
+import org.jclouds.utils.TestUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Injector;
+
+/**
+ * Exercises the {@link BaseBlobStore} download and upload helpers against a transient store whose parts are only
+ * 1000 bytes long.
+ */
+@Test(groups = "unit", testName = "BaseBlobStoreTest", singleThreaded = true)
+public class BaseBlobStoreTest {
+   private static final String CONTAINER = "container";
+   private static final String NAME = "blob";
+   private static final long PART_SIZE = 1000;
+
+   private BlobStoreContext context;
+   private StubBlobStore blobStore;
+   private ByteSource content;
+
+   @BeforeMethod
+   public void setUp() {
+      Injector injector = ContextBuilder.newBuilder("transient").buildInjector();
+      context = injector.getInstance(BlobStoreContext.class);
+      blobStore = new StubBlobStore(context, injector.getInstance(BlobUtils.class),
+            injector.getInstance(PayloadSlicer.class));
+      blobStore.userExecutor = MoreExecutors.newDirectExecutorService();
+      blobStore.createContainerInLocation(null, CONTAINER);
+      content = TestUtils.randomByteSource().slice(0, 3 * PART_SIZE + 500);
+      blobStore.putBlob(CONTAINER, blobStore.blobBuilder(NAME).payload(content).build());
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      context.close();
+   }
+
+   public void testDownloadBlobResumesFailedRangeWithSameETag() throws Exception {
+      blobStore.failOnceAfter = 300;
+      blobStore.failRange = "1000-1999";
+      File file = File.createTempFile("download", ".tmp");
+      try {
+         blobStore.downloadBlob(CONTAINER, NAME, file);
+         assertThat(Files.asByteSource(file).contentEquals(content)).isTrue();
+      } finally {
+         file.delete();
+      }
+      assertEquals(blobStore.ranges, ImmutableList.of("0-999", "1000-1999", "1300-1999", "2000-2999", "3000-3499"));
+      String eTag = blobStore.blobMetadata(CONTAINER, NAME).getETag();
+      assertEquals(ImmutableSet.copyOf(blobStore.ifMatches), ImmutableSet.of(eTag));
+   }
+
+   public void testDownloadBlobFailsWhenOverwritten() throws Exception {
+      blobStore.overwriteAtRange = "2000-2999";
+      File file = File.createTempFile("download", ".tmp");
+      file.delete();
+      try {
+         blobStore.downloadBlob(CONTAINER, NAME, file);
+         fail("expected HttpResponseException");
+      } catch (HttpResponseException hre) {
+         assertEquals(hre.getResponse().getStatusCode(), 412);
+      }
+      assertFalse(file.exists());
+      // the precondition failure is not retried
+      assertEquals(blobStore.ranges, ImmutableList.of("0-999", "1000-1999", "2000-2999", "3000-3499"));
+   }
+
+   public void testStreamBlobPrefetchesInOrderAndResumesFailedRange() throws Exception {
+      blobStore.streamingBuffers = 2;
+      blobStore.failOnceAfter = 300;
+      blobStore.failRange = "1000-1999";
+      InputStream is = blobStore.streamBlob(CONTAINER, NAME);
+      try {
+         // two ranges are fetched before anything is read
+         assertEquals(blobStore.ranges, ImmutableList.of("0-999", "1000-1999", "1300-1999"));
+         assertEquals(is.read(), content.slice(0, 1).read()[0] & 0xFF);
+         // consuming the first range schedules the next one
+         assertEquals(blobStore.ranges, ImmutableList.of("0-999", "1000-1999", "1300-1999", "2000-2999"));
+         byte[] rest = ByteStreams.toByteArray(is);
+         assertEquals(rest, content.slice(1, content.size() - 1).read());
+      } finally {
+         is.close();
+      }
+      assertEquals(blobStore.ranges, ImmutableList.of("0-999", "1000-1999", "1300-1999", "2000-2999", "3000-3499"));
+   }
+
+   public void testStreamBlobFailsWhenOverwritten() throws Exception {
+      blobStore.streamingBuffers = 1;
+      blobStore.overwriteAtRange = "1000-1999";
+      InputStream is = blobStore.streamBlob(CONTAINER, NAME);
+      try {
+         ByteStreams.toByteArray(is);
+         fail("expected HttpResponseException");
+      } catch (HttpResponseException hre) {
+         assertEquals(hre.getResponse().getStatusCode(), 412);
+      } finally {
+         is.close();
+      }
+   }
+
+   public void testPutMultipartBlobFromStreamBoundsBufferedParts() throws Exception {
+      blobStore.streamingBuffers = 2;
+      blobStore.uploadDelayMillis = 20;
+      ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(4));
+      BoundedReadInputStream in = new BoundedReadInputStream(content.openStream(), blobStore.uploadedParts, 2);
+      try {
+         blobStore.putMultipartBlob(CONTAINER, blobStore.blobBuilder("streamed").payload(in)
+               .contentLength(content.size()).build(), PutOptions.NONE, executor);
+      } finally {
+         executor.shutdownNow();
+      }
+      // the reader never got more than two parts ahead of the finished uploads
+      assertEquals(in.overread, 0);
+      assertThat(blobStore.maxUploadingParts.get()).isLessThanOrEqualTo(2);
+      assertEquals(blobStore.uploadedParts.get(), 4);
+      assertEquals(ByteStreams2.toByteArrayAndClose(blobStore.getBlob(CONTAINER, "streamed").getPayload()
+            .openStream()), content.read());
+   }
+
+   public void testPutMultipartBlobFromStreamStopsReadingOnFailure() throws Exception {
+      blobStore.failPartNumber = 2;
+      BoundedReadInputStream in = new BoundedReadInputStream(content.openStream(), blobStore.uploadedParts, 4);
+      try {
+         blobStore.putMultipartBlob(CONTAINER, blobStore.blobBuilder("streamed").payload(in)
+               .contentLength(content.size()).build(), PutOptions.NONE);
+         fail("expected the failed part to fail the upload");
+      } catch (RuntimeException expected) {
+      }
+      // the third part is never read
+      assertEquals(in.read, 2 * PART_SIZE);
+      assertThat(blobStore.listMultipartUploads(CONTAINER)).isEmpty();
+   }
+
+   /** Records reads that get further ahead of the uploaded parts than the given number of buffers allows. */
+   private static final class BoundedReadInputStream extends FilterInputStream {
+      private final AtomicInteger uploadedParts;
+      private final int buffers;
+      volatile long read;
+      volatile long overread;
+
+      BoundedReadInputStream(InputStream in, AtomicInteger uploadedParts, int buffers) {
+         super(in);
+         this.uploadedParts = uploadedParts;
+         this.buffers = buffers;
+      }
+
+      @Override
+      public int read() throws IOException {
+         byte[] b = new byte[1];
+         return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         int n = super.read(b, off, len);
+         if (n > 0) {
+            read += n;
+            overread = Math.max(overread, read - (uploadedParts.get() + buffers) * PART_SIZE);
+         }
+         return n;
+      }
+   }
+
+   /** Returns the first bytes of a stream and then fails like a reset connection. */
+   private static final class FailingInputStream extends FilterInputStream {
+      private int remaining;
+
+      FailingInputStream(InputStream in, int remaining) {
+         super(in);
+         this.remaining = remaining;
+      }
+
+      @Override
+      public int read() throws IOException {
+         byte[] b = new byte[1];
+         return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (remaining == 0) {
+            throw new IOException("connection reset");
+         }
+         int read = super.read(b, off, Math.min(len, remaining));
+         if (read > 0) {
+            remaining -= read;
+         }
+         return read;
+      }
+   }
+
+   /** {@link BaseBlobStore} backed by a transient store, recording and optionally failing ranged reads. */
+   static final class StubBlobStore extends BaseBlobStore {
+      private final BlobStore delegate;
+      final List<String> ranges = new CopyOnWriteArrayList<String>();
+      final List<String> ifMatches = new CopyOnWriteArrayList<String>();
+      volatile String failRange;
+      volatile int failOnceAfter;
+      volatile String overwriteAtRange;
+      volatile long uploadDelayMillis;
+      volatile int failPartNumber;
+      final AtomicInteger uploadingParts = new AtomicInteger();
+      final AtomicInteger maxUploadingParts = new AtomicInteger();
+      final AtomicInteger uploadedParts = new AtomicInteger();
+
+      StubBlobStore(BlobStoreContext context, BlobUtils blobUtils, PayloadSlicer slicer) {
+         super(context, blobUtils, Suppliers.<Location> ofInstance(null),
+               Suppliers.<Set<? extends Location>> ofInstance(ImmutableSet.<Location> of()), slicer);
+         this.delegate = context.getBlobStore();
+      }
+
+      @Override
+      public Blob getBlob(String container, String name, GetOptions options) {
+         String range = options.getRanges().isEmpty() ? null : options.getRanges().get(0);
+         if (range != null) {
+            ranges.add(range);
+         }
+         if (options.getIfMatch() != null) {
+            ifMatches.add(options.getIfMatch());
+         }
+         if (range != null && range.equals(overwriteAtRange)) {
+            overwriteAtRange = null;
+            delegate.putBlob(container, blobBuilder(name).payload("overwritten").build());
+         }
+         Blob blob = delegate.getBlob(container, name, options);
+         if (blob != null && range != null && range.equals(failRange)) {
+            failRange = null;
+            try {
+               // setPayload releases the old payload, so buffer it first
+               byte[] slice = ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream());
+               blob.setPayload(Payloads.newInputStreamPayload(
+                     new FailingInputStream(new ByteArrayInputStream(slice), failOnceAfter)));
+            } catch (IOException ioe) {
+               throw new AssertionError(ioe);
+            }
+         }
+         return blob;
+      }
+
+      @Override
+      public long getMaximumMultipartPartSize() {
+         return PART_SIZE;
+      }
+
+      @Override
+      public long getMinimumMultipartPartSize() {
+         return 1;
+      }
+
+      @Override
+      public int getMaximumNumberOfParts() {
+         return 10000;
+      }
+
+      @Override
+      protected boolean deleteAndVerifyContainerGone(String container) {
+         return delegate.deleteContainerIfEmpty(container);
+      }
+
+      @Override
+      public PageSet<? extends StorageMetadata> list() {
+         return delegate.list();
+      }
+
+      @Override
+      public boolean containerExists(String container) {
+         return delegate.containerExists(container);
+      }
+
+      @Override
+      public boolean createContainerInLocation(Location location, String container) {
+         return delegate.createContainerInLocation(location, container);
+      }
+
+      @Override
+      public boolean createContainerInLocation(Location location, String container, CreateContainerOptions options) {
+         return delegate.createContainerInLocation(location, container, options);
+      }
+
+      @Override
+      public ContainerAccess getContainerAccess(String container) {
+         return delegate.getContainerAccess(container);
+      }
+
+      @Override
+      public void setContainerAccess(String container, ContainerAccess access) {
+         delegate.setContainerAccess(container, access);
+      }
+
+      @Override
+      public PageSet<? extends StorageMetadata> list(String container, ListContainerOptions options) {
+         return delegate.list(container, options);
+      }
+
+      @Override
+      public boolean blobExists(String container, String name) {
+         return delegate.blobExists(container, name);
+      }
+
+      @Override
+      public String putBlob(String container, Blob blob) {
+         return delegate.putBlob(container, blob);
+      }
+
+      @Override
+      public String putBlob(String container, Blob blob, PutOptions options) {
+         return delegate.putBlob(container, blob, options);
+      }
+
+      @Override
+      public BlobMetadata blobMetadata(String container, String name) {
+         return delegate.blobMetadata(container, name);
+      }
+
+      @Override
+      public void removeBlob(String container, String name) {
+         delegate.removeBlob(container, name);
+      }
+
+      @Override
+      public BlobAccess getBlobAccess(String container, String name) {
+         return delegate.getBlobAccess(container, name);
+      }
+
+      @Override
+      public void setBlobAccess(String container, String name, BlobAccess access) {
+         delegate.setBlobAccess(container, name, access);
+      }
+
+      @Override
+      public MultipartUpload initiateMultipartUpload(String container, BlobMetadata blob, PutOptions options) {
+         return delegate.initiateMultipartUpload(container, blob, options);
+      }
+
+      @Override
+      public void abortMultipartUpload(MultipartUpload mpu) {
+         delegate.abortMultipartUpload(mpu);
+      }
+
+      @Override
+      public String completeMultipartUpload(MultipartUpload mpu, List<MultipartPart> parts) {
+         return delegate.completeMultipartUpload(mpu, parts);
+      }
+
+      @Override
+      public MultipartPart uploadMultipartPart(MultipartUpload mpu, int partNumber, Payload payload) {
+         int uploading = uploadingParts.incrementAndGet();
+         try {
+            while (uploading > maxUploadingParts.get()) {
+               maxUploadingParts.compareAndSet(maxUploadingParts.get(), uploading);
+            }
+            if (partNumber == failPartNumber) {
+               throw new IllegalStateException("part " + partNumber + " failed");
+            }
+            Thread.sleep(uploadDelayMillis);
+            MultipartPart part = delegate.uploadMultipartPart(mpu, partNumber, payload);
+            uploadedParts.incrementAndGet();
+            return part;
+         } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ie);
+         } finally {
+            uploadingParts.decrementAndGet();
+         }
+      }
+
+      @Override
+      public List<MultipartPart> listMultipartUpload(MultipartUpload mpu) {
+         return delegate.listMultipartUpload(mpu);
+      }
+
+      @Override
+      public List<MultipartUpload> listMultipartUploads(String container) {
+         return Collections.unmodifiableList(delegate.listMultipartUploads(container));
+      }
+   }
+}
@@ -27,19 +27,23 @@ import static org.testng.Assert.fail;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
 import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.BulkDeleteBlobStore;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.util.ForwardingBlobStore;
 import org.jclouds.util.Closeables2;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
@@ -49,9 +53,16 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ForwardingListeningExecutorService;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Injector;
 
 @Test(testName = "DeleteAllKeysInListTest", singleThreaded = true)
@@ -131,15 +142,132 @@ public class DeleteAllKeysInListTest {
             .andReturn(
                   Futures.<Void> immediateFailedFuture(new RuntimeException()))
             .once();
-      // There should be at least another 3333 calls to executorService.submit
-      // since there are 3333 blobs.
+      // There should be at least another 3 calls to executorService.submit
+      // since the 3333 blobs are listed in 4 pages, each deleted in one call.
       EasyMock.expectLastCall().andReturn(Futures.<Void> immediateFuture(null))
-            .times(3333, Integer.MAX_VALUE);
+            .times(3, Integer.MAX_VALUE);
       replay(executorService);
       testDeleter.execute(containerName,
             ListContainerOptions.Builder.recursive());
    }
 
+   public void testDeletesEachPageWithOneBulkCall() {
+      final AtomicInteger bulkDeletes = new AtomicInteger();
+      final AtomicInteger singleDeletes = new AtomicInteger();
+      BlobStore bulkBlobStore = new BulkDeletingBlobStore(blobstore) {
+         @Override
+         public void removeBlob(String container, String name) {
+            singleDeletes.incrementAndGet();
+            super.removeBlob(container, name);
+         }
+
+         @Override
+         public Set<String> tryRemoveBlobs(String container, Iterable<String> names) {
+            bulkDeletes.incrementAndGet();
+            return super.tryRemoveBlobs(container, names);
+         }
+      };
+      DeleteAllKeysInList testDeleter = new DeleteAllKeysInList(
+            MoreExecutors.newDirectExecutorService(), bulkBlobStore,
+            retryHandler, maxParallelDeletes);
+      testDeleter.execute(containerName,
+            ListContainerOptions.Builder.recursive());
+      assertEquals(blobstore.countBlobs(containerName), 0);
+      // 3333 blobs are listed in 4 pages of at most 1000 blobs.
+      assertEquals(bulkDeletes.get(), 4);
+      assertEquals(singleDeletes.get(), 0);
+   }
+
+   public void testRetriesOnlyBlobsWhichFailedInBulkCall() {
+      final List<Iterable<String>> calls = Lists.newArrayList();
+      BlobStore flakyBlobStore = new BulkDeletingBlobStore(blobstore) {
+         @Override
+         public Set<String> tryRemoveBlobs(String container, Iterable<String> names) {
+            calls.add(ImmutableList.copyOf(names));
+            if (calls.size() == 1) {
+               super.tryRemoveBlobs(container, Iterables.skip(names, 1));
+               return ImmutableSet.of(Iterables.getFirst(names, null));
+            }
+            return super.tryRemoveBlobs(container, names);
+         }
+      };
+      DeleteAllKeysInList testDeleter = new DeleteAllKeysInList(
+            MoreExecutors.newDirectExecutorService(), flakyBlobStore,
+            retryHandler, maxParallelDeletes);
+      testDeleter.execute(containerName,
+            ListContainerOptions.Builder.recursive());
+      assertEquals(blobstore.countBlobs(containerName), 0);
+      assertEquals(calls.size(), 5);
+      assertEquals(Iterables.size(calls.get(0)), 1000);
+      assertEquals(calls.get(1), ImmutableList.of(Iterables.getFirst(calls.get(0), null)));
+   }
+
+   public void testSplitsPagesIntoParallelBatchesWithoutBulkDelete() {
+      final AtomicInteger batchDeletes = new AtomicInteger();
+      final AtomicInteger singleDeletes = new AtomicInteger();
+      BlobStore countingBlobStore = new ForwardingBlobStore(blobstore) {
+         @Override
+         public void removeBlob(String container, String name) {
+            singleDeletes.incrementAndGet();
+            super.removeBlob(container, name);
+         }
+
+         @Override
+         public void removeBlobs(String container, Iterable<String> names) {
+            batchDeletes.incrementAndGet();
+            super.removeBlobs(container, names);
+         }
+      };
+      final AtomicInteger submitted = new AtomicInteger();
+      ListeningExecutorService countingExecutor = new ForwardingListeningExecutorService() {
+         final ListeningExecutorService delegate = MoreExecutors.newDirectExecutorService();
+
+         @Override
+         protected ListeningExecutorService delegate() {
+            return delegate;
+         }
+
+         @Override
+         public <T> ListenableFuture<T> submit(Callable<T> task) {
+            submitted.incrementAndGet();
+            return super.submit(task);
+         }
+      };
+      DeleteAllKeysInList testDeleter = new DeleteAllKeysInList(
+            countingExecutor, countingBlobStore, retryHandler, 4);
+      testDeleter.execute(containerName,
+            ListContainerOptions.Builder.recursive());
+      assertEquals(blobstore.countBlobs(containerName), 0);
+      // each of the 4 pages is split into 4 batches
+      assertEquals(submitted.get(), 16);
+      assertEquals(batchDeletes.get(), 0);
+      assertEquals(singleDeletes.get(), 3333);
+   }
+
+   public void testRetriesOnlyBlobsWhichFailedWithoutBulkDelete() {
+      final Set<String> failedOnce = Sets.newHashSet("blob-0", "blob-1");
+      final List<String> removed = Collections.synchronizedList(Lists.<String>newArrayList());
+      BlobStore flakyBlobStore = new ForwardingBlobStore(blobstore) {
+         @Override
+         public void removeBlob(String container, String name) {
+            removed.add(name);
+            if (failedOnce.remove(name)) {
+               throw new RuntimeException("injected failure");
+            }
+            super.removeBlob(container, name);
+         }
+      };
+      DeleteAllKeysInList testDeleter = new DeleteAllKeysInList(
+            MoreExecutors.newDirectExecutorService(), flakyBlobStore,
+            retryHandler, 1);
+      testDeleter.execute(containerName,
+            ListContainerOptions.Builder.recursive());
+      assertEquals(blobstore.countBlobs(containerName), 0);
+      assertEquals(removed.size(), 3333 + 2);
+      assertEquals(Collections.frequency(removed, "blob-0"), 2);
+      assertEquals(Collections.frequency(removed, "blob-1"), 2);
+   }
+
    @SuppressWarnings("unchecked")
    public void testExceptionThrownAfterMaxRetries() {
       IMocksControl mockControl = createControl();
@@ -234,4 +362,19 @@ public class DeleteAllKeysInListTest {
       }
       assertEquals(blobstore.countBlobs(containerName), 3333);
    }
+
+   /** Emulates a provider with a bulk delete API on top of single deletes. */
+   private static class BulkDeletingBlobStore extends ForwardingBlobStore implements BulkDeleteBlobStore {
+      BulkDeletingBlobStore(BlobStore blobStore) {
+         super(blobStore);
+      }
+
+      @Override
+      public Set<String> tryRemoveBlobs(String container, Iterable<String> names) {
+         for (String name : names) {
+            delegate().removeBlob(container, name);
+         }
+         return ImmutableSet.of();
+      }
+   }
 }
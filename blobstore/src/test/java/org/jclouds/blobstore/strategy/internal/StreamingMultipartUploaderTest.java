@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static org.easymock.EasyMock.anyInt;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.replay;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.easymock.IAnswer;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.domain.MultipartPart;
+import org.jclouds.blobstore.domain.MultipartUpload;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.testng.annotations.Test;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "StreamingMultipartUploaderTest")
+public class StreamingMultipartUploaderTest {
+
+   public void testReadFailureCancelsPartsInFlight() throws Exception {
+      final CountDownLatch started = new CountDownLatch(1);
+      final CountDownLatch cancelled = new CountDownLatch(1);
+      MultipartUpload mpu = MultipartUpload.create("container", "blob", "id", null, null);
+      BlobStore blobStore = createMock(BlobStore.class);
+      expect(blobStore.uploadMultipartPart(eq(mpu), anyInt(), isA(Payload.class))).andAnswer(
+            new IAnswer<MultipartPart>() {
+               @Override
+               public MultipartPart answer() {
+                  started.countDown();
+                  try {
+                     Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                  } catch (InterruptedException e) {
+                     cancelled.countDown();
+                  }
+                  return null;
+               }
+            }).anyTimes();
+      replay(blobStore);
+
+      // the first part is read in full, then the stream fails while the part is still uploading
+      InputStream is = new InputStream() {
+         private int read;
+
+         @Override
+         public int read() throws IOException {
+            if (read == 4) {
+               try {
+                  started.await();
+               } catch (InterruptedException e) {
+                  throw new IOException(e);
+               }
+               throw new IOException("connection reset");
+            }
+            return read++;
+         }
+      };
+      MultipartUploadSlicingAlgorithm algorithm = new MultipartUploadSlicingAlgorithm(1, 1024, 100);
+      algorithm.calculateChunkSize(2 * MultipartUploadSlicingAlgorithm.DEFAULT_PART_SIZE + 1);
+      ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+      try {
+         StreamingMultipartUploader.uploadParts(blobStore, mpu, Payloads.newInputStreamPayload(is), algorithm, 4, 1,
+               2, executor);
+         fail("expected the read failure to propagate");
+      } catch (RuntimeException e) {
+         assertTrue(e.getCause() instanceof IOException, "unexpected cause: " + e.getCause());
+         assertTrue(cancelled.await(10, TimeUnit.SECONDS), "the part in flight was not cancelled");
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+}
@@ -26,6 +26,7 @@ import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.HttpRetryHandler;
+import org.jclouds.http.handlers.RetryDelays;
 import org.jclouds.logging.Logger;
 import org.jclouds.openstack.domain.AuthenticationResponse;
 import org.jclouds.openstack.reference.AuthHeaders;
@@ -35,7 +36,6 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Multimap;
-import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -101,8 +101,13 @@ public class RetryOnRenew implements HttpRetryHandler {
                      retryCountMap.put(command, count + 1);
                      // Wait between retries
                      authenticationResponseCache.invalidateAll();
-                     Uninterruptibles.sleepUninterruptibly(5, TimeUnit.SECONDS);
-                     retry = true;
+                     try {
+                        RetryDelays.sleep(TimeUnit.SECONDS.toMillis(5));
+                        retry = true;
+                     } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        retry = false;
+                     }
                   }
                }
             }
@@ -307,6 +307,8 @@ public interface ComputeService {
     * @return map with node identifiers and corresponding responses
     * @throws NoSuchElementException
     *            if no nodes matched the predicate specified
+    * @throws IllegalArgumentException
+    *            if several nodes matched, but the options stream their output to a single pair of streams
     * @throws RunScriptOnNodesException
     *            if anything goes wrong during script execution
     * 
@@ -361,6 +363,31 @@ public interface ComputeService {
 
    @Beta
    ListenableFuture<ExecResponse> submitScriptOnNode(String id, Statement runScript, RunScriptOptions options);
+
+   /**
+    * Run the script on all nodes with the specific predicate, returning without waiting for any of them. At most
+    * {@link RunScriptOptions#getMaxParallelism()} nodes are worked on at a time.
+    * <p/>
+    * Each future completes on its own as its node finishes, so results can be consumed as they arrive, for example
+    * through {@link com.google.common.util.concurrent.Futures#inCompletionOrder}. A slow node can be given up on with
+    * {@code get(timeout, unit)} and {@code cancel} without holding up the others.
+    * 
+    * @param filter
+    *           Predicate-based filter to define on which nodes the script is to be executed
+    * @param runScript
+    *           statement containing the script to run
+    * @param options
+    *           options to how to run the script, whether to override credentials
+    * @return a future per node, failing with whatever prevented the script from completing on that node
+    * @throws NoSuchElementException
+    *            if no nodes matched the predicate specified
+    * @throws IllegalArgumentException
+    *            if several nodes matched, but the options stream their output to a single pair of streams
+    * @since 2.2.0
+    */
+   @Beta
+   Map<? extends NodeMetadata, ListenableFuture<ExecResponse>> submitScriptOnNodesMatching(
+            Predicate<? super NodeMetadata> filter, Statement runScript, RunScriptOptions options);
    
    /**
     * @see #runScriptOnNode(String, Statement, RunScriptOptions)
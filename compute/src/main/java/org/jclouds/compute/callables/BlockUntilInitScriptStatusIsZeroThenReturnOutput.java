@@ -69,12 +69,13 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
    }
 
    private Predicate<String> notRunningAnymore;
+   private final long waitOnNode;
 
    @Inject
    public BlockUntilInitScriptStatusIsZeroThenReturnOutput(
             @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor, EventBus eventBus,
             ComputeServiceConstants.InitStatusProperties properties, @Assisted SudoAwareInitManager commandRunner) {
-      this(userExecutor, eventBus, Predicates.<String> alwaysTrue(), commandRunner);
+      this(userExecutor, eventBus, Predicates.<String> alwaysTrue(), properties.initStatusWaitOnNode, commandRunner);
       // this is mutable only until we can determine how to decouple "this" from here
       notRunningAnymore = loopUntilTrueOrThrowCancellationException(new ExitStatusOfCommandGreaterThanZero(
                commandRunner), properties.initStatusMaxPeriod, properties.initStatusInitialPeriod, this);
@@ -83,10 +84,17 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
    @VisibleForTesting
    public BlockUntilInitScriptStatusIsZeroThenReturnOutput(ListeningExecutorService userExecutor, EventBus eventBus,
             Predicate<String> notRunningAnymore, SudoAwareInitManager commandRunner) {
+      this(userExecutor, eventBus, notRunningAnymore, 0, commandRunner);
+   }
+
+   @VisibleForTesting
+   BlockUntilInitScriptStatusIsZeroThenReturnOutput(ListeningExecutorService userExecutor, EventBus eventBus,
+            Predicate<String> notRunningAnymore, long waitOnNode, SudoAwareInitManager commandRunner) {
       this.commandRunner = checkNotNull(commandRunner, "commandRunner");
       this.userExecutor = checkNotNull(userExecutor, "userExecutor");
       this.eventBus = checkNotNull(eventBus, "eventBus");
       this.notRunningAnymore = checkNotNull(notRunningAnymore, "notRunningAnymore");
+      this.waitOnNode = waitOnNode;
    }
 
    @VisibleForTesting
@@ -133,7 +141,12 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
       try {
          ExecResponse exec = null;
          do {
+            waitUntilNotRunningOnNode();
             notRunningAnymore.apply("status");
+            if (commandRunner.streamsOutput()) {
+               exec = streamOutputOnceExited();
+               continue;
+            }
             String stdout = commandRunner.runAction("stdout").getOutput();
             String stderr = commandRunner.runAction("stderr").getOutput();
             Integer exitStatus = Ints.tryParse(commandRunner.runAction("exitstatus").getOutput().trim());
@@ -147,6 +160,31 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
       }
    }
 
+   /**
+    * reads the exit status first, so that output is streamed only once, after the script has really finished
+    */
+   private ExecResponse streamOutputOnceExited() {
+      Integer exitStatus = Ints.tryParse(commandRunner.runAction("exitstatus").getOutput().trim());
+      if (exitStatus == null)
+         return new ExecResponse("", "", -1);
+      commandRunner.runAction("stdout");
+      commandRunner.runAction("stderr");
+      return new ExecResponse("", "", exitStatus);
+   }
+
+   /**
+    * blocks on the node until the script has written its exit status, so that the status poll that follows finds it
+    * finished the first time. Each call returns within {@code waitOnNode} milliseconds, keeping it under the ssh
+    * session timeout.
+    */
+   private void waitUntilNotRunningOnNode() {
+      if (waitOnNode <= 0)
+         return;
+      String action = "wait " + Math.max(1, MILLISECONDS.toSeconds(waitOnNode));
+      while (!isCancelled() && "running".equals(commandRunner.runAction(action).getOutput().trim()))
+         logger.trace("<< still running after %s", action);
+   }
+
    @Override
    protected boolean set(ExecResponse value) {
       eventBus.post(new StatementOnNodeCompletion(getCommandRunner().getStatement(), getCommandRunner().getNode(),
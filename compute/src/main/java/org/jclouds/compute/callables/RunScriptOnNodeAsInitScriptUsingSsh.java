@@ -57,6 +57,8 @@ public class RunScriptOnNodeAsInitScriptUsingSsh extends SudoAwareInitManager im
                         : createInitScript(checkNotNull(initScriptConfiguration, "initScriptConfiguration"), options
                                  .getTaskName(), script));
       this.eventBus = checkNotNull(eventBus, "eventBus");
+      this.outputStream = options.getOutputStreams() != null ? options.getOutputStreams().apply(node) : null;
+      this.errorStream = options.getErrorStreams() != null ? options.getErrorStreams().apply(node) : null;
    }
 
    @Override
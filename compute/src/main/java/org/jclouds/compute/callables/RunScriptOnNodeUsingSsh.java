@@ -18,6 +18,9 @@ package org.jclouds.compute.callables;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static org.jclouds.compute.util.ComputeServiceUtils.execStreaming;
+
+import java.io.OutputStream;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -54,6 +57,8 @@ public class RunScriptOnNodeUsingSsh implements RunScriptOnNode {
    protected final NodeMetadata node;
    protected final Statement statement;
    protected final boolean runAsRoot;
+   protected final OutputStream outputStream;
+   protected final OutputStream errorStream;
 
    protected SshClient ssh;
 
@@ -65,6 +70,8 @@ public class RunScriptOnNodeUsingSsh implements RunScriptOnNode {
       this.node = checkNotNull(node, "node");
       this.statement = checkNotNull(statement, "statement");
       this.runAsRoot = options.shouldRunAsRoot();
+      this.outputStream = options.getOutputStreams() != null ? options.getOutputStreams().apply(node) : null;
+      this.errorStream = options.getErrorStreams() != null ? options.getErrorStreams().apply(node) : null;
    }
 
    @Override
@@ -104,7 +111,7 @@ public class RunScriptOnNodeUsingSsh implements RunScriptOnNode {
       ExecResponse returnVal;
       logger.debug(">> running [%s] as %s@%s", command.replace(node.getCredentials().getOptionalPassword().isPresent() ? node
             .getCredentials().getOptionalPassword().get() : "XXXXX", "XXXXX"), ssh.getUsername(), ssh.getHostAddress());
-      returnVal = ssh.exec(command);
+      returnVal = outputStream != null ? execStreaming(ssh, command, outputStream, errorStream) : ssh.exec(command);
       return returnVal;
    }
 
@@ -18,6 +18,9 @@ package org.jclouds.compute.callables;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static org.jclouds.compute.util.ComputeServiceUtils.execStreaming;
+
+import java.io.OutputStream;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -25,6 +28,7 @@ import javax.inject.Named;
 import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 import org.jclouds.scriptbuilder.InitScript;
 import org.jclouds.ssh.SshClient;
@@ -34,6 +38,7 @@ import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 
 public class SudoAwareInitManager {
    @Resource
@@ -46,6 +51,8 @@ public class SudoAwareInitManager {
    protected final boolean runAsRoot;
    protected final Function<NodeMetadata, SshClient> sshFactory;
    protected SshClient ssh;
+   protected OutputStream outputStream;
+   protected OutputStream errorStream;
 
    /**
     * @return the absolute path to the file on disk relating to this task.
@@ -63,6 +70,14 @@ public class SudoAwareInitManager {
       this.init = checkNotNull(init, "init");
    }
 
+   /**
+    * @return true if the stdout and stderr actions write the logs to the streams of
+    *         {@link org.jclouds.compute.options.RunScriptOptions#streamOutput} instead of returning them
+    */
+   public boolean streamsOutput() {
+      return outputStream != null;
+   }
+
    public SudoAwareInitManager init() {
       ssh = sshFactory.apply(node);
       return this;
@@ -85,8 +100,13 @@ public class SudoAwareInitManager {
       ExecResponse returnVal;
       String command = (runAsRoot && Predicates.in(ImmutableSet.of("start", "stop", "run")).apply(action)) ? execScriptAsRoot(action)
             : execScriptAsDefaultUser(action);
-      returnVal = runCommand(command);
-      if (ImmutableSet.of("status", "stdout", "stderr").contains(action))
+      if (streamsOutput() && "stdout".equals(action))
+         returnVal = runCommand(command, outputStream);
+      else if (streamsOutput() && "stderr".equals(action))
+         returnVal = runCommand(command, errorStream);
+      else
+         returnVal = runCommand(command, null);
+      if (ImmutableSet.of("status", "stdout", "stderr").contains(action) || action.startsWith("wait "))
          logger.trace("<< %s(%d)", action, returnVal.getExitStatus());
       else if (computeLogger.isTraceEnabled())
          computeLogger.trace("<< %s[%s]", action, returnVal);
@@ -95,15 +115,17 @@ public class SudoAwareInitManager {
       return returnVal;
    }
 
-   ExecResponse runCommand(String command) {
+   ExecResponse runCommand(String command, @Nullable OutputStream output) {
       String statement = String.format("[%s] as %s@%s", command.replace(
             node.getCredentials().getOptionalPassword().isPresent() ? node.getCredentials().getOptionalPassword().get() : "XXXXX", "XXXXX"), ssh
             .getUsername(), ssh.getHostAddress());
-      if (command.endsWith("status") || command.endsWith("stdout") || command.endsWith("stderr"))
+      if (command.endsWith("status") || command.endsWith("stdout") || command.endsWith("stderr")
+            || command.contains(" wait "))
          logger.trace(">> running %s", statement);
       else 
          computeLogger.debug(">> running " + statement);
-      ExecResponse returnVal = ssh.exec(command);
+      ExecResponse returnVal = output != null ? execStreaming(ssh, command, output, ByteStreams.nullOutputStream())
+            : ssh.exec(command);
       if (!command.endsWith("status"))
          checkState(returnVal.getExitStatus() == 0, "error running %s; returnVal !=0: %s", statement, returnVal);
       return returnVal;
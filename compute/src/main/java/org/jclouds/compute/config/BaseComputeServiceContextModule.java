@@ -16,7 +16,6 @@
  */
 package org.jclouds.compute.config;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.jclouds.Constants.PROPERTY_SESSION_INTERVAL;
 import static org.jclouds.compute.config.ComputeServiceProperties.IMAGE_ID;
 import static org.jclouds.compute.config.ComputeServiceProperties.TEMPLATE;
 import static org.jclouds.compute.domain.OsFamily.UBUNTU;
@@ -24,7 +23,6 @@ import static org.jclouds.compute.domain.OsFamily.UBUNTU;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Named;
@@ -59,8 +57,7 @@ import org.jclouds.config.ValueOfConfigurationKeyOrNull;
 import org.jclouds.domain.LoginCredentials;
 import org.jclouds.json.Json;
 import org.jclouds.location.Provider;
-import org.jclouds.rest.AuthorizationException;
-import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier;
+import org.jclouds.rest.suppliers.MemoizedSupplierFactory;
 import org.jclouds.scriptbuilder.domain.Statement;
 import org.jclouds.scriptbuilder.statements.login.AdminAccess;
 import org.jclouds.ssh.SshClient;
@@ -242,12 +239,11 @@ public abstract class BaseComputeServiceContextModule extends AbstractModule {
    @Provides
    @Singleton
    @Memoized
-   protected final Supplier<Set<? extends Image>> supplyImageCache(
-         AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+   protected final Supplier<Set<? extends Image>> supplyImageCache(MemoizedSupplierFactory memoizer,
          final Supplier<Set<? extends Image>> imageSupplier, com.google.inject.Provider<GetImageStrategy> imageLoader, Injector injector) {
       Supplier<Set<? extends Image>> parsingImageSupplier = shouldEagerlyParseImages(injector) ? imageSupplier
             : supplyNonParsingImages(imageSupplier, injector);
-      return new ImageCacheSupplier(parsingImageSupplier, seconds, authException, imageLoader);
+      return new ImageCacheSupplier(parsingImageSupplier, memoizer, imageLoader);
    }
 
    protected boolean shouldEagerlyParseImages(Injector injector) {
@@ -284,10 +280,9 @@ public abstract class BaseComputeServiceContextModule extends AbstractModule {
    @Provides
    @Singleton
    @Memoized
-   protected final Supplier<Set<? extends Hardware>> supplySizeCache(AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+   protected final Supplier<Set<? extends Hardware>> supplySizeCache(MemoizedSupplierFactory memoizer,
          final Supplier<Set<? extends Hardware>> hardwareSupplier) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, hardwareSupplier,
-               seconds, TimeUnit.SECONDS);
+      return memoizer.memoize(hardwareSupplier);
    }
 
    @Provides
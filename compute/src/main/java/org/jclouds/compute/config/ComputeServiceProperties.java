@@ -30,6 +30,14 @@ public final class ComputeServiceProperties {
    public static final String INIT_STATUS_INITIAL_PERIOD = "jclouds.compute.init-status.initial-period";
    public static final String INIT_STATUS_MAX_PERIOD = "jclouds.compute.init-status.max-period";
 
+   /**
+    * When greater than zero, init script status is checked by a command that blocks on the node until the script
+    * writes its exit status or this many milliseconds elapse, instead of by polling at
+    * {@link #INIT_STATUS_INITIAL_PERIOD} intervals. Keep this below the ssh session timeout. Defaults to 0, which
+    * keeps polling.
+    */
+   public static final String INIT_STATUS_WAIT_ON_NODE = "jclouds.compute.init-status.wait-on-node";
+
    /**
     * Initial period between the ComputeService's node polls. Subsequent periods increase exponentially
     * (based on the backoff factor) and become constant when the maximum period is reached.
@@ -44,6 +52,28 @@ public final class ComputeServiceProperties {
     */
    public static final String POLL_MAX_PERIOD = "jclouds.compute.poll-status.max-period";
 
+   /**
+    * When true, nodes being polled for a status change at the same time are refreshed together with one
+    * {@link org.jclouds.compute.strategy.ListNodesStrategy#listNodesByIds} call, rather than one
+    * {@link org.jclouds.compute.strategy.GetNodeMetadataStrategy#getNode} call each. Defaults to false.
+    */
+   public static final String POLL_NODES_IN_BATCHES = "jclouds.compute.poll-status.batch";
+
+   /**
+    * Time in milliseconds an idle ssh connection to a node is kept open for reuse by later script runs, file
+    * transfers and init script status polls on the same node and login. Defaults to 0, which disables pooling and
+    * opens a new connection every time.
+    *
+    * @see org.jclouds.ssh.SshClientPool
+    */
+   public static final String SSH_POOL_IDLE_TIME = "jclouds.compute.ssh-pool.idle-time";
+
+   /**
+    * Maximum number of idle ssh connections kept open per node and login when
+    * {@link #SSH_POOL_IDLE_TIME pooling} is enabled. Defaults to 2.
+    */
+   public static final String SSH_POOL_MAX_IDLE = "jclouds.compute.ssh-pool.max-idle";
+
    /**
     * time in milliseconds to wait for an image to finish creating.
     * 
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.domain.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.OsFamily;
+import org.jclouds.domain.Location;
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Index over a set of images, keyed by location and operating system family.
+ * <p>
+ * {@link TemplateBuilderImpl} uses it to narrow the images it evaluates its predicates against, so that resolving
+ * a template against a catalog of tens of thousands of images doesn't have to scan all of them. Candidates are
+ * returned in the iteration order of the indexed set, so choosing between equally ranked images is not affected.
+ */
+@Beta
+public final class ImageIndex {
+
+   public static ImageIndex create(Set<? extends Image> images) {
+      return new ImageIndex(ImmutableSet.copyOf(checkNotNull(images, "images")));
+   }
+
+   private final Set<? extends Image> images;
+   private final List<Image> ordered;
+   private final ImmutableListMultimap<Key, Integer> positions;
+
+   private ImageIndex(ImmutableSet<? extends Image> images) {
+      this.images = images;
+      this.ordered = ImmutableList.copyOf(images);
+      ImmutableListMultimap.Builder<Key, Integer> positions = ImmutableListMultimap.builder();
+      for (int i = 0; i < ordered.size(); i++) {
+         Image image = ordered.get(i);
+         OsFamily family = image.getOperatingSystem() != null ? image.getOperatingSystem().getFamily() : null;
+         // a null family means any family, so every image is also filed under that key
+         positions.put(new Key(image.getLocation(), null), i);
+         if (family != null)
+            positions.put(new Key(image.getLocation(), family), i);
+      }
+      this.positions = positions.build();
+   }
+
+   /**
+    * @return the images this index was built from
+    */
+   public Set<? extends Image> images() {
+      return images;
+   }
+
+   /**
+    * Returns the images that could match a template scoped to the given location and operating system family: those
+    * without a location, or whose location is the given one, its parent or its grandparent.
+    * 
+    * @param location
+    *           the location the template is scoped to, or null for any location
+    * @param family
+    *           the operating system family requested, or null for any family
+    */
+   public List<? extends Image> candidates(@Nullable Location location, @Nullable OsFamily family) {
+      if (location == null && family == null)
+         return ordered;
+      if (location == null) {
+         List<Integer> matches = Lists.newArrayList();
+         for (Key key : positions.keySet()) {
+            if (key.family == family)
+               matches.addAll(positions.get(key));
+         }
+         return inOrder(matches);
+      }
+      // same scopes as NullEqualToIsParentOrIsGrandparentOfCurrentLocation
+      List<Integer> matches = Lists.newArrayList(positions.get(new Key(null, family)));
+      matches.addAll(positions.get(new Key(location, family)));
+      Location parent = location.getParent();
+      if (parent != null) {
+         matches.addAll(positions.get(new Key(parent, family)));
+         if (parent.getParent() != null)
+            matches.addAll(positions.get(new Key(parent.getParent(), family)));
+      }
+      return inOrder(matches);
+   }
+
+   private List<Image> inOrder(List<Integer> matches) {
+      Collections.sort(matches);
+      ImmutableList.Builder<Image> result = ImmutableList.builder();
+      for (int position : matches)
+         result.add(ordered.get(position));
+      return result.build();
+   }
+
+   private static final class Key {
+      private final Location location;
+      private final OsFamily family;
+
+      private Key(@Nullable Location location, @Nullable OsFamily family) {
+         this.location = location;
+         this.family = family;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o)
+            return true;
+         if (!(o instanceof Key))
+            return false;
+         Key that = Key.class.cast(o);
+         return Objects.equal(this.location, that.location) && this.family == that.family;
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hashCode(location, family);
+      }
+   }
+}
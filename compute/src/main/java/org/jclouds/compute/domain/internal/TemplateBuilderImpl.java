@@ -62,7 +62,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.find;
-import static com.google.common.collect.Iterables.size;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Iterables.tryFind;
 import static com.google.common.collect.Lists.newArrayList;
@@ -703,14 +702,27 @@ public class TemplateBuilderImpl implements TemplateBuilder {
 
    private Iterable<? extends Image> findSupportedImages(Set<? extends Image> images) {
       Predicate<Image> imagePredicate = buildImagePredicate();
-      Iterable<? extends Image> supportedImages = filter(images, imagePredicate);
-      if (size(supportedImages) == 0) {
+      // copied, as hardware resolution iterates these once per hardware profile
+      List<? extends Image> supportedImages = ImmutableList.copyOf(filter(candidateImages(images), imagePredicate));
+      if (supportedImages.isEmpty()) {
          throw throwNoSuchElementExceptionAfterLoggingImageIds(
                format("no image matched predicate: %s", imagePredicate), images);
       }
       return supportedImages;
    }
 
+   /**
+    * Narrows the images down to those in scope of the current location and
+    * operating system family, when they are the ones indexed by the image cache.
+    */
+   private Iterable<? extends Image> candidateImages(Set<? extends Image> images) {
+      Optional<ImageIndex> index = this.images.cachedIndex();
+      // subclasses may search images other than the cached ones
+      if (!index.isPresent() || index.get().images() != images)
+         return images;
+      return index.get().candidates(location, osFamily);
+   }
+
    private Image loadImageWithId(Iterable<? extends Image> images) {
       Optional<? extends Image> image = tryFind(images, ImagePredicates.idEquals(imageId));
       if (!image.isPresent()) {
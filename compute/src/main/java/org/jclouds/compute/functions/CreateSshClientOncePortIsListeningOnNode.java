@@ -19,9 +19,12 @@ package org.jclouds.compute.functions;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static org.jclouds.compute.config.ComputeServiceProperties.SSH_POOL_IDLE_TIME;
+import static org.jclouds.compute.config.ComputeServiceProperties.SSH_POOL_MAX_IDLE;
 
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -32,6 +35,7 @@ import org.jclouds.compute.reference.ComputeServiceConstants.Timeouts;
 import org.jclouds.compute.util.OpenSocketFinder;
 import org.jclouds.logging.Logger;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.SshClientPool;
 
 import com.google.common.base.Function;
 import com.google.common.net.HostAndPort;
@@ -46,6 +50,17 @@ public class CreateSshClientOncePortIsListeningOnNode implements Function<NodeMe
    @Inject(optional = true)
    SshClient.Factory sshFactory;
 
+   @Inject(optional = true)
+   @Named(SSH_POOL_IDLE_TIME)
+   long sshPoolIdleTime = 0;
+
+   @Inject(optional = true)
+   @Named(SSH_POOL_MAX_IDLE)
+   int sshPoolMaxIdle = 2;
+
+   // @GuardedBy("this")
+   private SshClientPool sshPool;
+
    private final OpenSocketFinder openSocketFinder;
 
    private final long timeoutMs;
@@ -65,6 +80,20 @@ public class CreateSshClientOncePortIsListeningOnNode implements Function<NodeMe
                .getCredentials().identity, node.getId());
       HostAndPort socket = openSocketFinder.findOpenSocketOnNode(node, node.getLoginPort(), 
                timeoutMs, TimeUnit.MILLISECONDS);
-      return sshFactory.create(socket, node.getCredentials());
+      return sshClientFactory().create(socket, node.getCredentials());
+   }
+
+   private synchronized SshClient.Factory sshClientFactory() {
+      if (sshPoolIdleTime <= 0)
+         return sshFactory;
+      if (sshPool == null)
+         sshPool = new SshClientPool(sshFactory, sshPoolIdleTime, TimeUnit.MILLISECONDS, sshPoolMaxIdle);
+      return sshPool;
+   }
+
+   @PreDestroy
+   public synchronized void closeSshPool() {
+      if (sshPool != null)
+         sshPool.close();
    }
 }
@@ -15,14 +15,15 @@
  * limitations under the License.
  */
 package org.jclouds.compute.internal;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Predicates.and;
 import static com.google.common.base.Predicates.not;
-import static com.google.common.base.Predicates.notNull;
 import static com.google.common.base.Throwables.propagate;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Maps.newLinkedHashMap;
 import static com.google.common.collect.Sets.newLinkedHashSet;
+import static java.util.Collections.synchronizedMap;
 import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_RUNNING;
 import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_SUSPENDED;
 import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_TERMINATED;
@@ -36,6 +37,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -79,6 +81,7 @@ import org.jclouds.compute.strategy.ResumeNodeStrategy;
 import org.jclouds.compute.strategy.RunScriptOnNodeAndAddToGoodMapOrPutExceptionIntoBadMap;
 import org.jclouds.compute.strategy.SuspendNodeStrategy;
 import org.jclouds.compute.suppliers.ImageCacheSupplier;
+import org.jclouds.concurrent.BoundedExecutor;
 import org.jclouds.domain.Credentials;
 import org.jclouds.domain.Location;
 import org.jclouds.domain.LoginCredentials;
@@ -98,9 +101,11 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.Atomics;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.ListeningExecutorService;
 
 @Singleton
@@ -560,20 +565,22 @@ public class BaseComputeService implements ComputeService {
       checkNotNull(runScript, "runScript");
       checkNotNull(options, "options");
 
-      Map<NodeMetadata, ExecResponse> goodNodes = newLinkedHashMap();
-      Map<NodeMetadata, Exception> badNodes = newLinkedHashMap();
+      Map<NodeMetadata, ExecResponse> goodNodes = synchronizedMap(Maps.<NodeMetadata, ExecResponse> newLinkedHashMap());
+      Map<NodeMetadata, Exception> badNodes = synchronizedMap(Maps.<NodeMetadata, Exception> newLinkedHashMap());
       Map<NodeMetadata, ListenableFuture<ExecResponse>> responses = newLinkedHashMap();
       Map<?, Exception> exceptions = ImmutableMap.<Object, Exception> of();
 
       initAdminAccess.visit(runScript);
 
-      Iterable<? extends RunScriptOnNode> scriptRunners = transformNodesIntoInitializedScriptRunners(
-            nodesMatchingFilterAndNotTerminatedExceptionIfNotFound(filter), runScript, options, badNodes);
-      if (!Iterables.isEmpty(scriptRunners)) {
-         for (RunScriptOnNode runner : scriptRunners) {
-            responses.put(runner.getNode(), userExecutor.submit(new RunScriptOnNodeAndAddToGoodMapOrPutExceptionIntoBadMap(
-                  runner, goodNodes, badNodes)));
-         }
+      Executor executor = scriptExecutor(options);
+      for (NodeMetadata node : nodesToRunScriptOn(filter, options)) {
+         ListenableFutureTask<ExecResponse> response = ListenableFutureTask.create(new InitializeThenRunScriptOnNode(
+               initScriptRunnerFactory.create(updateNodeWithCredentialsIfPresent(node, options), runScript, options,
+                     badNodes), goodNodes, badNodes));
+         executor.execute(response);
+         responses.put(node, response);
+      }
+      if (!responses.isEmpty()) {
          try {
             exceptions = awaitCompletion(responses, userExecutor, null, logger, "runScriptOnNodesMatching(" + filter + ")");
          } catch (TimeoutException te) {
@@ -664,11 +671,53 @@ public class BaseComputeService implements ComputeService {
       return response;
    }
 
-   private Iterable<RunScriptOnNode> transformNodesIntoInitializedScriptRunners(
-         Iterable<? extends NodeMetadata> nodes, Statement script, RunScriptOptions options,
-         Map<NodeMetadata, Exception> badNodes) {
-      return filter(transformParallel(nodes, new TransformNodesIntoInitializedScriptRunners(script, options, badNodes),
-            userExecutor, null, logger, "initialize script runners"), notNull());
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Map<NodeMetadata, ListenableFuture<ExecResponse>> submitScriptOnNodesMatching(
+         Predicate<? super NodeMetadata> filter, final Statement runScript, final RunScriptOptions options) {
+      checkNotNull(filter, "filter");
+      checkNotNull(runScript, "runScript");
+      checkNotNull(options, "options");
+
+      initAdminAccess.visit(runScript);
+
+      Executor executor = scriptExecutor(options);
+      Map<NodeMetadata, ListenableFuture<ExecResponse>> responses = newLinkedHashMap();
+      for (NodeMetadata node : nodesToRunScriptOn(filter, options)) {
+         final NodeMetadata node1 = updateNodeWithCredentialsIfPresent(node, options);
+         ListenableFutureTask<ExecResponse> response = ListenableFutureTask.create(new Callable<ExecResponse>() {
+            public ExecResponse call() {
+               return runScriptOnNodeFactory.create(node1, runScript, options).init().call();
+            }
+         });
+         response.addListener(new Runnable() {
+            public void run() {
+               persistNodeCredentials.ifAdminAccess(runScript).apply(node1);
+            }
+         }, userExecutor);
+         executor.execute(response);
+         responses.put(node, response);
+      }
+      return responses;
+   }
+
+   private Iterable<? extends NodeMetadata> nodesToRunScriptOn(Predicate<? super NodeMetadata> filter,
+         RunScriptOptions options) {
+      Iterable<? extends NodeMetadata> nodes = nodesMatchingFilterAndNotTerminatedExceptionIfNotFound(filter);
+      if (options.sharesOutputStreams()) {
+         nodes = ImmutableSet.copyOf(nodes);
+         checkArgument(Iterables.size(nodes) == 1, "%s nodes match %s, but the output streams of %s can only serve "
+               + "one node; use streamOutput(Function, Function) to open streams for each node", Iterables.size(nodes),
+               filter, options);
+      }
+      return nodes;
+   }
+
+   private Executor scriptExecutor(RunScriptOptions options) {
+      return options.getMaxParallelism() > 0 ? new BoundedExecutor(userExecutor, options.getMaxParallelism())
+            : userExecutor;
    }
 
    private Set<? extends NodeMetadata> detailsOnAllNodes() {
@@ -704,25 +753,30 @@ public class BaseComputeService implements ComputeService {
       return NodeMetadataBuilder.fromNodeMetadata(node).credentials(builder.build()).build();
    }
 
-   private final class TransformNodesIntoInitializedScriptRunners implements
-         Function<NodeMetadata, ListenableFuture<? extends RunScriptOnNode>> {
+   /**
+    * Initializes and runs the script on a node as a single task, so that a bound on parallelism covers connecting
+    * to the node as well as running the script.
+    */
+   private static final class InitializeThenRunScriptOnNode implements Callable<ExecResponse> {
+      private final Callable<RunScriptOnNode> initializer;
+      private final Map<NodeMetadata, ExecResponse> goodNodes;
       private final Map<NodeMetadata, Exception> badNodes;
-      private final Statement script;
-      private final RunScriptOptions options;
 
-      private TransformNodesIntoInitializedScriptRunners(Statement script, RunScriptOptions options,
-            Map<NodeMetadata, Exception> badNodes) {
+      private InitializeThenRunScriptOnNode(Callable<RunScriptOnNode> initializer,
+            Map<NodeMetadata, ExecResponse> goodNodes, Map<NodeMetadata, Exception> badNodes) {
+         this.initializer = checkNotNull(initializer, "initializer");
+         this.goodNodes = checkNotNull(goodNodes, "goodNodes");
          this.badNodes = checkNotNull(badNodes, "badNodes");
-         this.script = checkNotNull(script, "script");
-         this.options = checkNotNull(options, "options");
       }
 
       @Override
-      public ListenableFuture<RunScriptOnNode> apply(NodeMetadata node) {
-         node = updateNodeWithCredentialsIfPresent(node, options);
-         return userExecutor.submit(initScriptRunnerFactory.create(node, script, options, badNodes));
+      public ExecResponse call() throws Exception {
+         RunScriptOnNode runner = initializer.call();
+         // the initializer has already put the reason into badNodes
+         if (runner == null)
+            return null;
+         return new RunScriptOnNodeAndAddToGoodMapOrPutExceptionIntoBadMap(runner, goodNodes, badNodes).call();
       }
-
    }
 
    /**
@@ -20,9 +20,14 @@ import static com.google.common.base.Objects.equal;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.OutputStream;
+
+import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.domain.LoginCredentials;
 import org.jclouds.javax.annotation.Nullable;
 
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
@@ -60,6 +65,12 @@ public class RunScriptOptions {
       if (this.shouldAuthenticateSudo() != null) {
          to.overrideAuthenticateSudo(this.shouldAuthenticateSudo());
       }
+      if (this.getOutputStreams() != null) {
+         to.streamOutput(this.getOutputStreams(), this.getErrorStreams());
+         to.sharedOutputStreams = this.sharesOutputStreams();
+      }
+      if (this.getMaxParallelism() != 0)
+         to.maxParallelism(this.getMaxParallelism());
    }
    
    public static class ImmutableRunScriptOptions extends RunScriptOptions {
@@ -175,6 +186,42 @@ public class RunScriptOptions {
       public int getSeconds() {
          return delegate.getSeconds();
       }
+
+      @Override
+      public RunScriptOptions streamOutput(OutputStream outputStream, OutputStream errorStream) {
+         throw new IllegalArgumentException("outputStream, errorStream are immutable");
+      }
+
+      @Override
+      public RunScriptOptions streamOutput(Function<? super NodeMetadata, ? extends OutputStream> outputStreams,
+            Function<? super NodeMetadata, ? extends OutputStream> errorStreams) {
+         throw new IllegalArgumentException("outputStreams, errorStreams are immutable");
+      }
+
+      @Override
+      public Function<? super NodeMetadata, ? extends OutputStream> getOutputStreams() {
+         return delegate.getOutputStreams();
+      }
+
+      @Override
+      public Function<? super NodeMetadata, ? extends OutputStream> getErrorStreams() {
+         return delegate.getErrorStreams();
+      }
+
+      @Override
+      public boolean sharesOutputStreams() {
+         return delegate.sharesOutputStreams();
+      }
+
+      @Override
+      public RunScriptOptions maxParallelism(int maxParallelism) {
+         throw new IllegalArgumentException("maxParallelism is immutable");
+      }
+
+      @Override
+      public int getMaxParallelism() {
+         return delegate.getMaxParallelism();
+      }
    }
 
    protected int port = -1;
@@ -188,6 +235,10 @@ public class RunScriptOptions {
    protected Boolean authenticateSudo;
    protected Optional<String> loginPassword;
    protected Optional<String> loginPrivateKey;
+   protected Function<? super NodeMetadata, ? extends OutputStream> outputStreams;
+   protected Function<? super NodeMetadata, ? extends OutputStream> errorStreams;
+   protected boolean sharedOutputStreams;
+   protected int maxParallelism;
 
    public RunScriptOptions overrideLoginCredentials(LoginCredentials overridingCredentials) {
       checkNotNull(overridingCredentials, "overridingCredentials");
@@ -290,6 +341,48 @@ public class RunScriptOptions {
       return this;
    }
 
+   /**
+    * Writes the output of the script to the given streams instead of returning it in the
+    * {@link org.jclouds.compute.domain.ExecResponse}, whose output is then empty. Use a
+    * {@link org.jclouds.ssh.TailOutputStream} to keep only the end of a long output in memory.
+    * <p/>
+    * Scripts run directly are streamed as they run. Scripts wrapped in an init script are streamed from the logs on
+    * the node once they complete.
+    * <p/>
+    * The streams can only serve one node, so {@link org.jclouds.compute.ComputeService#runScriptOnNodesMatching} and
+    * {@link org.jclouds.compute.ComputeService#submitScriptOnNodesMatching} reject these options when more than one
+    * node matches. Use {@link #streamOutput(Function, Function)} to give each node its own streams.
+    */
+   public RunScriptOptions streamOutput(OutputStream outputStream, OutputStream errorStream) {
+      streamOutput(Functions.constant(checkNotNull(outputStream, "outputStream")),
+            Functions.constant(checkNotNull(errorStream, "errorStream")));
+      this.sharedOutputStreams = true;
+      return this;
+   }
+
+   /**
+    * Like {@link #streamOutput(OutputStream, OutputStream)}, but opens the streams for each node the script runs on,
+    * so that the output of nodes running at the same time isn't interleaved.
+    */
+   public RunScriptOptions streamOutput(Function<? super NodeMetadata, ? extends OutputStream> outputStreams,
+         Function<? super NodeMetadata, ? extends OutputStream> errorStreams) {
+      this.outputStreams = checkNotNull(outputStreams, "outputStreams");
+      this.errorStreams = checkNotNull(errorStreams, "errorStreams");
+      this.sharedOutputStreams = false;
+      return this;
+   }
+
+   /**
+    * Limits how many nodes {@link org.jclouds.compute.ComputeService#runScriptOnNodesMatching} and
+    * {@link org.jclouds.compute.ComputeService#submitScriptOnNodesMatching} connect to at the same time. The other
+    * nodes wait their turn without holding a thread or connection. Defaults to 0, which runs on all nodes at once.
+    */
+   public RunScriptOptions maxParallelism(int maxParallelism) {
+      checkArgument(maxParallelism >= 0, "maxParallelism must be zero or positive");
+      this.maxParallelism = maxParallelism;
+      return this;
+   }
+
    public String getTaskName() {
       return taskName;
    }
@@ -374,6 +467,37 @@ public class RunScriptOptions {
       return hasLoginPrivateKey() ? loginPrivateKey.get() : null;
    }
 
+   /**
+    * @see #maxParallelism(int)
+    */
+   public int getMaxParallelism() {
+      return maxParallelism;
+   }
+
+   /**
+    * @see #streamOutput(Function, Function)
+    */
+   @Nullable
+   public Function<? super NodeMetadata, ? extends OutputStream> getOutputStreams() {
+      return outputStreams;
+   }
+
+   /**
+    * @see #streamOutput(Function, Function)
+    */
+   @Nullable
+   public Function<? super NodeMetadata, ? extends OutputStream> getErrorStreams() {
+      return errorStreams;
+   }
+
+   /**
+    * @return true if the output streams were set by {@link #streamOutput(OutputStream, OutputStream)} and so can only
+    *         serve one node
+    */
+   public boolean sharesOutputStreams() {
+      return sharedOutputStreams;
+   }
+
    /**
     * Whether to run the script as root (or run with current privileges). By
     * default, true.
@@ -455,6 +579,31 @@ public class RunScriptOptions {
          return options.blockOnPort(port, seconds);
       }
 
+      /**
+       * @see RunScriptOptions#maxParallelism(int)
+       */
+      public static RunScriptOptions maxParallelism(int maxParallelism) {
+         RunScriptOptions options = new RunScriptOptions();
+         return options.maxParallelism(maxParallelism);
+      }
+
+      /**
+       * @see RunScriptOptions#streamOutput(OutputStream, OutputStream)
+       */
+      public static RunScriptOptions streamOutput(OutputStream outputStream, OutputStream errorStream) {
+         RunScriptOptions options = new RunScriptOptions();
+         return options.streamOutput(outputStream, errorStream);
+      }
+
+      /**
+       * @see RunScriptOptions#streamOutput(Function, Function)
+       */
+      public static RunScriptOptions streamOutput(Function<? super NodeMetadata, ? extends OutputStream> outputStreams,
+            Function<? super NodeMetadata, ? extends OutputStream> errorStreams) {
+         RunScriptOptions options = new RunScriptOptions();
+         return options.streamOutput(outputStreams, errorStreams);
+      }
+
    }
 
    @Override
@@ -468,13 +617,13 @@ public class RunScriptOptions {
             && equal(this.loginPrivateKey, that.loginPrivateKey) && equal(this.authenticateSudo, that.authenticateSudo)
             && equal(this.port, that.port) && equal(this.seconds, that.seconds) && equal(this.taskName, that.taskName)
             && equal(this.runAsRoot, that.runAsRoot) && equal(this.blockOnComplete, that.blockOnComplete)
-            && equal(this.wrapInInitScript, that.wrapInInitScript);
+            && equal(this.wrapInInitScript, that.wrapInInitScript) && equal(this.maxParallelism, that.maxParallelism);
    }
 
    @Override
    public int hashCode() {
       return Objects.hashCode(loginUser, loginPassword, loginPrivateKey, authenticateSudo, port, seconds, taskName,
-            taskName, blockOnComplete, wrapInInitScript);
+            taskName, blockOnComplete, wrapInInitScript, maxParallelism);
    }
 
    @Override
@@ -499,6 +648,10 @@ public class RunScriptOptions {
          toString.add("blockOnComplete", blockOnComplete);
       if (!wrapInInitScript)
          toString.add("wrapInInitScript", wrapInInitScript);
+      if (outputStreams != null)
+         toString.add("streamOutput", true);
+      if (maxParallelism != 0)
+         toString.add("maxParallelism", maxParallelism);
       return toString;
    }
 
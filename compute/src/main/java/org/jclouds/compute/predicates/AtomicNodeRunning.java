@@ -20,6 +20,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.predicates.internal.BatchNodeStatePoller;
 import org.jclouds.compute.predicates.internal.RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 
@@ -33,6 +34,10 @@ import com.google.common.collect.ImmutableSet;
 public class AtomicNodeRunning extends RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid {
 
    @Inject
+   AtomicNodeRunning(BatchNodeStatePoller client) {
+      this((GetNodeMetadataStrategy) client);
+   }
+
    public AtomicNodeRunning(GetNodeMetadataStrategy client) {
       super(Status.RUNNING, ImmutableSet.of(Status.ERROR, Status.TERMINATED), client);
    }
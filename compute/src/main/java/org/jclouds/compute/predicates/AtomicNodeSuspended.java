@@ -20,6 +20,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.predicates.internal.BatchNodeStatePoller;
 import org.jclouds.compute.predicates.internal.RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 
@@ -33,6 +34,10 @@ import com.google.common.collect.ImmutableSet;
 public class AtomicNodeSuspended extends RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid {
 
    @Inject
+   AtomicNodeSuspended(BatchNodeStatePoller client) {
+      this((GetNodeMetadataStrategy) client);
+   }
+
    public AtomicNodeSuspended(GetNodeMetadataStrategy client) {
       super(Status.SUSPENDED, ImmutableSet.of(Status.ERROR, Status.TERMINATED), client);
    }
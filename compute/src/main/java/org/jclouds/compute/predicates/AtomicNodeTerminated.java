@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.predicates.internal.BatchNodeStatePoller;
 import org.jclouds.compute.predicates.internal.TrueIfNullOrDeletedRefreshAndDoubleCheckOnFalse;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 
@@ -30,6 +31,10 @@ public class AtomicNodeTerminated extends TrueIfNullOrDeletedRefreshAndDoubleChe
    private final GetNodeMetadataStrategy client;
 
    @Inject
+   AtomicNodeTerminated(BatchNodeStatePoller client) {
+      this((GetNodeMetadataStrategy) client);
+   }
+
    public AtomicNodeTerminated(GetNodeMetadataStrategy client) {
       super(Status.TERMINATED);
       this.client = checkNotNull(client, "client");
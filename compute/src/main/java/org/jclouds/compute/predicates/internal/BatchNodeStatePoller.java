@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.predicates.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.compute.config.ComputeServiceProperties.POLL_NODES_IN_BATCHES;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+
+/**
+ * Refreshes nodes for the status predicates. When
+ * {@link org.jclouds.compute.config.ComputeServiceProperties#POLL_NODES_IN_BATCHES} is set, threads asking for
+ * nodes while a refresh is in flight are queued, and the next refresh fetches all of them with one
+ * {@link ListNodesStrategy#listNodesByIds} call. Polling hundreds of nodes then costs a couple of calls per poll
+ * period instead of one per node.
+ * <p/>
+ * Nodes missing from the listing are fetched with {@link GetNodeMetadataStrategy#getNode}, as some providers leave
+ * nodes in transitional states out of their listings.
+ */
+@Singleton
+public class BatchNodeStatePoller implements GetNodeMetadataStrategy {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(POLL_NODES_IN_BATCHES)
+   @VisibleForTesting
+   boolean pollInBatches = false;
+
+   private final GetNodeMetadataStrategy getNode;
+   private final ListNodesStrategy listNodes;
+
+   private final Lock lock = new ReentrantLock();
+   private final Condition refreshed = lock.newCondition();
+   // @GuardedBy("lock")
+   private List<Request> pending = Lists.newArrayList();
+   // @GuardedBy("lock")
+   private boolean refreshing;
+
+   @Inject
+   BatchNodeStatePoller(GetNodeMetadataStrategy getNode, ListNodesStrategy listNodes) {
+      this.getNode = checkNotNull(getNode, "getNode");
+      this.listNodes = checkNotNull(listNodes, "listNodes");
+   }
+
+   @Override
+   public NodeMetadata getNode(String id) {
+      if (!pollInBatches)
+         return getNode.getNode(id);
+      Request request = new Request(id);
+      lock.lock();
+      try {
+         pending.add(request);
+         while (!request.done) {
+            if (refreshing) {
+               refreshed.await();
+               continue;
+            }
+            // no refresh in flight: this thread fetches everything queued so far
+            refreshing = true;
+            List<Request> batch = pending;
+            pending = Lists.newArrayList();
+            lock.unlock();
+            try {
+               refresh(batch);
+            } finally {
+               lock.lock();
+               // hand anything an unexpected error left behind to the next refresh
+               for (Request unfinished : batch) {
+                  if (!unfinished.done)
+                     pending.add(unfinished);
+               }
+               refreshing = false;
+               refreshed.signalAll();
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(e);
+      } finally {
+         lock.unlock();
+      }
+      if (request.failure != null)
+         throw request.failure;
+      return request.node != null ? request.node : getNode.getNode(id);
+   }
+
+   @VisibleForTesting
+   int pendingCount() {
+      lock.lock();
+      try {
+         return pending.size();
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private void refresh(List<Request> batch) {
+      Set<String> ids = ImmutableSet.copyOf(Lists.transform(batch, Request.ID));
+      logger.trace(">> refreshing %d nodes: %s", ids.size(), ids);
+      Map<String, NodeMetadata> nodes = Maps.newHashMap();
+      try {
+         for (NodeMetadata node : listNodes.listNodesByIds(ids))
+            nodes.put(node.getId(), node);
+      } catch (RuntimeException e) {
+         for (Request request : batch) {
+            request.failure = e;
+            request.done = true;
+         }
+         return;
+      }
+      logger.trace("<< refreshed %d of %d nodes", nodes.size(), ids.size());
+      for (Request request : batch) {
+         request.node = nodes.get(request.id);
+         request.done = true;
+      }
+   }
+
+   private static final class Request {
+      private static final Function<Request, String> ID = new Function<Request, String>() {
+         @Override
+         public String apply(Request input) {
+            return input.id;
+         }
+      };
+
+      private final String id;
+      private volatile NodeMetadata node;
+      private volatile RuntimeException failure;
+      private volatile boolean done;
+
+      private Request(String id) {
+         this.id = id;
+      }
+   }
+}
@@ -20,17 +20,20 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
 
 import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.internal.ImageIndex;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.compute.strategy.GetImageStrategy;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier;
+import org.jclouds.rest.suppliers.MemoizedSupplierFactory;
 import org.jclouds.rest.suppliers.ValueLoadedCallback;
 
 import com.google.common.annotations.Beta;
@@ -40,6 +43,8 @@ import com.google.common.base.Supplier;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.inject.Provider;
@@ -74,7 +79,19 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
     * and allows to add and remove images at runtime.
     */
    private final LoadingCache<String, Image> imageCache;
-   
+
+   /**
+    * Bumped every time the contents of the {@link #imageCache} change, so the
+    * {@link #index} can tell whether it is still current.
+    */
+   private final AtomicInteger generation = new AtomicInteger();
+
+   /**
+    * The images last returned by {@link #get()}, indexed for template
+    * resolution. Rebuilt lazily after the cache changes.
+    */
+   private volatile IndexedGeneration index;
+
    @Resource
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
    protected Logger logger = Logger.NULL;
@@ -84,7 +101,31 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
       liveImageSupplier = imageSupplier;
       memoizedImageSupplier = MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
             imageSupplier, sessionIntervalSeconds, TimeUnit.SECONDS, this);
-      imageCache = CacheBuilder.newBuilder().expireAfterWrite(sessionIntervalSeconds, TimeUnit.SECONDS)
+      imageCache = newImageCache(sessionIntervalSeconds, imageLoader);
+   }
+
+   /**
+    * Serves the last image list while it is reloaded in the background, if the
+    * memoizer is configured to allow stale values.
+    */
+   public ImageCacheSupplier(Supplier<Set<? extends Image>> imageSupplier, MemoizedSupplierFactory memoizer,
+         final Provider<GetImageStrategy> imageLoader) {
+      liveImageSupplier = imageSupplier;
+      memoizedImageSupplier = memoizer.memoize(imageSupplier, this);
+      // images must outlive the reload of the supplier, or they would be
+      // evicted while the stale list is still being served
+      imageCache = newImageCache(memoizer.getMaxAgeSeconds(), imageLoader);
+   }
+
+   private LoadingCache<String, Image> newImageCache(long expireAfterWriteSeconds,
+         final Provider<GetImageStrategy> imageLoader) {
+      return CacheBuilder.newBuilder().expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+            .removalListener(new RemovalListener<String, Image>() {
+               @Override
+               public void onRemoval(RemovalNotification<String, Image> notification) {
+                  generation.incrementAndGet();
+               }
+            })
             .build(new CacheLoader<String, Image>() {
                @Override
                public Image load(String key) throws Exception {
@@ -104,7 +145,26 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
       // individual image additions and deletions (introduced, for example, by
       // the usage of the ImageExtension).
       memoizedImageSupplier.get();
-      return ImmutableSet.copyOf(imageCache.asMap().values());
+      // expire individually registered images before checking the index
+      imageCache.cleanUp();
+      int current = generation.get();
+      IndexedGeneration indexed = index;
+      if (indexed == null || indexed.generation != current) {
+         indexed = new IndexedGeneration(current, ImageIndex.create(ImmutableSet.copyOf(imageCache.asMap().values())));
+         index = indexed;
+      }
+      return indexed.index.images();
+   }
+
+   /**
+    * Returns the index over the images last returned by {@link #get()}, if
+    * the cache hasn't changed since. This never loads images.
+    */
+   public Optional<ImageIndex> cachedIndex() {
+      IndexedGeneration indexed = index;
+      if (indexed == null || indexed.generation != generation.get())
+         return Optional.absent();
+      return Optional.of(indexed.index);
    }
 
    /**
@@ -137,6 +197,7 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
             return input.getId();
          }
       }));
+      generation.incrementAndGet();
    }
    
    /**
@@ -157,7 +218,12 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
     */
    public Optional<? extends Image> get(String id) {
       try {
-         return Optional.fromNullable(imageCache.getUnchecked(id));
+         Image image = imageCache.getIfPresent(id);
+         if (image == null) {
+            image = imageCache.getUnchecked(id);
+            generation.incrementAndGet();
+         }
+         return Optional.fromNullable(image);
       } catch (Exception ex) {
          logger.error(ex, "Unexpected error loading image %s", id);
          return Optional.absent();
@@ -180,6 +246,7 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
    public void registerImage(Image image) {
       checkNotNull(image, "image");
       imageCache.put(image.getId(), image);
+      generation.incrementAndGet();
    }
 
    /**
@@ -194,4 +261,14 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
       imageCache.invalidate(checkNotNull(imageId, "imageId"));
    }
 
+   private static final class IndexedGeneration {
+      private final int generation;
+      private final ImageIndex index;
+
+      private IndexedGeneration(int generation, ImageIndex index) {
+         this.generation = generation;
+         this.index = index;
+      }
+   }
+
 }
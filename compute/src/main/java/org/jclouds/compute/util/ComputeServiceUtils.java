@@ -16,6 +16,7 @@
  */
 package org.jclouds.compute.util;
 
+import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.base.Predicates.equalTo;
 import static com.google.common.base.Predicates.not;
 import static com.google.common.base.Throwables.getStackTraceAsString;
@@ -24,6 +25,8 @@ import static com.google.common.collect.Maps.filterKeys;
 import static com.google.common.collect.Maps.filterValues;
 import static org.jclouds.scriptbuilder.domain.Statements.pipeHttpResponseToBash;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.Formatter;
 import java.util.Map;
@@ -34,6 +37,7 @@ import java.util.regex.Pattern;
 
 import org.jclouds.compute.domain.ComputeMetadata;
 import org.jclouds.compute.domain.ComputeMetadataIncludingStatus;
+import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.compute.domain.Hardware;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeMetadataBuilder;
@@ -46,10 +50,14 @@ import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.scriptbuilder.domain.Statement;
 import org.jclouds.scriptbuilder.domain.Statements;
+import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.StreamingSshClient;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
 import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.collect.ImmutableSortedSet;
@@ -78,6 +86,24 @@ public class ComputeServiceUtils {
     *
     * @return a shell script that will invoke the http request
     */
+   /**
+    * Runs the command with {@link StreamingSshClient#exec(String, OutputStream, OutputStream)} if the client supports
+    * it. Otherwise runs {@link SshClient#exec(String)} and writes the buffered output to the streams once the command
+    * completes, so the result is the same either way: the exit status with empty output.
+    */
+   public static ExecResponse execStreaming(SshClient ssh, String command, OutputStream stdout, OutputStream stderr) {
+      if (ssh instanceof StreamingSshClient)
+         return StreamingSshClient.class.cast(ssh).exec(command, stdout, stderr);
+      ExecResponse response = ssh.exec(command);
+      try {
+         stdout.write(Strings.nullToEmpty(response.getOutput()).getBytes(UTF_8));
+         stderr.write(Strings.nullToEmpty(response.getError()).getBytes(UTF_8));
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
+      }
+      return new ExecResponse("", "", response.getExitStatus());
+   }
+
    public static Statement execHttpResponse(HttpRequest request) {
       return pipeHttpResponseToBash(request.getMethod(), request.getEndpoint(), request.getHeaders());
    }
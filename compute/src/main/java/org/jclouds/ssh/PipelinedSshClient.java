@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import org.jclouds.io.Payload;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * {@link SshClient} that can pipeline sftp transfers. Drivers opt in by implementing this interface, so existing
+ * {@link SshClient} implementations keep compiling; callers check for it and otherwise fall back to
+ * {@link SshClient#put(String, Payload)} and {@link SshClient#get(String)}.
+ * 
+ * @since 2.2.0
+ */
+@Beta
+public interface PipelinedSshClient extends SshClient {
+
+   /**
+    * Like {@link #put(String, Payload)}, but pipelines the transfer as configured by the options.
+    */
+   void put(String path, Payload contents, TransferOptions options);
+
+   /**
+    * Like {@link #get(String)}, but pipelines the transfer as configured by the options. Progress is reported as
+    * the returned payload is read.
+    */
+   Payload get(String path, TransferOptions options);
+}
@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.compute.util.ComputeServiceUtils.execStreaming;
+
+import java.io.Closeable;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.compute.domain.ExecChannel;
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.domain.LoginCredentials;
+import org.jclouds.io.Payload;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.net.HostAndPort;
+
+/**
+ * {@link SshClient.Factory} that keeps connections open after {@link SshClient#disconnect()}, so that the next
+ * client created for the same socket and login reuses the established session instead of doing another handshake
+ * and authentication.
+ * <p/>
+ * Clients created by this factory borrow an idle connection on {@link SshClient#connect()} and give it back on
+ * {@link SshClient#disconnect()}. A connection is only ever used by one client at a time. Connections that failed
+ * an operation, or that had an {@link SshClient#execChannel(String) exec channel} opened on them, are closed rather
+ * than reused. Idle connections are closed once they have been idle for longer than the idle time, or when there
+ * are more than the maximum number of idle connections for the same socket and login.
+ * <p/>
+ * Clients created by this factory are {@link PipelinedSshClient pipelined}. Transfers with options on a connection
+ * whose driver does not support them fall back to a plain put or get.
+ */
+@Beta
+public class SshClientPool implements SshClient.Factory, Closeable {
+
+   private final SshClient.Factory delegate;
+   private final long idleTimeNanos;
+   private final int maxIdle;
+   private final Ticker ticker;
+
+   // @GuardedBy("this")
+   private final Map<Key, Deque<Idle>> idle = Maps.newHashMap();
+   // @GuardedBy("this")
+   private long lastSweep;
+   // @GuardedBy("this")
+   private boolean closed;
+
+   public SshClientPool(SshClient.Factory delegate, long idleTime, TimeUnit unit, int maxIdle) {
+      this(delegate, idleTime, unit, maxIdle, Ticker.systemTicker());
+   }
+
+   @VisibleForTesting
+   SshClientPool(SshClient.Factory delegate, long idleTime, TimeUnit unit, int maxIdle, Ticker ticker) {
+      this.delegate = checkNotNull(delegate, "delegate");
+      checkArgument(idleTime > 0, "idleTime must be positive");
+      checkArgument(maxIdle > 0, "maxIdle must be positive");
+      this.idleTimeNanos = unit.toNanos(idleTime);
+      this.maxIdle = maxIdle;
+      this.ticker = checkNotNull(ticker, "ticker");
+      this.lastSweep = ticker.read();
+   }
+
+   @Override
+   public SshClient create(HostAndPort socket, LoginCredentials credentials) {
+      return new PooledSshClient(new Key(checkNotNull(socket, "socket"), checkNotNull(credentials, "credentials")));
+   }
+
+   @Override
+   public boolean isAgentAvailable() {
+      return delegate.isAgentAvailable();
+   }
+
+   /**
+    * Closes all idle connections. Connections in use are closed when they are given back.
+    */
+   @Override
+   public void close() {
+      List<SshClient> toClose = Lists.newArrayList();
+      synchronized (this) {
+         closed = true;
+         for (Deque<Idle> connections : idle.values()) {
+            for (Idle connection : connections)
+               toClose.add(connection.client);
+         }
+         idle.clear();
+      }
+      disconnectQuietly(toClose);
+   }
+
+   @VisibleForTesting
+   synchronized int idleCount() {
+      int count = 0;
+      for (Deque<Idle> connections : idle.values())
+         count += connections.size();
+      return count;
+   }
+
+   private SshClient borrow(Key key) {
+      List<SshClient> toClose = Lists.newArrayList();
+      SshClient borrowed = null;
+      synchronized (this) {
+         long now = ticker.read();
+         sweep(now, toClose);
+         Deque<Idle> connections = idle.get(key);
+         while (borrowed == null && connections != null && !connections.isEmpty()) {
+            Idle connection = connections.pollFirst();
+            if (now - connection.since < idleTimeNanos && connection.client.isConnected())
+               borrowed = connection.client;
+            else
+               toClose.add(connection.client);
+         }
+         if (connections != null && connections.isEmpty())
+            idle.remove(key);
+      }
+      disconnectQuietly(toClose);
+      if (borrowed != null)
+         return borrowed;
+      SshClient client = delegate.create(key.socket, key.credentials);
+      client.connect();
+      return client;
+   }
+
+   private void release(Key key, SshClient client, boolean reusable) {
+      List<SshClient> toClose = Lists.newArrayList();
+      synchronized (this) {
+         long now = ticker.read();
+         if (!closed && reusable && client.isConnected()) {
+            Deque<Idle> connections = idle.get(key);
+            if (connections == null)
+               idle.put(key, connections = new ArrayDeque<Idle>());
+            // most recently used first, so the oldest connections are the ones to expire
+            connections.addFirst(new Idle(client, now));
+            while (connections.size() > maxIdle)
+               toClose.add(connections.pollLast().client);
+         } else {
+            toClose.add(client);
+         }
+         sweep(now, toClose);
+      }
+      disconnectQuietly(toClose);
+   }
+
+   // @GuardedBy("this")
+   private void sweep(long now, List<SshClient> toClose) {
+      if (now - lastSweep < idleTimeNanos)
+         return;
+      lastSweep = now;
+      for (Iterator<Deque<Idle>> keys = idle.values().iterator(); keys.hasNext();) {
+         Deque<Idle> connections = keys.next();
+         while (!connections.isEmpty() && now - connections.peekLast().since >= idleTimeNanos)
+            toClose.add(connections.pollLast().client);
+         if (connections.isEmpty())
+            keys.remove();
+      }
+   }
+
+   private static void disconnectQuietly(List<SshClient> clients) {
+      for (SshClient client : clients) {
+         try {
+            client.disconnect();
+         } catch (RuntimeException e) {
+            // already broken; nothing left to release
+         }
+      }
+   }
+
+   private static final class Key {
+      private final HostAndPort socket;
+      private final LoginCredentials credentials;
+
+      private Key(HostAndPort socket, LoginCredentials credentials) {
+         this.socket = socket;
+         this.credentials = credentials;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o)
+            return true;
+         if (!(o instanceof Key))
+            return false;
+         Key that = Key.class.cast(o);
+         return socket.equals(that.socket) && credentials.equals(that.credentials);
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hashCode(socket, credentials);
+      }
+   }
+
+   private static final class Idle {
+      private final SshClient client;
+      private final long since;
+
+      private Idle(SshClient client, long since) {
+         this.client = client;
+         this.since = since;
+      }
+   }
+
+   private final class PooledSshClient implements PipelinedSshClient, StreamingSshClient {
+      private final Key key;
+      // @GuardedBy("this")
+      private SshClient connection;
+      // @GuardedBy("this")
+      private boolean reusable;
+
+      private PooledSshClient(Key key) {
+         this.key = key;
+      }
+
+      @Override
+      public synchronized void connect() {
+         if (connection == null) {
+            connection = borrow(key);
+            reusable = true;
+         }
+      }
+
+      @Override
+      public synchronized void disconnect() {
+         if (connection != null) {
+            SshClient released = connection;
+            connection = null;
+            release(key, released, reusable);
+         }
+      }
+
+      @Override
+      public synchronized boolean isConnected() {
+         return connection != null && connection.isConnected();
+      }
+
+      @Override
+      public String getUsername() {
+         return key.credentials.identity;
+      }
+
+      @Override
+      public String getHostAddress() {
+         return key.socket.getHostText();
+      }
+
+      @Override
+      public void put(String path, Payload contents) {
+         SshClient connection = connection();
+         try {
+            connection.put(path, contents);
+         } catch (RuntimeException e) {
+            throw discard(e);
+         }
+      }
+
+      @Override
+      public void put(String path, String contents) {
+         SshClient connection = connection();
+         try {
+            connection.put(path, contents);
+         } catch (RuntimeException e) {
+            throw discard(e);
+         }
+      }
+
+      @Override
+      public Payload get(String path) {
+         SshClient connection = connection();
+         try {
+            return connection.get(path);
+         } catch (RuntimeException e) {
+            throw discard(e);
+         }
+      }
+
+      @Override
+      public void put(String path, Payload contents, TransferOptions options) {
+         SshClient connection = connection();
+         try {
+            if (connection instanceof PipelinedSshClient)
+               PipelinedSshClient.class.cast(connection).put(path, contents, options);
+            else
+               connection.put(path, contents);
+         } catch (RuntimeException e) {
+            throw discard(e);
+         }
+      }
+
+      @Override
+      public Payload get(String path, TransferOptions options) {
+         SshClient connection = connection();
+         try {
+            if (connection instanceof PipelinedSshClient)
+               return PipelinedSshClient.class.cast(connection).get(path, options);
+            return connection.get(path);
+         } catch (RuntimeException e) {
+            throw discard(e);
+         }
+      }
+
+      @Override
+      public ExecResponse exec(String command) {
+         SshClient connection = connection();
+         try {
+            return connection.exec(command);
+         } catch (RuntimeException e) {
+            throw discard(e);
+         }
+      }
+
+      @Override
+      public ExecResponse exec(String command, OutputStream stdout, OutputStream stderr) {
+         SshClient connection = connection();
+         try {
+            return execStreaming(connection, command, stdout, stderr);
+         } catch (RuntimeException e) {
+            throw discard(e);
+         }
+      }
+
+      @Override
+      public ExecChannel execChannel(String command) {
+         SshClient connection = connection();
+         synchronized (this) {
+            // the channel may outlive this client, so the connection can't be handed to anyone else
+            reusable = false;
+         }
+         return connection.execChannel(command);
+      }
+
+      private synchronized SshClient connection() {
+         connect();
+         return connection;
+      }
+
+      private synchronized RuntimeException discard(RuntimeException e) {
+         reusable = false;
+         return e;
+      }
+
+      @Override
+      public String toString() {
+         return String.format("%s@%s (pooled)", getUsername(), key.socket);
+      }
+   }
+}
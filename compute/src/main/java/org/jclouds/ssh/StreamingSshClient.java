@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import java.io.OutputStream;
+
+import org.jclouds.compute.domain.ExecResponse;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * {@link SshClient} that can stream the output of a process as it arrives. Drivers opt in by implementing this
+ * interface, so existing {@link SshClient} implementations keep compiling; callers check for it and otherwise fall
+ * back to {@link SshClient#exec(String)}, see
+ * {@link org.jclouds.compute.util.ComputeServiceUtils#execStreaming(SshClient, String, OutputStream, OutputStream)}.
+ * 
+ * @since 2.2.0
+ */
+@Beta
+public interface StreamingSshClient extends SshClient {
+
+   /**
+    * Like {@link #exec(String)}, but writes the output of the process to the given streams as it arrives instead of
+    * buffering it. The streams are not closed.
+    * 
+    * @param command
+    *           command line to invoke
+    * @param stdout
+    *           receives standard output
+    * @param stderr
+    *           receives standard error
+    * @return exit status of the command, with empty output
+    * @see TailOutputStream
+    */
+   ExecResponse exec(String command, OutputStream stdout, OutputStream stderr);
+}
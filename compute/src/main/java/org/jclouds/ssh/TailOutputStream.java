@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.OutputStream;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Charsets;
+
+/**
+ * Keeps only the last bytes written to it, so that the output of a long running command can be followed without
+ * holding all of it in memory.
+ *
+ * @see StreamingSshClient#exec(String, OutputStream, OutputStream)
+ */
+@Beta
+public class TailOutputStream extends OutputStream {
+
+   private final byte[] buffer;
+   private long count;
+
+   /**
+    * @param capacity
+    *           number of trailing bytes to keep
+    */
+   public TailOutputStream(int capacity) {
+      checkArgument(capacity > 0, "capacity must be positive");
+      this.buffer = new byte[capacity];
+   }
+
+   @Override
+   public synchronized void write(int b) {
+      buffer[(int) (count++ % buffer.length)] = (byte) b;
+   }
+
+   @Override
+   public synchronized void write(byte[] b, int off, int len) {
+      if (len > buffer.length) {
+         count += len - buffer.length;
+         off += len - buffer.length;
+         len = buffer.length;
+      }
+      int pos = (int) (count % buffer.length);
+      int first = Math.min(len, buffer.length - pos);
+      System.arraycopy(b, off, buffer, pos, first);
+      System.arraycopy(b, off + first, buffer, 0, len - first);
+      count += len;
+   }
+
+   /**
+    * @return total number of bytes written, including those no longer kept
+    */
+   public synchronized long count() {
+      return count;
+   }
+
+   /**
+    * @return the kept bytes, oldest first
+    */
+   public synchronized byte[] toByteArray() {
+      int size = (int) Math.min(count, buffer.length);
+      byte[] tail = new byte[size];
+      int start = (int) ((count - size) % buffer.length);
+      int first = Math.min(size, buffer.length - start);
+      System.arraycopy(buffer, start, tail, 0, first);
+      System.arraycopy(buffer, 0, tail, first, size - first);
+      return tail;
+   }
+
+   /**
+    * @return the kept bytes decoded as UTF-8. The first character may be partial once earlier output was dropped.
+    */
+   @Override
+   public String toString() {
+      return new String(toByteArray(), Charsets.UTF_8);
+   }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Tunes {@link PipelinedSshClient#put(String, org.jclouds.io.Payload, TransferOptions)} and
+ * {@link PipelinedSshClient#get(String, TransferOptions)} for large files.
+ * <p/>
+ * SFTP moves a file as a sequence of read or write requests, each of which waits for the server to acknowledge it.
+ * Keeping several requests outstanding hides that round trip; spreading a file over several channels also spreads
+ * the per channel flow control window. Drivers apply the settings they support and ignore the others.
+ */
+@Beta
+public class TransferOptions {
+
+   /**
+    * Notified as a transfer makes progress. With more than one channel it is called from several threads.
+    */
+   public interface ProgressListener {
+      /**
+       * @param path
+       *           remote path being transferred
+       * @param transferred
+       *           bytes transferred so far
+       * @param total
+       *           size of the file in bytes, or -1 if it is not known
+       */
+      void progress(String path, long transferred, long total);
+   }
+
+   public static final ProgressListener NO_PROGRESS = new ProgressListener() {
+      @Override
+      public void progress(String path, long transferred, long total) {
+      }
+   };
+
+   private int maxOutstandingRequests = 16;
+   private int channels = 1;
+   private ProgressListener progressListener = NO_PROGRESS;
+
+   /**
+    * Number of read or write requests kept in flight per channel. Defaults to 16.
+    */
+   public TransferOptions maxOutstandingRequests(int maxOutstandingRequests) {
+      checkArgument(maxOutstandingRequests > 0, "maxOutstandingRequests must be positive");
+      this.maxOutstandingRequests = maxOutstandingRequests;
+      return this;
+   }
+
+   /**
+    * Number of SFTP channels to split an upload over. Only applies to uploads of repeatable payloads of known
+    * length, as each channel reads its own range of the payload. Defaults to 1.
+    */
+   public TransferOptions channels(int channels) {
+      checkArgument(channels > 0, "channels must be positive");
+      this.channels = channels;
+      return this;
+   }
+
+   public TransferOptions progressListener(ProgressListener progressListener) {
+      this.progressListener = checkNotNull(progressListener, "progressListener");
+      return this;
+   }
+
+   public int getMaxOutstandingRequests() {
+      return maxOutstandingRequests;
+   }
+
+   public int getChannels() {
+      return channels;
+   }
+
+   public ProgressListener getProgressListener() {
+      return progressListener;
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this).add("maxOutstandingRequests", maxOutstandingRequests)
+            .add("channels", channels).toString();
+   }
+
+   public static class Builder {
+
+      /**
+       * @see TransferOptions#maxOutstandingRequests(int)
+       */
+      public static TransferOptions maxOutstandingRequests(int maxOutstandingRequests) {
+         return new TransferOptions().maxOutstandingRequests(maxOutstandingRequests);
+      }
+
+      /**
+       * @see TransferOptions#channels(int)
+       */
+      public static TransferOptions channels(int channels) {
+         return new TransferOptions().channels(channels);
+      }
+
+      /**
+       * @see TransferOptions#progressListener(ProgressListener)
+       */
+      public static TransferOptions progressListener(ProgressListener progressListener) {
+         return new TransferOptions().progressListener(progressListener);
+      }
+   }
+}
@@ -193,6 +193,70 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutputTest {
 
    }
 
+   public void testWaitOnNodeRepeatsUntilNoLongerRunning() throws InterruptedException, ExecutionException {
+      ListeningExecutorService userExecutor = MoreExecutors.newDirectExecutorService();
+      Predicate<String> notRunningAnymore = Predicates.alwaysTrue();
+      SudoAwareInitManager commandRunner = createMockBuilder(SudoAwareInitManager.class).addMockedMethod("runAction")
+               .addMockedMethod("getStatement").addMockedMethod("getNode").addMockedMethod("toString")
+               .createStrictMock();
+      InitScript initScript = createMockBuilder(InitScript.class).addMockedMethod("getInstanceName").createStrictMock();
+
+      // the wait period elapsed on the node
+      expect(commandRunner.runAction("wait 30")).andReturn(new ExecResponse("running\n", "", 0));
+      // the script wrote its exit status
+      expect(commandRunner.runAction("wait 30")).andReturn(new ExecResponse("", "", 0));
+
+      expect(commandRunner.runAction("stdout")).andReturn(new ExecResponse("stdout", "", 0));
+      expect(commandRunner.runAction("stderr")).andReturn(new ExecResponse("stderr", "", 0));
+      expect(commandRunner.runAction("exitstatus")).andReturn(new ExecResponse("0\n", "", 0));
+
+      toStringAndEventBusExpectations(commandRunner, initScript);
+
+      replay(commandRunner, initScript);
+
+      BlockUntilInitScriptStatusIsZeroThenReturnOutput future = new BlockUntilInitScriptStatusIsZeroThenReturnOutput(
+               userExecutor, eventBus, notRunningAnymore, 30000, commandRunner);
+
+      future.run();
+
+      assertEquals(future.get(), new ExecResponse("stdout", "stderr", 0));
+
+      verify(commandRunner, initScript);
+
+   }
+
+   public void testStreamingOutputWaitsForExitStatus() throws InterruptedException, ExecutionException {
+      ListeningExecutorService userExecutor = MoreExecutors.newDirectExecutorService();
+      Predicate<String> notRunningAnymore = Predicates.alwaysTrue();
+      SudoAwareInitManager commandRunner = createMockBuilder(SudoAwareInitManager.class).addMockedMethod("runAction")
+               .addMockedMethod("streamsOutput").addMockedMethod("getStatement").addMockedMethod("getNode")
+               .addMockedMethod("toString").createStrictMock();
+      InitScript initScript = createMockBuilder(InitScript.class).addMockedMethod("getInstanceName").createStrictMock();
+
+      // no exit status yet, so nothing is streamed
+      expect(commandRunner.streamsOutput()).andReturn(true);
+      expect(commandRunner.runAction("exitstatus")).andReturn(new ExecResponse("", "", 1));
+
+      expect(commandRunner.streamsOutput()).andReturn(true);
+      expect(commandRunner.runAction("exitstatus")).andReturn(new ExecResponse("2\n", "", 0));
+      expect(commandRunner.runAction("stdout")).andReturn(new ExecResponse("", "", 0));
+      expect(commandRunner.runAction("stderr")).andReturn(new ExecResponse("", "", 0));
+
+      toStringAndEventBusExpectations(commandRunner, initScript);
+
+      replay(commandRunner, initScript);
+
+      BlockUntilInitScriptStatusIsZeroThenReturnOutput future = new BlockUntilInitScriptStatusIsZeroThenReturnOutput(
+               userExecutor, eventBus, notRunningAnymore, commandRunner);
+
+      future.run();
+
+      assertEquals(future.get(), new ExecResponse("", "", 2));
+
+      verify(commandRunner, initScript);
+
+   }
+
    public void testCancelInterruptStopsCommand() throws InterruptedException, ExecutionException {
       ListeningExecutorService userExecutor = MoreExecutors.newDirectExecutorService();
       Predicate<String> notRunningAnymore = Predicates.alwaysTrue();
@@ -19,8 +19,10 @@ package org.jclouds.compute.callables;
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
 import static org.jclouds.compute.options.RunScriptOptions.Builder.wrapInInitScript;
 import static org.jclouds.scriptbuilder.domain.Statements.exec;
+import static org.testng.Assert.assertEquals;
 
 import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.compute.domain.NodeMetadata;
@@ -28,6 +30,8 @@ import org.jclouds.domain.LoginCredentials;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.scriptbuilder.statements.login.UserAdd;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.StreamingSshClient;
+import org.jclouds.ssh.TailOutputStream;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -75,6 +79,48 @@ public class RunScriptOnNodeUsingSshTest {
       testMe.call();
    }
 
+   public void simpleTestStreamingOutput() {
+      StreamingSshClient streamingSshClient = createMock(StreamingSshClient.class);
+      sshClient = streamingSshClient;
+      TailOutputStream stdout = new TailOutputStream(1024);
+      TailOutputStream stderr = new TailOutputStream(1024);
+      RunScriptOnNodeUsingSsh testMe = new RunScriptOnNodeUsingSsh(sshFactory, eventBus, node, exec("echo $USER\necho $USER"),
+            wrapInInitScript(false).runAsRoot(false).streamOutput(stdout, stderr));
+
+      testMe.init();
+
+      streamingSshClient.connect();
+      expect(streamingSshClient.getUsername()).andReturn("tester");
+      expect(streamingSshClient.getHostAddress()).andReturn("somewhere.example.com");
+      expect(streamingSshClient.exec("echo $USER\n" + "echo $USER\n", stdout, stderr))
+            .andReturn(new ExecResponse("", "", 0));
+      streamingSshClient.disconnect();
+      replay(streamingSshClient);
+
+      assertEquals(testMe.call(), new ExecResponse("", "", 0));
+      verify(streamingSshClient);
+   }
+
+   public void simpleTestStreamingOutputFallsBackToBufferedExec() {
+      TailOutputStream stdout = new TailOutputStream(1024);
+      TailOutputStream stderr = new TailOutputStream(1024);
+      RunScriptOnNodeUsingSsh testMe = new RunScriptOnNodeUsingSsh(sshFactory, eventBus, node, exec("echo $USER\necho $USER"),
+            wrapInInitScript(false).runAsRoot(false).streamOutput(stdout, stderr));
+
+      testMe.init();
+
+      sshClient.connect();
+      expect(sshClient.getUsername()).andReturn("tester");
+      expect(sshClient.getHostAddress()).andReturn("somewhere.example.com");
+      expect(sshClient.exec("echo $USER\n" + "echo $USER\n")).andReturn(new ExecResponse("tester\ntester\n", "", 0));
+      sshClient.disconnect();
+      replay(sshClient);
+
+      assertEquals(testMe.call(), new ExecResponse("", "", 0));
+      assertEquals(stdout.toString(), "tester\ntester\n");
+      verify(sshClient);
+   }
+
    public void simpleRootTest() {
       RunScriptOnNodeUsingSsh testMe = new RunScriptOnNodeUsingSsh(sshFactory, eventBus, node, exec("echo $USER\necho $USER"),
             wrapInInitScript(false).runAsRoot(true));
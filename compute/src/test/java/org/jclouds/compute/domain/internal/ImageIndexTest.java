@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.domain.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.ImageBuilder;
+import org.jclouds.compute.domain.OperatingSystem;
+import org.jclouds.compute.domain.OsFamily;
+import org.jclouds.domain.Location;
+import org.jclouds.domain.LocationBuilder;
+import org.jclouds.domain.LocationScope;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+@Test(groups = "unit", testName = "ImageIndexTest")
+public class ImageIndexTest {
+
+   private final Location provider = new LocationBuilder().scope(LocationScope.PROVIDER).id("aws-ec2")
+         .description("aws-ec2").build();
+   private final Location region = new LocationBuilder().scope(LocationScope.REGION).id("us-east-1")
+         .description("us-east-1").parent(provider).build();
+   private final Location zone = new LocationBuilder().scope(LocationScope.ZONE).id("us-east-1a")
+         .description("us-east-1a").parent(region).build();
+   private final Location region2 = new LocationBuilder().scope(LocationScope.REGION).id("us-west-1")
+         .description("us-west-1").parent(provider).build();
+
+   private final Image ubuntuInRegion = image("ubuntuInRegion", region, OsFamily.UBUNTU);
+   private final Image centosInRegion = image("centosInRegion", region, OsFamily.CENTOS);
+   private final Image ubuntuInRegion2 = image("ubuntuInRegion2", region2, OsFamily.UBUNTU);
+   private final Image ubuntuInProvider = image("ubuntuInProvider", provider, OsFamily.UBUNTU);
+   private final Image ubuntuAnywhere = image("ubuntuAnywhere", null, OsFamily.UBUNTU);
+   private final Image unknownInZone = image("unknownInZone", zone, null);
+
+   private final ImageIndex index = ImageIndex.create(ImmutableSet.of(ubuntuInRegion, centosInRegion,
+         ubuntuInRegion2, ubuntuInProvider, ubuntuAnywhere, unknownInZone));
+
+   private static Image image(String id, Location location, OsFamily family) {
+      return new ImageBuilder().id(id).providerId(id).name(id).status(Image.Status.AVAILABLE).location(location)
+            .operatingSystem(OperatingSystem.builder().family(family).description(id).build()).build();
+   }
+
+   public void testNoCriteriaReturnsAllImages() {
+      assertEquals(index.candidates(null, null), ImmutableList.copyOf(index.images()));
+   }
+
+   public void testLocationIncludesParentsAndUnlocatedImagesInOrder() {
+      assertEquals(index.candidates(zone, null),
+            ImmutableList.of(ubuntuInRegion, centosInRegion, ubuntuInProvider, ubuntuAnywhere, unknownInZone));
+      assertEquals(index.candidates(region, null),
+            ImmutableList.of(ubuntuInRegion, centosInRegion, ubuntuInProvider, ubuntuAnywhere));
+   }
+
+   public void testLocationAndFamily() {
+      assertEquals(index.candidates(zone, OsFamily.UBUNTU),
+            ImmutableList.of(ubuntuInRegion, ubuntuInProvider, ubuntuAnywhere));
+      assertEquals(index.candidates(region2, OsFamily.CENTOS), ImmutableList.of());
+   }
+
+   public void testFamilyInAnyLocation() {
+      assertEquals(index.candidates(null, OsFamily.UBUNTU),
+            ImmutableList.of(ubuntuInRegion, ubuntuInRegion2, ubuntuInProvider, ubuntuAnywhere));
+   }
+}
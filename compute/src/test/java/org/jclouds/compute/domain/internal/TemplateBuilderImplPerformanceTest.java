@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.domain.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Set;
+
+import org.jclouds.PerformanceTest;
+import org.jclouds.compute.domain.Hardware;
+import org.jclouds.compute.domain.HardwareBuilder;
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.ImageBuilder;
+import org.jclouds.compute.domain.OperatingSystem;
+import org.jclouds.compute.domain.OsFamily;
+import org.jclouds.compute.domain.Processor;
+import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.domain.TemplateBuilder;
+import org.jclouds.compute.options.TemplateOptions;
+import org.jclouds.compute.strategy.GetImageStrategy;
+import org.jclouds.compute.suppliers.ImageCacheSupplier;
+import org.jclouds.domain.Location;
+import org.jclouds.domain.LocationBuilder;
+import org.jclouds.domain.LocationScope;
+import org.jclouds.rest.AuthorizationException;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Atomics;
+import com.google.inject.util.Providers;
+
+/**
+ * Measures {@link TemplateBuilderImpl#build()} against a catalog of 50,000 images spread over several regions and
+ * operating systems, roughly the size of the public image catalog of AWS EC2.
+ */
+// NOTE:without testName, this will not call @Before* and fail w/NPE during surefire
+@Test(groups = "performance", singleThreaded = true, timeOut = 5 * 60 * 1000,
+      testName = "TemplateBuilderImplPerformanceTest")
+public class TemplateBuilderImplPerformanceTest extends PerformanceTest {
+   private static final int IMAGE_COUNT = 50000;
+   private static final int BUILD_COUNT = 200;
+   private static final OsFamily[] FAMILIES = { OsFamily.UBUNTU, OsFamily.CENTOS, OsFamily.RHEL, OsFamily.DEBIAN,
+         OsFamily.AMZN_LINUX, OsFamily.WINDOWS, OsFamily.SUSE, OsFamily.FEDORA };
+
+   private final Location provider = new LocationBuilder().scope(LocationScope.PROVIDER).id("aws-ec2")
+         .description("aws-ec2").build();
+   private final Location[] regions = new Location[8];
+
+   private Supplier<Set<? extends Location>> locations;
+   private ImageCacheSupplier images;
+   private Supplier<Set<? extends Hardware>> hardwares;
+
+   @BeforeTest
+   protected void createCatalog() {
+      ImmutableSet.Builder<Location> locations = ImmutableSet.<Location> builder().add(provider);
+      for (int i = 0; i < regions.length; i++) {
+         regions[i] = new LocationBuilder().scope(LocationScope.REGION).id("region-" + i)
+               .description("region-" + i).parent(provider).build();
+         locations.add(regions[i]);
+      }
+      this.locations = Suppliers.<Set<? extends Location>> ofInstance(locations.build());
+
+      ImmutableSet.Builder<Image> images = ImmutableSet.builder();
+      for (int i = 0; i < IMAGE_COUNT; i++) {
+         OsFamily family = FAMILIES[i % FAMILIES.length];
+         Location region = regions[i / FAMILIES.length % regions.length];
+         String version = (10 + i / (FAMILIES.length * regions.length) % 7) + ".04";
+         images.add(new ImageBuilder().id("ami-" + i).providerId("ami-" + i)
+               .name(family.name() + "-" + version + "-" + i).description(family + " " + version + " build " + i)
+               .version("2016" + i % 100).status(Image.Status.AVAILABLE).location(region)
+               .operatingSystem(OperatingSystem.builder().family(family).version(version)
+                     .description(family + " " + version).arch(i % 3 == 0 ? "paravirtual" : "hvm").is64Bit(i % 5 != 0)
+                     .build()).build());
+      }
+      this.images = new ImageCacheSupplier(Suppliers.<Set<? extends Image>> ofInstance(images.build()), 3600,
+            Atomics.<AuthorizationException> newReference(), Providers.<GetImageStrategy> of(null));
+
+      ImmutableSet.Builder<Hardware> hardwares = ImmutableSet.builder();
+      for (int i = 1; i <= 24; i++) {
+         hardwares.add(new HardwareBuilder().id("size-" + i).ram(i * 1024).processor(new Processor(i % 8 + 1, 2.0))
+               .supportsImage(Predicates.<Image> alwaysTrue()).build());
+      }
+      this.hardwares = Suppliers.<Set<? extends Hardware>> ofInstance(hardwares.build());
+   }
+
+   private TemplateBuilder templateBuilder() {
+      return new TemplateBuilderImpl(locations, images, hardwares, Suppliers.ofInstance(regions[0]),
+            Providers.of(new TemplateOptions()), Providers.<TemplateBuilder> of(null));
+   }
+
+   @Test
+   public void testOsFamilyAndVersionSerialResponseTime() {
+      for (int i = 0; i < BUILD_COUNT; i++) {
+         Template template = templateBuilder().osFamily(OsFamily.UBUNTU).osVersionMatches("14.04").os64Bit(true)
+               .locationId("region-3").minRam(4096).build();
+         assertEquals(template.getImage().getOperatingSystem().getFamily(), OsFamily.UBUNTU);
+         assertEquals(template.getLocation(), regions[3]);
+      }
+   }
+
+   @Test
+   public void testImageNameSerialResponseTime() {
+      for (int i = 0; i < BUILD_COUNT; i++) {
+         Template template = templateBuilder().imageNameMatches("^CENTOS-12\\.04-.*").build();
+         assertEquals(template.getImage().getOperatingSystem().getFamily(), OsFamily.CENTOS);
+      }
+   }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.internal;
+
+import static org.jclouds.compute.options.RunScriptOptions.Builder.wrapInInitScript;
+import static org.jclouds.compute.predicates.NodePredicates.inGroup;
+import static org.jclouds.scriptbuilder.domain.Statements.exec;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.compute.ComputeService;
+import org.jclouds.compute.ComputeServiceContext;
+import org.jclouds.compute.RunNodesException;
+import org.jclouds.compute.RunScriptOnNodesException;
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.domain.LoginCredentials;
+import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.StreamingSshClient;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+
+@Test(groups = "unit", testName = "BaseComputeServiceTest", singleThreaded = true)
+public class BaseComputeServiceTest {
+
+   private ComputeServiceContext context;
+   private ComputeService compute;
+   private Set<? extends NodeMetadata> nodes;
+   private StubSshClientFactory sshFactory;
+
+   @BeforeMethod
+   public void setUp() throws RunNodesException {
+      sshFactory = new StubSshClientFactory();
+      context = ContextBuilder.newBuilder("stub").modules(ImmutableSet.<Module> of(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(SshClient.Factory.class).toInstance(sshFactory);
+         }
+      })).buildView(ComputeServiceContext.class);
+      compute = context.getComputeService();
+      nodes = compute.createNodesInGroup("script", 2);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      if (context != null) {
+         // the stub provider keeps its nodes across contexts
+         compute.destroyNodesMatching(inGroup("script"));
+         context.close();
+      }
+   }
+
+   public void testStreamOutputOpensStreamsForEachNode() throws RunScriptOnNodesException {
+      final ConcurrentMap<String, ByteArrayOutputStream> outputs = Maps.newConcurrentMap();
+      Function<NodeMetadata, OutputStream> stdout = new Function<NodeMetadata, OutputStream>() {
+         @Override
+         public OutputStream apply(NodeMetadata node) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            outputs.put(node.getId(), out);
+            return out;
+         }
+      };
+
+      Map<? extends NodeMetadata, ExecResponse> responses = compute.runScriptOnNodesMatching(inGroup("script"),
+            "hostname", wrapInInitScript(false).streamOutput(stdout,
+                  Functions.constant(ByteStreams.nullOutputStream())));
+
+      assertEquals(responses.size(), 2);
+      assertEquals(outputs.size(), 2);
+      for (NodeMetadata node : nodes) {
+         assertEquals(new String(outputs.get(node.getId()).toByteArray()),
+               node.getPublicAddresses().iterator().next());
+      }
+   }
+
+   public void testSharedOutputStreamsRejectedForSeveralNodes() throws RunScriptOnNodesException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try {
+         compute.runScriptOnNodesMatching(inGroup("script"), "hostname", wrapInInitScript(false)
+               .streamOutput(out, out));
+         fail("expected IllegalArgumentException");
+      } catch (IllegalArgumentException expected) {
+      }
+      try {
+         compute.submitScriptOnNodesMatching(inGroup("script"), exec("hostname"), wrapInInitScript(false).streamOutput(out,
+               out));
+         fail("expected IllegalArgumentException");
+      } catch (IllegalArgumentException expected) {
+      }
+      assertEquals(out.size(), 0);
+   }
+
+   public void testSubmitScriptHonorsMaxParallelism() throws Exception {
+      Map<? extends NodeMetadata, ListenableFuture<ExecResponse>> futures = compute.submitScriptOnNodesMatching(
+            inGroup("script"), exec("hostname"), wrapInInitScript(false).maxParallelism(1));
+
+      assertEquals(futures.size(), 2);
+      for (Map.Entry<? extends NodeMetadata, ListenableFuture<ExecResponse>> entry : futures.entrySet()) {
+         assertEquals(entry.getValue().get(10, TimeUnit.SECONDS).getOutput(),
+               entry.getKey().getPublicAddresses().iterator().next());
+      }
+      assertEquals(sshFactory.maxConcurrentExecs.get(), 1);
+   }
+
+   /**
+    * Creates ssh clients whose commands print the address they are connected to, and records how many commands ran
+    * at the same time.
+    */
+   static class StubSshClientFactory implements SshClient.Factory {
+      final AtomicInteger concurrentExecs = new AtomicInteger();
+      final AtomicInteger maxConcurrentExecs = new AtomicInteger();
+
+      @Override
+      public SshClient create(final HostAndPort socket, final LoginCredentials credentials) {
+         return (SshClient) Proxy.newProxyInstance(SshClient.class.getClassLoader(),
+               new Class<?>[] { StreamingSshClient.class },
+               new InvocationHandler() {
+                  @Override
+                  public Object invoke(Object proxy, Method method, Object[] args) throws IOException,
+                        InterruptedException {
+                     if (method.getName().equals("getHostAddress"))
+                        return socket.getHostText();
+                     if (method.getName().equals("getUsername"))
+                        return credentials.getUser();
+                     if (method.getName().equals("exec") && args.length == 3) {
+                        ((OutputStream) args[1]).write(socket.getHostText().getBytes());
+                        return new ExecResponse("", "", 0);
+                     }
+                     if (method.getName().equals("exec")) {
+                        int current = concurrentExecs.incrementAndGet();
+                        try {
+                           synchronized (maxConcurrentExecs) {
+                              maxConcurrentExecs.set(Math.max(maxConcurrentExecs.get(), current));
+                           }
+                           Thread.sleep(100);
+                           return new ExecResponse(socket.getHostText(), "", 0);
+                        } finally {
+                           concurrentExecs.decrementAndGet();
+                        }
+                     }
+                     return null;
+                  }
+               });
+      }
+
+      @Override
+      public boolean isAgentAvailable() {
+         return false;
+      }
+   }
+}
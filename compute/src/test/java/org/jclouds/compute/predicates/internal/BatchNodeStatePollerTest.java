@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.predicates.internal;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.domain.NodeMetadataBuilder;
+import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+@Test(groups = "unit", testName = "BatchNodeStatePollerTest")
+public class BatchNodeStatePollerTest {
+
+   private static NodeMetadata node(String id) {
+      return new NodeMetadataBuilder().id(id).status(Status.RUNNING).build();
+   }
+
+   public void testDelegatesToGetNodeWhenDisabled() {
+      GetNodeMetadataStrategy getNode = createMock(GetNodeMetadataStrategy.class);
+      ListNodesStrategy listNodes = createMock(ListNodesStrategy.class);
+      expect(getNode.getNode("a")).andReturn(node("a"));
+      replay(getNode, listNodes);
+
+      assertEquals(new BatchNodeStatePoller(getNode, listNodes).getNode("a"), node("a"));
+
+      verify(getNode, listNodes);
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testFallsBackToGetNodeForNodesMissingFromListing() {
+      GetNodeMetadataStrategy getNode = createMock(GetNodeMetadataStrategy.class);
+      ListNodesStrategy listNodes = createMock(ListNodesStrategy.class);
+      expect((Iterable<NodeMetadata>) listNodes.listNodesByIds(ImmutableSet.of("a"))).andReturn(ImmutableSet.<NodeMetadata> of());
+      expect(getNode.getNode("a")).andReturn(null);
+      replay(getNode, listNodes);
+
+      BatchNodeStatePoller poller = new BatchNodeStatePoller(getNode, listNodes);
+      poller.pollInBatches = true;
+      assertNull(poller.getNode("a"));
+
+      verify(getNode, listNodes);
+   }
+
+   public void testListingFailureIsPropagated() {
+      GetNodeMetadataStrategy getNode = createMock(GetNodeMetadataStrategy.class);
+      ListNodesStrategy listNodes = createMock(ListNodesStrategy.class);
+      expect(listNodes.listNodesByIds(ImmutableSet.of("a"))).andThrow(new IllegalStateException("boom"));
+      replay(getNode, listNodes);
+
+      BatchNodeStatePoller poller = new BatchNodeStatePoller(getNode, listNodes);
+      poller.pollInBatches = true;
+      try {
+         poller.getNode("a");
+         fail("expected IllegalStateException");
+      } catch (IllegalStateException expected) {
+      }
+
+      verify(getNode, listNodes);
+   }
+
+   public void testConcurrentCallersShareOneListing() throws Exception {
+      final CountDownLatch firstListingStarted = new CountDownLatch(1);
+      final CountDownLatch releaseFirstListing = new CountDownLatch(1);
+      final List<Set<String>> listings = Lists.newCopyOnWriteArrayList();
+      final AtomicInteger getNodeCalls = new AtomicInteger();
+
+      GetNodeMetadataStrategy getNode = new GetNodeMetadataStrategy() {
+         @Override
+         public NodeMetadata getNode(String id) {
+            getNodeCalls.incrementAndGet();
+            return node(id);
+         }
+      };
+      ListNodesStrategy listNodes = new ListNodesStrategy() {
+         @Override
+         public Iterable<? extends NodeMetadata> listNodesByIds(Iterable<String> ids) {
+            listings.add(ImmutableSet.copyOf(ids));
+            if (listings.size() == 1) {
+               firstListingStarted.countDown();
+               try {
+                  releaseFirstListing.await();
+               } catch (InterruptedException e) {
+                  throw new AssertionError(e);
+               }
+            }
+            ImmutableList.Builder<NodeMetadata> nodes = ImmutableList.builder();
+            for (String id : ids)
+               nodes.add(node(id));
+            return nodes.build();
+         }
+
+         @Override
+         public Iterable<? extends ComputeMetadata> listNodes() {
+            throw new UnsupportedOperationException();
+         }
+
+         @Override
+         public Iterable<? extends NodeMetadata> listDetailsOnNodesMatching(
+               Predicate<? super NodeMetadata> filter) {
+            throw new UnsupportedOperationException();
+         }
+      };
+
+      final BatchNodeStatePoller poller = new BatchNodeStatePoller(getNode, listNodes);
+      poller.pollInBatches = true;
+
+      ExecutorService exec = Executors.newCachedThreadPool();
+      try {
+         List<Future<NodeMetadata>> results = Lists.newArrayList();
+         results.add(exec.submit(get(poller, "first")));
+         assert firstListingStarted.await(10, TimeUnit.SECONDS);
+         // these queue up behind the in-flight listing
+         for (int i = 0; i < 10; i++)
+            results.add(exec.submit(get(poller, "node-" + i)));
+         while (poller.pendingCount() < 10)
+            Thread.sleep(10);
+         releaseFirstListing.countDown();
+
+         Set<String> ids = Sets.newHashSet();
+         for (Future<NodeMetadata> result : results)
+            ids.add(result.get(10, TimeUnit.SECONDS).getId());
+         assertEquals(ids.size(), 11);
+      } finally {
+         exec.shutdownNow();
+      }
+      assertEquals(listings.size(), 2, listings.toString());
+      assertEquals(listings.get(0), ImmutableSet.of("first"));
+      assertEquals(listings.get(1).size(), 10);
+      assertEquals(getNodeCalls.get(), 0);
+   }
+
+   private static Callable<NodeMetadata> get(final BatchNodeStatePoller poller, final String id) {
+      return new Callable<NodeMetadata>() {
+         @Override
+         public NodeMetadata call() {
+            return poller.getNode(id);
+         }
+      };
+   }
+}
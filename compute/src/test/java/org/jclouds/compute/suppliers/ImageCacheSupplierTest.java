@@ -20,6 +20,7 @@ import static com.google.common.collect.Iterables.any;
 import static org.jclouds.compute.predicates.ImagePredicates.idEquals;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 import java.util.Set;
@@ -128,6 +129,26 @@ public class ImageCacheSupplierTest {
       assertEquals(imageCache.get().size(), 2);
    }
 
+   @Test
+   public void testIndexFollowsCacheChanges() {
+      ImageCacheSupplier imageCache = new ImageCacheSupplier(Suppliers.<Set<? extends Image>> ofInstance(images), 60,
+            Atomics.<AuthorizationException> newReference(), Providers.of(getImageStrategy));
+      assertFalse(imageCache.cachedIndex().isPresent());
+
+      Set<? extends Image> cached = imageCache.get();
+      assertSame(imageCache.get(), cached);
+      assertSame(imageCache.cachedIndex().get().images(), cached);
+
+      imageCache.registerImage(ImageBuilder.fromImage(image).id("newimage").build());
+      assertFalse(imageCache.cachedIndex().isPresent());
+      assertEquals(imageCache.get().size(), 2);
+      assertEquals(imageCache.cachedIndex().get().images().size(), 2);
+
+      imageCache.removeImage("newimage");
+      assertFalse(imageCache.cachedIndex().isPresent());
+      assertEquals(imageCache.get().size(), 1);
+   }
+
    @Test
    public void testSupplierExpirationReloadsTheCache() {
       ImageCacheSupplier imageCache = new ImageCacheSupplier(Suppliers.<Set<? extends Image>> ofInstance(images), 3,
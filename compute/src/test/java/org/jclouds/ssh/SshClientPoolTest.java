@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.compute.domain.ExecChannel;
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.domain.LoginCredentials;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HostAndPort;
+
+@Test(groups = "unit", singleThreaded = true, testName = "SshClientPoolTest")
+public class SshClientPoolTest {
+
+   private static final HostAndPort SOCKET = HostAndPort.fromParts("10.0.0.1", 22);
+   private static final LoginCredentials ROOT = LoginCredentials.builder().user("root").password("secret").build();
+   private static final LoginCredentials ADMIN = LoginCredentials.builder().user("admin").password("secret").build();
+
+   private final List<FakeSshClient> created = Lists.newArrayList();
+   private long now;
+   private SshClientPool pool;
+
+   @BeforeMethod
+   public void setUp() {
+      created.clear();
+      now = 0;
+      pool = new SshClientPool(new SshClient.Factory() {
+         @Override
+         public SshClient create(HostAndPort socket, LoginCredentials credentials) {
+            FakeSshClient client = new FakeSshClient(credentials);
+            created.add(client);
+            return client;
+         }
+
+         @Override
+         public boolean isAgentAvailable() {
+            return false;
+         }
+      }, 60, TimeUnit.SECONDS, 2, new Ticker() {
+         @Override
+         public long read() {
+            return now;
+         }
+      });
+   }
+
+   public void testReusesConnectionForSameSocketAndLogin() {
+      for (int i = 0; i < 5; i++) {
+         SshClient ssh = pool.create(SOCKET, ROOT);
+         ssh.connect();
+         assertEquals(ssh.exec("status").getOutput(), "root");
+         ssh.disconnect();
+      }
+      assertEquals(created.size(), 1);
+      assertEquals(created.get(0).connects, 1);
+      assertEquals(created.get(0).disconnects, 0);
+      assertEquals(pool.idleCount(), 1);
+   }
+
+   public void testDoesNotShareConnectionsBetweenLogins() {
+      SshClient root = pool.create(SOCKET, ROOT);
+      root.connect();
+      root.disconnect();
+      SshClient admin = pool.create(SOCKET, ADMIN);
+      admin.connect();
+      assertEquals(admin.exec("whoami").getOutput(), "admin");
+      admin.disconnect();
+      assertEquals(created.size(), 2);
+   }
+
+   public void testConcurrentClientsGetTheirOwnConnections() {
+      SshClient first = pool.create(SOCKET, ROOT);
+      SshClient second = pool.create(SOCKET, ROOT);
+      first.connect();
+      second.connect();
+      assertEquals(created.size(), 2);
+      first.disconnect();
+      second.disconnect();
+      assertEquals(pool.idleCount(), 2);
+   }
+
+   public void testFailedConnectionIsNotReused() {
+      SshClient ssh = pool.create(SOCKET, ROOT);
+      ssh.connect();
+      created.get(0).failNext = true;
+      try {
+         ssh.put("/tmp/foo", "bar");
+         fail("expected SshException");
+      } catch (SshException expected) {
+      }
+      ssh.disconnect();
+      assertEquals(created.get(0).disconnects, 1);
+      assertEquals(pool.idleCount(), 0);
+
+      ssh.connect();
+      assertEquals(created.size(), 2);
+   }
+
+   public void testTransferOptionsFallBackToPlainPutWhenDriverIsNotPipelined() {
+      SshClient ssh = pool.create(SOCKET, ROOT);
+      assertTrue(ssh instanceof PipelinedSshClient);
+      ssh.connect();
+      PipelinedSshClient.class.cast(ssh).put("/tmp/foo", Payloads.newStringPayload("bar"),
+            TransferOptions.Builder.channels(2));
+      ssh.disconnect();
+      assertEquals(created.get(0).puts, 1);
+      assertEquals(pool.idleCount(), 1);
+   }
+
+   public void testStreamingExecFallsBackToBufferedExecWhenDriverDoesNotStream() {
+      SshClient ssh = pool.create(SOCKET, ROOT);
+      assertTrue(ssh instanceof StreamingSshClient);
+      ssh.connect();
+      TailOutputStream stdout = new TailOutputStream(1024);
+      ExecResponse response = StreamingSshClient.class.cast(ssh).exec("whoami", stdout,
+            ByteStreams.nullOutputStream());
+      ssh.disconnect();
+      assertEquals(stdout.toString(), "root");
+      assertEquals(response, new ExecResponse("", "", 0));
+      assertEquals(pool.idleCount(), 1);
+   }
+
+   public void testExpiresIdleConnections() {
+      SshClient ssh = pool.create(SOCKET, ROOT);
+      ssh.connect();
+      ssh.disconnect();
+      now += TimeUnit.SECONDS.toNanos(61);
+      ssh.connect();
+      assertEquals(created.size(), 2);
+      assertEquals(created.get(0).disconnects, 1);
+   }
+
+   public void testKeepsAtMostMaxIdleConnectionsPerLogin() {
+      List<SshClient> clients = Lists.newArrayList();
+      for (int i = 0; i < 4; i++) {
+         SshClient ssh = pool.create(SOCKET, ROOT);
+         ssh.connect();
+         clients.add(ssh);
+      }
+      for (SshClient ssh : clients)
+         ssh.disconnect();
+      assertEquals(pool.idleCount(), 2);
+      assertEquals(created.get(0).disconnects + created.get(1).disconnects, 2);
+   }
+
+   public void testCloseDisconnectsIdleConnections() {
+      SshClient ssh = pool.create(SOCKET, ROOT);
+      ssh.connect();
+      ssh.disconnect();
+      assertTrue(created.get(0).connected);
+      pool.close();
+      assertFalse(created.get(0).connected);
+      assertEquals(pool.idleCount(), 0);
+   }
+
+   private static final class FakeSshClient implements SshClient {
+      private final LoginCredentials credentials;
+      private int connects;
+      private int disconnects;
+      private boolean connected;
+      private boolean failNext;
+      private int puts;
+
+      private FakeSshClient(LoginCredentials credentials) {
+         this.credentials = credentials;
+      }
+
+      @Override
+      public void connect() {
+         connects++;
+         connected = true;
+      }
+
+      @Override
+      public void disconnect() {
+         disconnects++;
+         connected = false;
+      }
+
+      @Override
+      public boolean isConnected() {
+         return connected;
+      }
+
+      @Override
+      public String getUsername() {
+         return credentials.identity;
+      }
+
+      @Override
+      public String getHostAddress() {
+         return SOCKET.getHostText();
+      }
+
+      @Override
+      public ExecResponse exec(String command) {
+         return new ExecResponse(credentials.identity, "", 0);
+      }
+
+      @Override
+      public void put(String path, String contents) {
+         if (failNext)
+            throw new SshException("sftp subsystem not available");
+         puts++;
+      }
+
+      @Override
+      public void put(String path, Payload contents) {
+         put(path, "");
+      }
+
+      @Override
+      public Payload get(String path) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public ExecChannel execChannel(String command) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
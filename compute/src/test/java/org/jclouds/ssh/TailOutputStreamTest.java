@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+
+@Test(groups = "unit", testName = "TailOutputStreamTest")
+public class TailOutputStreamTest {
+
+   public void testKeepsEverythingUnderCapacity() {
+      TailOutputStream tail = new TailOutputStream(8);
+      tail.write('a');
+      tail.write("bcd".getBytes(Charsets.UTF_8), 0, 3);
+      assertEquals(tail.toString(), "abcd");
+      assertEquals(tail.count(), 4);
+   }
+
+   public void testKeepsLastBytesAcrossWraparound() {
+      TailOutputStream tail = new TailOutputStream(4);
+      byte[] bytes = "abcdef".getBytes(Charsets.UTF_8);
+      tail.write(bytes, 0, 3);
+      tail.write(bytes, 3, 3);
+      assertEquals(tail.toString(), "cdef");
+      tail.write('g');
+      assertEquals(tail.toString(), "defg");
+      assertEquals(tail.count(), 7);
+   }
+
+   public void testWriteLargerThanCapacity() {
+      TailOutputStream tail = new TailOutputStream(3);
+      tail.write('x');
+      tail.write("abcdef".getBytes(Charsets.UTF_8), 1, 5);
+      assertEquals(tail.toString(), "def");
+      assertEquals(tail.count(), 6);
+   }
+}
@@ -97,6 +97,17 @@ public final class Constants {
     */
    public static final String PROPERTY_SESSION_INTERVAL = "jclouds.session-interval";
 
+   /**
+    * Long property. default (0)
+    * <p/>
+    * How many seconds memoized values such as images, hardware, locations and regions may be used
+    * after they were loaded. When greater than {@link #PROPERTY_SESSION_INTERVAL}, values older
+    * than the session interval keep being returned while a single reload runs in the background,
+    * and a failed reload keeps the previous value until it reaches this age. Otherwise values
+    * expire after the session interval and the next caller waits for the reload.
+    */
+   public static final String PROPERTY_SESSION_MAX_STALENESS = "jclouds.session-max-staleness";
+
    /**
     * Boolean property.
     * <p/>
@@ -198,6 +209,45 @@ public final class Constants {
     * backoff algorithm. Default value for this property is 50 milliseconds.
     */
    public static final String PROPERTY_RETRY_DELAY_START = "jclouds.retries-delay-start";
+   /**
+    * Boolean property.
+    * <p/>
+    * When true, retried commands back off with decorrelated jitter: each delay is picked at random between
+    * {@link #PROPERTY_RETRY_DELAY_START} and three times the previous delay, capped at
+    * {@link #PROPERTY_RETRY_DECORRELATED_JITTER_MAX_DELAY}. This spreads out retries from clients throttled at the
+    * same moment. Default value is false.
+    */
+   public static final String PROPERTY_RETRY_DECORRELATED_JITTER = "jclouds.retries-decorrelated-jitter";
+   /**
+    * Long property.
+    * <p/>
+    * Longest delay in milliseconds between retries when {@link #PROPERTY_RETRY_DECORRELATED_JITTER} is enabled.
+    * Default value is 20000 milliseconds.
+    */
+   public static final String PROPERTY_RETRY_DECORRELATED_JITTER_MAX_DELAY = "jclouds.retries-decorrelated-jitter-max-delay";
+   /**
+    * Integer property.
+    * <p/>
+    * Maximum number of commands that may be backing off before a retry against the same endpoint at once. Further
+    * failures against that endpoint are not retried while the budget is exhausted, so a throttled endpoint cannot tie
+    * up every worker. Default value is 0, which means unlimited.
+    */
+   public static final String PROPERTY_MAX_RETRIES_PER_ENDPOINT = "jclouds.max-retries-per-endpoint";
+   /**
+    * Boolean property.
+    * <p/>
+    * When true, requests to each endpoint host are paced by a client-side token bucket that learns the rate the
+    * provider accepts: it halves on 429 and 503 responses, honours their Retry-After header, and grows back slowly
+    * while requests succeed. Default value is false.
+    */
+   public static final String PROPERTY_ADAPTIVE_RATE_LIMIT = "jclouds.rate-limit.adaptive";
+   /**
+    * Integer property.
+    * <p/>
+    * Requests per second the adaptive rate limiter starts at and never exceeds for a single endpoint host. Default
+    * value is 100.
+    */
+   public static final String PROPERTY_ADAPTIVE_RATE_LIMIT_MAX = "jclouds.rate-limit.max-requests-per-second";
    /**
     * Integer property.
     * <p/>
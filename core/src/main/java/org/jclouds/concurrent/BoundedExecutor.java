@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.concurrent;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Runs tasks on a delegate executor, at most {@code maxConcurrency} at a time. Tasks beyond that wait in a queue
+ * rather than in a thread, and are handed to the delegate in submission order as running ones finish.
+ * <p/>
+ * If the delegate rejects a queued task, e.g., because it was shut down, that task and the rest of the queue are
+ * cancelled when they are {@link Future futures}, such as {@code ListenableFutureTask}, and dropped otherwise, so that
+ * nothing waits on tasks that will never start.
+ */
+@Beta
+public final class BoundedExecutor implements Executor {
+
+   private final Executor delegate;
+   private final int maxConcurrency;
+   private final Queue<Runnable> queue = new ArrayDeque<Runnable>();
+   private int running;
+
+   public BoundedExecutor(Executor delegate, int maxConcurrency) {
+      checkArgument(maxConcurrency > 0, "maxConcurrency must be positive");
+      this.delegate = checkNotNull(delegate, "delegate");
+      this.maxConcurrency = maxConcurrency;
+   }
+
+   @Override
+   public void execute(Runnable command) {
+      checkNotNull(command, "command");
+      synchronized (queue) {
+         if (running >= maxConcurrency) {
+            queue.add(command);
+            return;
+         }
+         running++;
+      }
+      start(command);
+   }
+
+   private void start(final Runnable command) {
+      try {
+         delegate.execute(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  command.run();
+               } finally {
+                  startNext();
+               }
+            }
+         });
+      } catch (RuntimeException e) {
+         synchronized (queue) {
+            running--;
+         }
+         throw e;
+      }
+   }
+
+   private void startNext() {
+      Runnable next;
+      synchronized (queue) {
+         next = queue.poll();
+         if (next == null) {
+            running--;
+            return;
+         }
+      }
+      try {
+         start(next);
+      } catch (RuntimeException e) {
+         List<Runnable> stranded;
+         synchronized (queue) {
+            stranded = new ArrayList<Runnable>(queue);
+            queue.clear();
+         }
+         cancel(next);
+         for (Runnable task : stranded)
+            cancel(task);
+      }
+   }
+
+   private static void cancel(Runnable task) {
+      if (task instanceof Future)
+         Future.class.cast(task).cancel(false);
+   }
+
+   @VisibleForTesting
+   int queued() {
+      synchronized (queue) {
+         return queue.size();
+      }
+   }
+
+   @VisibleForTesting
+   int running() {
+      synchronized (queue) {
+         return running;
+      }
+   }
+}
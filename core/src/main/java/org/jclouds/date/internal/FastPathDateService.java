@@ -0,0 +1,428 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.date.internal;
+
+import static org.jclouds.date.internal.DateUtils.findTZ;
+import static org.jclouds.date.internal.DateUtils.trimTZ;
+import static org.jclouds.date.internal.DateUtils.trimToMillis;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.SimpleTimeZone;
+
+import javax.inject.Singleton;
+
+import org.jclouds.date.DateService;
+
+/**
+ * {@link DateService} that formats and parses the common UTC forms of ISO-8601, RFC-822 and RFC-1123 by hand,
+ * without taking a lock. Anything else falls back to a {@link SimpleDateFormat} confined to the calling thread, so
+ * results match {@link SimpleDateFormatDateService}.
+ */
+@Singleton
+public class FastPathDateService implements DateService {
+
+   private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+   /**
+    * {@link SimpleDateFormat} switches to the Julian calendar before 1582, so the hand-written paths only handle
+    * years 1583 to 9999.
+    */
+   private static final long FAST_PATH_START = daysFromCivil(1583, 1, 1) * MILLIS_PER_DAY;
+   private static final long FAST_PATH_END = daysFromCivil(10000, 1, 1) * MILLIS_PER_DAY;
+
+   private static final String[] DAYS = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
+   private static final String[] MONTHS = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct",
+         "Nov", "Dec" };
+
+   private static final ThreadLocal<SimpleDateFormat> iso8601SecondsSimpleDateFormat = threadLocalFormat(
+         "yyyy-MM-dd'T'HH:mm:ssZ", true);
+   private static final ThreadLocal<SimpleDateFormat> iso8601SimpleDateFormat = threadLocalFormat(
+         "yyyy-MM-dd'T'HH:mm:ss.SSSZ", true);
+   private static final ThreadLocal<SimpleDateFormat> rfc822SimpleDateFormat = threadLocalFormat(
+         "EEE, dd MMM yyyy HH:mm:ss 'GMT'", true);
+   // like SimpleDateFormatDateService, rfc1123 formats in the default time zone
+   private static final ThreadLocal<SimpleDateFormat> rfc1123SimpleDateFormat = threadLocalFormat(
+         "EEE, dd MMM yyyyy HH:mm:ss Z", false);
+   private static final ThreadLocal<SimpleDateFormat> cSimpleDateFormat = threadLocalFormat(
+         "EEE MMM dd HH:mm:ss Z yyyy", true);
+
+   private static ThreadLocal<SimpleDateFormat> threadLocalFormat(final String pattern, final boolean gmt) {
+      return new ThreadLocal<SimpleDateFormat>() {
+         @Override
+         protected SimpleDateFormat initialValue() {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            if (gmt)
+               format.setTimeZone(new SimpleTimeZone(0, "GMT"));
+            return format;
+         }
+      };
+   }
+
+   private static Date parse(ThreadLocal<SimpleDateFormat> format, String toParse) {
+      try {
+         return format.get().parse(toParse);
+      } catch (ParseException pe) {
+         throw new IllegalArgumentException("Error parsing data at " + pe.getErrorOffset(), pe);
+      }
+   }
+
+   @Override
+   public final String cDateFormat(Date date) {
+      return cSimpleDateFormat.get().format(date);
+   }
+
+   @Override
+   public final String cDateFormat() {
+      return cDateFormat(new Date());
+   }
+
+   @Override
+   public final Date cDateParse(String toParse) {
+      return parse(cSimpleDateFormat, toParse);
+   }
+
+   @Override
+   public final String rfc822DateFormat(Date date) {
+      long time = date.getTime();
+      if (!inFastPathRange(time))
+         return rfc822SimpleDateFormat.get().format(date);
+      return appendRfc822(new StringBuilder(29), time).append("GMT").toString();
+   }
+
+   @Override
+   public final String rfc822DateFormat() {
+      return rfc822DateFormat(new Date());
+   }
+
+   @Override
+   public final Date rfc822DateParse(String toParse) {
+      if (toParse.length() == 29 && toParse.endsWith(" GMT")) {
+         Date date = parseRfc822(toParse);
+         if (date != null)
+            return date;
+      }
+      return parse(rfc822SimpleDateFormat, toParse);
+   }
+
+   @Override
+   public final String iso8601SecondsDateFormat() {
+      return iso8601SecondsDateFormat(new Date());
+   }
+
+   @Override
+   public final String iso8601DateFormat(Date date) {
+      long time = date.getTime();
+      if (!inFastPathRange(time))
+         return formatIso8601(iso8601SimpleDateFormat, date);
+      StringBuilder builder = appendIso8601Seconds(new StringBuilder(24), time).append('.');
+      return appendDigits(builder, (int) floorMod(time, 1000), 3).append('Z').toString();
+   }
+
+   @Override
+   public final String iso8601DateFormat() {
+      return iso8601DateFormat(new Date());
+   }
+
+   @Override
+   public final Date iso8601DateParse(String toParse) {
+      Date date = parseIso8601(toParse, true);
+      if (date != null)
+         return date;
+      return parse(iso8601SimpleDateFormat, normalizeIso8601(toParse));
+   }
+
+   @Override
+   public final Date iso8601SecondsDateParse(String toParse) {
+      Date date = parseIso8601(toParse, false);
+      if (date != null)
+         return date;
+      return parse(iso8601SecondsSimpleDateFormat, normalizeIso8601(toParse));
+   }
+
+   @Override
+   @SuppressWarnings("UnusedException")
+   public Date iso8601DateOrSecondsDateParse(String toParse) {
+      try {
+         return iso8601DateParse(toParse);
+      } catch (IllegalArgumentException orig) {
+         try {
+            return iso8601SecondsDateParse(toParse);
+         } catch (IllegalArgumentException ignored) {
+            throw orig;
+         }
+      }
+   }
+
+   @Override
+   public String iso8601SecondsDateFormat(Date date) {
+      long time = date.getTime();
+      if (!inFastPathRange(time))
+         return formatIso8601(iso8601SecondsSimpleDateFormat, date);
+      return appendIso8601Seconds(new StringBuilder(20), time).append('Z').toString();
+   }
+
+   @Override
+   public final String rfc1123DateFormat(Date date) {
+      return rfc1123SimpleDateFormat.get().format(date);
+   }
+
+   @Override
+   public final String rfc1123DateFormat() {
+      return rfc1123DateFormat(new Date());
+   }
+
+   @Override
+   public final Date rfc1123DateParse(String toParse) {
+      if (toParse.length() == 29 && toParse.endsWith(" GMT")
+            || toParse.length() == 31 && toParse.endsWith(" +0000")) {
+         Date date = parseRfc822(toParse);
+         if (date != null)
+            return date;
+      }
+      return parse(rfc1123SimpleDateFormat, toParse);
+   }
+
+   private static String formatIso8601(ThreadLocal<SimpleDateFormat> format, Date date) {
+      String formatted = format.get().format(date);
+      if (findTZ(formatted).equals("+0000"))
+         formatted = trimTZ(formatted) + "Z";
+      return formatted;
+   }
+
+   private static String normalizeIso8601(String toParse) {
+      if (toParse.length() < 10)
+         throw new IllegalArgumentException("incorrect date format " + toParse);
+      String tz = findTZ(toParse);
+      toParse = trimToMillis(toParse);
+      toParse = trimTZ(toParse);
+      toParse += tz;
+      if (toParse.charAt(10) == ' ')
+         toParse = new StringBuilder(toParse).replace(10, 11, "T").toString();
+      return toParse;
+   }
+
+   private static boolean inFastPathRange(long time) {
+      return time >= FAST_PATH_START && time < FAST_PATH_END;
+   }
+
+   /**
+    * appends {@code EEE, dd MMM yyyy HH:mm:ss } in UTC.
+    */
+   private static StringBuilder appendRfc822(StringBuilder builder, long time) {
+      long days = floorDiv(time, MILLIS_PER_DAY);
+      int[] ymd = civilFromDays(days);
+      builder.append(DAYS[(int) floorMod(days + 4, 7)]).append(", ");
+      appendDigits(builder, ymd[2], 2).append(' ').append(MONTHS[ymd[1] - 1]).append(' ');
+      appendDigits(builder, ymd[0], 4).append(' ');
+      return appendTime(builder, floorMod(time, MILLIS_PER_DAY)).append(' ');
+   }
+
+   /**
+    * appends {@code yyyy-MM-dd'T'HH:mm:ss} in UTC.
+    */
+   private static StringBuilder appendIso8601Seconds(StringBuilder builder, long time) {
+      int[] ymd = civilFromDays(floorDiv(time, MILLIS_PER_DAY));
+      appendDigits(builder, ymd[0], 4).append('-');
+      appendDigits(builder, ymd[1], 2).append('-');
+      appendDigits(builder, ymd[2], 2).append('T');
+      return appendTime(builder, floorMod(time, MILLIS_PER_DAY));
+   }
+
+   private static StringBuilder appendTime(StringBuilder builder, long millisOfDay) {
+      int seconds = (int) (millisOfDay / 1000);
+      appendDigits(builder, seconds / 3600, 2).append(':');
+      appendDigits(builder, seconds / 60 % 60, 2).append(':');
+      return appendDigits(builder, seconds % 60, 2);
+   }
+
+   private static StringBuilder appendDigits(StringBuilder builder, int value, int width) {
+      for (int divisor = width == 4 ? 1000 : width == 3 ? 100 : 10; divisor > 0; divisor /= 10)
+         builder.append((char) ('0' + value / divisor % 10));
+      return builder;
+   }
+
+   /**
+    * parses {@code EEE, dd MMM yyyy HH:mm:ss} followed by a UTC zone, or returns null if the input needs the lenient
+    * handling of {@link SimpleDateFormat}.
+    */
+   private static Date parseRfc822(String toParse) {
+      if (indexOf(DAYS, toParse, 0) < 0 || toParse.charAt(3) != ',' || toParse.charAt(4) != ' '
+            || toParse.charAt(7) != ' ' || toParse.charAt(11) != ' ' || toParse.charAt(16) != ' ')
+         return null;
+      int month = indexOf(MONTHS, toParse, 8) + 1;
+      int day = digits(toParse, 5, 2);
+      int year = digits(toParse, 12, 4);
+      long millisOfDay = time(toParse, 17);
+      if (month == 0 || day < 0 || year < 0 || millisOfDay < 0 || toParse.charAt(25) != ' ')
+         return null;
+      return toDate(year, month, day, millisOfDay, 0);
+   }
+
+   /**
+    * parses {@code yyyy-MM-dd'T'HH:mm:ss}, then three or more fraction digits if {@code withMillis}, then an optional
+    * {@code Z}, {@code +hhmm} or {@code +hh:mm} zone, or returns null if the input needs the lenient
+    * handling of {@link SimpleDateFormat}.
+    */
+   private static Date parseIso8601(String toParse, boolean withMillis) {
+      int length = toParse.length();
+      if (length < 19 || toParse.charAt(4) != '-' || toParse.charAt(7) != '-'
+            || toParse.charAt(10) != 'T' && toParse.charAt(10) != ' ')
+         return null;
+      int year = digits(toParse, 0, 4);
+      int month = digits(toParse, 5, 2);
+      int day = digits(toParse, 8, 2);
+      long millisOfDay = time(toParse, 11);
+      if (year < 0 || month < 1 || month > 12 || day < 0 || millisOfDay < 0)
+         return null;
+      int index = 19;
+      if (withMillis) {
+         if (length < 23 || toParse.charAt(19) != '.')
+            return null;
+         int millis = digits(toParse, 20, 3);
+         if (millis < 0)
+            return null;
+         millisOfDay += millis;
+         // like DateUtils.trimToMillis, ignore precision beyond millis
+         index = 23;
+         while (index < length && isDigit(toParse.charAt(index)))
+            index++;
+      }
+      int offsetMinutes = zoneOffsetMinutes(toParse, index);
+      if (offsetMinutes == Integer.MIN_VALUE)
+         return null;
+      return toDate(year, month, day, millisOfDay, offsetMinutes);
+   }
+
+   /**
+    * the zone offset starting at {@code index} in minutes, or {@link Integer#MIN_VALUE} if unrecognized.
+    */
+   private static int zoneOffsetMinutes(String toParse, int index) {
+      int remaining = toParse.length() - index;
+      if (remaining == 0)
+         return 0;
+      char sign = toParse.charAt(index);
+      if (remaining == 1 && sign == 'Z')
+         return 0;
+      if (sign != '+' && sign != '-')
+         return Integer.MIN_VALUE;
+      int hours = digits(toParse, index + 1, 2);
+      int minutes;
+      if (remaining == 5)
+         minutes = digits(toParse, index + 3, 2);
+      else if (remaining == 6 && toParse.charAt(index + 3) == ':')
+         minutes = digits(toParse, index + 4, 2);
+      else
+         return Integer.MIN_VALUE;
+      if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59)
+         return Integer.MIN_VALUE;
+      int offset = hours * 60 + minutes;
+      return sign == '-' ? -offset : offset;
+   }
+
+   /**
+    * parses {@code HH:mm:ss} at {@code index} into millis of the day, or returns -1.
+    */
+   private static long time(String toParse, int index) {
+      if (toParse.charAt(index + 2) != ':' || toParse.charAt(index + 5) != ':')
+         return -1;
+      int hours = digits(toParse, index, 2);
+      int minutes = digits(toParse, index + 3, 2);
+      int seconds = digits(toParse, index + 6, 2);
+      if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59)
+         return -1;
+      return ((hours * 60L + minutes) * 60 + seconds) * 1000;
+   }
+
+   private static Date toDate(int year, int month, int day, long millisOfDay, int offsetMinutes) {
+      if (year < 1583 || day < 1 || day > daysInMonth(year, month))
+         return null;
+      return new Date(daysFromCivil(year, month, day) * MILLIS_PER_DAY + millisOfDay - offsetMinutes * 60000L);
+   }
+
+   private static int indexOf(String[] names, String toParse, int index) {
+      for (int i = 0; i < names.length; i++) {
+         if (toParse.startsWith(names[i], index))
+            return i;
+      }
+      return -1;
+   }
+
+   /**
+    * the non-negative value of {@code count} decimal digits starting at {@code index}, or -1.
+    */
+   private static int digits(String toParse, int index, int count) {
+      int value = 0;
+      for (int i = index; i < index + count; i++) {
+         char c = toParse.charAt(i);
+         if (!isDigit(c))
+            return -1;
+         value = value * 10 + c - '0';
+      }
+      return value;
+   }
+
+   private static boolean isDigit(char c) {
+      return c >= '0' && c <= '9';
+   }
+
+   private static int daysInMonth(int year, int month) {
+      if (month == 2)
+         return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+      return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+   }
+
+   /**
+    * days since 1970-01-01 in the proleptic Gregorian calendar.
+    */
+   private static long daysFromCivil(int year, int month, int day) {
+      long y = month <= 2 ? year - 1 : year;
+      long era = floorDiv(y, 400);
+      long yearOfEra = y - era * 400;
+      long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+      long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+      return era * 146097 + dayOfEra - 719468;
+   }
+
+   /**
+    * year, month and day of the month for days since 1970-01-01, the inverse of
+    * {@link #daysFromCivil(int, int, int)}.
+    */
+   private static int[] civilFromDays(long days) {
+      days += 719468;
+      long era = floorDiv(days, 146097);
+      long dayOfEra = days - era * 146097;
+      long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+      long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+      long monthIndex = (5 * dayOfYear + 2) / 153;
+      int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+      int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+      int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+      return new int[] { year, month, day };
+   }
+
+   private static long floorDiv(long x, long y) {
+      long quotient = x / y;
+      return (x % y != 0 && (x ^ y) < 0) ? quotient - 1 : quotient;
+   }
+
+   private static long floorMod(long x, long y) {
+      return x - floorDiv(x, y) * y;
+   }
+}
@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Capable of invoking http commands without holding a thread while the request is in flight.
+ */
+public interface AsyncHttpCommandExecutorService extends HttpCommandExecutorService {
+
+   /**
+    * Returns a future for the {@code HttpResponse} from the server which responded to the {@code command}. Request
+    * filters, retry and error handlers apply as in {@link #invoke(HttpCommand)}, but retry back-off delays are
+    * scheduled on a timer instead of sleeping.
+    */
+   ListenableFuture<HttpResponse> submit(HttpCommand command);
+}
@@ -16,10 +16,14 @@
  */
 package org.jclouds.http.functions;
 
+import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,14 +33,20 @@ import javax.annotation.Resource;
 
 import org.jclouds.http.HttpResponse;
 import org.jclouds.json.internal.GsonWrapper;
+import org.jclouds.json.internal.NullFilteringTypeAdapterFactories.IterableTypeAdapter;
+import org.jclouds.json.internal.NullFilteringTypeAdapterFactories.SetTypeAdapter;
 import org.jclouds.logging.Logger;
 import org.jclouds.util.Closeables2;
 
 import com.google.common.base.Function;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 import com.google.common.util.concurrent.Atomics;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.inject.TypeLiteral;
@@ -49,6 +59,8 @@ public class ParseFirstJsonValueNamed<T> implements Function<HttpResponse, T> {
    private final GsonWrapper json;
    private final TypeLiteral<T> type;
    private final ImmutableSet<String> nameChoices;
+   private final Type elementType;
+   private final boolean set;
 
    /**
     * @param nameChoices
@@ -58,15 +70,23 @@ public class ParseFirstJsonValueNamed<T> implements Function<HttpResponse, T> {
       this.json = checkNotNull(json, "json");
       this.type = checkNotNull(type, "type");
       this.nameChoices = ImmutableSet.copyOf(checkNotNull(nameChoices, "nameChoices"));
+      // only the default collection adapters, whose elements can be read one at a time
+      TypeAdapter<?> adapter = type.getType() instanceof ParameterizedType ? json.delegate().getAdapter(
+            TypeToken.get(type.getType())) : null;
+      this.elementType = adapter instanceof IterableTypeAdapter || adapter instanceof SetTypeAdapter
+            ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0] : null;
+      this.set = adapter instanceof SetTypeAdapter;
    }
 
    @Override
    public T apply(HttpResponse arg0) {
       if (arg0.getPayload() == null)
          return nothing();
+      if (elementType != null)
+         return parseElements(arg0);
       JsonReader reader = null;
       try {
-         reader = new JsonReader(new InputStreamReader(arg0.getPayload().getInput()));
+         reader = new JsonReader(new InputStreamReader(arg0.getPayload().getInput(), UTF_8));
          // in case keys are not in quotes
          reader.setLenient(true);
          AtomicReference<String> name = Atomics.newReference();
@@ -90,6 +110,20 @@ public class ParseFirstJsonValueNamed<T> implements Function<HttpResponse, T> {
       }
    }
 
+   /**
+    * reads the array one element at a time, rather than buffering it as a tree before binding it
+    */
+   @SuppressWarnings("unchecked")
+   private T parseElements(HttpResponse response) {
+      try {
+         Iterator<Object> elements = Iterators.filter(json.fromJsonArray(response.getPayload().getInput(),
+               elementType, nameChoices.toArray(new String[nameChoices.size()])), Predicates.notNull());
+         return (T) (set ? ImmutableSet.copyOf(elements) : ImmutableList.copyOf(elements));
+      } finally {
+         response.getPayload().release();
+      }
+   }
+
    @SuppressWarnings("unchecked")
    private T nothing() {
       if (type.getRawType().isAssignableFrom(Set.class))
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static org.jclouds.http.HttpUtils.releasePayload;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpException;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.payloads.MultipartMixed;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Splits a {@code multipart/mixed} batch response into the responses of the batched requests.
+ *
+ * @see MultipartMixed
+ */
+@Singleton
+public class ParseMultipartMixedResponses implements Function<HttpResponse, List<HttpResponse>> {
+
+   public List<HttpResponse> apply(HttpResponse from) {
+      if (from.getPayload() == null)
+         return ImmutableList.of();
+      try {
+         return MultipartMixed.parseResponses(from.getPayload().getContentMetadata().getContentType(),
+               from.getPayload().openStream());
+      } catch (IOException e) {
+         throw new HttpException(String.format("Couldn't parse batch response %s", from), e);
+      } finally {
+         releasePayload(from);
+      }
+   }
+
+}
@@ -53,7 +53,8 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    @Resource
    private Logger logger = Logger.NULL;
 
-   private final XMLReader parser;
+   @Nullable private final XMLReader parser;
+   @Nullable private final XMLReaderPool readers;
    private final HandlerWithResult<T> handler;
    private HttpRequest request;
 
@@ -63,6 +64,16 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
 
    public ParseSax(XMLReader parser, HandlerWithResult<T> handler) {
       this.parser = checkNotNull(parser, "parser");
+      this.readers = null;
+      this.handler = checkNotNull(handler, "handler");
+   }
+
+   /**
+    * borrows a reader from {@code readers} for each document parsed.
+    */
+   public ParseSax(XMLReaderPool readers, HandlerWithResult<T> handler) {
+      this.parser = null;
+      this.readers = checkNotNull(readers, "readers");
       this.handler = checkNotNull(handler, "handler");
    }
 
@@ -135,12 +146,23 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    protected T doParse(InputSource from) throws IOException, SAXException {
       checkNotNull(from, "xml inputsource");
       from.setEncoding("UTF-8");
-      parser.setContentHandler(getHandler());
-      // This method should accept documents with a BOM (Byte-order mark)
-      parser.parse(from);
+      if (parser != null) {
+         parse(parser, from);
+      } else {
+         XMLReader reader = readers.acquire();
+         parse(reader, from);
+         // only readers that completed a document go back to the pool
+         readers.release(reader);
+      }
       return getHandler().getResult();
    }
 
+   private void parse(XMLReader reader, InputSource from) throws IOException, SAXException {
+      reader.setContentHandler(getHandler());
+      // This method should accept documents with a BOM (Byte-order mark)
+      reader.parse(from);
+   }
+
    public T addDetailsAndPropagate(HttpResponse response, Exception e) {
       return addDetailsAndPropagate(response, e, null);
    }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Keeps idle {@link XMLReader}s for reuse, as creating one from a {@link SAXParserFactory} costs more than parsing a
+ * typical response. Readers are not thread-safe, so each is handed to one parse at a time and given back after.
+ */
+public final class XMLReaderPool {
+
+   private static final DefaultHandler NO_OP_HANDLER = new DefaultHandler();
+
+   private final SAXParserFactory factory;
+   private final BlockingQueue<XMLReader> idle;
+
+   /**
+    * @param maxIdle
+    *           readers beyond this many are left to the garbage collector when given back
+    */
+   public XMLReaderPool(SAXParserFactory factory, int maxIdle) {
+      checkArgument(maxIdle > 0, "maxIdle must be positive");
+      this.factory = checkNotNull(factory, "factory");
+      this.idle = new ArrayBlockingQueue<XMLReader>(maxIdle);
+   }
+
+   /**
+    * an idle reader, or a new one if none are idle.
+    */
+   public XMLReader acquire() {
+      XMLReader reader = idle.poll();
+      if (reader != null)
+         return reader;
+      try {
+         return factory.newSAXParser().getXMLReader();
+      } catch (ParserConfigurationException e) {
+         throw Throwables.propagate(e);
+      } catch (SAXException e) {
+         throw Throwables.propagate(e);
+      }
+   }
+
+   /**
+    * gives back a reader that finished parsing a document. Readers that failed part way through should be dropped
+    * instead, as their state is unknown.
+    */
+   public void release(XMLReader reader) {
+      // don't hold on to the last handler and its result
+      reader.setContentHandler(NO_OP_HANDLER);
+      idle.offer(reader);
+   }
+}
@@ -18,14 +18,12 @@ package org.jclouds.http.functions.config;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.jclouds.http.functions.ParseSax;
 import org.jclouds.http.functions.ParseSax.HandlerWithResult;
-import org.xml.sax.XMLReader;
+import org.jclouds.http.functions.XMLReaderPool;
 
-import com.google.common.base.Throwables;
 import com.google.inject.AbstractModule;
 import com.google.inject.Injector;
 import com.google.inject.Provides;
@@ -41,28 +39,20 @@ public class SaxParserModule extends AbstractModule {
    }
 
    static class Factory implements ParseSax.Factory {
-      private final SAXParserFactory factory;
+      private final XMLReaderPool readers;
       private final Injector i;
 
       @Inject
       Factory(SAXParserFactory factory, Injector i) {
-         this.factory = factory;
+         this.readers = new XMLReaderPool(factory, 2 * Runtime.getRuntime().availableProcessors());
          this.i = i;
       }
 
       public <T> ParseSax<T> create(HandlerWithResult<T> handler) {
-         SAXParser saxParser;
-         try {
-            saxParser = factory.newSAXParser();
-            XMLReader parser = saxParser.getXMLReader();
-            // TODO: switch to @AssistedInject
-            ParseSax<T> returnVal = new ParseSax<T>(parser, handler);
-            i.injectMembers(returnVal);
-            return returnVal;
-         } catch (Exception e) {
-            throw Throwables.propagate(e);
-         }
-
+         // TODO: switch to @AssistedInject
+         ParseSax<T> returnVal = new ParseSax<T>(readers, handler);
+         i.injectMembers(returnVal);
+         return returnVal;
       }
    }
 
@@ -17,9 +17,14 @@
 package org.jclouds.http.handlers;
 
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.PriorityQueue;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -30,9 +35,12 @@ import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.HttpRetryHandler;
 import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.inject.Inject;
 
 /**
@@ -72,6 +80,11 @@ import com.google.inject.Inject;
  * {@link TransformingHttpCommand#incrementFailureCount()}, because this failure count value is used
  * to determine how many times the command has already been tried. It also closes the response's
  * content input stream to ensure connections are cleaned up.
+ * <p>
+ * With {@link Constants#PROPERTY_RETRY_DECORRELATED_JITTER} delays are instead picked with decorrelated jitter, and
+ * {@link Constants#PROPERTY_MAX_RETRIES_PER_ENDPOINT} bounds how many commands may be backing off against the same
+ * endpoint at once. Both apply to every back-off that is given the command being retried. When the command runs on an {@link org.jclouds.http.AsyncHttpCommandExecutorService}
+ * the delay is handed to the executor through {@link RetryDelays} and no thread sleeps.
  */
 @Singleton
 public class BackoffLimitedRetryHandler implements HttpRetryHandler, IOExceptionRetryHandler {
@@ -86,6 +99,27 @@ public class BackoffLimitedRetryHandler implements HttpRetryHandler, IOException
    @Named(Constants.PROPERTY_RETRY_DELAY_START)
    private long delayStart = 50L;
 
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_RETRY_DECORRELATED_JITTER)
+   private boolean decorrelatedJitter = false;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_RETRY_DECORRELATED_JITTER_MAX_DELAY)
+   private long maxJitterDelay = 20000L;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_MAX_RETRIES_PER_ENDPOINT)
+   private int retryBudgetPerEndpoint = 0;
+
+   // previous delay of each command being retried, for decorrelated jitter
+   private final Cache<HttpCommand, Long> previousDelays = CacheBuilder.newBuilder().weakKeys().build();
+
+   // end times of the back-offs in progress against each endpoint
+   private final ConcurrentMap<String, PriorityQueue<Long>> backoffsByEndpoint =
+         new ConcurrentHashMap<String, PriorityQueue<Long>>();
+
+   private final Random random = new Random();
+
    @Resource
    protected Logger logger = Logger.NULL;
 
@@ -107,36 +141,118 @@ public class BackoffLimitedRetryHandler implements HttpRetryHandler, IOException
          logger.error("Cannot retry after server error, command has exceeded retry limit %1$d: %2$s", retryCountLimit,
                   command);
          return false;
-      } else {
-         imposeBackoffExponentialDelay(command.getFailureCount(), "server error: " + command.toString());
+      }
+      return imposeBackoffExponentialDelay(command, delayStart, 2, retryCountLimit, "server error: " + command.toString());
+   }
+
+   private long decorrelatedDelay(@Nullable HttpCommand command, long period) {
+      Long previous = command == null ? null : previousDelays.getIfPresent(command);
+      long ceiling = 3 * (previous == null ? period : previous);
+      long delayMs = min(maxJitterDelay, period + (long) (random.nextDouble() * (ceiling - period)));
+      if (command != null) {
+         previousDelays.put(command, delayMs);
+      }
+      return delayMs;
+   }
+
+   private boolean reserveRetryBudget(URI endpoint, long delayMs) {
+      String key = endpoint.getScheme() + "://" + endpoint.getHost() + ":" + endpoint.getPort();
+      PriorityQueue<Long> backoffs = backoffsByEndpoint.get(key);
+      if (backoffs == null) {
+         PriorityQueue<Long> created = new PriorityQueue<Long>();
+         backoffs = backoffsByEndpoint.putIfAbsent(key, created);
+         if (backoffs == null) {
+            backoffs = created;
+         }
+      }
+      long now = System.currentTimeMillis();
+      synchronized (backoffs) {
+         while (!backoffs.isEmpty() && backoffs.peek() <= now) {
+            backoffs.poll();
+         }
+         if (backoffs.size() >= retryBudgetPerEndpoint) {
+            return false;
+         }
+         backoffs.add(now + delayMs);
          return true;
       }
    }
 
+   /**
+    * Backs off before retrying {@code command}, within the retry budget of its endpoint.
+    *
+    * @return false if too many commands are already backing off against the endpoint of {@code command}, in which
+    *         case it should not be retried
+    */
+   public boolean imposeBackoffExponentialDelay(HttpCommand command, long period, int pow, int max,
+            String commandDescription) {
+      return imposeBackoffExponentialDelay(command, period, maxDelay(period), pow, command.getFailureCount(), max,
+               commandDescription);
+   }
+
    public void imposeBackoffExponentialDelay(int failureCount, String commandDescription) {
       imposeBackoffExponentialDelay(delayStart, 2, failureCount, retryCountLimit, commandDescription);
    }
 
    public void imposeBackoffExponentialDelay(long period, int pow, int failureCount, int max, String commandDescription) {
-      imposeBackoffExponentialDelay(period, period * 10L, pow, failureCount, max, commandDescription);
+      imposeBackoffExponentialDelay(period, maxDelay(period), pow, failureCount, max, commandDescription);
    }
 
    public void imposeBackoffExponentialDelay(long period, long maxPeriod, int pow, int failureCount, int max,
             String commandDescription) {
+      imposeBackoffExponentialDelay(null, period, maxPeriod, pow, failureCount, max, commandDescription);
+   }
+
+   /**
+    * Every back-off of this handler ends up here, so subclasses changing how long to wait should override this
+    * method or {@link #maxDelay(long)}.
+    *
+    * @param command
+    *           the command being retried, or null if the delay is not tied to a command, in which case it is not
+    *           counted against any retry budget
+    * @return false if the retry budget of the endpoint of {@code command} is exhausted and no delay was imposed
+    */
+   protected boolean imposeBackoffExponentialDelay(@Nullable HttpCommand command, long period, long maxPeriod, int pow,
+            int failureCount, int max, String commandDescription) {
+      long delayMs = decorrelatedJitter ? decorrelatedDelay(command, period)
+            : exponentialDelay(period, maxPeriod, pow, failureCount);
+      if (command != null && retryBudgetPerEndpoint > 0
+            && !reserveRetryBudget(command.getCurrentRequest().getEndpoint(), delayMs)) {
+         logger.error("Cannot retry after server error, %1$d commands are already backing off against the endpoint: %2$s",
+                  retryBudgetPerEndpoint, command);
+         return false;
+      }
+      delay(delayMs, failureCount, max, commandDescription);
+      return true;
+   }
+
+   /**
+    * @return the longest exponential delay when starting at {@code period} milliseconds
+    */
+   protected long maxDelay(long period) {
+      return period * 10L;
+   }
+
+   private long exponentialDelay(long period, long maxPeriod, int pow, int failureCount) {
       if (period == 0) {
          // Essentially disables the exponential backoff
-         logger.debug("Retry %d/%d: delaying for %d ms: %s", failureCount, max, 0, commandDescription);
-         return;
+         return 0;
       }
       long delayMs = (long) (period * Math.pow(failureCount, pow));
       // Add random delay to avoid thundering herd problem when multiple
       // simultaneous failed requests retry after sleeping for the same delay.
       // Throws an exception for a value of 0
-      delayMs += new Random().nextInt((int) (max(delayMs / 10, 1) ));
-      delayMs = delayMs > maxPeriod ? maxPeriod : delayMs;
+      delayMs += random.nextInt((int) (max(delayMs / 10, 1) ));
+      return delayMs > maxPeriod ? maxPeriod : delayMs;
+   }
+
+   private void delay(long delayMs, int failureCount, int max, String commandDescription) {
       logger.debug("Retry %d/%d: delaying for %d ms: %s", failureCount, max, delayMs, commandDescription);
+      if (delayMs == 0) {
+         return;
+      }
       try {
-         Thread.sleep(delayMs);
+         RetryDelays.sleep(delayMs);
       } catch (InterruptedException e) {
          Throwables.propagate(e);
       }
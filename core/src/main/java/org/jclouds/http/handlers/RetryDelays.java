@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.handlers;
+
+/**
+ * Lets retry handlers hand their back-off delay to the executor running the command rather than sleeping in it.
+ * <p>
+ * Asynchronous executors call {@link #defer()} before consulting the retry handlers and {@link #take()} afterwards,
+ * and schedule the next attempt after the returned delay. On any other thread {@link #sleep(long)} simply sleeps.
+ */
+public final class RetryDelays {
+
+   private static final ThreadLocal<long[]> deferred = new ThreadLocal<long[]>();
+
+   /**
+    * Records delays imposed on the current thread until {@link #take()} is called, instead of sleeping.
+    */
+   public static void defer() {
+      deferred.set(new long[1]);
+   }
+
+   /**
+    * Stops deferring delays on the current thread and returns the total delay recorded since {@link #defer()}.
+    */
+   public static long take() {
+      long[] delay = deferred.get();
+      deferred.remove();
+      return delay == null ? 0L : delay[0];
+   }
+
+   /**
+    * Waits {@code millis} before the command is retried, either by sleeping or by deferring the delay to the
+    * executor when the current thread is deferring.
+    */
+   public static void sleep(long millis) throws InterruptedException {
+      long[] delay = deferred.get();
+      if (delay != null) {
+         delay[0] += millis;
+      } else {
+         Thread.sleep(millis);
+      }
+   }
+
+   private RetryDelays() {
+      throw new AssertionError("intentionally unimplemented");
+   }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.jclouds.Constants.PROPERTY_ADAPTIVE_RATE_LIMIT;
+import static org.jclouds.Constants.PROPERTY_ADAPTIVE_RATE_LIMIT_MAX;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.date.DateService;
+import org.jclouds.date.internal.SimpleDateFormatDateService;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Maps;
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Paces the requests sent to each endpoint host with a token bucket whose rate is learnt from the provider's
+ * responses: additive increase while requests succeed, multiplicative decrease on 429 and 503 responses, and a pause
+ * until the time given by their {@link HttpHeaders#RETRY_AFTER} header. There is one limiter per context, so buckets
+ * are effectively keyed by api and endpoint host.
+ * <p>
+ * Disabled unless {@link org.jclouds.Constants#PROPERTY_ADAPTIVE_RATE_LIMIT} is set.
+ */
+@Singleton
+public class AdaptiveRateLimiter {
+
+   /**
+    * A limiter that never delays requests, for executors not created through Guice.
+    */
+   public static final AdaptiveRateLimiter DISABLED = new AdaptiveRateLimiter(new SimpleDateFormatDateService(),
+         Ticker.systemTicker());
+
+   // a throttled endpoint is still probed at least this often
+   private static final double MIN_RATE = 1;
+
+   @com.google.inject.Inject(optional = true)
+   @Named(PROPERTY_ADAPTIVE_RATE_LIMIT)
+   @VisibleForTesting
+   boolean enabled = false;
+
+   @com.google.inject.Inject(optional = true)
+   @Named(PROPERTY_ADAPTIVE_RATE_LIMIT_MAX)
+   @VisibleForTesting
+   int maxRate = 100;
+
+   private final DateService dateService;
+   private final Ticker ticker;
+   private final ConcurrentMap<String, Bucket> buckets = Maps.newConcurrentMap();
+
+   @Inject
+   AdaptiveRateLimiter(DateService dateService) {
+      this(dateService, Ticker.systemTicker());
+   }
+
+   @VisibleForTesting
+   AdaptiveRateLimiter(DateService dateService, Ticker ticker) {
+      this.dateService = checkNotNull(dateService, "dateService");
+      this.ticker = checkNotNull(ticker, "ticker");
+   }
+
+   /**
+    * Takes a token for the request and returns how many milliseconds the caller must wait before sending it.
+    */
+   public long reserve(HttpRequest request) {
+      if (!enabled) {
+         return 0;
+      }
+      return NANOSECONDS.toMillis(bucket(request.getEndpoint()).reserve(ticker.read()));
+   }
+
+   /**
+    * Takes a token for the request, sleeping until it may be sent.
+    */
+   public void acquire(HttpRequest request) throws InterruptedException {
+      long waitMillis = reserve(request);
+      if (waitMillis > 0) {
+         Thread.sleep(waitMillis);
+      }
+   }
+
+   /**
+    * Adjusts the rate for the request's endpoint host to the response received.
+    */
+   public void onResponse(HttpRequest request, HttpResponse response) {
+      if (!enabled) {
+         return;
+      }
+      Bucket bucket = bucket(request.getEndpoint());
+      int statusCode = response.getStatusCode();
+      if (statusCode == 429 || statusCode == 503) {
+         bucket.decrease(ticker.read(), retryAfterNanos(response));
+      } else if (statusCode < 500) {
+         bucket.increase();
+      }
+   }
+
+   @VisibleForTesting
+   double rate(URI endpoint) {
+      return bucket(endpoint).rate;
+   }
+
+   private Bucket bucket(URI endpoint) {
+      String key = endpoint.getHost() + ":" + endpoint.getPort();
+      Bucket bucket = buckets.get(key);
+      if (bucket == null) {
+         Bucket created = new Bucket(maxRate, ticker.read());
+         bucket = buckets.putIfAbsent(key, created);
+         if (bucket == null) {
+            bucket = created;
+         }
+      }
+      return bucket;
+   }
+
+   private long retryAfterNanos(HttpResponse response) {
+      String retryAfter = response.getFirstHeaderOrNull(HttpHeaders.RETRY_AFTER);
+      if (retryAfter == null) {
+         return 0;
+      }
+      if (retryAfter.matches("^[0-9]+$")) {
+         return SECONDS.toNanos(Long.parseLong(retryAfter));
+      }
+      try {
+         long millis = dateService.rfc822DateParse(retryAfter).getTime() - System.currentTimeMillis();
+         return MILLISECONDS.toNanos(max(0, millis));
+      } catch (IllegalArgumentException e) {
+         return 0;
+      }
+   }
+
+   private final class Bucket {
+      private double rate;
+      private double tokens;
+      private long updatedNanos;
+      private long pausedUntilNanos;
+
+      Bucket(double rate, long nowNanos) {
+         this.rate = rate;
+         this.tokens = rate;
+         this.updatedNanos = nowNanos;
+         this.pausedUntilNanos = nowNanos;
+      }
+
+      synchronized long reserve(long nowNanos) {
+         // allow bursts of up to one second's worth of requests
+         tokens = min(max(rate, 1), tokens + (nowNanos - updatedNanos) * rate / SECONDS.toNanos(1));
+         updatedNanos = nowNanos;
+         tokens -= 1;
+         long waitNanos = tokens >= 0 ? 0 : (long) (-tokens * SECONDS.toNanos(1) / rate);
+         return max(waitNanos, pausedUntilNanos - nowNanos);
+      }
+
+      synchronized void increase() {
+         // grows by about one request per second for every second of successful requests
+         rate = min(maxRate, rate + 1 / rate);
+      }
+
+      synchronized void decrease(long nowNanos, long retryAfterNanos) {
+         rate = max(MIN_RATE, rate / 2);
+         tokens = min(tokens, 0);
+         pausedUntilNanos = max(pausedUntilNanos, nowNanos + retryAfterNanos);
+      }
+   }
+}
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.Constants.PROPERTY_IDEMPOTENT_METHODS;
+import static org.jclouds.Constants.PROPERTY_SCHEDULER_THREADS;
+import static org.jclouds.http.HttpUtils.checkRequestHasContentLengthOrChunkedEncoding;
+import static org.jclouds.http.HttpUtils.wirePayloadIfEnabled;
+import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.inject.Named;
+
+import org.jclouds.http.AsyncHttpCommandExecutorService;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.http.handlers.DelegatingErrorHandler;
+import org.jclouds.http.handlers.DelegatingRetryHandler;
+import org.jclouds.http.handlers.RetryDelays;
+import org.jclouds.io.ContentMetadataCodec;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.inject.Inject;
+
+/**
+ * Runs the same request filter, retry and error handling workflow as {@link BaseHttpCommandExecutorService}, driven
+ * by callbacks from a non-blocking transport. Back-off delays requested by the retry handlers are deferred through
+ * {@link RetryDelays} and the next attempt is scheduled on the scheduler rather than slept.
+ * <p>
+ * The scheduler is only used when the context binds one, for example by adding the
+ * {@link org.jclouds.concurrent.config.ScheduledExecutorServiceModule}. Without it the delays are slept on the
+ * transport callback thread, as the blocking executor does.
+ */
+public abstract class BaseAsyncHttpCommandExecutorService<Q> extends BaseHttpCommandExecutorService<Q> implements
+      AsyncHttpCommandExecutorService {
+
+   @Inject(optional = true)
+   @Named(PROPERTY_SCHEDULER_THREADS)
+   protected ScheduledExecutorService scheduler;
+
+   protected BaseAsyncHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
+         DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
+         DelegatingErrorHandler errorHandler, HttpWire wire,
+         @Named(PROPERTY_IDEMPOTENT_METHODS) String idempotentMethods) {
+      super(utils, contentMetadataCodec, retryHandler, ioRetryHandler, errorHandler, wire, idempotentMethods);
+   }
+
+   @Override
+   public ListenableFuture<HttpResponse> submit(HttpCommand command) {
+      Attempt attempt = new Attempt(command);
+      attempt.run();
+      return attempt.result;
+   }
+
+   /**
+    * Sends the native request without blocking the calling thread. The returned future fails with the
+    * {@link IOException} raised by the transport, if any.
+    */
+   protected abstract ListenableFuture<HttpResponse> invokeAsync(Q nativeRequest);
+
+   private final class Attempt implements Runnable {
+      private final HttpCommand command;
+      private final SettableFuture<HttpResponse> result = SettableFuture.create();
+      private volatile Future<?> inFlight;
+      private boolean reserved;
+
+      Attempt(HttpCommand command) {
+         this.command = command;
+         result.addListener(new Runnable() {
+            @Override
+            public void run() {
+               Future<?> current = inFlight;
+               if (result.isCancelled() && current != null) {
+                  current.cancel(true);
+               }
+            }
+         }, directExecutor());
+      }
+
+      @Override
+      public void run() {
+         if (result.isDone()) {
+            return;
+         }
+         HttpRequest request = command.getCurrentRequest();
+         if (!reserved) {
+            // wait before filtering, so that signatures are computed right before sending
+            long waitMillis = rateLimiter.reserve(request);
+            if (waitMillis > 0) {
+               reserved = true;
+               schedule(waitMillis);
+               return;
+            }
+         }
+         reserved = false;
+         Q nativeRequest = null;
+         ListenableFuture<HttpResponse> response;
+         try {
+            for (HttpRequestFilter filter : request.getFilters()) {
+               request = filter.filter(request);
+            }
+            checkRequestHasContentLengthOrChunkedEncoding(request,
+                  "After filtering, the request has neither chunked encoding nor content length: " + request);
+            logger.debug("Sending request %s: %s", request.hashCode(), request.getRequestLine());
+            wirePayloadIfEnabled(wire, request);
+            utils.logRequest(headerLog, request, ">>");
+            nativeRequest = convert(request);
+            response = invokeAsync(nativeRequest);
+         } catch (Exception e) {
+            cleanup(nativeRequest);
+            onFailure(e);
+            return;
+         }
+         inFlight = response;
+         if (result.isCancelled()) {
+            response.cancel(true);
+         }
+
+         final HttpRequest sent = request;
+         final Q sentNativeRequest = nativeRequest;
+         Futures.addCallback(response, new FutureCallback<HttpResponse>() {
+            @Override
+            public void onSuccess(HttpResponse response) {
+               onResponse(sent, response);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+               cleanup(sentNativeRequest);
+               Attempt.this.onFailure(t);
+            }
+         }, directExecutor());
+      }
+
+      private void onResponse(HttpRequest request, HttpResponse response) {
+         try {
+            rateLimiter.onResponse(request, response);
+            logger.debug("Receiving response %s: %s", request.hashCode(), response.getStatusLine());
+            utils.logResponse(headerLog, response, "<<");
+            if (response.getPayload() != null && wire.enabled())
+               wire.input(response);
+            if (response.getStatusCode() >= 300) {
+               RetryDelays.defer();
+               boolean retry;
+               long delay;
+               try {
+                  retry = shouldContinue(command, response);
+               } finally {
+                  delay = RetryDelays.take();
+               }
+               if (retry) {
+                  retryAfter(delay);
+                  return;
+               }
+            }
+         } catch (Exception e) {
+            onFailure(e);
+            return;
+         }
+         complete(response);
+      }
+
+      private void onFailure(Throwable t) {
+         if (result.isCancelled()) {
+            return;
+         }
+         Throwable cause = t;
+         IOException ioe = getFirstThrowableOfType(t, IOException.class);
+         if (ioe != null) {
+            RetryDelays.defer();
+            boolean retry = false;
+            long delay;
+            try {
+               retry = shouldContinue(command, ioe);
+            } catch (RuntimeException e) {
+               cause = e;
+            } finally {
+               delay = RetryDelays.take();
+            }
+            if (retry) {
+               retryAfter(delay);
+               return;
+            }
+         }
+         command.setException(new HttpResponseException(cause.getMessage() + " connecting to "
+               + command.getCurrentRequest().getRequestLine(), command, null, cause));
+         complete(null);
+      }
+
+      private void retryAfter(long delay) {
+         logger.debug("Scheduling retry of %s in %d ms", command.getCurrentRequest().getRequestLine(), delay);
+         schedule(delay);
+      }
+
+      private void schedule(long delay) {
+         if (scheduler == null) {
+            try {
+               MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               result.setException(e);
+               return;
+            }
+            run();
+            return;
+         }
+         try {
+            inFlight = scheduler.schedule(this, delay, MILLISECONDS);
+         } catch (RejectedExecutionException e) {
+            result.setException(e);
+         }
+      }
+
+      private void complete(HttpResponse response) {
+         if (command.getException() != null) {
+            result.setException(command.getException());
+         } else {
+            result.set(response);
+         }
+      }
+   }
+}
@@ -64,6 +64,9 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
 
    protected final HttpWire wire;
 
+   @com.google.inject.Inject(optional = true)
+   protected AdaptiveRateLimiter rateLimiter = AdaptiveRateLimiter.DISABLED;
+
    private final Set<String> idempotentMethods;
 
    protected BaseHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
@@ -85,6 +88,13 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
       for (;;) {
          HttpRequest request = command.getCurrentRequest();
          Q nativeRequest = null;
+         try {
+            // wait before filtering, so that signatures are computed right before sending
+            rateLimiter.acquire(request);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw propagate(e);
+         }
          try {
             for (HttpRequestFilter filter : request.getFilters()) {
                request = filter.filter(request);
@@ -96,6 +106,7 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
             utils.logRequest(headerLog, request, ">>");
             nativeRequest = convert(request);
             response = invoke(nativeRequest);
+            rateLimiter.onResponse(request, response);
 
             logger.debug("Receiving response %s: %s", request.hashCode(), response.getStatusLine());
             utils.logResponse(headerLog, response, "<<");
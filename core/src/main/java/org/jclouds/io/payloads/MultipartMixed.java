@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.io.payloads;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.http.HttpUtils.filterOutContentHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.ByteStreams2;
+import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.net.HttpHeaders;
+
+/**
+ * A {@code multipart/mixed} batch of HTTP requests, each sent as an {@code application/http} part,
+ * as accepted by batch endpoints such as Google Cloud Storage's JSON batch API and Azure Blob Batch.
+ * {@link #parseResponses} reads the matching {@code multipart/mixed} batch response, and
+ * {@link #inRequestOrder} matches its parts to the requests by {@code Content-ID}, as servers need not
+ * answer in order.
+ * <p/>
+ * Only the raw path and query of each request endpoint are sent; the host is that of the batch
+ * request.
+ */
+@Beta
+public class MultipartMixed extends BasePayload<List<HttpRequest>> {
+   /** Header of each parsed response carrying the {@code Content-ID} of its part in the batch response. */
+   public static final String CONTENT_ID = "Content-ID";
+   private static final String rn = "\r\n";
+   private static final String dd = "--";
+
+   private final byte[] bytes;
+
+   public MultipartMixed(String boundary, Iterable<HttpRequest> requests) {
+      super(ImmutableList.copyOf(checkNotNull(requests, "requests")));
+      checkNotNull(boundary, "boundary");
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      int contentId = 0;
+      try {
+         for (HttpRequest request : content) {
+            write(out, dd + boundary + rn);
+            write(out, HttpHeaders.CONTENT_TYPE + ": application/http" + rn);
+            write(out, "Content-Transfer-Encoding: binary" + rn);
+            write(out, CONTENT_ID + ": " + contentId++ + rn + rn);
+            writeRequest(out, request);
+            write(out, rn);
+         }
+         write(out, dd + boundary + dd + rn);
+      } catch (IOException e) {
+         throw new IllegalArgumentException("could not read the payload of a batched request", e);
+      }
+      this.bytes = out.toByteArray();
+      getContentMetadata().setContentType("multipart/mixed; boundary=" + boundary);
+      getContentMetadata().setContentLength((long) bytes.length);
+   }
+
+   /**
+    * Uses a random boundary, so that it cannot occur in the batched requests.
+    */
+   public MultipartMixed(Iterable<HttpRequest> requests) {
+      this("batch_" + UUID.randomUUID(), requests);
+   }
+
+   private static void writeRequest(ByteArrayOutputStream out, HttpRequest request) throws IOException {
+      StringBuilder requestLine = new StringBuilder(request.getMethod()).append(' ')
+            .append(request.getEndpoint().getRawPath());
+      if (request.getEndpoint().getRawQuery() != null)
+         requestLine.append('?').append(request.getEndpoint().getRawQuery());
+      write(out, requestLine.append(" HTTP/1.1").append(rn).toString());
+      for (Entry<String, String> header : request.getHeaders().entries()) {
+         write(out, header.getKey() + ": " + header.getValue() + rn);
+      }
+      Payload payload = request.getPayload();
+      if (payload == null) {
+         write(out, rn);
+         return;
+      }
+      byte[] body = ByteStreams2.toByteArrayAndClose(payload.openStream());
+      ContentMetadata metadata = payload.getContentMetadata();
+      if (metadata.getContentType() != null)
+         write(out, HttpHeaders.CONTENT_TYPE + ": " + metadata.getContentType() + rn);
+      write(out, HttpHeaders.CONTENT_LENGTH + ": " + body.length + rn + rn);
+      out.write(body);
+   }
+
+   private static void write(ByteArrayOutputStream out, String text) {
+      byte[] encoded = text.getBytes(Charsets.UTF_8);
+      out.write(encoded, 0, encoded.length);
+   }
+
+   @Override
+   public InputStream openStream() {
+      return new ByteArrayInputStream(bytes);
+   }
+
+   @Override
+   public boolean isRepeatable() {
+      return true;
+   }
+
+   /**
+    * Splits a {@code multipart/mixed} batch response into the responses of the individual requests,
+    * in the order they appear in the batch response.
+    *
+    * @param contentType
+    *           the content type of the batch response, which names the boundary
+    * @param input
+    *           the body of the batch response, closed once read
+    */
+   public static List<HttpResponse> parseResponses(String contentType, InputStream input) throws IOException {
+      String delimiter = dd + boundary(contentType);
+      // ISO-8859-1 maps each byte to one char, so part bodies can be turned back into bytes
+      String content = new String(ByteStreams2.toByteArrayAndClose(input), Charsets.ISO_8859_1);
+      ImmutableList.Builder<HttpResponse> responses = ImmutableList.builder();
+      int start = content.indexOf(delimiter);
+      while (start != -1) {
+         start += delimiter.length();
+         if (content.startsWith(dd, start))
+            break;
+         int end = content.indexOf(delimiter, start);
+         checkArgument(end != -1, "missing closing delimiter %s in batch response", delimiter);
+         responses.add(parseResponse(content.substring(start, end)));
+         start = end;
+      }
+      return responses.build();
+   }
+
+   /**
+    * Orders the responses of a batch by the request they answer, using the {@code Content-ID} that each
+    * response part echoes from its request part.
+    *
+    * @param requestCount
+    *           the number of requests sent in the batch
+    * @param responses
+    *           the responses returned by {@link #parseResponses}
+    * @throws IllegalArgumentException
+    *            unless there is exactly one response per request
+    */
+   public static List<HttpResponse> inRequestOrder(int requestCount, List<HttpResponse> responses) {
+      checkArgument(responses.size() == requestCount, "expected %s responses in batch, but received %s",
+            requestCount, responses.size());
+      HttpResponse[] ordered = new HttpResponse[requestCount];
+      for (HttpResponse response : responses) {
+         int index = requestIndex(response.getFirstHeaderOrNull(CONTENT_ID));
+         checkArgument(index >= 0 && index < requestCount && ordered[index] == null,
+               "unexpected %s %s in batch response", CONTENT_ID, response.getFirstHeaderOrNull(CONTENT_ID));
+         ordered[index] = response;
+      }
+      return Arrays.asList(ordered);
+   }
+
+   /**
+    * Reads the request index from a response {@code Content-ID}, which may be wrapped in angle brackets and
+    * prefixed with {@code response-}, as Google Cloud Storage does.
+    */
+   private static int requestIndex(String contentId) {
+      checkArgument(contentId != null, "missing %s in batch response part", CONTENT_ID);
+      String id = contentId.trim();
+      if (id.startsWith("<") && id.endsWith(">"))
+         id = id.substring(1, id.length() - 1);
+      if (id.startsWith("response-"))
+         id = id.substring("response-".length());
+      try {
+         return Integer.parseInt(id);
+      } catch (NumberFormatException e) {
+         throw new IllegalArgumentException("unexpected " + CONTENT_ID + " " + contentId + " in batch response", e);
+      }
+   }
+
+   private static String boundary(String contentType) {
+      checkNotNull(contentType, "contentType");
+      int index = contentType.toLowerCase().indexOf("boundary=");
+      checkArgument(index != -1, "no boundary in content type %s", contentType);
+      String boundary = contentType.substring(index + "boundary=".length());
+      if (boundary.indexOf(';') != -1)
+         boundary = boundary.substring(0, boundary.indexOf(';'));
+      boundary = boundary.trim();
+      if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\""))
+         boundary = boundary.substring(1, boundary.length() - 1);
+      return boundary;
+   }
+
+   private static HttpResponse parseResponse(String part) {
+      // skip the rest of the delimiter line and the headers of the part itself, except its Content-ID
+      String contentId = null;
+      int position = nextLine(part, 0);
+      while (position < part.length() && !line(part, position).isEmpty()) {
+         String header = line(part, position);
+         if (header.regionMatches(true, 0, CONTENT_ID + ":", 0, CONTENT_ID.length() + 1))
+            contentId = header.substring(CONTENT_ID.length() + 1).trim();
+         position = nextLine(part, position);
+      }
+      position = nextLine(part, position);
+
+      String[] statusLine = line(part, position).split(" ", 3);
+      checkArgument(statusLine.length >= 2, "invalid status line in batch response part: %s", part);
+      position = nextLine(part, position);
+
+      Multimap<String, String> headers = LinkedHashMultimap.create();
+      while (position < part.length()) {
+         String header = line(part, position);
+         position = nextLine(part, position);
+         if (header.isEmpty())
+            break;
+         int colon = header.indexOf(':');
+         if (colon != -1)
+            headers.put(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+      }
+
+      HttpResponse.Builder<?> response = HttpResponse.builder()
+            .statusCode(Integer.parseInt(statusLine[1]))
+            .message(statusLine.length > 2 ? statusLine[2] : null)
+            .headers(filterOutContentHeaders(headers));
+      if (contentId != null)
+         response.replaceHeader(CONTENT_ID, contentId);
+
+      // the line break before the next delimiter belongs to the delimiter
+      String body = part.substring(Math.min(position, part.length()));
+      if (body.endsWith(rn))
+         body = body.substring(0, body.length() - rn.length());
+      else if (body.endsWith("\n"))
+         body = body.substring(0, body.length() - 1);
+      if (!body.isEmpty()) {
+         Payload payload = Payloads.newByteArrayPayload(body.getBytes(Charsets.ISO_8859_1));
+         for (Entry<String, String> header : headers.entries()) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(header.getKey()))
+               payload.getContentMetadata().setContentType(header.getValue());
+         }
+         response.payload(payload);
+      }
+      return response.build();
+   }
+
+   private static int nextLine(String text, int from) {
+      int lf = text.indexOf('\n', from);
+      return lf == -1 ? text.length() : lf + 1;
+   }
+
+   private static String line(String text, int from) {
+      int lf = text.indexOf('\n', from);
+      String line = text.substring(from, lf == -1 ? text.length() : lf);
+      return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+   }
+}
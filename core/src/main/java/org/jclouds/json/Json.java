@@ -18,6 +18,7 @@ package org.jclouds.json;
 
 import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.util.Iterator;
 
 public interface Json {
    /**
@@ -56,4 +57,18 @@ public interface Json {
     */
    <T> T fromJson(InputStream json, Class<T> classOfT);
 
+   /**
+    * Deserialize the elements of a json array one at a time, so that callers paging through a large response do
+    * not need to hold all of it in memory. The stream is read as UTF-8 and closed once the array is exhausted or
+    * malformed; callers that stop early must close it themselves.
+    * 
+    * @param elementType
+    *           type of each array element
+    * @param nameChoices
+    *           when present, the array is the value of the first field found with one of these names, at any depth;
+    *           otherwise the document itself is the array. If there is no such field, or it is null, there are no
+    *           elements.
+    */
+   <T> Iterator<T> fromJsonArray(InputStream json, Type elementType, String... nameChoices);
+
 }
@@ -16,17 +16,30 @@
  */
 package org.jclouds.json.internal;
 
+import static com.google.common.base.Charsets.UTF_8;
+
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jclouds.json.Json;
+import org.jclouds.util.Closeables2;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ForwardingObject;
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 @Singleton
 public class GsonWrapper extends ForwardingObject implements Json  {
@@ -52,12 +65,98 @@ public class GsonWrapper extends ForwardingObject implements Json  {
    @SuppressWarnings("unchecked")
    @Override
    public <T> T fromJson(InputStream json, Type type) {
-      return (T) gson.fromJson(new InputStreamReader(json), type);
+      return (T) gson.fromJson(new InputStreamReader(json, UTF_8), type);
    }
 
    @Override
    public <T> T fromJson(InputStream json, Class<T> classOfT) {
-      return gson.fromJson(new InputStreamReader(json), classOfT);
+      return gson.fromJson(new InputStreamReader(json, UTF_8), classOfT);
+   }
+
+   @Override
+   public <T> Iterator<T> fromJsonArray(InputStream json, Type elementType, String... nameChoices) {
+      @SuppressWarnings("unchecked")
+      TypeAdapter<T> adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get(elementType));
+      JsonReader reader = new JsonReader(new InputStreamReader(json, UTF_8));
+      // in case keys are not in quotes
+      reader.setLenient(true);
+      return new JsonArrayIterator<T>(reader, adapter, ImmutableSet.copyOf(nameChoices));
+   }
+
+   private static final class JsonArrayIterator<T> extends AbstractIterator<T> {
+      private final JsonReader reader;
+      private final TypeAdapter<T> adapter;
+      private final Set<String> nameChoices;
+      private boolean started;
+
+      private JsonArrayIterator(JsonReader reader, TypeAdapter<T> adapter, Set<String> nameChoices) {
+         this.reader = reader;
+         this.adapter = adapter;
+         this.nameChoices = nameChoices;
+      }
+
+      @Override
+      protected T computeNext() {
+         try {
+            if (!started) {
+               started = true;
+               if (!beginArray())
+                  return finish();
+            }
+            if (!reader.hasNext())
+               return finish();
+            return adapter.read(reader);
+         } catch (IOException e) {
+            Closeables2.closeQuietly(reader);
+            throw new JsonParseException(e);
+         } catch (RuntimeException e) {
+            Closeables2.closeQuietly(reader);
+            throw e;
+         }
+      }
+
+      private T finish() {
+         Closeables2.closeQuietly(reader);
+         return endOfData();
+      }
+
+      /**
+       * positions the reader inside the array, or returns false if there is none.
+       */
+      private boolean beginArray() throws IOException {
+         if (!nameChoices.isEmpty() && !advanceToValueNamed())
+            return false;
+         if (reader.peek() == JsonToken.NULL)
+            return false;
+         reader.beginArray();
+         return true;
+      }
+
+      private boolean advanceToValueNamed() throws IOException {
+         for (JsonToken token = reader.peek(); token != JsonToken.END_DOCUMENT; token = reader.peek()) {
+            switch (token) {
+               case BEGIN_ARRAY:
+                  reader.beginArray();
+                  break;
+               case END_ARRAY:
+                  reader.endArray();
+                  break;
+               case BEGIN_OBJECT:
+                  reader.beginObject();
+                  break;
+               case END_OBJECT:
+                  reader.endObject();
+                  break;
+               case NAME:
+                  if (nameChoices.contains(reader.nextName()))
+                     return true;
+                  break;
+               default:
+                  reader.skipValue();
+            }
+         }
+         return false;
+      }
    }
 
    @Override
@@ -17,15 +17,11 @@
 package org.jclouds.location.config;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.jclouds.Constants.PROPERTY_SESSION_INTERVAL;
 
 import java.net.URI;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 
-import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.jclouds.collect.Memoized;
@@ -47,9 +43,8 @@ import org.jclouds.location.suppliers.RegionIdsSupplier;
 import org.jclouds.location.suppliers.ZoneIdToURISupplier;
 import org.jclouds.location.suppliers.ZoneIdsSupplier;
 import org.jclouds.reflect.InvocationSuccess;
-import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.functions.ImplicitOptionalConverter;
-import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier;
+import org.jclouds.rest.suppliers.MemoizedSupplierFactory;
 
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
@@ -76,27 +71,22 @@ public class LocationModule extends AbstractModule {
    @Singleton
    @Iso3166
    protected final Supplier<Map<String, Supplier<Set<String>>>> isoCodesSupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            MemoizedSupplierFactory memoizer,
             LocationIdToIso3166CodesSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.memoize(uncached);
    }
 
    @Provides
    @Singleton
    @Provider
-   protected final Supplier<URI> provideProvider(AtomicReference<AuthorizationException> authException,
-            @Named(PROPERTY_SESSION_INTERVAL) long seconds, ProviderURISupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+   protected final Supplier<URI> provideProvider(MemoizedSupplierFactory memoizer, ProviderURISupplier uncached) {
+      return memoizer.memoize(uncached);
    }
 
    @Provides
    @Singleton
-   protected final Supplier<Location> implicitLocationSupplier(AtomicReference<AuthorizationException> authException,
-            @Named(PROPERTY_SESSION_INTERVAL) long seconds, ImplicitLocationSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+   protected final Supplier<Location> implicitLocationSupplier(MemoizedSupplierFactory memoizer, ImplicitLocationSupplier uncached) {
+      return memoizer.memoize(uncached);
    }
 
    @Provides
@@ -104,29 +94,25 @@ public class LocationModule extends AbstractModule {
    // TODO: we should eventually get rid of memoized as an annotation, as it is confusing
    @Memoized
    protected final Supplier<Set<? extends Location>> memoizedLocationsSupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            MemoizedSupplierFactory memoizer,
             LocationsSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.memoize(uncached);
    }
 
    @Provides
    @Singleton
    @Region
-   protected final Supplier<Set<String>> regionIdsSupplier(AtomicReference<AuthorizationException> authException,
-            @Named(PROPERTY_SESSION_INTERVAL) long seconds, RegionIdFilter filter, RegionIdsSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
-               Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS);
+   protected final Supplier<Set<String>> regionIdsSupplier(MemoizedSupplierFactory memoizer, RegionIdFilter filter, RegionIdsSupplier uncached) {
+      return memoizer.memoize(Suppliers.compose(new FilterStrings(filter), uncached));
    }
    
    @Provides
    @Singleton
    @Zone
    protected final Supplier<Set<String>> zoneIdsSupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            MemoizedSupplierFactory memoizer,
             ZoneIdFilter filter, ZoneIdsSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
-               Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS);
+      return memoizer.memoize(Suppliers.compose(new FilterStrings(filter), uncached));
    }
 
    static class FilterStrings implements Function<Set<String>, Set<String>> {
@@ -153,19 +139,16 @@ public class LocationModule extends AbstractModule {
    @Singleton
    @Region
    protected final Supplier<Map<String, Supplier<URI>>> regionIdToURISupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            MemoizedSupplierFactory memoizer,
             RegionIdToURISupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.memoize(uncached);
    }
 
    @Provides
    @Singleton
    @Region
-   protected final Supplier<String> implicitRegionIdSupplier(AtomicReference<AuthorizationException> authException,
-            @Named(PROPERTY_SESSION_INTERVAL) long seconds, ImplicitRegionIdSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+   protected final Supplier<String> implicitRegionIdSupplier(MemoizedSupplierFactory memoizer, ImplicitRegionIdSupplier uncached) {
+      return memoizer.memoize(uncached);
    }
 
 
@@ -173,19 +156,17 @@ public class LocationModule extends AbstractModule {
    @Singleton
    @Zone
    protected final Supplier<Map<String, Supplier<Set<String>>>> regionIdToZoneIdsSupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            MemoizedSupplierFactory memoizer,
             RegionIdToZoneIdsSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.memoize(uncached);
    }
 
    @Provides
    @Singleton
    @Zone
    protected final Supplier<Map<String, Supplier<URI>>> zoneIdToURISupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            MemoizedSupplierFactory memoizer,
             ZoneIdToURISupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.memoize(uncached);
    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.http.HttpUtils.tryFindHttpMethod;
+import static org.jclouds.reflect.Reflection2.getInvokableParameters;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.Encoded;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.options.HttpRequestOptions;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.EndpointParam;
+import org.jclouds.rest.annotations.FormParams;
+import org.jclouds.rest.annotations.Headers;
+import org.jclouds.rest.annotations.MapBinder;
+import org.jclouds.rest.annotations.OverrideRequestFilters;
+import org.jclouds.rest.annotations.PartParam;
+import org.jclouds.rest.annotations.Payload;
+import org.jclouds.rest.annotations.PayloadParam;
+import org.jclouds.rest.annotations.PayloadParams;
+import org.jclouds.rest.annotations.QueryParams;
+import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.SkipEncoding;
+import org.jclouds.rest.annotations.VirtualHost;
+import org.jclouds.rest.annotations.WrapWith;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Chars;
+import com.google.common.reflect.Invokable;
+import com.google.common.reflect.Parameter;
+
+/**
+ * The annotation metadata {@link RestAnnotationProcessor} needs to build a request for an {@link Invokable}, read
+ * once per method instead of on every invocation. Anything that depends on the arguments or on the injector is
+ * left to the processor.
+ */
+final class RequestTemplate {
+
+   private static final LoadingCache<Invokable<?, ?>, RequestTemplate> templates = CacheBuilder.newBuilder().build(
+         new CacheLoader<Invokable<?, ?>, RequestTemplate>() {
+            @Override
+            public RequestTemplate load(Invokable<?, ?> invokable) {
+               return new RequestTemplate(invokable);
+            }
+         });
+
+   static RequestTemplate of(Invokable<?, ?> invokable) {
+      return templates.getUnchecked(checkNotNull(invokable, "invokable"));
+   }
+
+   final Optional<String> httpMethod;
+   final List<String> paths;
+   @Nullable final Set<Character> skipEncoding;
+   final boolean encodeFullPath;
+   final boolean virtualHost;
+   final List<Class<? extends HttpRequestFilter>> filters;
+   final List<FormParams> formParams;
+   final List<QueryParams> queryParams;
+   final List<Headers> headers;
+   @Nullable final Produces produces;
+   @Nullable final PayloadParams payloadParams;
+   @Nullable final Class<? extends org.jclouds.rest.MapBinder> mapBinder;
+   final boolean payload;
+   @Nullable final WrapWith wrapWith;
+
+   final List<Parameter> pathParamParameters;
+   final List<Parameter> formParamParameters;
+   final List<Parameter> queryParamParameters;
+   final List<Parameter> headerParamParameters;
+   final List<Parameter> payloadParamParameters;
+   final List<Parameter> partParamParameters;
+   final List<Parameter> endpointParamParameters;
+   final List<Parameter> binderOrWrapWithParameters;
+   final Set<Integer> indexesOfOptions;
+
+   private RequestTemplate(Invokable<?, ?> invokable) {
+      Class<?> type = invokable.getOwnerType().getRawType();
+      this.httpMethod = tryFindHttpMethod(invokable);
+
+      ImmutableList.Builder<String> paths = ImmutableList.builder();
+      if (type.isAnnotationPresent(Path.class))
+         paths.add(type.getAnnotation(Path.class).value());
+      if (invokable.isAnnotationPresent(Path.class))
+         paths.add(invokable.getAnnotation(Path.class).value());
+      this.paths = paths.build();
+
+      SkipEncoding skip = Optional.fromNullable(invokable.getAnnotation(SkipEncoding.class))
+            .or(Optional.fromNullable(type.getAnnotation(SkipEncoding.class))).orNull();
+      this.skipEncoding = skip != null ? ImmutableSet.copyOf(Chars.asList(skip.value())) : null;
+      this.virtualHost = type.isAnnotationPresent(VirtualHost.class) || invokable.isAnnotationPresent(VirtualHost.class);
+
+      ImmutableList.Builder<Class<? extends HttpRequestFilter>> filters = ImmutableList.builder();
+      RequestFilters methodFilters = invokable.getAnnotation(RequestFilters.class);
+      if (type.isAnnotationPresent(RequestFilters.class)
+            && (methodFilters == null || !invokable.isAnnotationPresent(OverrideRequestFilters.class)))
+         filters.add(type.getAnnotation(RequestFilters.class).value());
+      if (methodFilters != null)
+         filters.add(methodFilters.value());
+      this.filters = filters.build();
+
+      this.formParams = presentOf(type.getAnnotation(FormParams.class), invokable.getAnnotation(FormParams.class));
+      this.queryParams = presentOf(type.getAnnotation(QueryParams.class), invokable.getAnnotation(QueryParams.class));
+      this.headers = presentOf(type.getAnnotation(Headers.class), invokable.getAnnotation(Headers.class));
+      this.produces = Optional.fromNullable(invokable.getAnnotation(Produces.class))
+            .or(Optional.fromNullable(type.getAnnotation(Produces.class))).orNull();
+      this.payloadParams = invokable.getAnnotation(PayloadParams.class);
+      MapBinder mapBinder = invokable.getAnnotation(MapBinder.class);
+      this.mapBinder = mapBinder != null ? mapBinder.value() : null;
+      this.payload = invokable.isAnnotationPresent(Payload.class);
+      this.wrapWith = invokable.getAnnotation(WrapWith.class);
+
+      this.pathParamParameters = parametersWithAnnotation(invokable, PathParam.class);
+      this.formParamParameters = parametersWithAnnotation(invokable, FormParam.class);
+      this.queryParamParameters = parametersWithAnnotation(invokable, QueryParam.class);
+      this.headerParamParameters = parametersWithAnnotation(invokable, HeaderParam.class);
+      this.payloadParamParameters = parametersWithAnnotation(invokable, PayloadParam.class);
+      this.partParamParameters = parametersWithAnnotation(invokable, PartParam.class);
+      this.endpointParamParameters = parametersWithAnnotation(invokable, EndpointParam.class);
+      this.binderOrWrapWithParameters = ImmutableSet.<Parameter> builder()
+            .addAll(parametersWithAnnotation(invokable, BinderParam.class))
+            .addAll(parametersWithAnnotation(invokable, WrapWith.class)).build().asList();
+      this.encodeFullPath = parametersWithAnnotation(invokable, Encoded.class).isEmpty();
+
+      ImmutableSet.Builder<Integer> indexesOfOptions = ImmutableSet.builder();
+      for (Parameter param : getInvokableParameters(invokable)) {
+         Class<?> paramType = param.getType().getRawType();
+         if (HttpRequestOptions.class.isAssignableFrom(paramType)
+               || HttpRequestOptions[].class.isAssignableFrom(paramType))
+            indexesOfOptions.add(param.hashCode());
+      }
+      this.indexesOfOptions = indexesOfOptions.build();
+   }
+
+   /**
+    * the annotations that are present, type level first.
+    */
+   private static <A extends Annotation> List<A> presentOf(@Nullable A onType, @Nullable A onMethod) {
+      ImmutableList.Builder<A> annotations = ImmutableList.builder();
+      if (onType != null)
+         annotations.add(onType);
+      if (onMethod != null)
+         annotations.add(onMethod);
+      return annotations.build();
+   }
+
+   private static List<Parameter> parametersWithAnnotation(Invokable<?, ?> invokable,
+         Class<? extends Annotation> annotationType) {
+      ImmutableList.Builder<Parameter> parameters = ImmutableList.builder();
+      for (Parameter parameter : getInvokableParameters(invokable)) {
+         if (parameter.isAnnotationPresent(annotationType))
+            parameters.add(parameter);
+      }
+      return parameters.build();
+   }
+}
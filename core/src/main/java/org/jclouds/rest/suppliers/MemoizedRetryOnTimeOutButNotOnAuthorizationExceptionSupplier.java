@@ -21,9 +21,11 @@ import static com.google.common.base.Throwables.propagate;
 import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
 
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.rest.AuthorizationException;
 
 import com.google.common.base.MoreObjects;
@@ -111,6 +113,7 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> ext
 
    private final Supplier<T> delegate;
    private final long duration;
+   private final long maxStaleness;
    private final TimeUnit unit;
    private final LoadingCache<String, Optional<T>> cache;
 
@@ -130,13 +133,39 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> ext
             unit, valueLoadedCallback);
    }
    
+   /**
+    * Creates a memoized supplier which, once {@code duration} elapsed, keeps returning the last value while it is
+    * reloaded in the background on {@code refreshExecutor}. A failed reload keeps the last value, which is only
+    * discarded once it is older than {@code maxStaleness}; callers then block on a reload as usual. If
+    * {@code maxStaleness} is not greater than {@code duration}, values are reloaded in the caller's thread.
+    */
+   public static <T> MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> create(
+         AtomicReference<AuthorizationException> authException, Supplier<T> delegate, long duration, long maxStaleness,
+         TimeUnit unit, Executor refreshExecutor, ValueLoadedCallback<T> valueLoadedCallback) {
+      return new MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T>(authException, delegate, duration,
+            maxStaleness, unit, refreshExecutor, valueLoadedCallback);
+   }
+
    MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier(AtomicReference<AuthorizationException> authException,
          Supplier<T> delegate, long duration, TimeUnit unit, ValueLoadedCallback<T> valueLoadedCallback) {
+      this(authException, delegate, duration, 0, unit, null, valueLoadedCallback);
+   }
+
+   MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier(AtomicReference<AuthorizationException> authException,
+         Supplier<T> delegate, long duration, long maxStaleness, TimeUnit unit, @Nullable Executor refreshExecutor,
+         ValueLoadedCallback<T> valueLoadedCallback) {
       this.delegate = delegate;
       this.duration = duration;
+      this.maxStaleness = maxStaleness;
       this.unit = unit;
-      this.cache = CacheBuilder.newBuilder().expireAfterWrite(duration, unit)
-            .build(new SetAndThrowAuthorizationExceptionSupplierBackedLoader<T>(delegate, authException, valueLoadedCallback));
+      CacheLoader<String, Optional<T>> loader = new SetAndThrowAuthorizationExceptionSupplierBackedLoader<T>(delegate,
+            authException, valueLoadedCallback);
+      if (refreshExecutor != null && maxStaleness > duration) {
+         this.cache = CacheBuilder.newBuilder().refreshAfterWrite(duration, unit).expireAfterWrite(maxStaleness, unit)
+               .build(CacheLoader.asyncReloading(loader, refreshExecutor));
+      } else {
+         this.cache = CacheBuilder.newBuilder().expireAfterWrite(duration, unit).build(loader);
+      }
    }
 
    @Override
@@ -157,7 +186,8 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> ext
 
    @Override
    public String toString() {
-      return MoreObjects.toStringHelper(this).add("delegate", delegate).add("duration", duration).add("unit", unit)
+      return MoreObjects.toStringHelper(this).add("delegate", delegate).add("duration", duration)
+            .add("maxStaleness", maxStaleness).add("unit", unit)
             .toString();
    }
 
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.suppliers;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.Constants.PROPERTY_SESSION_INTERVAL;
+import static org.jclouds.Constants.PROPERTY_SESSION_MAX_STALENESS;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.rest.AuthorizationException;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Inject;
+
+/**
+ * Memoizes suppliers for {@link org.jclouds.Constants#PROPERTY_SESSION_INTERVAL}, reloading them in the background
+ * on the user executor when {@link org.jclouds.Constants#PROPERTY_SESSION_MAX_STALENESS} allows serving stale values.
+ *
+ * @see MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier
+ */
+@Beta
+@Singleton
+public class MemoizedSupplierFactory {
+   private final AtomicReference<AuthorizationException> authException;
+   private final long sessionInterval;
+   private final ListeningExecutorService userExecutor;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_SESSION_MAX_STALENESS)
+   private long maxStaleness = 0;
+
+   @Inject
+   MemoizedSupplierFactory(AtomicReference<AuthorizationException> authException,
+         @Named(PROPERTY_SESSION_INTERVAL) long sessionInterval,
+         @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      this.authException = checkNotNull(authException, "authException");
+      this.sessionInterval = sessionInterval;
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+   }
+
+   public <T> Supplier<T> memoize(Supplier<T> uncached) {
+      return memoize(uncached, new ValueLoadedCallback.NoOpCallback<T>());
+   }
+
+   /**
+    * @param valueLoadedCallback
+    *           called each time a value is loaded, including background reloads
+    */
+   public <T> Supplier<T> memoize(Supplier<T> uncached, ValueLoadedCallback<T> valueLoadedCallback) {
+      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached,
+            sessionInterval, maxStaleness, TimeUnit.SECONDS, userExecutor, valueLoadedCallback);
+   }
+
+   /**
+    * @return how many seconds a memoized value may be returned after it was loaded
+    */
+   public long getMaxAgeSeconds() {
+      return Math.max(sessionInterval, maxStaleness);
+   }
+}
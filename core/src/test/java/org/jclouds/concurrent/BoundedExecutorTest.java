@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.concurrent;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFutureTask;
+
+@Test(groups = "unit", testName = "BoundedExecutorTest")
+public class BoundedExecutorTest {
+
+   /**
+    * holds tasks until the test runs them
+    */
+   static class ManualExecutor implements Executor {
+      final List<Runnable> tasks = Lists.newArrayList();
+
+      @Override
+      public void execute(Runnable command) {
+         tasks.add(command);
+      }
+
+      void runFirst() {
+         tasks.remove(0).run();
+      }
+   }
+
+   static class Record implements Runnable {
+      final List<String> ran;
+      final String name;
+
+      Record(List<String> ran, String name) {
+         this.ran = ran;
+         this.name = name;
+      }
+
+      @Override
+      public void run() {
+         ran.add(name);
+      }
+   }
+
+   public void testQueuesBeyondMaxConcurrencyAndStartsInOrder() {
+      ManualExecutor delegate = new ManualExecutor();
+      BoundedExecutor executor = new BoundedExecutor(delegate, 2);
+      List<String> ran = Lists.newArrayList();
+      for (String name : ImmutableList.of("a", "b", "c", "d"))
+         executor.execute(new Record(ran, name));
+
+      assertEquals(delegate.tasks.size(), 2);
+      assertEquals(executor.running(), 2);
+      assertEquals(executor.queued(), 2);
+
+      delegate.runFirst();
+      assertEquals(delegate.tasks.size(), 2);
+      assertEquals(executor.queued(), 1);
+
+      delegate.runFirst();
+      delegate.runFirst();
+      delegate.runFirst();
+      assertEquals(ran, ImmutableList.of("a", "b", "c", "d"));
+      assertEquals(executor.running(), 0);
+      assertEquals(executor.queued(), 0);
+   }
+
+   public void testFailingTaskStillStartsNext() {
+      ManualExecutor delegate = new ManualExecutor();
+      BoundedExecutor executor = new BoundedExecutor(delegate, 1);
+      List<String> ran = Lists.newArrayList();
+      executor.execute(new Runnable() {
+         @Override
+         public void run() {
+            throw new IllegalStateException();
+         }
+      });
+      executor.execute(new Record(ran, "next"));
+      assertEquals(delegate.tasks.size(), 1);
+
+      try {
+         delegate.runFirst();
+         fail();
+      } catch (IllegalStateException expected) {
+         assertEquals(delegate.tasks.size(), 1);
+      }
+      delegate.runFirst();
+      assertEquals(ran, ImmutableList.of("next"));
+      assertEquals(executor.running(), 0);
+   }
+
+   public void testRejectedQueuedTasksAreCancelled() {
+      final ManualExecutor manual = new ManualExecutor();
+      final AtomicBoolean shutdown = new AtomicBoolean();
+      BoundedExecutor executor = new BoundedExecutor(new Executor() {
+         @Override
+         public void execute(Runnable command) {
+            if (shutdown.get())
+               throw new RejectedExecutionException("shut down");
+            manual.execute(command);
+         }
+      }, 1);
+      List<String> ran = Lists.newArrayList();
+      executor.execute(new Record(ran, "first"));
+      ListenableFutureTask<Void> second = ListenableFutureTask.create(new Record(ran, "second"), null);
+      ListenableFutureTask<Void> third = ListenableFutureTask.create(new Record(ran, "third"), null);
+      executor.execute(second);
+      executor.execute(third);
+      assertEquals(executor.queued(), 2);
+
+      shutdown.set(true);
+      manual.runFirst();
+
+      assertEquals(ran, ImmutableList.of("first"));
+      assertTrue(second.isCancelled());
+      assertTrue(third.isCancelled());
+      assertEquals(executor.running(), 0);
+      assertEquals(executor.queued(), 0);
+   }
+}
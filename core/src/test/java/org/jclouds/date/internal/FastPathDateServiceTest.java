@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.date.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.Random;
+
+import org.jclouds.date.DateService;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "FastPathDateServiceTest")
+public class FastPathDateServiceTest {
+   private final DateService fast = new FastPathDateService();
+   private final DateService reference = new SimpleDateFormatDateService();
+
+   /**
+    * a date between 1500 and 2500.
+    */
+   private static Date randomDate(Random random) {
+      return new Date(946684800000L + random.nextLong() % (500L * 365 * 86400 * 1000));
+   }
+
+   public void testFormatMatchesSimpleDateFormat() {
+      Random random = new Random(0);
+      for (int i = 0; i < 10000; i++) {
+         Date date = randomDate(random);
+         assertEquals(fast.iso8601DateFormat(date), reference.iso8601DateFormat(date));
+         assertEquals(fast.iso8601SecondsDateFormat(date), reference.iso8601SecondsDateFormat(date));
+         assertEquals(fast.rfc822DateFormat(date), reference.rfc822DateFormat(date));
+         assertEquals(fast.rfc1123DateFormat(date), reference.rfc1123DateFormat(date));
+         assertEquals(fast.cDateFormat(date), reference.cDateFormat(date));
+      }
+   }
+
+   public void testRoundTrip() {
+      Random random = new Random(0);
+      for (int i = 0; i < 10000; i++) {
+         Date date = randomDate(random);
+         Date seconds = new Date(date.getTime() - (date.getTime() % 1000 + 1000) % 1000);
+         assertEquals(fast.iso8601DateParse(fast.iso8601DateFormat(date)), date);
+         assertEquals(fast.iso8601SecondsDateParse(fast.iso8601SecondsDateFormat(date)), seconds);
+         assertEquals(fast.rfc822DateParse(fast.rfc822DateFormat(date)), seconds);
+      }
+   }
+
+   public void testIso8601ParseMatchesSimpleDateFormat() {
+      for (String date : new String[] { "2009-03-12T02:00:07.000Z", "2009-03-12T02:00:07.123", "2011-05-25 16:12:21.656+0000",
+            "2011-11-07T11:19:13.38225Z", "2009-03-12T06:00:07.000+04:00", "2009-03-12T06:00:07.000-0400",
+            "2012-02-29T23:59:59.999+0130", "2009-02-30T02:00:07.000Z" }) {
+         assertEquals(fast.iso8601DateParse(date), reference.iso8601DateParse(date), date);
+      }
+   }
+
+   public void testIso8601SecondsParseMatchesSimpleDateFormat() {
+      for (String date : new String[] { "2009-03-12T02:00:07Z", "2009-03-12T06:00:07+0400", "2011-05-26T02:14:13-04:00",
+            "2012-11-26T17:32:31UTC+0000", "2009-03-12 02:00:07", "1500-01-01T00:00:00Z", "2009-13-12T02:00:07Z" }) {
+         assertEquals(fast.iso8601SecondsDateParse(date), reference.iso8601SecondsDateParse(date), date);
+      }
+   }
+
+   public void testRfcParseMatchesSimpleDateFormat() {
+      for (String date : new String[] { "Thu, 12 Mar 2009 02:00:07 GMT", "Sun, 06 Nov 1994 08:49:37 GMT",
+            "thu, 12 mar 2009 02:00:07 GMT", "Thu, 12 Mar 2009 02:00:60 GMT" }) {
+         assertEquals(fast.rfc822DateParse(date), reference.rfc822DateParse(date), date);
+      }
+      for (String date : new String[] { "Thu, 12 Mar 2009 02:00:07 GMT", "Thu, 12 Mar 2009 02:00:07 +0000",
+            "Thu, 12 Mar 2009 06:00:07 +0400" }) {
+         assertEquals(fast.rfc1123DateParse(date), reference.rfc1123DateParse(date), date);
+      }
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testIso8601ParseIllegal() {
+      fast.iso8601DateParse("2009-03-12T02:00:07Z");
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testRfc822ParseIllegal() {
+      fast.rfc822DateParse("Thu, 12 Mar 2009 02:00:07 XYZ");
+   }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.date.internal;
+
+import org.jclouds.date.DateServiceTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link DateServiceTest} comparisons against {@link SimpleDateFormatDateService}, the default before
+ * {@link FastPathDateService}.
+ */
+//NOTE:without testName, this will not call @Before* and fail w/NPE during surefire
+@Test(groups = "performance", singleThreaded = true, timeOut = 2 * 60 * 1000,
+      testName = "SimpleDateFormatDateServicePerformanceTest")
+public class SimpleDateFormatDateServicePerformanceTest extends DateServiceTest {
+   @Override
+   @BeforeTest
+   protected void createDateService() {
+      dateService = new SimpleDateFormatDateService();
+   }
+}
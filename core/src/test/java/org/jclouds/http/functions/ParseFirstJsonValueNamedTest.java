@@ -27,11 +27,17 @@ import org.jclouds.http.HttpResponse;
 import org.jclouds.io.Payloads;
 import org.jclouds.json.config.GsonModule;
 import org.jclouds.json.internal.GsonWrapper;
+import org.jclouds.json.internal.NullFilteringTypeAdapterFactories.SetTypeAdapter;
+import org.jclouds.json.internal.NullFilteringTypeAdapterFactories.SetTypeAdapterFactory;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.TypeLiteral;
 
@@ -55,6 +61,32 @@ public class ParseFirstJsonValueNamedTest {
       }
    }
 
+   /**
+    * reads sets wrapped in {"values": [...]}, so they can't be read one element at a time
+    */
+   static class ValuesSetTypeAdapterFactory extends SetTypeAdapterFactory {
+      @Override
+      @SuppressWarnings("unchecked")
+      protected <E, I> TypeAdapter<I> newAdapter(TypeAdapter<E> elementAdapter) {
+         final SetTypeAdapter<E> values = new SetTypeAdapter<E>(elementAdapter);
+         return (TypeAdapter<I>) new TypeAdapter<Set<E>>() {
+            @Override
+            public void write(JsonWriter out, Set<E> value) throws IOException {
+               values.write(out, value);
+            }
+
+            @Override
+            public Set<E> read(JsonReader in) throws IOException {
+               in.beginObject();
+               in.nextName();
+               Set<E> result = values.read(in);
+               in.endObject();
+               return result;
+            }
+         };
+      }
+   }
+
    public void testParseNestedElements() throws IOException {
       String nested = "{ \"count\":1 ,\"event\" : [  {name:'GREETINGS',source:'guest'} ] }";
       HttpResponse response = HttpResponse.builder().statusCode(200).message("goodie")
@@ -118,6 +150,32 @@ public class ParseFirstJsonValueNamedTest {
       assertEquals(val.toString(), "[]");
    }
 
+   public void testParseNestedElementsSkipsNulls() throws IOException {
+      String nested = "{ \"count\":2 ,\"event\" : [ null, {name:'GREETINGS',source:'guest'}, null ] }";
+      HttpResponse response = HttpResponse.builder().statusCode(200).message("goodie")
+            .payload(Payloads.newPayload(nested)).build();
+
+      Set<Event> val = new ParseFirstJsonValueNamed<Set<Event>>(json, new TypeLiteral<Set<Event>>() {
+      }, "event").apply(response);
+      assertEquals(val.toString(), "[(name=GREETINGS, source=guest)]");
+   }
+
+   public void testParseNestedElementsWithCustomAdapter() throws IOException {
+      GsonWrapper json = Guice.createInjector(new GsonModule(), new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(SetTypeAdapterFactory.class).to(ValuesSetTypeAdapterFactory.class);
+         }
+      }).getInstance(GsonWrapper.class);
+      String nested = "{ \"event\" : { \"values\" : [ {name:'GREETINGS',source:'guest'} ] } }";
+      HttpResponse response = HttpResponse.builder().statusCode(200).message("goodie")
+            .payload(Payloads.newPayload(nested)).build();
+
+      Set<Event> val = new ParseFirstJsonValueNamed<Set<Event>>(json, new TypeLiteral<Set<Event>>() {
+      }, "event").apply(response);
+      assertEquals(val.toString(), "[(name=GREETINGS, source=guest)]");
+   }
+
    public void testParseNoPayloadEmptyList() throws IOException {
       HttpResponse response = HttpResponse.builder().statusCode(200).message("goodie").build();
 
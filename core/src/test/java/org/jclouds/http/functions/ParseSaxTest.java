@@ -21,6 +21,11 @@ import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import javax.xml.parsers.SAXParserFactory;
 
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
@@ -28,6 +33,7 @@ import org.jclouds.utils.TestUtils;
 import org.testng.annotations.Test;
 import org.xml.sax.Locator;
 import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
 
 /**
  * Tests behavior of {@code ParseSax}
@@ -131,4 +137,36 @@ public class ParseSaxTest extends BaseHandlerTest {
          assertEquals(e.getCause(), input);
       }
    }
+
+   public static class TextHandler extends ParseSax.HandlerWithResult<String> {
+      private final StringBuilder text = new StringBuilder();
+
+      @Override
+      public void characters(char[] ch, int start, int length) {
+         text.append(ch, start, length);
+      }
+
+      @Override
+      public String getResult() {
+         return text.toString();
+      }
+   }
+
+   @Test
+   public void testPooledReaderIsReusedOnlyAfterCompletingADocument() {
+      XMLReaderPool readers = new XMLReaderPool(injector.getInstance(SAXParserFactory.class), 1);
+      assertEquals(new ParseSax<String>(readers, new TextHandler()).parse("<a>one</a>"), "one");
+      XMLReader reader = readers.acquire();
+      readers.release(reader);
+      assertEquals(new ParseSax<String>(readers, new TextHandler()).parse("<a>two</a>"), "two");
+      assertSame(readers.acquire(), reader);
+
+      readers.release(reader);
+      try {
+         new ParseSax<String>(readers, new TextHandler()).parse("<a>three</b>");
+         fail("expected a parse error");
+      } catch (RuntimeException expected) {
+      }
+      assertNotSame(readers.acquire(), reader);
+   }
 }
@@ -23,7 +23,9 @@ import static org.testng.Assert.fail;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Properties;
 
+import org.jclouds.Constants;
 import org.jclouds.ContextBuilder;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpRequest;
@@ -111,6 +113,23 @@ public class BackoffLimitedRetryHandlerTest {
       assertThat(elapsedTime).isBetween(period, period + acceptableDelay);
    }
 
+   @Test
+   void testExponentialBackoffDelayIsDeferredWithoutSleeping() throws InterruptedException {
+      long period = 500;
+
+      RetryDelays.defer();
+      long startTime = System.nanoTime();
+      try {
+         handler.imposeBackoffExponentialDelay(period, 2, 2, 5, "TEST FAILURE: 2");
+      } finally {
+         long delay = RetryDelays.take();
+         assertThat(delay).isBetween(period * 4, period * 5);
+      }
+      long elapsedTime = (System.nanoTime() - startTime) / 1000000;
+      assertThat(elapsedTime).isLessThan(period);
+      assertEquals(RetryDelays.take(), 0L);
+   }
+
    @Test
    void testInputStreamIsNotClosed() throws SecurityException, NoSuchMethodException, IOException {
       HttpCommand command = createCommand();
@@ -191,4 +210,86 @@ public class BackoffLimitedRetryHandlerTest {
       assertEquals(handler.shouldRetryRequest(command, response), false); // Failure 6
    }
 
+   private static BackoffLimitedRetryHandler handler(Properties overrides) {
+      return ContextBuilder
+            .newBuilder(AnonymousProviderMetadata.forApiOnEndpoint(IntegrationTestClient.class, "http://localhost"))
+            .overrides(overrides).buildInjector().getInstance(BackoffLimitedRetryHandler.class);
+   }
+
+   @Test
+   void testDecorrelatedJitterStaysWithinBounds() throws SecurityException, NoSuchMethodException {
+      Properties overrides = new Properties();
+      overrides.setProperty(Constants.PROPERTY_RETRY_DECORRELATED_JITTER, "true");
+      overrides.setProperty(Constants.PROPERTY_RETRY_DECORRELATED_JITTER_MAX_DELAY, "1000");
+      BackoffLimitedRetryHandler handler = handler(overrides);
+      HttpCommand command = createCommand();
+      HttpResponse response = HttpResponse.builder().statusCode(503).build();
+
+      long previous = 50;
+      for (int i = 0; i < 5; i++) {
+         RetryDelays.defer();
+         try {
+            assertEquals(handler.shouldRetryRequest(command, response), true);
+         } finally {
+            long delay = RetryDelays.take();
+            assertThat(delay).isBetween(50L, Math.min(1000L, previous * 3));
+            previous = delay;
+         }
+      }
+   }
+
+   @Test
+   void testRetriesUseOverriddenMaxDelay() throws SecurityException, NoSuchMethodException {
+      Properties overrides = new Properties();
+      overrides.setProperty(Constants.PROPERTY_MAX_RETRIES_PER_ENDPOINT, "10");
+      BackoffLimitedRetryHandler handler = ContextBuilder
+            .newBuilder(AnonymousProviderMetadata.forApiOnEndpoint(IntegrationTestClient.class, "http://localhost"))
+            .overrides(overrides).buildInjector().getInstance(MaxDelayOf1000.class);
+      HttpCommand command = createCommand();
+      HttpResponse response = HttpResponse.builder().statusCode(503).build();
+
+      for (int i = 0; i < 4; i++) {
+         RetryDelays.defer();
+         try {
+            assertEquals(handler.shouldRetryRequest(command, response), true);
+         } finally {
+            RetryDelays.take();
+         }
+      }
+      // 50 * 5^2 would be capped at 500 without the override
+      RetryDelays.defer();
+      try {
+         assertEquals(handler.shouldRetryRequest(command, response), true);
+      } finally {
+         assertThat(RetryDelays.take()).isBetween(1000L, 1000L);
+      }
+   }
+
+   static class MaxDelayOf1000 extends BackoffLimitedRetryHandler {
+      @Override
+      protected long maxDelay(long period) {
+         return 1000L;
+      }
+   }
+
+   @Test
+   void testRetryBudgetPerEndpoint() throws SecurityException, NoSuchMethodException {
+      Properties overrides = new Properties();
+      overrides.setProperty(Constants.PROPERTY_MAX_RETRIES_PER_ENDPOINT, "1");
+      overrides.setProperty(Constants.PROPERTY_RETRY_DELAY_START, "10000");
+      BackoffLimitedRetryHandler handler = handler(overrides);
+      HttpResponse response = HttpResponse.builder().statusCode(503).build();
+
+      RetryDelays.defer();
+      try {
+         assertEquals(handler.shouldRetryRequest(createCommand(), response), true);
+         // the first command is still backing off against the same endpoint
+         assertEquals(handler.shouldRetryRequest(createCommand(), response), false);
+         HttpCommand command = createCommand();
+         command.incrementFailureCount();
+         assertEquals(handler.imposeBackoffExponentialDelay(command, 100L, 3, 5, "client error"), false);
+      } finally {
+         RetryDelays.take();
+      }
+   }
 }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.date.internal.SimpleDateFormatDateService;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.google.common.net.HttpHeaders;
+
+@Test(groups = "unit", testName = "AdaptiveRateLimiterTest")
+public class AdaptiveRateLimiterTest {
+
+   private static final URI ENDPOINT = URI.create("https://ec2.us-east-1.amazonaws.com/");
+   private static final HttpRequest REQUEST = HttpRequest.builder().method("GET").endpoint(ENDPOINT).build();
+
+   private static final class FakeTicker extends Ticker {
+      long nanos;
+
+      @Override
+      public long read() {
+         return nanos;
+      }
+   }
+
+   private final FakeTicker ticker = new FakeTicker();
+
+   private AdaptiveRateLimiter limiter(int maxRate) {
+      AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(new SimpleDateFormatDateService(), ticker);
+      limiter.enabled = true;
+      limiter.maxRate = maxRate;
+      return limiter;
+   }
+
+   public void testDisabledNeverWaits() {
+      AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(new SimpleDateFormatDateService(), ticker);
+      limiter.maxRate = 1;
+      for (int i = 0; i < 10; i++) {
+         assertEquals(limiter.reserve(REQUEST), 0);
+      }
+   }
+
+   public void testBurstThenPaced() {
+      AdaptiveRateLimiter limiter = limiter(2);
+      assertEquals(limiter.reserve(REQUEST), 0);
+      assertEquals(limiter.reserve(REQUEST), 0);
+      assertEquals(limiter.reserve(REQUEST), 500);
+      // a second later the bucket has refilled the two tokens, one of them owed to the last request
+      ticker.nanos += TimeUnit.SECONDS.toNanos(1);
+      assertEquals(limiter.reserve(REQUEST), 0);
+      assertEquals(limiter.reserve(REQUEST), 500);
+   }
+
+   public void testThrottlingHalvesRate() {
+      AdaptiveRateLimiter limiter = limiter(8);
+      limiter.onResponse(REQUEST, HttpResponse.builder().statusCode(429).build());
+      assertEquals(limiter.rate(ENDPOINT), 4.0);
+      limiter.onResponse(REQUEST, HttpResponse.builder().statusCode(503).build());
+      assertEquals(limiter.rate(ENDPOINT), 2.0);
+   }
+
+   public void testRetryAfterPausesEndpoint() {
+      AdaptiveRateLimiter limiter = limiter(100);
+      limiter.onResponse(REQUEST, HttpResponse.builder().statusCode(503)
+            .addHeader(HttpHeaders.RETRY_AFTER, "5").build());
+      assertTrue(limiter.reserve(REQUEST) >= 5000);
+      // other endpoints are unaffected
+      assertEquals(limiter.reserve(HttpRequest.builder().method("GET").endpoint("https://s3.amazonaws.com/").build()),
+            0);
+   }
+
+   public void testSuccessGrowsRateBackUpToMax() {
+      AdaptiveRateLimiter limiter = limiter(4);
+      limiter.onResponse(REQUEST, HttpResponse.builder().statusCode(429).build());
+      assertEquals(limiter.rate(ENDPOINT), 2.0);
+      limiter.onResponse(REQUEST, HttpResponse.builder().statusCode(200).build());
+      assertEquals(limiter.rate(ENDPOINT), 2.5);
+      for (int i = 0; i < 100; i++) {
+         limiter.onResponse(REQUEST, HttpResponse.builder().statusCode(200).build());
+      }
+      assertEquals(limiter.rate(ENDPOINT), 4.0);
+   }
+}
@@ -27,6 +27,7 @@ import static org.jclouds.http.HttpUtils.releasePayload;
 import static org.jclouds.io.Payloads.newInputStreamPayload;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -38,6 +39,7 @@ import javax.inject.Named;
 
 import org.easymock.EasyMock;
 import org.easymock.IAnswer;
+import org.jclouds.date.internal.SimpleDateFormatDateService;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpException;
 import org.jclouds.http.HttpRequest;
@@ -209,6 +211,31 @@ public class BaseHttpCommandExecutorServiceTest {
       helperRetryOnlyIdempotent("GET");
    }
 
+   public void testInterruptWhileRateLimitedIsPropagated() {
+      HttpCommand command = mockHttpCommand();
+      IOExceptionRetryHandler ioRetryHandler = EasyMock.createMock(IOExceptionRetryHandler.class);
+      replay(ioRetryHandler);
+
+      BaseHttpCommandExecutorService<?> service = mockHttpCommandExecutorService(ioRetryHandler);
+      service.rateLimiter = new AdaptiveRateLimiter(new SimpleDateFormatDateService()) {
+         @Override
+         public void acquire(HttpRequest request) throws InterruptedException {
+            throw new InterruptedException();
+         }
+      };
+      try {
+         service.invoke(command);
+         fail("Expected to fail due to the interrupt");
+      } catch (RuntimeException e) {
+         assertTrue(e.getCause() instanceof InterruptedException, "unexpected cause: " + e.getCause());
+         assertNull(command.getException());
+      } finally {
+         assertTrue(Thread.interrupted(), "interrupt flag was not restored");
+      }
+
+      verify(ioRetryHandler);
+   }
+
    private void helperRetryOnlyIdempotent(String method) throws IOException {
       final IOException error = new IOException("test exception");
       HttpRequestFilter throwingFilter = new HttpRequestFilter() {
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.io.payloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.jclouds.util.Strings2;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+@Test(testName = "MultipartMixedTest")
+public class MultipartMixedTest {
+
+   public void testRequests() throws IOException {
+      Payload json = Payloads.newStringPayload("{}");
+      json.getContentMetadata().setContentType("application/json");
+      MultipartMixed batch = new MultipartMixed("boundary", ImmutableList.of(
+            HttpRequest.builder().method("DELETE").endpoint("https://host/b/bucket/o/a%2Fb").build(),
+            HttpRequest.builder().method("PATCH").endpoint("https://host/b/bucket/o/c?fields=name")
+                  .addHeader("If-Match", "etag").payload(json).build()));
+
+      String expects = "--boundary\r\n"
+            + "Content-Type: application/http\r\n"
+            + "Content-Transfer-Encoding: binary\r\n"
+            + "Content-ID: 0\r\n"
+            + "\r\n"
+            + "DELETE /b/bucket/o/a%2Fb HTTP/1.1\r\n"
+            + "\r\n"
+            + "\r\n"
+            + "--boundary\r\n"
+            + "Content-Type: application/http\r\n"
+            + "Content-Transfer-Encoding: binary\r\n"
+            + "Content-ID: 1\r\n"
+            + "\r\n"
+            + "PATCH /b/bucket/o/c?fields=name HTTP/1.1\r\n"
+            + "If-Match: etag\r\n"
+            + "Content-Type: application/json\r\n"
+            + "Content-Length: 2\r\n"
+            + "\r\n"
+            + "{}\r\n"
+            + "--boundary--\r\n";
+
+      assertEquals(Strings2.toStringAndClose(batch.openStream()), expects);
+      assertEquals(batch.getContentMetadata().getContentType(), "multipart/mixed; boundary=boundary");
+      assertEquals(batch.getContentMetadata().getContentLength(), Long.valueOf(expects.length()));
+   }
+
+   public void testParseResponses() throws IOException {
+      String batchResponse = "--batch_pK7JBAk73-E=_AA5eFwv4m2Q=\r\n"
+            + "Content-Type: application/http\r\n"
+            + "Content-ID: <response-0>\r\n"
+            + "\r\n"
+            + "HTTP/1.1 204 No Content\r\n"
+            + "Content-Length: 0\r\n"
+            + "\r\n"
+            + "\r\n"
+            + "--batch_pK7JBAk73-E=_AA5eFwv4m2Q=\r\n"
+            + "Content-Type: application/http\r\n"
+            + "Content-ID: <response-1>\r\n"
+            + "\r\n"
+            + "HTTP/1.1 404 Not Found\r\n"
+            + "Content-Type: application/json; charset=UTF-8\r\n"
+            + "ETag: \"tag\"\r\n"
+            + "\r\n"
+            + "{\"error\":{\"code\":404}}\r\n"
+            + "--batch_pK7JBAk73-E=_AA5eFwv4m2Q=--\r\n";
+
+      List<HttpResponse> responses = MultipartMixed.parseResponses(
+            "multipart/mixed; boundary=batch_pK7JBAk73-E=_AA5eFwv4m2Q=", Strings2.toInputStream(batchResponse));
+
+      assertEquals(responses.size(), 2);
+      assertEquals(responses.get(0).getStatusCode(), 204);
+      assertEquals(responses.get(0).getMessage(), "No Content");
+      assertEquals(responses.get(0).getFirstHeaderOrNull(MultipartMixed.CONTENT_ID), "<response-0>");
+      assertNull(responses.get(0).getPayload());
+      assertEquals(responses.get(1).getStatusCode(), 404);
+      assertEquals(responses.get(1).getFirstHeaderOrNull("ETag"), "\"tag\"");
+      assertEquals(responses.get(1).getFirstHeaderOrNull(MultipartMixed.CONTENT_ID), "<response-1>");
+      assertEquals(responses.get(1).getPayload().getContentMetadata().getContentType(),
+            "application/json; charset=UTF-8");
+      assertEquals(Strings2.toStringAndClose(responses.get(1).getPayload().openStream()), "{\"error\":{\"code\":404}}");
+   }
+
+   public void testParseResponsesWithQuotedBoundaryAndBareLineFeeds() throws IOException {
+      String batchResponse = "--batchresponse_1\n"
+            + "Content-Type: application/http\n"
+            + "\n"
+            + "HTTP/1.1 202 Accepted\n"
+            + "x-ms-delete-type-permanent: true\n"
+            + "\n"
+            + "\n"
+            + "--batchresponse_1--\n";
+
+      List<HttpResponse> responses = MultipartMixed.parseResponses("multipart/mixed; boundary=\"batchresponse_1\"",
+            Strings2.toInputStream(batchResponse));
+
+      assertEquals(responses.size(), 1);
+      assertEquals(responses.get(0).getStatusCode(), 202);
+      assertEquals(responses.get(0).getFirstHeaderOrNull("x-ms-delete-type-permanent"), "true");
+      assertNull(responses.get(0).getPayload());
+   }
+
+   public void testRandomBoundary() throws IOException {
+      List<HttpRequest> requests = ImmutableList.of(
+            HttpRequest.builder().method("DELETE").endpoint("https://host/b/bucket/o/a").build());
+      MultipartMixed batch = new MultipartMixed(requests);
+      String contentType = batch.getContentMetadata().getContentType();
+      String boundary = contentType.substring(contentType.indexOf('=') + 1);
+
+      assertTrue(boundary.startsWith("batch_"), contentType);
+      assertTrue(Strings2.toStringAndClose(batch.openStream()).startsWith("--" + boundary + "\r\n"));
+      assertNotEquals(new MultipartMixed(requests).getContentMetadata().getContentType(), contentType);
+   }
+
+   public void testInRequestOrderMatchesContentId() {
+      HttpResponse second = HttpResponse.builder().statusCode(404).addHeader(MultipartMixed.CONTENT_ID, "<response-1>")
+            .build();
+      HttpResponse first = HttpResponse.builder().statusCode(204).addHeader(MultipartMixed.CONTENT_ID, "0").build();
+
+      assertEquals(MultipartMixed.inRequestOrder(2, ImmutableList.of(second, first)), ImmutableList.of(first, second));
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testInRequestOrderFailsOnMissingResponse() {
+      MultipartMixed.inRequestOrder(2, ImmutableList.of(
+            HttpResponse.builder().statusCode(204).addHeader(MultipartMixed.CONTENT_ID, "0").build()));
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testInRequestOrderFailsOnDuplicateContentId() {
+      HttpResponse response = HttpResponse.builder().statusCode(204).addHeader(MultipartMixed.CONTENT_ID, "0").build();
+      MultipartMixed.inRequestOrder(2, ImmutableList.of(response, response));
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testInRequestOrderFailsWithoutContentId() {
+      MultipartMixed.inRequestOrder(1, ImmutableList.of(HttpResponse.builder().statusCode(204).build()));
+   }
+}
@@ -19,14 +19,21 @@ package org.jclouds.json;
 import static com.google.common.io.BaseEncoding.base16;
 import static com.google.common.primitives.Bytes.asList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.json.config.GsonModule;
@@ -34,6 +41,7 @@ import org.jclouds.json.config.GsonModule.DefaultExclusionStrategy;
 import org.testng.annotations.Test;
 
 import com.google.auto.value.AutoValue;
+import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -390,6 +398,48 @@ public class JsonTest {
       assertEquals(json.fromJson("{\"id\":\"1234\",\"count\":1}", NestedSerializedNamesType.class), nested);
    }
 
+   public void testFromJsonArrayTopLevel() {
+      Iterator<ObjectNoDefaultConstructor> elements = json.fromJsonArray(
+            utf8("[{\"stringValue\":\"h\u00e9llo\",\"intValue\":1},{\"stringValue\":\"\u4e16\u754c\",\"intValue\":2}]"),
+            ObjectNoDefaultConstructor.class);
+      assertEquals(ImmutableList.copyOf(elements), ImmutableList.of(
+            new ObjectNoDefaultConstructor("h\u00e9llo", 1), new ObjectNoDefaultConstructor("\u4e16\u754c", 2)));
+   }
+
+   public void testFromJsonArrayNamed() {
+      Iterator<String> elements = json.fromJsonArray(
+            utf8("{\"meta\":{\"count\":2},\"servers\":[\"a\",\"b\"],\"ids\":[\"x\"]}"),
+            String.class, "ids", "servers");
+      assertEquals(ImmutableList.copyOf(elements), ImmutableList.of("a", "b"));
+   }
+
+   public void testFromJsonArrayMissingOrNull() {
+      assertFalse(json.fromJsonArray(utf8("{\"servers\":[\"a\"]}"), String.class, "images").hasNext());
+      assertFalse(json.fromJsonArray(utf8("{\"servers\":null}"), String.class, "servers").hasNext());
+      assertFalse(json.fromJsonArray(utf8("null"), String.class).hasNext());
+   }
+
+   public void testFromJsonArrayClosesStreamWhenExhausted() {
+      final AtomicBoolean closed = new AtomicBoolean();
+      InputStream stream = new FilterInputStream(utf8("[1,2]")) {
+         @Override
+         public void close() throws IOException {
+            closed.set(true);
+            super.close();
+         }
+      };
+      Iterator<Integer> elements = json.fromJsonArray(stream, Integer.class);
+      assertEquals(elements.next(), Integer.valueOf(1));
+      assertFalse(closed.get());
+      assertEquals(elements.next(), Integer.valueOf(2));
+      assertFalse(elements.hasNext());
+      assertTrue(closed.get());
+   }
+
+   private static InputStream utf8(String json) {
+      return new ByteArrayInputStream(json.getBytes(Charsets.UTF_8));
+   }
+
    private class NestedSerializedNamesTypeAdapterFactory extends TypeAdapter<NestedSerializedNamesType>
          implements TypeAdapterFactory {
 
@@ -20,8 +20,12 @@ import static com.google.common.base.Suppliers.ofInstance;
 import static com.google.common.util.concurrent.Atomics.newReference;
 import static org.testng.Assert.assertEquals;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -125,6 +129,48 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplierTest {
       assertEquals(handler.count.get(), 2);
    }
 
+   @Test
+   public void testServesStaleValueWhileReloadingInBackground() {
+      AtomicReference<AuthorizationException> authException = newReference();
+      final AtomicInteger loads = new AtomicInteger();
+      final AtomicBoolean fail = new AtomicBoolean();
+      final Queue<Runnable> reloads = new ConcurrentLinkedQueue<Runnable>();
+
+      Supplier<String> supplier = MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
+            new Supplier<String>() {
+               public String get() {
+                  if (fail.get())
+                     throw new IllegalStateException("reload failed");
+                  return "v" + loads.incrementAndGet();
+               }
+            }, 100, 10000, TimeUnit.MILLISECONDS, new Executor() {
+               public void execute(Runnable command) {
+                  reloads.add(command);
+               }
+            }, new ValueLoadedCallback.NoOpCallback<String>());
+
+      assertEquals(supplier.get(), "v1");
+      assertEquals(reloads.size(), 0);
+
+      // Once the interval elapsed, callers get the stale value and only one reload is started
+      Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+      assertEquals(supplier.get(), "v1");
+      assertEquals(supplier.get(), "v1");
+      assertEquals(reloads.size(), 1);
+
+      reloads.poll().run();
+      assertEquals(supplier.get(), "v2");
+      assertEquals(reloads.size(), 0);
+
+      // A failed reload keeps the last value
+      Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+      fail.set(true);
+      assertEquals(supplier.get(), "v2");
+      reloads.poll().run();
+      assertEquals(supplier.get(), "v2");
+      assertEquals(authException.get(), null);
+   }
+
    static class ValueLoadedEventHandler implements ValueLoadedCallback<String>{
       AtomicInteger count = new AtomicInteger(0);
 
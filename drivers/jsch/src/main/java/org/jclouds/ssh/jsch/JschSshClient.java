@@ -36,6 +36,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ConnectException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
@@ -50,8 +51,10 @@ import org.jclouds.io.Payloads;
 import org.jclouds.logging.Logger;
 import org.jclouds.proxy.ProxyConfig;
 import org.jclouds.rest.AuthorizationException;
-import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.PipelinedSshClient;
 import org.jclouds.ssh.SshException;
+import org.jclouds.ssh.StreamingSshClient;
+import org.jclouds.ssh.TransferOptions;
 import org.jclouds.util.Closeables2;
 import org.jclouds.util.Strings2;
 
@@ -61,18 +64,20 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.base.Splitter;
 import com.google.common.base.Supplier;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.HostAndPort;
 import com.google.inject.Inject;
 import com.jcraft.jsch.ChannelExec;
 import com.jcraft.jsch.ChannelSftp;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpProgressMonitor;
 import com.jcraft.jsch.agentproxy.Connector;
 
 /**
  * This class needs refactoring. It is not thread safe.
  */
-public class JschSshClient implements SshClient {
+public class JschSshClient implements PipelinedSshClient, StreamingSshClient {
 
    private static final class CloseFtpChannelOnCloseInputStream extends FilterInputStream {
 
@@ -222,12 +227,51 @@ public class JschSshClient implements SshClient {
       }
    };
 
+   /**
+    * Adapts jsch progress callbacks to a {@link TransferOptions.ProgressListener}.
+    */
+   private static final class ReportProgress implements SftpProgressMonitor {
+      private final String path;
+      private final TransferOptions.ProgressListener listener;
+      private long total;
+      private long transferred;
+
+      private ReportProgress(String path, long total, TransferOptions.ProgressListener listener) {
+         this.path = path;
+         this.total = total;
+         this.listener = listener;
+      }
+
+      @Override
+      public void init(int op, String src, String dest, long max) {
+         if (total < 0 && max != SftpProgressMonitor.UNKNOWN_SIZE)
+            total = max;
+      }
+
+      @Override
+      public boolean count(long count) {
+         transferred += count;
+         listener.progress(path, transferred, total);
+         return true;
+      }
+
+      @Override
+      public void end() {
+      }
+   }
+
    class GetConnection implements Connection<Payload> {
       private final String path;
+      private final TransferOptions options;
       private ChannelSftp sftp;
 
       GetConnection(String path) {
+         this(path, null);
+      }
+
+      GetConnection(String path, TransferOptions options) {
          this.path = checkNotNull(path, "path");
+         this.options = options;
       }
 
       @Override
@@ -239,7 +283,14 @@ public class JschSshClient implements SshClient {
       @Override
       public Payload create() throws Exception {
          sftp = acquire(sftpConnection);
-         return Payloads.newInputStreamPayload(new CloseFtpChannelOnCloseInputStream(sftp.get(path), sftp));
+         InputStream in;
+         if (options == null) {
+            in = sftp.get(path);
+         } else {
+            sftp.setBulkRequests(options.getMaxOutstandingRequests());
+            in = sftp.get(path, new ReportProgress(path, -1, options.getProgressListener()));
+         }
+         return Payloads.newInputStreamPayload(new CloseFtpChannelOnCloseInputStream(in, sftp));
       }
 
       @Override
@@ -252,14 +303,30 @@ public class JschSshClient implements SshClient {
       return acquire(new GetConnection(path));
    }
 
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Jsch keeps {@link TransferOptions#getMaxOutstandingRequests()} requests in flight on a single channel.
+    */
+   @Override
+   public Payload get(String path, TransferOptions options) {
+      return acquire(new GetConnection(path, checkNotNull(options, "options")));
+   }
+
    class PutConnection implements Connection<Void> {
       private final String path;
       private final Payload contents;
+      private final TransferOptions options;
       private ChannelSftp sftp;
 
       PutConnection(String path, Payload contents) {
+         this(path, contents, null);
+      }
+
+      PutConnection(String path, Payload contents, TransferOptions options) {
          this.path = checkNotNull(path, "path");
          this.contents = checkNotNull(contents, "contents");
+         this.options = options;
       }
 
       @Override
@@ -273,7 +340,14 @@ public class JschSshClient implements SshClient {
          sftp = acquire(sftpConnection);
          InputStream is = checkNotNull(contents.getInput(), "inputstream for path %s", path);
          try {
-            sftp.put(is, path);
+            if (options == null) {
+               sftp.put(is, path);
+            } else {
+               Long length = contents.getContentMetadata().getContentLength();
+               sftp.setBulkRequests(options.getMaxOutstandingRequests());
+               sftp.put(is, path, new ReportProgress(path, length != null ? length : -1,
+                     options.getProgressListener()));
+            }
          } finally {
             Closeables2.closeQuietly(is);
          }
@@ -291,6 +365,16 @@ public class JschSshClient implements SshClient {
       acquire(new PutConnection(path, contents));
    }
 
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Jsch keeps {@link TransferOptions#getMaxOutstandingRequests()} requests in flight on a single channel.
+    */
+   @Override
+   public void put(String path, Payload contents, TransferOptions options) {
+      acquire(new PutConnection(path, contents, checkNotNull(options, "options")));
+   }
+
    @VisibleForTesting
    boolean shouldRetry(Exception from) {
       Predicate<Throwable> predicate = retryAuth ? Predicates.<Throwable> or(retryPredicate,
@@ -442,10 +526,81 @@ public class JschSshClient implements SshClient {
       }
    }
 
+   /**
+    * Copies standard error on its own thread, so that a full standard error pipe can't stall standard output. Both
+    * copies block on the channel until data arrives or the command closes it.
+    */
+   class StreamingExecConnection implements Connection<ExecResponse> {
+      private final String command;
+      private final OutputStream stdout;
+      private final OutputStream stderr;
+      private ChannelExec executor;
+
+      StreamingExecConnection(String command, OutputStream stdout, OutputStream stderr) {
+         this.command = checkNotNull(command, "command");
+         this.stdout = checkNotNull(stdout, "stdout");
+         this.stderr = checkNotNull(stderr, "stderr");
+      }
+
+      @Override
+      public void clear() {
+         if (executor != null)
+            executor.disconnect();
+      }
+
+      @Override
+      public ExecResponse create() throws Exception {
+         try {
+            ConnectionWithStreams<ChannelExec> connection = execConnection(command);
+            executor = acquire(connection);
+            final InputStream err = connection.getErrStream();
+            final AtomicReference<IOException> stderrFailure = new AtomicReference<IOException>();
+            Thread stderrCopier = new Thread(new Runnable() {
+               @Override
+               public void run() {
+                  try {
+                     ByteStreams.copy(err, stderr);
+                  } catch (IOException e) {
+                     stderrFailure.set(e);
+                  }
+               }
+            }, "stderr " + toString());
+            stderrCopier.setDaemon(true);
+            stderrCopier.start();
+            ByteStreams.copy(connection.getInputStream(), stdout);
+            stderrCopier.join();
+            if (stderrFailure.get() != null)
+               throw stderrFailure.get();
+            int errorStatus = executor.getExitStatus();
+            int i = 0;
+            String message = String.format("bad status -1 %s", toString());
+            while ((errorStatus = executor.getExitStatus()) == -1 && i < JschSshClient.this.sshRetries) {
+               logger.warn("<< " + message);
+               backoffForAttempt(++i, message);
+            }
+            if (errorStatus == -1)
+               throw new SshException(message);
+            return new ExecResponse("", "", errorStatus);
+         } finally {
+            clear();
+         }
+      }
+
+      @Override
+      public String toString() {
+         return "ExecResponse(command=[" + command + "], streaming)";
+      }
+   }
+
    public ExecResponse exec(String command) {
       return acquire(new ExecConnection(command));
    }
 
+   @Override
+   public ExecResponse exec(String command, OutputStream stdout, OutputStream stderr) {
+      return acquire(new StreamingExecConnection(command, stdout, stderr));
+   }
+
    @Override
    public String getHostAddress() {
       return this.host;
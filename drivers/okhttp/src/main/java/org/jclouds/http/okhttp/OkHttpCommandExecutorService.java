@@ -17,6 +17,7 @@
 package org.jclouds.http.okhttp;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.google.common.net.HttpHeaders.ACCEPT;
 import static com.google.common.net.HttpHeaders.USER_AGENT;
 import static org.jclouds.Constants.PROPERTY_IDEMPOTENT_METHODS;
@@ -41,7 +42,7 @@ import org.jclouds.http.HttpUtils;
 import org.jclouds.http.IOExceptionRetryHandler;
 import org.jclouds.http.handlers.DelegatingErrorHandler;
 import org.jclouds.http.handlers.DelegatingRetryHandler;
-import org.jclouds.http.internal.BaseHttpCommandExecutorService;
+import org.jclouds.http.internal.BaseAsyncHttpCommandExecutorService;
 import org.jclouds.http.internal.HttpWire;
 import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.io.MutableContentMetadata;
@@ -50,7 +51,11 @@ import org.jclouds.io.Payload;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableMultimap.Builder;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.inject.Inject;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Callback;
 import com.squareup.okhttp.Headers;
 import com.squareup.okhttp.MediaType;
 import com.squareup.okhttp.OkHttpClient;
@@ -58,7 +63,7 @@ import com.squareup.okhttp.Request;
 import com.squareup.okhttp.RequestBody;
 import com.squareup.okhttp.Response;
 
-public final class OkHttpCommandExecutorService extends BaseHttpCommandExecutorService<Request> {
+public final class OkHttpCommandExecutorService extends BaseAsyncHttpCommandExecutorService<Request> {
    private final Function<URI, Proxy> proxyForURI;
    private final OkHttpClient globalClient;
    private final String userAgent;
@@ -147,11 +152,54 @@ public final class OkHttpCommandExecutorService extends BaseHttpCommandExecutorS
 
    @Override
    protected HttpResponse invoke(Request nativeRequest) throws IOException, InterruptedException {
+      return toHttpResponse(newCall(nativeRequest).execute());
+   }
+
+   @Override
+   protected ListenableFuture<HttpResponse> invokeAsync(Request nativeRequest) {
+      final SettableFuture<HttpResponse> future = SettableFuture.create();
+      final Call call;
+      try {
+         call = newCall(nativeRequest);
+      } catch (IOException e) {
+         future.setException(e);
+         return future;
+      }
+      call.enqueue(new Callback() {
+         @Override
+         public void onFailure(Request request, IOException e) {
+            future.setException(e);
+         }
+
+         @Override
+         public void onResponse(Response response) {
+            try {
+               future.set(toHttpResponse(response));
+            } catch (IOException e) {
+               future.setException(e);
+            } catch (RuntimeException e) {
+               future.setException(e);
+            }
+         }
+      });
+      future.addListener(new Runnable() {
+         @Override
+         public void run() {
+            if (future.isCancelled()) {
+               call.cancel();
+            }
+         }
+      }, directExecutor());
+      return future;
+   }
+
+   private Call newCall(Request nativeRequest) throws IOException {
       OkHttpClient requestScopedClient = globalClient.clone();
       requestScopedClient.setProxy(proxyForURI.apply(nativeRequest.uri()));
+      return requestScopedClient.newCall(nativeRequest);
+   }
 
-      Response response = requestScopedClient.newCall(nativeRequest).execute();
-
+   private HttpResponse toHttpResponse(Response response) throws IOException {
       HttpResponse.Builder<?> builder = HttpResponse.builder();
       builder.statusCode(response.code());
       builder.message(response.message());
@@ -22,6 +22,7 @@ import javax.inject.Named;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 
+import org.jclouds.http.AsyncHttpCommandExecutorService;
 import org.jclouds.http.HttpCommandExecutorService;
 import org.jclouds.http.HttpUtils;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
@@ -39,7 +40,9 @@ import com.squareup.okhttp.OkHttpClient;
 /**
  * Configures the {@link OkHttpCommandExecutorService}.
  *
- * Note that this uses threads.
+ * Note that this uses threads. {@link AsyncHttpCommandExecutorService} retries are scheduled on the jclouds scheduler
+ * when the context binds one, for example through the
+ * {@link org.jclouds.concurrent.config.ScheduledExecutorServiceModule}.
  */
 @ConfiguresHttpCommandExecutorService
 public class OkHttpCommandExecutorServiceModule extends AbstractModule {
@@ -47,7 +50,9 @@ public class OkHttpCommandExecutorServiceModule extends AbstractModule {
    @Override
    protected void configure() {
       install(new SSLModule());
-      bind(HttpCommandExecutorService.class).to(OkHttpCommandExecutorService.class).in(Scopes.SINGLETON);
+      bind(OkHttpCommandExecutorService.class).in(Scopes.SINGLETON);
+      bind(HttpCommandExecutorService.class).to(OkHttpCommandExecutorService.class);
+      bind(AsyncHttpCommandExecutorService.class).to(OkHttpCommandExecutorService.class);
       bind(OkHttpClient.class).toProvider(OkHttpClientProvider.class).in(Scopes.SINGLETON);
    }
 
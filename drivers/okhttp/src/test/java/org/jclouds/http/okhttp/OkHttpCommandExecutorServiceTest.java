@@ -18,32 +18,52 @@ package org.jclouds.http.okhttp;
 
 import static org.jclouds.Constants.PROPERTY_MAX_CONNECTIONS_PER_CONTEXT;
 import static org.jclouds.Constants.PROPERTY_MAX_CONNECTIONS_PER_HOST;
+import static org.jclouds.Constants.PROPERTY_SCHEDULER_THREADS;
 import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 import static org.jclouds.util.Closeables2.closeQuietly;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 import java.io.Closeable;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 
+import org.jclouds.ContextBuilder;
+import org.jclouds.concurrent.config.ScheduledExecutorServiceModule;
+import org.jclouds.http.AsyncHttpCommandExecutorService;
 import org.jclouds.http.BaseHttpCommandExecutorServiceIntegrationTest;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
 import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.IntegrationTestClient;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
 import org.jclouds.http.okhttp.config.OkHttpCommandExecutorServiceModule;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.providers.AnonymousProviderMetadata;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.PATCH;
 import org.jclouds.rest.binders.BindToStringPayload;
+import org.jclouds.util.Strings2;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.name.Names;
 import com.squareup.okhttp.ConnectionSpec;
 import com.squareup.okhttp.OkHttpClient;
 import com.squareup.okhttp.TlsVersion;
@@ -80,6 +100,74 @@ public class OkHttpCommandExecutorServiceTest extends BaseHttpCommandExecutorSer
       String patchNothing(@PathParam("id") String id);
    }
 
+   private Injector injector(String url) {
+      return injector(url, new ScheduledExecutorServiceModule());
+   }
+
+   private Injector injector(String url, Module... modules) {
+      Properties properties = new Properties();
+      addOverrideProperties(properties);
+      return ContextBuilder.newBuilder(AnonymousProviderMetadata.forApiOnEndpoint(IntegrationTestClient.class, url))
+            .modules(ImmutableSet.<Module> builder().add(createConnectionModule()).add(modules).build())
+            .overrides(properties).buildInjector();
+   }
+
+   @Test
+   public void testSubmitIsRetriedOnFailure() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(500),
+            new MockResponse().setBody("foo"));
+      String url = server.getUrl("/").toString();
+      Injector injector = injector(url);
+      try {
+         HttpResponse response = injector.getInstance(AsyncHttpCommandExecutorService.class)
+               .submit(new HttpCommand(HttpRequest.builder().method("GET").endpoint(url).build())).get();
+         assertEquals(server.getRequestCount(), 2);
+         assertEquals(response.getStatusCode(), 200);
+         assertEquals(Strings2.toStringAndClose(response.getPayload().openStream()), "foo");
+      } finally {
+         injector.getInstance(Closer.class).close();
+         server.shutdown();
+      }
+   }
+
+   @Test
+   public void testSubmitIsRetriedOnFailureWithoutScheduler() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(500),
+            new MockResponse().setBody("foo"));
+      String url = server.getUrl("/").toString();
+      Injector injector = injector(url, new Module[0]);
+      try {
+         assertNull(injector.getExistingBinding(Key.get(ScheduledExecutorService.class,
+               Names.named(PROPERTY_SCHEDULER_THREADS))), "the okhttp module must not bind a scheduler");
+         HttpResponse response = injector.getInstance(AsyncHttpCommandExecutorService.class)
+               .submit(new HttpCommand(HttpRequest.builder().method("GET").endpoint(url).build())).get();
+         assertEquals(server.getRequestCount(), 2);
+         assertEquals(response.getStatusCode(), 200);
+         assertEquals(Strings2.toStringAndClose(response.getPayload().openStream()), "foo");
+      } finally {
+         injector.getInstance(Closer.class).close();
+         server.shutdown();
+      }
+   }
+
+   @Test
+   public void testSubmitFailsWithErrorHandlerException() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(404));
+      String url = server.getUrl("/").toString();
+      Injector injector = injector(url);
+      try {
+         injector.getInstance(AsyncHttpCommandExecutorService.class)
+               .submit(new HttpCommand(HttpRequest.builder().method("GET").endpoint(url).build())).get();
+         fail("Expected the 404 to fail the future");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof HttpResponseException, "unexpected cause: " + e.getCause());
+         assertEquals(server.getRequestCount(), 1);
+      } finally {
+         injector.getInstance(Closer.class).close();
+         server.shutdown();
+      }
+   }
+
    @Test
    public void testPatch() throws Exception {
       MockWebServer server = mockWebServer(new MockResponse().setBody("fooPATCH"));
@@ -33,21 +33,32 @@ import java.io.Closeable;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.inject.Named;
 
+import net.schmizz.concurrent.Event;
 import net.schmizz.sshj.SSHClient;
 import net.schmizz.sshj.common.IOUtils;
+import net.schmizz.sshj.common.LoggerFactory;
+import net.schmizz.sshj.common.StreamCopier;
 import net.schmizz.sshj.connection.ConnectionException;
 import net.schmizz.sshj.connection.channel.direct.PTYMode;
 import net.schmizz.sshj.connection.channel.direct.Session;
 import net.schmizz.sshj.connection.channel.direct.Session.Command;
 import net.schmizz.sshj.connection.channel.direct.SessionChannel;
+import net.schmizz.sshj.sftp.OpenMode;
 import net.schmizz.sshj.sftp.RemoteFile;
 import net.schmizz.sshj.sftp.SFTPClient;
 import net.schmizz.sshj.sftp.SFTPException;
@@ -55,6 +66,7 @@ import net.schmizz.sshj.transport.TransportException;
 import net.schmizz.sshj.userauth.UserAuthException;
 import net.schmizz.sshj.xfer.InMemorySourceFile;
 
+import org.jclouds.Constants;
 import org.jclouds.compute.domain.ExecChannel;
 import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.domain.LoginCredentials;
@@ -63,8 +75,10 @@ import org.jclouds.io.Payload;
 import org.jclouds.io.Payloads;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.AuthorizationException;
-import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.PipelinedSshClient;
 import org.jclouds.ssh.SshException;
+import org.jclouds.ssh.StreamingSshClient;
+import org.jclouds.ssh.TransferOptions;
 import org.jclouds.util.Closeables2;
 import org.jclouds.util.Throwables2;
 
@@ -76,7 +90,12 @@ import com.google.common.base.Splitter;
 import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
 import com.jcraft.jsch.agentproxy.Connector;
 
@@ -84,7 +103,7 @@ import com.jcraft.jsch.agentproxy.Connector;
  * This class needs refactoring. It is not thread safe.
  */
 @SuppressWarnings("unchecked")
-public class SshjSshClient implements SshClient {
+public class SshjSshClient implements PipelinedSshClient, StreamingSshClient {
 
    private static final class CloseFtpChannelOnCloseInputStream extends FilterInputStream {
 
@@ -133,6 +152,19 @@ public class SshjSshClient implements SshClient {
    @Named("jclouds.ssh")
    protected Logger logger = Logger.NULL;
 
+   /**
+    * Runs the extra channels of a {@link #put(String, Payload, TransferOptions) split upload}. Uploads use a single
+    * channel when it isn't available.
+    */
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_USER_THREADS)
+   @VisibleForTesting
+   ListeningExecutorService userExecutor;
+
+   private static final long MIN_CHANNEL_RANGE = 1024 * 1024;
+
+   private static final int PIPELINED_WRITE_BUFFER = 64 * 1024;
+
    @VisibleForTesting
    SSHClientConnection sshClientConnection;
    
@@ -254,12 +286,52 @@ public class SshjSshClient implements SshClient {
       }
    };
 
+   /**
+    * Reports bytes read to a {@link TransferOptions.ProgressListener}.
+    */
+   private static final class ReportProgressInputStream extends FilterInputStream {
+      private final String path;
+      private final long total;
+      private final TransferOptions.ProgressListener listener;
+      private long transferred;
+
+      private ReportProgressInputStream(InputStream in, String path, long total,
+            TransferOptions.ProgressListener listener) {
+         super(in);
+         this.path = path;
+         this.total = total;
+         this.listener = listener;
+      }
+
+      @Override
+      public int read() throws IOException {
+         int read = super.read();
+         if (read != -1)
+            listener.progress(path, ++transferred, total);
+         return read;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         int read = super.read(b, off, len);
+         if (read > 0)
+            listener.progress(path, transferred += read, total);
+         return read;
+      }
+   }
+
    class GetConnection implements Connection<Payload> {
       private final String path;
+      private final TransferOptions options;
       private SFTPClient sftp;
 
       GetConnection(String path) {
+         this(path, null);
+      }
+
+      GetConnection(String path, TransferOptions options) {
          this.path = checkNotNull(path, "path");
+         this.options = options;
       }
 
       @Override
@@ -272,16 +344,31 @@ public class SshjSshClient implements SshClient {
       public Payload create() throws Exception {
          sftp = acquire(sftpConnection);
          final RemoteFile remoteFile = sftp.getSFTPEngine().open(path);
-         final InputStream in = remoteFile.new RemoteFileInputStream() {
-            @Override
-            public void close() throws IOException {
-               try {
-                  super.close();
-               } finally {
-                  remoteFile.close();
+         InputStream in;
+         if (options == null) {
+            in = remoteFile.new RemoteFileInputStream() {
+               @Override
+               public void close() throws IOException {
+                  try {
+                     super.close();
+                  } finally {
+                     remoteFile.close();
+                  }
                }
-            }
-         };
+            };
+         } else {
+            in = remoteFile.new ReadAheadRemoteFileInputStream(options.getMaxOutstandingRequests()) {
+               @Override
+               public void close() throws IOException {
+                  try {
+                     super.close();
+                  } finally {
+                     remoteFile.close();
+                  }
+               }
+            };
+            in = new ReportProgressInputStream(in, path, remoteFile.length(), options.getProgressListener());
+         }
          return Payloads.newInputStreamPayload(new CloseFtpChannelOnCloseInputStream(in, sftp));
       }
 
@@ -295,6 +382,16 @@ public class SshjSshClient implements SshClient {
       return acquire(new GetConnection(path));
    }
 
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Reads ahead {@link TransferOptions#getMaxOutstandingRequests()} requests on a single channel.
+    */
+   @Override
+   public Payload get(String path, TransferOptions options) {
+      return acquire(new GetConnection(path, checkNotNull(options, "options")));
+   }
+
    class PutConnection implements Connection<Void> {
       private final String path;
       private final Payload contents;
@@ -355,6 +452,169 @@ public class SshjSshClient implements SshClient {
       acquire(new PutConnection(path, contents));
    }
 
+   /**
+    * Uploads a payload keeping several write requests in flight, optionally splitting it into ranges that are
+    * written concurrently over separate sftp channels.
+    */
+   class PipelinedPutConnection implements Connection<Void> {
+      private final String path;
+      private final Payload contents;
+      private final TransferOptions options;
+      private SFTPClient sftp;
+
+      PipelinedPutConnection(String path, Payload contents, TransferOptions options) {
+         this.path = checkNotNull(path, "path");
+         this.contents = checkNotNull(contents, "contents");
+         this.options = checkNotNull(options, "options");
+      }
+
+      @Override
+      public void clear() {
+         if (sftp != null)
+            try {
+               sftp.close();
+            } catch (IOException e) {
+               Throwables.propagate(e);
+            }
+      }
+
+      @Override
+      public Void create() throws Exception {
+         sftp = acquire(sftpConnection);
+         try {
+            Long length = contents.getContentMetadata().getContentLength();
+            long total = length != null ? length : -1;
+            AtomicLong transferred = new AtomicLong();
+            int channels = channelsFor(total);
+            if (channels == 1) {
+               writeRange(sftp, EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC), 0, -1, total,
+                     transferred);
+               return null;
+            }
+            openRange(sftp, EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC), 0).close();
+            long rangeSize = (total + channels - 1) / channels;
+            List<ListenableFuture<Void>> ranges = Lists.newArrayList();
+            for (int i = 1; i < channels; i++)
+               ranges.add(userExecutor.submit(writeRangeOnNewChannel(i * rangeSize,
+                     Math.min(rangeSize, total - i * rangeSize), total, transferred)));
+            ListenableFuture<List<Void>> others = Futures.allAsList(ranges);
+            try {
+               writeRange(sftp, EnumSet.of(OpenMode.WRITE), 0, rangeSize, total, transferred);
+               others.get();
+            } catch (ExecutionException e) {
+               throw Throwables.propagate(e.getCause());
+            } finally {
+               others.cancel(true);
+            }
+         } finally {
+            contents.release();
+         }
+         return null;
+      }
+
+      private int channelsFor(long total) {
+         if (options.getChannels() == 1 || userExecutor == null || total <= 0 || !contents.isRepeatable())
+            return 1;
+         return (int) Math.max(1, Math.min(options.getChannels(), total / MIN_CHANNEL_RANGE));
+      }
+
+      private Callable<Void> writeRangeOnNewChannel(final long offset, final long length, final long total,
+            final AtomicLong transferred) {
+         return new Callable<Void>() {
+            @Override
+            public Void call() throws IOException {
+               SFTPClient channel = sshClientConnection.ssh.newSFTPClient();
+               try {
+                  writeRange(channel, EnumSet.of(OpenMode.WRITE), offset, length, total, transferred);
+               } finally {
+                  Closeables2.closeQuietly(channel);
+               }
+               return null;
+            }
+         };
+      }
+
+      /**
+       * Writes {@code length} bytes of the payload starting at {@code offset}, or the rest of it when length is
+       * negative.
+       */
+      private void writeRange(SFTPClient sftp, Set<OpenMode> modes, long offset, long length, long total,
+            AtomicLong transferred) throws IOException {
+         OutputStream out = openRange(sftp, modes, offset);
+         InputStream in = null;
+         try {
+            in = checkNotNull(contents.openStream(), "inputstream for path %s", path);
+            ByteStreams.skipFully(in, offset);
+            if (length >= 0)
+               in = ByteStreams.limit(in, length);
+            byte[] buffer = new byte[PIPELINED_WRITE_BUFFER];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+               out.write(buffer, 0, read);
+               options.getProgressListener().progress(path, transferred.addAndGet(read), total);
+            }
+            // waits for the writes still in flight
+            out.close();
+         } finally {
+            Closeables2.closeQuietly(in);
+            Closeables2.closeQuietly(out);
+         }
+      }
+
+      /**
+       * Opens the remote file for writing at {@code offset}. Each write is sent as requests no larger than a packet,
+       * and closing the stream waits for them to be acknowledged before closing the file.
+       */
+      @VisibleForTesting
+      OutputStream openRange(SFTPClient sftp, Set<OpenMode> modes, long offset) throws IOException {
+         final RemoteFile file = sftp.getSFTPEngine().open(path, modes);
+         final int maxWrite = sftp.getSFTPEngine().getSubsystem().getRemoteMaxPacketSize()
+               - file.getOutgoingPacketOverhead();
+         return file.new RemoteFileOutputStream(offset, options.getMaxOutstandingRequests()) {
+            private boolean closed;
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+               while (len > 0) {
+                  int chunk = Math.min(len, maxWrite);
+                  super.write(b, off, chunk);
+                  off += chunk;
+                  len -= chunk;
+               }
+            }
+
+            @Override
+            public void close() throws IOException {
+               if (closed)
+                  return;
+               closed = true;
+               try {
+                  super.close();
+               } finally {
+                  file.close();
+               }
+            }
+         };
+      }
+
+      @Override
+      public String toString() {
+         return "PipelinedPut(path=[" + path + "], options=[" + options + "])";
+      }
+   };
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Keeps {@link TransferOptions#getMaxOutstandingRequests()} write requests in flight per channel. Repeatable
+    * payloads of known length are split over up to {@link TransferOptions#getChannels()} channels, with at least
+    * 1 MiB per channel.
+    */
+   @Override
+   public void put(String path, Payload contents, TransferOptions options) {
+      acquire(new PipelinedPutConnection(path, contents, options));
+   }
+
    @VisibleForTesting
    boolean shouldRetry(Exception from) {
       Predicate<Throwable> predicate = retryAuth ? Predicates.<Throwable> or(retryPredicate,
@@ -481,10 +741,59 @@ public class SshjSshClient implements SshClient {
       }
    }
 
+   /**
+    * Copies standard error on a background thread while standard output is copied on the calling one, so that
+    * neither stream stalls the channel waiting for the other to be read.
+    */
+   class StreamingExecConnection implements Connection<ExecResponse> {
+      private final String command;
+      private final OutputStream stdout;
+      private final OutputStream stderr;
+      private Session session;
+
+      StreamingExecConnection(String command, OutputStream stdout, OutputStream stderr) {
+         this.command = checkNotNull(command, "command");
+         this.stdout = checkNotNull(stdout, "stdout");
+         this.stderr = checkNotNull(stderr, "stderr");
+      }
+
+      @Override
+      public void clear() throws TransportException, ConnectionException {
+         if (session != null)
+            session.close();
+      }
+
+      @Override
+      public ExecResponse create() throws Exception {
+         try {
+            session = acquire(execConnection());
+            Command output = session.exec(command);
+            Event<IOException> stderrCopied = new StreamCopier(output.getErrorStream(), stderr, LoggerFactory.DEFAULT)
+                  .spawnDaemon("stderr of " + command);
+            ByteStreams.copy(output.getInputStream(), stdout);
+            stderrCopied.await(sshClientConnection.getSessionTimeout(), TimeUnit.MILLISECONDS);
+            output.join(sshClientConnection.getSessionTimeout(), TimeUnit.MILLISECONDS);
+            return new ExecResponse("", "", output.getExitStatus());
+         } finally {
+            clear();
+         }
+      }
+
+      @Override
+      public String toString() {
+         return "ExecResponse(command=[" + command + "], streaming)";
+      }
+   }
+
    public ExecResponse exec(String command) {
       return acquire(new ExecConnection(command));
    }
 
+   @Override
+   public ExecResponse exec(String command, OutputStream stdout, OutputStream stderr) {
+      return acquire(new StreamingExecConnection(command, stdout, stderr));
+   }
+
    protected Connection<Session> noPTYConnection() {
 
       return new Connection<Session>() {
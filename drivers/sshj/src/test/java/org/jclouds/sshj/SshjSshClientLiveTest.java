@@ -33,7 +33,9 @@ import org.jclouds.domain.LoginCredentials;
 import org.jclouds.io.Payload;
 import org.jclouds.io.Payloads;
 import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.jclouds.ssh.PipelinedSshClient;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.TransferOptions;
 import org.jclouds.sshj.config.SshjSshClientModule;
 import org.jclouds.util.Closeables2;
 import org.jclouds.util.Strings2;
@@ -67,7 +69,7 @@ public class SshjSshClientLiveTest {
                || ((sshPass == null || sshPass.trim().equals("")) && (sshKeyFile == null || sshKeyFile.trim()
                         .equals(""))) || sshUser.trim().equals("")) {
          System.err.println("ssh credentials not present.  Tests will be lame");
-         return new SshClient() {
+         return new PipelinedSshClient() {
 
             public void connect() {
             }
@@ -100,6 +102,16 @@ public class SshjSshClientLiveTest {
 
             }
 
+            @Override
+            public void put(String path, Payload contents, TransferOptions options) {
+               put(path, contents);
+            }
+
+            @Override
+            public Payload get(String path, TransferOptions options) {
+               return get(path);
+            }
+
             @Override
             public String getHostAddress() {
                return null;
@@ -160,6 +172,20 @@ public class SshjSshClientLiveTest {
       }
    }
 
+   public void testPutAndGetWithTransferOptions() throws IOException {
+      temp = File.createTempFile("foo", "bar");
+      try {
+         PipelinedSshClient client = PipelinedSshClient.class.cast(setupClient());
+         TransferOptions options = TransferOptions.Builder.maxOutstandingRequests(4).channels(2);
+         client.put(temp.getAbsolutePath(), Payloads.newStringPayload("rabbit"), options);
+         Payload input = client.get(temp.getAbsolutePath(), options);
+         String contents = Strings2.toStringAndClose(input.openStream());
+         assertEquals(contents, "rabbit");
+      } finally {
+         temp.delete();
+      }
+   }
+
    public void testGetEtcPassword() throws IOException {
       Payload input = setupClient().get("/etc/passwd");
       String contents = Strings2.toStringAndClose(input.openStream());
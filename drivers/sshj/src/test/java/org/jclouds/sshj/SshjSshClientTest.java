@@ -18,6 +18,7 @@ package org.jclouds.sshj;
 
 import static com.google.inject.name.Names.bindProperties;
 import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.createNiceMock;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
@@ -25,12 +26,22 @@ import static org.easymock.EasyMock.verify;
 import static org.testng.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import net.schmizz.sshj.SSHClient;
@@ -39,24 +50,34 @@ import net.schmizz.sshj.connection.ConnectionException;
 import net.schmizz.sshj.connection.channel.direct.PTYMode;
 import net.schmizz.sshj.connection.channel.direct.Session;
 import net.schmizz.sshj.connection.channel.direct.Session.Command;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.SFTPClient;
 import net.schmizz.sshj.sftp.SFTPException;
 import net.schmizz.sshj.transport.TransportException;
 import net.schmizz.sshj.userauth.UserAuthException;
 
 import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.domain.LoginCredentials;
+import org.jclouds.io.Payloads;
 import org.jclouds.logging.BufferLogger;
 import org.jclouds.logging.BufferLogger.Record;
 import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.TransferOptions;
 import org.jclouds.sshj.config.SshjSshClientModule;
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
@@ -249,4 +270,101 @@ public class SshjSshClientTest {
       verify(mockConnection, mockClient, session, command);
    }
 
+   public void testPipelinedPutSplitsPayloadIntoRangesAndReassemblesIt() throws Exception {
+      SshjSshClient client = createClient();
+      final SFTPClient sftp = createNiceMock(SFTPClient.class);
+      SSHClientConnection mockConnection = createNiceMock(SSHClientConnection.class);
+      net.schmizz.sshj.SSHClient mockClient = createNiceMock(net.schmizz.sshj.SSHClient.class);
+      expect(mockClient.newSFTPClient()).andReturn(sftp).anyTimes();
+      replay(sftp, mockConnection, mockClient);
+      mockConnection.ssh = mockClient;
+      client.sshClientConnection = mockConnection;
+      client.sftpConnection = new SshjSshClient.Connection<SFTPClient>() {
+         @Override
+         public void clear() {
+         }
+
+         @Override
+         public SFTPClient create() {
+            return sftp;
+         }
+      };
+      ExecutorService threads = Executors.newFixedThreadPool(3);
+      client.userExecutor = MoreExecutors.listeningDecorator(threads);
+
+      final byte[] source = new byte[3 * 1024 * 1024 + 5];
+      new Random(42).nextBytes(source);
+      final byte[] remote = new byte[source.length];
+      final Set<Long> offsets = Collections.synchronizedSet(Sets.<Long> newTreeSet());
+      final AtomicLong lastProgress = new AtomicLong();
+      TransferOptions options = TransferOptions.Builder.channels(4).progressListener(
+            new TransferOptions.ProgressListener() {
+               @Override
+               public void progress(String path, long transferred, long total) {
+                  assertEquals(total, source.length);
+                  synchronized (lastProgress) {
+                     lastProgress.set(Math.max(lastProgress.get(), transferred));
+                  }
+               }
+            });
+
+      try {
+         client.new PipelinedPutConnection("/tmp/big", Payloads.newByteArrayPayload(source), options) {
+            @Override
+            OutputStream openRange(SFTPClient channel, Set<OpenMode> modes, final long offset) {
+               if (modes.contains(OpenMode.TRUNC))
+                  return ByteStreams.nullOutputStream();
+               offsets.add(offset);
+               return new OutputStream() {
+                  private long position = offset;
+
+                  @Override
+                  public void write(int b) {
+                     remote[(int) position++] = (byte) b;
+                  }
+               };
+            }
+         }.create();
+      } finally {
+         threads.shutdown();
+      }
+
+      long rangeSize = (source.length + 2) / 3;
+      assertEquals(offsets, ImmutableSet.of(0L, rangeSize, 2 * rangeSize));
+      assertEquals(remote, source);
+      assertEquals(lastProgress.get(), source.length);
+   }
+
+   public void testPipelinedPutUsesOneChannelForSmallPayloads() throws Exception {
+      SshjSshClient client = createClient();
+      final SFTPClient sftp = createNiceMock(SFTPClient.class);
+      replay(sftp);
+      client.sftpConnection = new SshjSshClient.Connection<SFTPClient>() {
+         @Override
+         public void clear() {
+         }
+
+         @Override
+         public SFTPClient create() {
+            return sftp;
+         }
+      };
+      client.userExecutor = MoreExecutors.sameThreadExecutor();
+      final List<Set<OpenMode>> opened = Lists.newArrayList();
+      final ByteArrayOutputStream remote = new ByteArrayOutputStream();
+
+      client.new PipelinedPutConnection("/tmp/small", Payloads.newStringPayload("rabbit"),
+            TransferOptions.Builder.channels(4)) {
+         @Override
+         OutputStream openRange(SFTPClient channel, Set<OpenMode> modes, long offset) {
+            assertEquals(offset, 0);
+            opened.add(modes);
+            return remote;
+         }
+      }.create();
+
+      assertEquals(opened, ImmutableList.of(EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC)));
+      assertEquals(new String(remote.toByteArray()), "rabbit");
+   }
+
 }
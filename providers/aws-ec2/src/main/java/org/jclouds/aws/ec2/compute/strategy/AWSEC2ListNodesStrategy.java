@@ -22,6 +22,7 @@ import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.toArray;
 import static com.google.common.collect.Iterables.transform;
+import static org.jclouds.ec2.compute.util.EC2ComputeUtils.listInRegionsParallel;
 
 import java.util.Set;
 
@@ -62,20 +63,19 @@ public class AWSEC2ListNodesStrategy extends EC2ListNodesStrategy {
 
    @Override
    protected Iterable<? extends RunningInstance> pollRunningInstances() {
-      Iterable<? extends AWSRunningInstance> spots = filter(transform(concat(transform(regions.get(),
-                                                                                       allSpotInstancesInRegion())),
-                                                                      spotConverter), notNull());
+      Iterable<? extends RunningInstance> superInsts = super.pollRunningInstances();
+      Iterable<? extends AWSRunningInstance> spots = filter(transform(listInRegionsParallel(regions.get(),
+            allSpotInstancesInRegion(), userExecutor, maxTime, logger, "spot instances"), spotConverter), notNull());
 
-      return concat(super.pollRunningInstances(), spots);
+      return concat(superInsts, spots);
    }
 
    @Override
    protected Iterable<? extends RunningInstance> pollRunningInstancesByRegionsAndIds(final Multimap<String, String> idsByRegions) {
-      Iterable<? extends AWSRunningInstance> spots = filter(transform(concat(transform(idsByRegions.keySet(),
-                                                                                       spotInstancesByIdInRegion(idsByRegions))),
-
-                                                                      spotConverter), notNull());
       Iterable<? extends RunningInstance> superInsts = super.pollRunningInstancesByRegionsAndIds(idsByRegions);
+      Iterable<? extends AWSRunningInstance> spots = filter(transform(listInRegionsParallel(idsByRegions.keySet(),
+            spotInstancesByIdInRegion(idsByRegions), userExecutor, maxTime, logger, "spot instances"), spotConverter),
+            notNull());
       return concat(superInsts, spots);
    }
 
@@ -74,9 +74,8 @@ public class AzureStorageClientErrorRetryHandler implements HttpRetryHandler {
                AzureStorageError error = utils.parseAzureStorageErrorFromContent(command, response,
                         new ByteArrayInputStream(content));
                if ("ContainerBeingDeleted".equals(error.getCode())) {
-                  backoffHandler.imposeBackoffExponentialDelay(100L, 3, retryCountLimit, command
-                           .getFailureCount(), command.toString());
-                  return true;
+                  return backoffHandler.imposeBackoffExponentialDelay(command, 100L, 3, retryCountLimit,
+                           command.toString());
                }
             } catch (HttpException e) {
                logger.warn(e, "error parsing response: %s", new String(content));
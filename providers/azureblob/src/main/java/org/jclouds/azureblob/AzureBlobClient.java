@@ -28,6 +28,7 @@ import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
 import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -40,6 +41,7 @@ import org.jclouds.azure.storage.filters.SharedKeyLiteAuthentication;
 import org.jclouds.azure.storage.options.ListOptions;
 import org.jclouds.azure.storage.reference.AzureStorageHeaders;
 import org.jclouds.azureblob.AzureBlobFallbacks.FalseIfContainerAlreadyExists;
+import org.jclouds.azureblob.binders.BindAzureBlobDeletesToBatchRequest;
 import org.jclouds.azureblob.binders.BindAzureBlobMetadataToRequest;
 import org.jclouds.azureblob.binders.BindAzureBlobMetadataToMultipartRequest;
 import org.jclouds.azureblob.binders.BindAzureBlocksToRequest;
@@ -71,15 +73,19 @@ import org.jclouds.blobstore.BlobStoreFallbacks.FalseOnKeyNotFound;
 import org.jclouds.blobstore.BlobStoreFallbacks.NullOnContainerNotFound;
 import org.jclouds.blobstore.BlobStoreFallbacks.NullOnKeyNotFound;
 import org.jclouds.blobstore.binders.BindMapToHeadersWithPrefix;
+import org.jclouds.http.HttpResponse;
 import org.jclouds.http.functions.ParseETagHeader;
+import org.jclouds.http.functions.ParseMultipartMixedResponses;
 import org.jclouds.http.options.GetOptions;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.Headers;
+import org.jclouds.rest.annotations.MapBinder;
 import org.jclouds.rest.annotations.ParamParser;
 import org.jclouds.rest.annotations.ParamValidators;
+import org.jclouds.rest.annotations.PayloadParam;
 import org.jclouds.rest.annotations.QueryParams;
 import org.jclouds.rest.annotations.RequestFilters;
 import org.jclouds.rest.annotations.ResponseParser;
@@ -455,6 +461,20 @@ public interface AzureBlobClient extends Closeable {
    void deleteBlob(
          @PathParam("container") @ParamValidators(ContainerNameValidator.class) String container,
          @PathParam("name") String name);
+
+   /**
+    * The Blob Batch operation deletes up to 256 blobs of a container with a single request.
+    *
+    * @return the response of each Delete Blob subrequest, in the order of {@code names}
+    */
+   @Named("BlobBatch")
+   @POST
+   @QueryParams(keys = "comp", values = "batch")
+   @MapBinder(BindAzureBlobDeletesToBatchRequest.class)
+   @ResponseParser(ParseMultipartMixedResponses.class)
+   List<HttpResponse> deleteBlobs(
+         @PayloadParam("container") @ParamValidators(ContainerNameValidator.class) String container,
+         @PayloadParam("names") Iterable<String> names);
    /**
     * @throws org.jclouds.blobstore.ContainerNotFoundException if the container is not present.
     */
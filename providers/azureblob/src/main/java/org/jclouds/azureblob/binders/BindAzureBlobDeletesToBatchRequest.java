@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.azureblob.binders;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.jclouds.azure.storage.filters.SharedKeyLiteAuthentication;
+import org.jclouds.azure.storage.reference.AzureStorageHeaders;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.io.payloads.MultipartMixed;
+import org.jclouds.rest.MapBinder;
+import org.jclouds.util.Strings2;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Binds one signed Delete Blob subrequest per name to a Blob Batch request.
+ *
+ * @see <a href="https://docs.microsoft.com/en-us/rest/api/storageservices/blob-batch" />
+ */
+public class BindAzureBlobDeletesToBatchRequest implements MapBinder {
+   /** Blob Batch was introduced with this version of the service. */
+   static final String BATCH_VERSION = "2018-11-09";
+
+   private final SharedKeyLiteAuthentication authentication;
+
+   @Inject
+   BindAzureBlobDeletesToBatchRequest(SharedKeyLiteAuthentication authentication) {
+      this.authentication = authentication;
+   }
+
+   @Override
+   public <R extends HttpRequest> R bindToRequest(R request, Map<String, Object> postParams) {
+      String container = checkNotNull(postParams.get("container"), "container").toString();
+      @SuppressWarnings("unchecked")
+      Iterable<String> names = (Iterable<String>) checkNotNull(postParams.get("names"), "names");
+
+      URI endpoint = request.getEndpoint();
+      String path = endpoint.getRawPath().endsWith("/") ? endpoint.getRawPath() : endpoint.getRawPath() + "/";
+      ImmutableList.Builder<HttpRequest> deletes = ImmutableList.builder();
+      for (String name : names) {
+         HttpRequest delete = HttpRequest.builder()
+               .method("DELETE")
+               .endpoint(URI.create(endpoint.getScheme() + "://" + endpoint.getRawAuthority() + path + container
+                     + "/" + Strings2.urlEncode(name, '/', '$')))
+               .build();
+         // each subrequest is authorized on its own
+         deletes.add(authentication.filter(delete).toBuilder().addHeader(HttpHeaders.CONTENT_LENGTH, "0").build());
+      }
+      return (R) request.toBuilder()
+            .replaceHeader(AzureStorageHeaders.VERSION, BATCH_VERSION)
+            .payload(new MultipartMixed(deletes.build()))
+            .build();
+   }
+
+   @Override
+   public <R extends HttpRequest> R bindToRequest(R request, Object input) {
+      throw new UnsupportedOperationException("use map form");
+   }
+}
@@ -51,6 +51,7 @@ import org.jclouds.azureblob.domain.PublicAccess;
 import org.jclouds.azureblob.options.CopyBlobOptions;
 import org.jclouds.azureblob.options.ListBlobsOptions;
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.BulkDeleteBlobStore;
 import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
@@ -71,6 +72,8 @@ import org.jclouds.blobstore.options.PutOptions;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.collect.Memoized;
 import org.jclouds.domain.Location;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
 import org.jclouds.http.options.GetOptions;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.MutableContentMetadata;
@@ -79,14 +82,19 @@ import org.jclouds.io.PayloadSlicer;
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.io.BaseEncoding;
 import com.google.common.primitives.Ints;
 import org.jclouds.io.ContentMetadataBuilder;
 import org.jclouds.io.Payload;
+import org.jclouds.io.payloads.MultipartMixed;
 
 @Singleton
-public class AzureBlobStore extends BaseBlobStore {
+public class AzureBlobStore extends BaseBlobStore implements BulkDeleteBlobStore {
+   /** Blob Batch accepts at most 256 subrequests. */
+   private static final int MAX_BATCH_DELETE_SIZE = 256;
+
    private final AzureBlobClient sync;
    private final ContainerToResourceMetadata container2ResourceMd;
    private final ListOptionsToListBlobsOptions blobStore2AzureContainerListOptions;
@@ -320,6 +328,44 @@ public class AzureBlobStore extends BaseBlobStore {
       sync.deleteBlob(container, key);
    }
 
+   /**
+    * This implementation invokes {@link AzureBlobClient#deleteBlobs} with batches of at most 256
+    * blobs, treating blobs which are already gone as deleted.
+    *
+    * @param container
+    *           container name
+    * @param names
+    *           blob keys
+    */
+   @Override
+   public void removeBlobs(String container, Iterable<String> names) {
+      for (List<String> batch : Iterables.partition(names, MAX_BATCH_DELETE_SIZE)) {
+         List<HttpResponse> responses = MultipartMixed.inRequestOrder(batch.size(), sync.deleteBlobs(container, batch));
+         for (int i = 0; i < responses.size(); i++) {
+            HttpResponse response = responses.get(i);
+            if (response.getStatusCode() / 100 != 2 && response.getStatusCode() != 404) {
+               throw new HttpResponseException("error removing blob " + container + "/" + batch.get(i), null,
+                     response);
+            }
+         }
+      }
+   }
+
+   @Override
+   public Set<String> tryRemoveBlobs(String container, Iterable<String> names) {
+      ImmutableSet.Builder<String> failed = ImmutableSet.builder();
+      for (List<String> batch : Iterables.partition(names, MAX_BATCH_DELETE_SIZE)) {
+         List<HttpResponse> responses = MultipartMixed.inRequestOrder(batch.size(), sync.deleteBlobs(container, batch));
+         for (int i = 0; i < responses.size(); i++) {
+            HttpResponse response = responses.get(i);
+            if (response.getStatusCode() / 100 != 2 && response.getStatusCode() != 404) {
+               failed.add(batch.get(i));
+            }
+         }
+      }
+      return failed.build();
+   }
+
    /**
     *  The Put Block operation creates a block blob on Azure which can be later assembled into
     *  a single, large blob object with the Put Block List operation.
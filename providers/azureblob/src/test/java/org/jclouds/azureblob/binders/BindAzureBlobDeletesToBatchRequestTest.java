@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.azureblob.binders;
+
+import static org.jclouds.reflect.Reflection2.method;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.jclouds.azure.storage.filters.SharedKeyLiteAuthentication;
+import org.jclouds.azureblob.AzureBlobClient;
+import org.jclouds.azureblob.AzureBlobProviderMetadata;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.functions.ParseMultipartMixedResponses;
+import org.jclouds.rest.internal.BaseRestAnnotationProcessingTest;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+import org.jclouds.util.Strings2;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.Invokable;
+
+@Test(groups = "unit", testName = "BindAzureBlobDeletesToBatchRequestTest")
+public class BindAzureBlobDeletesToBatchRequestTest extends BaseRestAnnotationProcessingTest<AzureBlobClient> {
+
+   public BindAzureBlobDeletesToBatchRequestTest() {
+      // this is base64 decoded when signing the subrequests
+      credential = "aaaabbbb";
+   }
+
+   public void testDeleteBlobs() throws IOException {
+      Invokable<?, ?> method = method(AzureBlobClient.class, "deleteBlobs", String.class, Iterable.class);
+      GeneratedHttpRequest request = processor.createRequest(method,
+            ImmutableList.<Object> of("container", ImmutableList.of("blob", "dir/blob 1")));
+
+      assertRequestLineEquals(request, "POST https://identity.blob.core.windows.net/?comp=batch HTTP/1.1");
+      assertNonPayloadHeadersEqual(request, "x-ms-version: " + BindAzureBlobDeletesToBatchRequest.BATCH_VERSION + "\n");
+      String contentType = request.getPayload().getContentMetadata().getContentType();
+      assertTrue(contentType.matches("multipart/mixed; boundary=batch_[0-9a-f-]{36}"), contentType);
+      assertResponseParserClassEquals(method, request, ParseMultipartMixedResponses.class);
+      checkFilters(request);
+
+      String body = Strings2.toStringAndClose(request.getPayload().openStream());
+      assertTrue(body.startsWith("--" + contentType.substring(contentType.indexOf('=') + 1) + "\r\n"), body);
+      assertTrue(body.contains("DELETE /container/blob HTTP/1.1\r\n"), body);
+      assertTrue(body.contains("DELETE /container/dir/blob%201 HTTP/1.1\r\n"), body);
+      assertTrue(body.contains("Authorization: SharedKeyLite identity:"), body);
+      assertTrue(body.contains("Content-Length: 0\r\n"), body);
+   }
+
+   @Override
+   protected void checkFilters(HttpRequest request) {
+      assertEquals(request.getFilters().size(), 1);
+      assertEquals(request.getFilters().get(0).getClass(), SharedKeyLiteAuthentication.class);
+   }
+
+   @Override
+   public AzureBlobProviderMetadata createProviderMetadata() {
+      return new AzureBlobProviderMetadata();
+   }
+}
@@ -26,7 +26,9 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
+import org.jclouds.Constants;
 import org.jclouds.b2.B2Api;
 import org.jclouds.b2.B2ResponseException;
 import org.jclouds.b2.domain.Action;
@@ -70,13 +72,17 @@ import org.jclouds.blobstore.options.PutOptions;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.collect.Memoized;
 import org.jclouds.domain.Location;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.ContentMetadataBuilder;
 import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.PayloadSlicer;
 import org.jclouds.io.payloads.BaseMutableContentMetadata;
+import org.jclouds.util.Throwables2;
 
+import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
@@ -93,12 +99,21 @@ public final class B2BlobStore extends BaseBlobStore {
    private final BlobToHttpGetOptions blob2ObjectGetOptions;
    private final LoadingCache<String, Bucket> bucketNameToBucket;
    private final Supplier<Authorization> auth;
+   private final UploadUrlPool<UploadUrlResponse> uploadUrls;
+   private final UploadUrlPool<GetUploadPartResponse> uploadPartUrls;
+   private final BackoffLimitedRetryHandler retryHandler;
+
+   @com.google.inject.Inject(optional = true)
+   @Named(Constants.PROPERTY_MAX_RETRIES)
+   private int retryCountLimit = 5;
 
    @Inject
    B2BlobStore(BlobStoreContext context, BlobUtils blobUtils, Supplier<Location> defaultLocation,
             @Memoized Supplier<Set<? extends Location>> locations, PayloadSlicer slicer, final B2Api api,
-            BlobToHttpGetOptions blob2ObjectGetOptions, @Memoized Supplier<Authorization> auth) {
+            BlobToHttpGetOptions blob2ObjectGetOptions, @Memoized Supplier<Authorization> auth,
+            BackoffLimitedRetryHandler retryHandler) {
       super(context, blobUtils, defaultLocation, locations, slicer);
+      this.retryHandler = retryHandler;
       this.api = api;
       this.blob2ObjectGetOptions = blob2ObjectGetOptions;
       this.auth = auth;
@@ -116,6 +131,18 @@ public final class B2BlobStore extends BaseBlobStore {
                   throw new ContainerNotFoundException(bucketName, null);
                }
             });
+      this.uploadUrls = new UploadUrlPool<UploadUrlResponse>(new Function<String, UploadUrlResponse>() {
+               @Override
+               public UploadUrlResponse apply(String bucketId) {
+                  return api.getObjectApi().getUploadUrl(bucketId);
+               }
+            });
+      this.uploadPartUrls = new UploadUrlPool<GetUploadPartResponse>(new Function<String, GetUploadPartResponse>() {
+               @Override
+               public GetUploadPartResponse apply(String fileId) {
+                  return api.getMultipartApi().getUploadPartUrl(fileId);
+               }
+            });
    }
 
    @Override
@@ -240,8 +267,21 @@ public final class B2BlobStore extends BaseBlobStore {
          String oldFileId = getFileId(container, name);
 
          Bucket bucket = getBucket(container);
-         UploadUrlResponse uploadUrl = api.getObjectApi().getUploadUrl(bucket.bucketId());
-         UploadFileResponse uploadFile = api.getObjectApi().uploadFile(uploadUrl, name, null, blob.getMetadata().getUserMetadata(), blob.getPayload());
+         UploadUrlResponse uploadUrl = uploadUrls.lease(bucket.bucketId());
+         UploadFileResponse uploadFile;
+         for (int failures = 1;; failures++) {
+            try {
+               uploadFile = api.getObjectApi().uploadFile(uploadUrl, name, null, blob.getMetadata().getUserMetadata(), blob.getPayload());
+               break;
+            } catch (RuntimeException e) {
+               if (!shouldRetryOnNewUploadUrl(e, failures, blob.getPayload())) {
+                  throw e;
+               }
+            }
+            // the failed upload URL is dropped rather than released into the pool
+            uploadUrl = uploadUrls.newUploadUrl(bucket.bucketId());
+         }
+         uploadUrls.release(bucket.bucketId(), uploadUrl);
 
          if (oldFileId != null) {
             api.getObjectApi().deleteFileVersion(name, oldFileId);
@@ -328,6 +368,7 @@ public final class B2BlobStore extends BaseBlobStore {
       Bucket bucket = getBucket(container);
       try {
          api.getBucketApi().deleteBucket(bucket.bucketId());
+         uploadUrls.clear(bucket.bucketId());
       } catch (B2ResponseException bre) {
          if (bre.getError().code().equals("cannot_delete_non_empty_bucket")) {
             return false;
@@ -346,6 +387,7 @@ public final class B2BlobStore extends BaseBlobStore {
 
    @Override
    public void abortMultipartUpload(MultipartUpload mpu) {
+      uploadPartUrls.clear(mpu.id());
       api.getMultipartApi().cancelLargeFile(mpu.id());
    }
 
@@ -355,14 +397,28 @@ public final class B2BlobStore extends BaseBlobStore {
       for (MultipartPart part : parts) {
          sha1.add(part.partETag());
       }
+      uploadPartUrls.clear(mpu.id());
       B2Object b2Object = api.getMultipartApi().finishLargeFile(mpu.id(), sha1.build());
       return b2Object.contentSha1();  // this is always "none"
    }
 
    @Override
    public MultipartPart uploadMultipartPart(MultipartUpload mpu, int partNumber, Payload payload) {
-      GetUploadPartResponse getUploadPart = api.getMultipartApi().getUploadPartUrl(mpu.id());
-      UploadPartResponse uploadPart = api.getMultipartApi().uploadPart(getUploadPart, partNumber, null, payload);
+      GetUploadPartResponse getUploadPart = uploadPartUrls.lease(mpu.id());
+      UploadPartResponse uploadPart;
+      for (int failures = 1;; failures++) {
+         try {
+            uploadPart = api.getMultipartApi().uploadPart(getUploadPart, partNumber, null, payload);
+            break;
+         } catch (RuntimeException e) {
+            if (!shouldRetryOnNewUploadUrl(e, failures, payload)) {
+               throw e;
+            }
+         }
+         // the failed upload URL is dropped rather than released into the pool
+         getUploadPart = uploadPartUrls.newUploadUrl(mpu.id());
+      }
+      uploadPartUrls.release(mpu.id(), getUploadPart);
 
       Date lastModified = null;  // B2 does not return Last-Modified
       String contentSha1 = uploadPart.contentSha1();
@@ -417,6 +473,30 @@ public final class B2BlobStore extends BaseBlobStore {
       return 10 * 1000;
    }
 
+   /**
+    * B2 requires retrying an upload on a new upload URL after a 401, 500 or 503, which is why
+    * {@link org.jclouds.b2.filters.B2RetryHandler} leaves uploads to this class. Upload URLs wait in
+    * the pool between uploads, so their tokens can also expire before they are used again; that
+    * 401 is retried at once, server errors after a back-off. The error body of a streamed upload may
+    * be missing, so this checks the status rather than a B2 error code.
+    */
+   private boolean shouldRetryOnNewUploadUrl(RuntimeException e, int failures, Payload payload) {
+      HttpResponseException hre = Throwables2.getFirstThrowableOfType(e, HttpResponseException.class);
+      if (hre == null || hre.getResponse() == null || failures > retryCountLimit || !payload.isRepeatable()) {
+         return false;
+      }
+      switch (hre.getResponse().getStatusCode()) {
+      case 401:
+         return failures == 1;
+      case 500:
+      case 503:
+         retryHandler.imposeBackoffExponentialDelay(failures, hre.getMessage());
+         return true;
+      default:
+         return false;
+      }
+   }
+
    private Bucket getBucket(String container) {
       Bucket bucket;
       try {
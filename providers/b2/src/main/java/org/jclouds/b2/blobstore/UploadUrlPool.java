@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.b2.blobstore;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.collect.Maps;
+
+/**
+ * Pools upload URLs and their authorization tokens per bucket or large file. B2 requires each
+ * concurrent uploader to use its own upload URL, so a URL is leased exclusively and only returned
+ * to the pool after an upload through it succeeded; a URL whose upload failed is dropped, as B2
+ * requires after a 401 or 503.
+ * <p/>
+ * Leasing opens a bucket or large file in the pool and {@link #clear(String)} closes it, so a URL
+ * released by an upload that was still running when its large file was finished or cancelled is
+ * dropped rather than pooled forever.
+ */
+final class UploadUrlPool<T> {
+   private final ConcurrentMap<String, Queue<T>> idle = Maps.newConcurrentMap();
+   private final Function<String, T> newUploadUrl;
+
+   UploadUrlPool(Function<String, T> newUploadUrl) {
+      this.newUploadUrl = checkNotNull(newUploadUrl, "newUploadUrl");
+   }
+
+   /** Leases an idle upload URL for the bucket or large file, requesting a new one if none is idle. */
+   T lease(String id) {
+      Queue<T> uploadUrls = idle.get(id);
+      if (uploadUrls == null) {
+         Queue<T> created = new ConcurrentLinkedQueue<T>();
+         uploadUrls = idle.putIfAbsent(id, created);
+         if (uploadUrls == null) {
+            uploadUrls = created;
+         }
+      }
+      T uploadUrl = uploadUrls.poll();
+      return uploadUrl != null ? uploadUrl : newUploadUrl(id);
+   }
+
+   /** Requests a new upload URL, bypassing idle ones which may hold expired tokens. */
+   T newUploadUrl(String id) {
+      return newUploadUrl.apply(id);
+   }
+
+   /**
+    * Returns an upload URL after a successful upload so that later uploads can reuse it, unless the
+    * bucket or large file was cleared in the meantime.
+    */
+   void release(String id, T uploadUrl) {
+      Queue<T> uploadUrls = idle.get(id);
+      if (uploadUrls != null) {
+         uploadUrls.offer(uploadUrl);
+      }
+   }
+
+   /** Drops the idle upload URLs of a bucket or large file which no longer accepts uploads. */
+   void clear(String id) {
+      idle.remove(id);
+   }
+
+   @VisibleForTesting
+   int idle(String id) {
+      Queue<T> uploadUrls = idle.get(id);
+      return uploadUrls == null ? 0 : uploadUrls.size();
+   }
+}
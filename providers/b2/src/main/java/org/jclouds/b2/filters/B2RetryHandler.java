@@ -19,56 +19,19 @@ package org.jclouds.b2.filters;
 import static org.jclouds.http.HttpUtils.closeClientButKeepContentStream;
 import static org.jclouds.http.HttpUtils.releasePayload;
 
-import javax.annotation.Resource;
-import javax.inject.Inject;
-
-import org.jclouds.b2.B2Api;
-import org.jclouds.b2.domain.GetUploadPartResponse;
-import org.jclouds.b2.domain.UploadUrlResponse;
 import org.jclouds.http.HttpCommand;
-import org.jclouds.http.HttpException;
-import org.jclouds.http.HttpRequest;
-import org.jclouds.http.HttpRequestFilter;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
-import org.jclouds.logging.Logger;
 
-import com.google.common.net.HttpHeaders;
 import com.google.inject.Singleton;
 
+/**
+ * Retries server errors with back-off.  B2 requires retrying uploads on a different upload URL,
+ * and {@link org.jclouds.b2.blobstore.B2BlobStore} leases those from a pool, so uploads are not
+ * retried here: the blob store drops the failed URL and retries on a new one.
+ */
 @Singleton
-public final class B2RetryHandler extends BackoffLimitedRetryHandler implements HttpRequestFilter {
-   private final B2Api api;
-
-   @Resource
-   private Logger logger = Logger.NULL;
-
-   @Inject
-   B2RetryHandler(B2Api api) {
-      this.api = api;
-   }
-
-   @Override
-   public HttpRequest filter(HttpRequest request) throws HttpException {
-      HttpRequest.Builder<?> builder = request.toBuilder();
-
-      // B2 requires retrying on a different storage node for uploads
-      String path = request.getEndpoint().getPath();
-      if (path.startsWith("/b2api/v1/b2_upload_file")) {
-         String bucketId = path.split("/")[4];
-         UploadUrlResponse uploadUrl = api.getObjectApi().getUploadUrl(bucketId);
-         builder.endpoint(uploadUrl.uploadUrl())
-               .replaceHeader(HttpHeaders.AUTHORIZATION, uploadUrl.authorizationToken());
-      } else if (path.startsWith("/b2api/v1/b2_upload_part")) {
-         String fileId = path.split("/")[4];
-         GetUploadPartResponse uploadUrl = api.getMultipartApi().getUploadPartUrl(fileId);
-         builder.endpoint(uploadUrl.uploadUrl())
-               .replaceHeader(HttpHeaders.AUTHORIZATION, uploadUrl.authorizationToken());
-      }
-
-      return builder.build();
-   }
-
+public final class B2RetryHandler extends BackoffLimitedRetryHandler {
    @Override
    public boolean shouldRetryRequest(HttpCommand command, HttpResponse response) {
       boolean retry = false;
@@ -77,7 +40,7 @@ public final class B2RetryHandler extends BackoffLimitedRetryHandler implements
          switch (response.getStatusCode()) {
          case 500:
          case 503:
-            retry = super.shouldRetryRequest(command, response);
+            retry = !isUpload(command) && super.shouldRetryRequest(command, response);
             break;
          default:
             break;
@@ -87,4 +50,9 @@ public final class B2RetryHandler extends BackoffLimitedRetryHandler implements
       }
       return retry;
    }
+
+   private static boolean isUpload(HttpCommand command) {
+      String path = command.getCurrentRequest().getEndpoint().getPath();
+      return path.startsWith("/b2api/v1/b2_upload_file") || path.startsWith("/b2api/v1/b2_upload_part");
+   }
 }
@@ -21,6 +21,7 @@ import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpErrorHandler;
 import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
 import org.jclouds.http.functions.ParseJson;
 import org.jclouds.json.Json;
 import org.jclouds.b2.B2ResponseException;
@@ -54,6 +55,11 @@ public final class ParseB2ErrorFromJsonContent extends ParseJson<B2Error> implem
 
    @Override
    public void handleError(HttpCommand command, HttpResponse response) {
+      if (response.getPayload() == null) {
+         // the JDK http client drops the error body when a streamed upload is rejected
+         command.setException(new HttpResponseException(command, response));
+         return;
+      }
       B2Error error = this.apply(response);
       Exception exception = refineException(error, new B2ResponseException(command, response, error));
       command.setException(exception);
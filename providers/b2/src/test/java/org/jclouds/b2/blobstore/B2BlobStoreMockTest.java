@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.b2.blobstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.util.Strings2;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Module;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+@Test(groups = "unit", testName = "B2BlobStoreMockTest", singleThreaded = true)
+public final class B2BlobStoreMockTest {
+   private static final String CONTAINER = "Kitten Videos";
+   private static final String BUCKET_ID = "4a48fe8875c6214145260818";
+   private static final String SHA1 = "bae5ed658ab3546aee12f23f36392f35dba1ebdd";
+   private static final String NO_FILES = "{\"files\": [], \"nextFileName\": null}";
+
+   private MockWebServer server;
+   private BlobStoreContext context;
+   private BlobStore blobStore;
+
+   @BeforeMethod
+   void start() throws IOException {
+      server = new MockWebServer();
+      server.play();
+      context = ContextBuilder.newBuilder("b2")
+            .credentials("ACCOUNT_ID", "APPLICATION_KEY")
+            .endpoint(server.getUrl("/").toString())
+            .modules(ImmutableSet.<Module> of(new ExecutorServiceModule(MoreExecutors.newDirectExecutorService())))
+            .buildView(BlobStoreContext.class);
+      blobStore = context.getBlobStore();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   void stop() throws IOException {
+      if (context != null) {
+         context.close();
+      }
+      server.shutdown();
+   }
+
+   public void testPutBlobRetriesExpiredUploadUrlOnNewUrl() throws Exception {
+      server.enqueue(new MockResponse().setBody(stringFromResource("/authorize_account_response.json")));
+      server.enqueue(new MockResponse().setBody(stringFromResource("/list_buckets_response.json")));
+      server.enqueue(new MockResponse().setBody(NO_FILES));
+      server.enqueue(new MockResponse().setBody(uploadUrl("expired", "EXPIRED-TOKEN")));
+      server.enqueue(new MockResponse().setResponseCode(401).setBody(
+            "{\"status\": 401, \"code\": \"expired_auth_token\", \"message\": \"Authorization token has expired\"}"));
+      server.enqueue(new MockResponse().setBody(uploadUrl("fresh", "FRESH-TOKEN")));
+      server.enqueue(new MockResponse().setBody(stringFromResource("/upload_file_response.json")));
+      // a later upload reuses the fresh upload URL
+      server.enqueue(new MockResponse().setBody(NO_FILES));
+      server.enqueue(new MockResponse().setBody(stringFromResource("/upload_file_response.json")));
+
+      assertThat(blobStore.putBlob(CONTAINER, blobStore.blobBuilder("first").payload("first").build()))
+            .isEqualTo(SHA1);
+      assertThat(blobStore.putBlob(CONTAINER, blobStore.blobBuilder("second").payload("second").build()))
+            .isEqualTo(SHA1);
+
+      assertThat(server.getRequestCount()).isEqualTo(9);
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_authorize_account");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_list_buckets");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_list_file_names");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_get_upload_url");
+      assertUpload(server.takeRequest(), "expired", "EXPIRED-TOKEN");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_get_upload_url");
+      assertUpload(server.takeRequest(), "fresh", "FRESH-TOKEN");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_list_file_names");
+      assertUpload(server.takeRequest(), "fresh", "FRESH-TOKEN");
+   }
+
+   public void testPutBlobRetriesServerErrorOnNewUrlAndDropsFailedUrl() throws Exception {
+      server.enqueue(new MockResponse().setBody(stringFromResource("/authorize_account_response.json")));
+      server.enqueue(new MockResponse().setBody(stringFromResource("/list_buckets_response.json")));
+      server.enqueue(new MockResponse().setBody(NO_FILES));
+      server.enqueue(new MockResponse().setBody(uploadUrl("busy", "BUSY-TOKEN")));
+      server.enqueue(new MockResponse().setResponseCode(503).setBody(
+            "{\"status\": 503, \"code\": \"service_unavailable\", \"message\": \"too busy\"}"));
+      server.enqueue(new MockResponse().setBody(uploadUrl("fresh", "FRESH-TOKEN")));
+      server.enqueue(new MockResponse().setBody(stringFromResource("/upload_file_response.json")));
+      // a later upload reuses the fresh upload URL, never the busy one
+      server.enqueue(new MockResponse().setBody(NO_FILES));
+      server.enqueue(new MockResponse().setBody(stringFromResource("/upload_file_response.json")));
+
+      assertThat(blobStore.putBlob(CONTAINER, blobStore.blobBuilder("first").payload("first").build()))
+            .isEqualTo(SHA1);
+      assertThat(blobStore.putBlob(CONTAINER, blobStore.blobBuilder("second").payload("second").build()))
+            .isEqualTo(SHA1);
+
+      assertThat(server.getRequestCount()).isEqualTo(9);
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_authorize_account");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_list_buckets");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_list_file_names");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_get_upload_url");
+      assertUpload(server.takeRequest(), "busy", "BUSY-TOKEN");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_get_upload_url");
+      assertUpload(server.takeRequest(), "fresh", "FRESH-TOKEN");
+      assertThat(server.takeRequest().getPath()).isEqualTo("/b2api/v1/b2_list_file_names");
+      assertUpload(server.takeRequest(), "fresh", "FRESH-TOKEN");
+   }
+
+   private String uploadUrl(String node, String token) {
+      return "{\"bucketId\": \"" + BUCKET_ID + "\", \"uploadUrl\": \""
+            + server.getUrl("/b2api/v1/b2_upload_file/" + BUCKET_ID + "/" + node) + "\", \"authorizationToken\": \""
+            + token + "\"}";
+   }
+
+   private static void assertUpload(RecordedRequest request, String node, String token) {
+      assertThat(request.getMethod()).isEqualTo("POST");
+      assertThat(request.getPath()).isEqualTo("/b2api/v1/b2_upload_file/" + BUCKET_ID + "/" + node);
+      assertThat(request.getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo(token);
+   }
+
+   private static String stringFromResource(String resourceName) {
+      try {
+         return Strings2.toStringAndClose(B2BlobStoreMockTest.class.getResourceAsStream(resourceName));
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
+      }
+   }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.b2.blobstore;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+
+@Test(groups = "unit", testName = "UploadUrlPoolTest", singleThreaded = true)
+public class UploadUrlPoolTest {
+   private AtomicInteger requested;
+   private UploadUrlPool<String> pool;
+
+   @BeforeMethod
+   void createPool() {
+      requested = new AtomicInteger();
+      pool = new UploadUrlPool<String>(new Function<String, String>() {
+         @Override
+         public String apply(String id) {
+            return id + "-url-" + requested.incrementAndGet();
+         }
+      });
+   }
+
+   public void testReleasedUrlIsReused() {
+      String uploadUrl = pool.lease("bucket");
+      pool.release("bucket", uploadUrl);
+
+      assertEquals(pool.lease("bucket"), uploadUrl);
+      assertEquals(requested.get(), 1);
+      assertEquals(pool.idle("bucket"), 0);
+   }
+
+   public void testLeasedUrlIsExclusive() {
+      String first = pool.lease("bucket");
+      String second = pool.lease("bucket");
+
+      assertNotEquals(first, second);
+      assertEquals(requested.get(), 2);
+   }
+
+   public void testUrlsArePooledPerId() {
+      pool.release("bucket", pool.lease("bucket"));
+
+      assertEquals(pool.lease("other"), "other-url-2");
+      assertEquals(pool.idle("bucket"), 1);
+   }
+
+   public void testUnreleasedUrlIsDropped() {
+      pool.lease("bucket");
+
+      assertEquals(pool.idle("bucket"), 0);
+      assertEquals(pool.lease("bucket"), "bucket-url-2");
+   }
+
+   public void testClearDropsIdleUrls() {
+      pool.release("file", pool.lease("file"));
+      pool.clear("file");
+
+      assertEquals(pool.idle("file"), 0);
+      assertEquals(pool.lease("file"), "file-url-2");
+   }
+
+   public void testReleaseAfterClearIsDropped() {
+      String uploadUrl = pool.lease("file");
+      pool.clear("file");
+      pool.release("file", uploadUrl);
+
+      assertEquals(pool.idle("file"), 0);
+      assertEquals(pool.lease("file"), "file-url-2");
+   }
+}
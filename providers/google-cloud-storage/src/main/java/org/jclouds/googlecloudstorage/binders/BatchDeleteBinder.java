@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.googlecloudstorage.binders;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.io.payloads.MultipartMixed;
+import org.jclouds.rest.MapBinder;
+import org.jclouds.util.Strings2;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Binds one object delete per name into a JSON API batch request.
+ *
+ * @see <a href="https://cloud.google.com/storage/docs/json_api/v1/how-tos/batch"/>
+ */
+public final class BatchDeleteBinder implements MapBinder {
+
+   @Override public <R extends HttpRequest> R bindToRequest(R request, Map<String, Object> postParams) {
+      String bucket = checkNotNull(postParams.get("bucket"), "bucket").toString();
+      @SuppressWarnings("unchecked")
+      Iterable<String> objectNames = (Iterable<String>) checkNotNull(postParams.get("objectNames"), "objectNames");
+
+      URI endpoint = request.getEndpoint();
+      ImmutableList.Builder<HttpRequest> deletes = ImmutableList.builder();
+      for (String objectName : objectNames) {
+         deletes.add(HttpRequest.builder()
+               .method("DELETE")
+               .endpoint(URI.create(endpoint.getScheme() + "://" + endpoint.getRawAuthority() + "/storage/v1/b/"
+                     + bucket + "/o/" + Strings2.urlEncode(objectName)))
+               .build());
+      }
+      request.setPayload(new MultipartMixed(deletes.build()));
+      return request;
+   }
+
+   @Override public <R extends HttpRequest> R bindToRequest(R request, Object input) {
+      throw new UnsupportedOperationException("use map form");
+   }
+}
@@ -27,6 +27,7 @@ import java.util.UUID;
 import javax.inject.Inject;
 
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.BulkDeleteBlobStore;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.blobstore.domain.BlobMetadata;
@@ -67,19 +68,24 @@ import org.jclouds.googlecloudstorage.domain.templates.ObjectAccessControlsTempl
 import org.jclouds.googlecloudstorage.domain.templates.ObjectTemplate;
 import org.jclouds.googlecloudstorage.options.InsertObjectOptions;
 import org.jclouds.googlecloudstorage.options.ListObjectOptions;
+import org.jclouds.http.HttpResponse;
 import org.jclouds.http.HttpResponseException;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.PayloadSlicer;
+import org.jclouds.io.payloads.MultipartMixed;
 import org.jclouds.util.Strings2;
 
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.hash.HashCode;
 
-public final class GoogleCloudStorageBlobStore extends BaseBlobStore {
+public final class GoogleCloudStorageBlobStore extends BaseBlobStore implements BulkDeleteBlobStore {
+   /** The JSON API accepts at most 100 requests in one batch. */
+   private static final int MAX_BATCH_DELETE_SIZE = 100;
 
    private final GoogleCloudStorageApi api;
    private final BucketToStorageMetadata bucketToStorageMetadata;
@@ -262,6 +268,36 @@ public final class GoogleCloudStorageBlobStore extends BaseBlobStore {
       api.getObjectApi().deleteObject(container, Strings2.urlEncode(name));
    }
 
+   /** Deletes the blobs with JSON API batch requests, treating blobs which are already gone as deleted. */
+   @Override
+   public void removeBlobs(String container, Iterable<String> names) {
+      for (List<String> batch : Iterables.partition(names, MAX_BATCH_DELETE_SIZE)) {
+         List<HttpResponse> responses = MultipartMixed.inRequestOrder(batch.size(), api.getObjectApi().deleteObjects(container, batch));
+         for (int i = 0; i < responses.size(); i++) {
+            HttpResponse response = responses.get(i);
+            if (response.getStatusCode() / 100 != 2 && response.getStatusCode() != 404) {
+               throw new HttpResponseException("error removing blob " + container + "/" + batch.get(i), null,
+                     response);
+            }
+         }
+      }
+   }
+
+   @Override
+   public Set<String> tryRemoveBlobs(String container, Iterable<String> names) {
+      ImmutableSet.Builder<String> failed = ImmutableSet.builder();
+      for (List<String> batch : Iterables.partition(names, MAX_BATCH_DELETE_SIZE)) {
+         List<HttpResponse> responses = MultipartMixed.inRequestOrder(batch.size(), api.getObjectApi().deleteObjects(container, batch));
+         for (int i = 0; i < responses.size(); i++) {
+            HttpResponse response = responses.get(i);
+            if (response.getStatusCode() / 100 != 2 && response.getStatusCode() != 404) {
+               failed.add(batch.get(i));
+            }
+         }
+      }
+      return failed.build();
+   }
+
    @Override
    public BlobAccess getBlobAccess(String container, String name) {
       ObjectAccessControls controls = api.getObjectAccessControlsApi().getObjectAccessControls(container,
@@ -18,6 +18,8 @@ package org.jclouds.googlecloudstorage.features;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
+import java.util.List;
+
 import javax.inject.Named;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -32,6 +34,7 @@ import javax.ws.rs.Produces;
 
 import org.jclouds.Fallbacks.FalseOnNotFoundOr404;
 import org.jclouds.Fallbacks.NullOnNotFoundOr404;
+import org.jclouds.googlecloudstorage.binders.BatchDeleteBinder;
 import org.jclouds.googlecloudstorage.binders.MultipartUploadBinder;
 import org.jclouds.googlecloudstorage.domain.GoogleCloudStorageObject;
 import org.jclouds.googlecloudstorage.domain.ListPageWithPrefixes;
@@ -47,6 +50,8 @@ import org.jclouds.googlecloudstorage.options.ListObjectOptions;
 import org.jclouds.googlecloudstorage.options.RewriteObjectOptions;
 import org.jclouds.googlecloudstorage.options.UpdateObjectOptions;
 import org.jclouds.googlecloudstorage.parser.ParseToPayloadEnclosing;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.functions.ParseMultipartMixedResponses;
 import org.jclouds.http.options.HttpRequestOptions;
 import org.jclouds.io.Payload;
 import org.jclouds.io.PayloadEnclosing;
@@ -222,6 +227,24 @@ public interface ObjectApi {
    boolean deleteObject(@PathParam("bucket") String bucketName, @PathParam("object") @Encoded String objectName,
             DeleteObjectOptions options);
 
+   /**
+    * Deletes several objects with a single batch request. The batch endpoint accepts at most 100 requests.
+    *
+    * @param bucketName
+    *           Name of the bucket in which the objects to be deleted reside
+    * @param objectNames
+    *           Names of the objects, not url encoded
+    *
+    * @return the response of each delete, in the order of {@code objectNames}
+    */
+   @Named("Object:batchDelete")
+   @POST
+   @Path("batch/storage/v1")
+   @MapBinder(BatchDeleteBinder.class)
+   @ResponseParser(ParseMultipartMixedResponses.class)
+   List<HttpResponse> deleteObjects(@PayloadParam("bucket") String bucketName,
+            @PayloadParam("objectNames") Iterable<String> objectNames);
+
    /**
     * Retrieves a list of objects matching the criteria.
     *
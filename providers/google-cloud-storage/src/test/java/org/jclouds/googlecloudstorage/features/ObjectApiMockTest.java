@@ -23,6 +23,8 @@ import static org.testng.Assert.assertFalse;
 import static com.google.common.base.Charsets.UTF_8;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
+import java.util.List;
+
 import org.jclouds.googlecloudstorage.domain.DomainResourceReferences.DestinationPredefinedAcl;
 import org.jclouds.googlecloudstorage.domain.DomainResourceReferences.PredefinedAcl;
 import org.jclouds.googlecloudstorage.domain.DomainResourceReferences.Projection;
@@ -38,11 +40,13 @@ import org.jclouds.googlecloudstorage.options.RewriteObjectOptions;
 import org.jclouds.googlecloudstorage.parse.ParseGoogleCloudStorageObject;
 import org.jclouds.googlecloudstorage.parse.ParseGoogleCloudStorageObjectListTest;
 import org.jclouds.googlecloudstorage.parse.ParseObjectRewriteResponse;
+import org.jclouds.http.HttpResponse;
 import org.jclouds.http.internal.PayloadEnclosingImpl;
 import org.jclouds.io.PayloadEnclosing;
 import org.jclouds.util.Strings2;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.net.MediaType;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.RecordedRequest;
@@ -136,6 +140,39 @@ public class ObjectApiMockTest extends BaseGoogleCloudStorageApiMockTest {
       assertSent(server, "DELETE", "/storage/v1/b/test/o/dir%2Fobject%20name", null);
    }
 
+   public void batchDelete() throws Exception {
+      server.enqueue(new MockResponse()
+            .addHeader("Content-Type", "multipart/mixed; boundary=batch_response")
+            .setBody("--batch_response\r\n"
+                  + "Content-Type: application/http\r\n"
+                  + "Content-ID: <response-0>\r\n"
+                  + "\r\n"
+                  + "HTTP/1.1 204 No Content\r\n"
+                  + "\r\n"
+                  + "\r\n"
+                  + "--batch_response\r\n"
+                  + "Content-Type: application/http\r\n"
+                  + "Content-ID: <response-1>\r\n"
+                  + "\r\n"
+                  + "HTTP/1.1 404 Not Found\r\n"
+                  + "\r\n"
+                  + "\r\n"
+                  + "--batch_response--\r\n"));
+
+      List<HttpResponse> responses = objectApi().deleteObjects("test", ImmutableList.of("object_name", "dir/object name"));
+      assertEquals(responses.size(), 2);
+      assertEquals(responses.get(0).getStatusCode(), 204);
+      assertEquals(responses.get(1).getStatusCode(), 404);
+
+      RecordedRequest request = assertSent(server, "POST", "/batch/storage/v1", null);
+      String contentType = request.getHeader("Content-Type");
+      assertTrue(contentType.matches("multipart/mixed; boundary=batch_[0-9a-f-]{36}"), contentType);
+      String body = new String(request.getBody(), UTF_8);
+      assertTrue(body.startsWith("--" + contentType.substring(contentType.indexOf('=') + 1) + "\r\n"), body);
+      assertTrue(body.contains("DELETE /storage/v1/b/test/o/object_name HTTP/1.1\r\n"), body);
+      assertTrue(body.contains("DELETE /storage/v1/b/test/o/dir%2Fobject%20name HTTP/1.1\r\n"), body);
+   }
+
    public void list() throws Exception {
       server.enqueue(jsonResponse("/object_list.json"));
 
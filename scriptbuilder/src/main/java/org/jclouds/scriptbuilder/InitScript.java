@@ -231,6 +231,15 @@ public class InitScript extends ForwardingObject implements Statement, AcceptsSt
                               .put("exitstatus",
                                     newStatementList(call("default"),
                                           interpret("[ -f $LOG_DIR/rc ] && cat $LOG_DIR/rc")))
+                              .put("wait",
+                                    newStatementList(call("default"),
+                                          interpret(
+                                                "while [ ! -s {varl}LOG_DIR{varr}{fs}rc ]; do",
+                                                "   findPid {varl}INSTANCE_NAME{varr}",
+                                                "   [ -n \"{varl}FOUND_PID{varr}\" ] || break",
+                                                "   if [ {varl}SECONDS{varr} -ge ${2:-30} ]; then echo running; break; fi",
+                                                "   inotifywait -qq -t 5 -e close_write -e moved_to {varl}LOG_DIR{varr} >/dev/null 2>&1 || sleep 1",
+                                                "done{lf}")))
                               .put("tail",
                                     newStatementList(call("default"),
                                           interpret("tail {varl}LOG_DIR{varr}{fs}stdout.log{lf}")))
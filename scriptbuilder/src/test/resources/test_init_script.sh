@@ -146,6 +146,15 @@ stderr)
 exitstatus)
    default || exit 1
    [ -f $LOG_DIR/rc ] && cat $LOG_DIR/rc;;
+wait)
+   default || exit 1
+   while [ ! -s $LOG_DIR/rc ]; do
+      findPid $INSTANCE_NAME
+      [ -n "$FOUND_PID" ] || break
+      if [ $SECONDS -ge ${2:-30} ]; then echo running; break; fi
+      inotifywait -qq -t 5 -e close_write -e moved_to $LOG_DIR >/dev/null 2>&1 || sleep 1
+   done
+   ;;
 tail)
    default || exit 1
    tail $LOG_DIR/stdout.log